@@ -0,0 +1,52 @@
+package com.falniak.devdoctor.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * File helpers shared by the persistent caches.
+ */
+public final class CacheFiles {
+
+    private CacheFiles() {
+    }
+
+    /**
+     * Writes a value as JSON, replacing the file atomically so concurrent runs never see a partial file.
+     *
+     * @param mapper The mapper used to serialize the value
+     * @param file The target file (parent directories are created)
+     * @param value The value to write
+     * @throws IOException if the file cannot be written
+     */
+    static void writeJsonAtomically(ObjectMapper mapper, Path file, Object value) throws IOException {
+        writeAtomically(file, mapper.writeValueAsBytes(value));
+    }
+
+    /**
+     * Writes bytes to a file, replacing it atomically so concurrent runs never see a partial file.
+     *
+     * @param file The target file (parent directories are created)
+     * @param content The content to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeAtomically(Path file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
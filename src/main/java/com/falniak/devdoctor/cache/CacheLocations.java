@@ -0,0 +1,27 @@
+package com.falniak.devdoctor.cache;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Resolves where DevDoctor keeps its per-user caches.
+ */
+public final class CacheLocations {
+
+    private CacheLocations() {
+    }
+
+    /**
+     * Returns the per-user cache directory.
+     * Uses {@code $XDG_CACHE_HOME/devdoctor} when set, otherwise {@code ~/.cache/devdoctor}.
+     *
+     * @return The cache directory (may not exist yet)
+     */
+    public static Path userCacheDirectory() {
+        String xdgCacheHome = System.getenv("XDG_CACHE_HOME");
+        if (xdgCacheHome != null && !xdgCacheHome.isBlank()) {
+            return Paths.get(xdgCacheHome, "devdoctor");
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "devdoctor");
+    }
+}
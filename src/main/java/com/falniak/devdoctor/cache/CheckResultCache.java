@@ -0,0 +1,165 @@
+package com.falniak.devdoctor.cache;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent cache of check results, stored as JSON. Each check of a project has one entry,
+ * keyed by the caller, holding the latest result together with the fingerprint of the inputs
+ * it was computed from and the time it was stored. Entries not refreshed for
+ * {@link #MAX_AGE} are dropped when the cache is saved.
+ * The cache is best effort: unreadable files are treated as empty and write errors are ignored.
+ */
+public class CheckResultCache {
+
+    /**
+     * Default file name inside the user cache directory.
+     */
+    public static final String FILE_NAME = "check-results.json";
+
+    /**
+     * Entries older than this are not written back.
+     */
+    public static final Duration MAX_AGE = Duration.ofDays(7);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path file;
+    private final Map<String, Entry> entries;
+    private volatile boolean dirty;
+
+    private CheckResultCache(Path file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = new ConcurrentHashMap<>(entries);
+    }
+
+    /**
+     * Loads the cache from the given file.
+     *
+     * @param file The cache file
+     * @return The loaded cache (empty if missing or unreadable)
+     */
+    public static CheckResultCache load(Path file) {
+        Map<String, Entry> entries = Map.of();
+        if (Files.isRegularFile(file)) {
+            try {
+                entries = OBJECT_MAPPER.readValue(file.toFile(), new TypeReference<Map<String, Entry>>() { });
+            } catch (IOException e) {
+                // Corrupt or incompatible cache: start over
+            }
+        }
+        return new CheckResultCache(file, entries);
+    }
+
+    /**
+     * Looks up the entry of a check.
+     *
+     * @param key The cache key
+     * @return The entry if present
+     */
+    public Optional<Entry> get(String key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    /**
+     * Stores the entry of a check, replacing the previous one.
+     *
+     * @param key The cache key
+     * @param entry The entry
+     */
+    public void put(String key, Entry entry) {
+        entries.put(key, entry);
+        dirty = true;
+    }
+
+    /**
+     * Writes the cache back to disk if it changed, without entries older than {@link #MAX_AGE}.
+     * The file is replaced atomically so concurrent runs never see a partial file.
+     */
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        long oldest = System.currentTimeMillis() - MAX_AGE.toMillis();
+        Map<String, Entry> kept = new TreeMap<>();
+        entries.forEach((key, entry) -> {
+            if (entry.storedAt() >= oldest) {
+                kept.put(key, entry);
+            }
+        });
+        try {
+            CacheFiles.writeJsonAtomically(OBJECT_MAPPER, file, kept);
+            dirty = false;
+        } catch (IOException e) {
+            // Caching is an optimization; never fail a run because of it
+        }
+    }
+
+    /**
+     * A stored check result.
+     *
+     * @param fingerprint The fingerprint of the inputs the check ran with
+     * @param storedAt When the check ran, in milliseconds since the epoch
+     * @param id The check ID
+     * @param status The name of the result status
+     * @param summary The result summary
+     * @param details The result details (nullable)
+     * @param suggestions The result suggestions (may be empty)
+     * @param skipped Whether the check was skipped because a prerequisite did not pass
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Entry(
+        @JsonProperty("fingerprint") String fingerprint,
+        @JsonProperty("storedAt") long storedAt,
+        @JsonProperty("id") String id,
+        @JsonProperty("status") String status,
+        @JsonProperty("summary") String summary,
+        @JsonProperty("details") String details,
+        @JsonProperty("suggestions") List<StoredSuggestion> suggestions,
+        @JsonProperty("skipped") boolean skipped
+    ) {
+        @JsonCreator
+        public Entry {
+            if (suggestions == null) {
+                suggestions = List.of();
+            }
+        }
+
+        /**
+         * Creates an entry for the result of a check that ran.
+         */
+        public Entry(String fingerprint, long storedAt, String id, String status, String summary, String details,
+                     List<StoredSuggestion> suggestions) {
+            this(fingerprint, storedAt, id, status, summary, details, suggestions, false);
+        }
+    }
+
+    /**
+     * A suggestion of a stored check result.
+     *
+     * @param message The suggestion message
+     * @param commands The commands that can be executed (may be empty)
+     * @param risk The name of the risk level
+     */
+    public record StoredSuggestion(
+        @JsonProperty("message") String message,
+        @JsonProperty("commands") List<String> commands,
+        @JsonProperty("risk") String risk
+    ) {
+    }
+}
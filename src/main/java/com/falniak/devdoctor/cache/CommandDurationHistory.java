@@ -0,0 +1,125 @@
+package com.falniak.devdoctor.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+
+/**
+ * Persistent record of how long commands took in previous runs, stored as JSON.
+ * Only the most recent {@link #MAX_SAMPLES} durations are kept per command.
+ * Like the other caches it is best effort: unreadable files are treated as empty
+ * and write errors are ignored.
+ */
+public class CommandDurationHistory {
+
+    /**
+     * Default file name inside the user cache directory.
+     */
+    public static final String FILE_NAME = "durations.json";
+
+    /**
+     * Number of samples kept per command.
+     */
+    public static final int MAX_SAMPLES = 20;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path file;
+    private final Map<String, List<Long>> samples;
+    private boolean dirty;
+
+    private CommandDurationHistory(Path file, Map<String, List<Long>> samples) {
+        this.file = file;
+        this.samples = new HashMap<>();
+        samples.forEach((key, values) -> this.samples.put(key, new ArrayList<>(values)));
+    }
+
+    /**
+     * Loads the history from the given file.
+     *
+     * @param file The history file
+     * @return The loaded history (empty if missing or unreadable)
+     */
+    public static CommandDurationHistory load(Path file) {
+        Map<String, List<Long>> samples = Map.of();
+        if (Files.isRegularFile(file)) {
+            try {
+                samples = OBJECT_MAPPER.readValue(file.toFile(), new TypeReference<Map<String, List<Long>>>() { });
+            } catch (IOException e) {
+                // Corrupt or incompatible history: start over
+            }
+        }
+        return new CommandDurationHistory(file, samples);
+    }
+
+    /**
+     * Records how long a command took.
+     *
+     * @param key The command key
+     * @param millis The observed duration in milliseconds
+     */
+    public synchronized void record(String key, long millis) {
+        List<Long> values = samples.computeIfAbsent(key, k -> new ArrayList<>());
+        values.add(millis);
+        if (values.size() > MAX_SAMPLES) {
+            values.remove(0);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Returns the number of recorded samples for a command.
+     *
+     * @param key The command key
+     * @return The sample count
+     */
+    public synchronized int sampleCount(String key) {
+        List<Long> values = samples.get(key);
+        return values != null ? values.size() : 0;
+    }
+
+    /**
+     * Returns a percentile of the recorded durations, using the nearest-rank method.
+     *
+     * @param key The command key
+     * @param percentile The percentile, between 0 (exclusive) and 1 (inclusive)
+     * @return The duration in milliseconds, or empty if nothing was recorded
+     */
+    public synchronized OptionalLong percentile(String key, double percentile) {
+        List<Long> values = samples.get(key);
+        if (values == null || values.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentile * sorted.size());
+        return OptionalLong.of(sorted.get(Math.max(0, Math.min(sorted.size(), rank) - 1)));
+    }
+
+    /**
+     * Writes the history back to disk if it changed.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            CacheFiles.writeJsonAtomically(OBJECT_MAPPER, file, new TreeMap<>(samples));
+            dirty = false;
+        } catch (IOException e) {
+            // The history is an optimization; never fail a run because of it
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.falniak.devdoctor.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent cache of tool probe outcomes (e.g. {@code git --version}), stored as JSON.
+ * Keys are built by the caller and must capture everything the outcome depends on,
+ * such as the command and a fingerprint of the resolved executable. Since every upgrade of a
+ * tool adds a new key, entries not used for {@link #MAX_AGE} are dropped when the cache is
+ * saved. Entries that keep being used stay: the key already changes with the tool, so there
+ * is nothing a periodic re-probe would find.
+ * The cache is best effort: unreadable files are treated as empty and write errors are ignored.
+ */
+public class ProbeCache {
+
+    /**
+     * Default file name inside the user cache directory.
+     */
+    public static final String FILE_NAME = "probes.json";
+
+    /**
+     * Entries not used for this long are not written back.
+     */
+    public static final Duration MAX_AGE = Duration.ofDays(7);
+
+    /**
+     * How old an entry must be before a hit refreshes it, so runs that only read the cache
+     * rarely have to write it.
+     */
+    static final Duration REFRESH_AFTER = Duration.ofDays(1);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path file;
+    private final Map<String, Entry> entries;
+    private volatile boolean dirty;
+
+    private ProbeCache(Path file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = new ConcurrentHashMap<>(entries);
+    }
+
+    /**
+     * Loads the cache from the given file.
+     *
+     * @param file The cache file
+     * @return The loaded cache (empty if missing or unreadable)
+     */
+    public static ProbeCache load(Path file) {
+        Map<String, Entry> entries = Map.of();
+        if (Files.isRegularFile(file)) {
+            try {
+                entries = OBJECT_MAPPER.readValue(file.toFile(), new TypeReference<Map<String, Entry>>() { });
+            } catch (IOException e) {
+                // Corrupt or incompatible cache: start over
+            }
+        }
+        return new ProbeCache(file, entries);
+    }
+
+    /**
+     * Looks up a cached probe outcome, marking it as used.
+     *
+     * @param key The cache key
+     * @return The cached entry if present
+     */
+    public Optional<Entry> get(String key) {
+        Entry entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (entry != null && now - entry.storedAt() >= REFRESH_AFTER.toMillis()) {
+            entry = new Entry(entry.exitCode(), entry.stdout(), entry.stderr(), entry.error(), now);
+            entries.put(key, entry);
+            dirty = true;
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    /**
+     * Stores a probe outcome.
+     *
+     * @param key The cache key
+     * @param entry The outcome to remember
+     */
+    public void put(String key, Entry entry) {
+        entries.put(key, entry);
+        dirty = true;
+    }
+
+    /**
+     * Writes the cache back to disk if it changed, without entries unused for {@link #MAX_AGE}.
+     * The file is replaced atomically so concurrent runs never see a partial file.
+     */
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        long oldest = System.currentTimeMillis() - MAX_AGE.toMillis();
+        Map<String, Entry> kept = new TreeMap<>();
+        entries.forEach((key, entry) -> {
+            if (entry.storedAt() >= oldest) {
+                kept.put(key, entry);
+            }
+        });
+        try {
+            CacheFiles.writeJsonAtomically(OBJECT_MAPPER, file, kept);
+            dirty = false;
+        } catch (IOException e) {
+            // Caching is an optimization; never fail a run because of it
+        }
+    }
+
+    /**
+     * A cached probe outcome: either the process result, or the error raised
+     * because the executable could not be started.
+     *
+     * @param exitCode The exit code (ignored when {@code error} is set)
+     * @param stdout The standard output (nullable)
+     * @param stderr The standard error output (nullable)
+     * @param error The spawn error message for negative entries (nullable)
+     * @param storedAt When the probe ran or was last answered from the cache (refreshed at most
+     *                 once a day), in milliseconds since the epoch
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Entry(
+        @JsonProperty("exitCode") int exitCode,
+        @JsonProperty("stdout") String stdout,
+        @JsonProperty("stderr") String stderr,
+        @JsonProperty("error") String error,
+        @JsonProperty("storedAt") long storedAt
+    ) {
+        /**
+         * Returns whether this entry records that the executable could not be started.
+         *
+         * @return true for negative entries
+         */
+        @JsonIgnore
+        public boolean isNegative() {
+            return error != null;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.falniak.devdoctor.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store of check results in a directory shared by many machines, such as a
+ * volume mounted into every CI agent. An entry is addressed by the fingerprint of everything
+ * its result depends on, so entries never have to be invalidated: changed inputs simply
+ * address another entry. Entries live in {@code check-results/v1/<first two hex digits>/<address>.json}.
+ * <p>
+ * Any number of processes may use the directory at the same time. Each entry is written to a
+ * temporary file and renamed into place, so readers never see a partial entry and need no lock.
+ * Writers take an exclusive lock on their shard's {@code .lock} file and leave an entry alone
+ * if it was stored less than {@link #REWRITE_INTERVAL_MILLIS} before their own, so a fleet of
+ * agents that ran the same check at the same time writes its result once. File systems
+ * without lock support are written to without the lock.
+ * <p>
+ * Since changed inputs leave the old entry behind, a writer holding a shard's lock also deletes
+ * the entries of that shard not rewritten for {@link CheckResultCache#MAX_AGE}, like the
+ * per-user cache drops them on save; the directory thus holds about a week of distinct results.
+ * Like the other caches it is best effort: unreadable entries are misses and write errors are
+ * ignored.
+ */
+public class SharedCheckResultCache {
+
+    /**
+     * Directory below the cache directory holding the entries, versioned with the entry format.
+     */
+    public static final Path ENTRIES_DIRECTORY = Path.of("check-results", "v1");
+
+    /**
+     * How long a writer waits for another process to release a shard lock before giving up.
+     */
+    static final long LOCK_TIMEOUT_MILLIS = 2000;
+
+    /**
+     * Entries stored this long before a new one for the same address are kept.
+     */
+    static final long REWRITE_INTERVAL_MILLIS = 60_000;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final Pattern ADDRESS = Pattern.compile("[0-9a-f]{16,128}");
+    private static final Pattern ENTRY_FILE = Pattern.compile(ADDRESS.pattern() + "\\.json");
+
+    /**
+     * File locks are held per process, so threads of this process are serialized separately.
+     */
+    private static final Map<Path, Object> SHARD_MONITORS = new ConcurrentHashMap<>();
+
+    private final Path entries;
+
+    private SharedCheckResultCache(Path entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Opens the store in a cache directory. Nothing is created until the first entry is written.
+     *
+     * @param cacheDirectory The shared cache directory
+     * @return The store
+     */
+    public static SharedCheckResultCache open(Path cacheDirectory) {
+        return new SharedCheckResultCache(cacheDirectory.toAbsolutePath().normalize().resolve(ENTRIES_DIRECTORY));
+    }
+
+    /**
+     * Reads the entry stored at an address.
+     *
+     * @param address The address, a lowercase hexadecimal fingerprint
+     * @return The entry if present and readable
+     */
+    public Optional<CheckResultCache.Entry> get(String address) {
+        Path file = file(address);
+        if (file == null || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(OBJECT_MAPPER.readValue(file.toFile(), CheckResultCache.Entry.class));
+        } catch (IOException e) {
+            // Corrupt or incompatible entry: treat as a miss, a later write replaces it
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores an entry at an address, unless a recent entry is already stored there.
+     *
+     * @param address The address, a lowercase hexadecimal fingerprint
+     * @param entry The entry
+     */
+    public void put(String address, CheckResultCache.Entry entry) {
+        Path file = file(address);
+        if (file == null) {
+            return;
+        }
+        Path shard = file.getParent();
+        try {
+            Files.createDirectories(shard);
+            synchronized (SHARD_MONITORS.computeIfAbsent(shard, key -> new Object())) {
+                try (FileChannel channel = FileChannel.open(shard.resolve(".lock"),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    FileLock lock;
+                    try {
+                        lock = acquire(channel);
+                    } catch (IOException | UnsupportedOperationException e) {
+                        // E.g. a network file system without locks: rely on the atomic rename alone
+                        write(file, address, entry);
+                        return;
+                    }
+                    if (lock == null) {
+                        // Another process held the shard for too long; skip rather than stall the run
+                        return;
+                    }
+                    try {
+                        write(file, address, entry);
+                        prune(shard);
+                    } finally {
+                        lock.release();
+                    }
+                }
+            }
+        } catch (IOException | OverlappingFileLockException e) {
+            // Caching is an optimization; never fail a run because of it
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Path file, String address, CheckResultCache.Entry entry) throws IOException {
+        Optional<CheckResultCache.Entry> existing = get(address);
+        if (existing.isPresent() && existing.get().storedAt() >= entry.storedAt() - REWRITE_INTERVAL_MILLIS) {
+            return;
+        }
+        CacheFiles.writeJsonAtomically(OBJECT_MAPPER, file, entry);
+    }
+
+    /**
+     * Deletes the entries of a shard last written more than {@link CheckResultCache#MAX_AGE} ago.
+     * Only called with the shard's lock held, so no writer replaces an entry while it is deleted.
+     */
+    private static void prune(Path shard) throws IOException {
+        long oldest = System.currentTimeMillis() - CheckResultCache.MAX_AGE.toMillis();
+        try (Stream<Path> files = Files.list(shard)) {
+            for (Path file : files.toList()) {
+                if (ENTRY_FILE.matcher(file.getFileName().toString()).matches()
+                        && Files.getLastModifiedTime(file).toMillis() < oldest) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The lock, or null if it could not be acquired within {@link #LOCK_TIMEOUT_MILLIS}
+     */
+    private static FileLock acquire(FileChannel channel) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + LOCK_TIMEOUT_MILLIS;
+        FileLock lock = channel.tryLock();
+        while (lock == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            lock = channel.tryLock();
+        }
+        return lock;
+    }
+
+    private Path file(String address) {
+        if (address == null || !ADDRESS.matcher(address).matches()) {
+            return null;
+        }
+        return entries.resolve(address.substring(0, 2)).resolve(address + ".json");
+    }
+}
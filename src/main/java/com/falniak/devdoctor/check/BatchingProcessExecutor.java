@@ -0,0 +1,375 @@
+package com.falniak.devdoctor.check;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * ProcessExecutor decorator that runs many probe commands in a single {@code /bin/sh} invocation.
+ * Probes announced with {@link #prefetch(List)} are started together in one shell; each
+ * command's output and exit code are framed by unique delimiters and split back into
+ * individual results while the shell runs, so each probe is answered as soon as it finished.
+ * Later {@link #exec(List)} calls for those commands wait for their own probe instead of
+ * spawning; anything else, or anything the batch could not answer, goes to the delegate as
+ * usual, so callers never notice the difference.
+ * <p>
+ * Each probe gets the timeout the {@link TimeoutPolicy} gives its command, counted from when
+ * the shell starts it. A probe that exceeds it fails with a timeout and the shell is stopped;
+ * probes it had not started yet run on their own. A stop pattern answers the probe as soon as
+ * a line matches, while the command itself runs on in the shell.
+ * Intended for hosts where process creation is expensive.
+ */
+public class BatchingProcessExecutor implements ProcessExecutor {
+
+    private static final Path SHELL = Paths.get("/bin/sh");
+
+    private final ProcessExecutor delegate;
+    private final ExecutableResolver resolver;
+    private final TimeoutPolicy timeoutPolicy;
+    private final Map<List<String>, Probe> batched = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a batching executor that gives every probe the default timeout.
+     *
+     * @param delegate The executor used to run the shell and any command not in a batch
+     * @param resolver The resolver used to skip commands whose executable is missing
+     */
+    public BatchingProcessExecutor(ProcessExecutor delegate, ExecutableResolver resolver) {
+        this(delegate, resolver, TimeoutPolicy.fixed(TimeoutPolicy.DEFAULT_TIMEOUT));
+    }
+
+    /**
+     * Creates a batching executor.
+     *
+     * @param delegate The executor used to run the shell and any command not in a batch
+     * @param resolver The resolver used to skip commands whose executable is missing
+     * @param timeoutPolicy Decides how long each probe may run, and learns from how long it took
+     */
+    public BatchingProcessExecutor(ProcessExecutor delegate, ExecutableResolver resolver,
+                                   TimeoutPolicy timeoutPolicy) {
+        this.delegate = delegate;
+        this.resolver = resolver;
+        this.timeoutPolicy = timeoutPolicy;
+    }
+
+    /**
+     * Starts one shell running all given commands and returns immediately.
+     * Commands whose executable is not on PATH are left out, since they fail fast anyway.
+     * Does nothing on systems without {@code /bin/sh}.
+     *
+     * @param commands The probe commands to run
+     */
+    public void prefetch(List<List<String>> commands) {
+        if (!Files.isExecutable(SHELL)) {
+            return;
+        }
+        Set<List<String>> unique = new LinkedHashSet<>();
+        for (List<String> command : commands) {
+            if (!command.isEmpty() && !batched.containsKey(command) && resolver.isAvailable(command.get(0))) {
+                unique.add(List.copyOf(command));
+            }
+        }
+        if (unique.size() < 2) {
+            // A batch of one saves nothing over running the command directly
+            return;
+        }
+
+        List<Probe> probes = new ArrayList<>();
+        Duration timeout = Duration.ZERO;
+        for (List<String> command : unique) {
+            Probe probe = new Probe(command, timeoutPolicy.timeoutFor(command));
+            probes.add(probe);
+            batched.put(command, probe);
+            timeout = timeout.plus(probe.timeout);
+        }
+        new Batch(probes, "devdoctor-" + UUID.randomUUID()).start(timeout);
+    }
+
+    @Override
+    public ExecResult exec(List<String> command) throws Exception {
+        return exec(command, null);
+    }
+
+    @Override
+    public ExecResult exec(List<String> command, Pattern stopPattern) throws Exception {
+        Probe probe = batched.get(command);
+        if (probe != null) {
+            probe.stopAt(stopPattern);
+            try {
+                Optional<ExecResult> result = probe.result.get();
+                if (result.isPresent()) {
+                    return result.get();
+                }
+            } catch (ExecutionException e) {
+                // The probe timed out in the batch; running it again would time out as well
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                throw new IllegalStateException("Process execution failed", cause);
+            }
+        }
+        return stopPattern != null ? delegate.exec(command, stopPattern) : delegate.exec(command);
+    }
+
+    @Override
+    public CompletableFuture<ExecResult> execAsync(List<String> command, Pattern stopPattern) {
+        Probe probe = batched.get(command);
+        if (probe == null) {
+            return delegate.execAsync(command, stopPattern);
+        }
+        probe.stopAt(stopPattern);
+        return probe.result.thenCompose(result -> result
+            .map(CompletableFuture::completedFuture)
+            .orElseGet(() -> delegate.execAsync(command, stopPattern)));
+    }
+
+    /**
+     * Replaces the executable of a command with the path the resolver found, so the shell runs
+     * the same executable as the delegate would instead of looking the name up on its own.
+     */
+    private List<String> resolved(List<String> command) {
+        List<String> resolved = new ArrayList<>(command);
+        resolver.resolve(command.get(0)).ifPresent(path -> resolved.set(0, path.toString()));
+        return resolved;
+    }
+
+    /**
+     * Builds a script that frames each command's stdout and stderr with
+     * {@code <delimiter>:<index>:begin} and {@code <delimiter>:<index>:end:<exit code>} lines.
+     */
+    static String script(List<List<String>> commands, String delimiter) {
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < commands.size(); i++) {
+            String begin = quote(delimiter + ":" + i + ":begin");
+            String end = quote("\n" + delimiter + ":" + i + ":end:");
+            script.append("printf '%s\\n' ").append(begin).append("; ");
+            script.append("printf '%s\\n' ").append(begin).append(" >&2; ");
+            for (String argument : commands.get(i)) {
+                script.append(quote(argument)).append(' ');
+            }
+            script.append("</dev/null; rc=$?; ");
+            script.append("printf '%s%d\\n' ").append(end).append(" \"$rc\"; ");
+            script.append("printf '%s%d\\n' ").append(end).append(" \"$rc\" >&2\n");
+        }
+        return script.toString();
+    }
+
+    /**
+     * A command of a batch and its result: empty if the batch could not answer it.
+     */
+    private static final class Probe {
+        private final List<String> command;
+        private final Duration timeout;
+        private final CompletableFuture<Optional<ExecResult>> result = new CompletableFuture<>();
+        private volatile Pattern stopPattern;
+        private volatile Batch batch;
+
+        Probe(List<String> command, Duration timeout) {
+            this.command = command;
+            this.timeout = timeout;
+        }
+
+        void stopAt(Pattern pattern) {
+            if (pattern != null && stopPattern == null) {
+                stopPattern = pattern;
+                Batch running = batch;
+                if (running != null) {
+                    // The line it looks for may have been printed before anyone asked
+                    running.matchPrinted(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * One shell running a batch. Splits the output into lines as it arrives and completes each
+     * probe once both of its streams reached their end delimiter.
+     */
+    private final class Batch implements OutputListener {
+        private static final int STDOUT = 0;
+        private static final int STDERR = 1;
+
+        private final List<Probe> probes;
+        private final String delimiter;
+        private final Charset charset = Charset.defaultCharset();
+        private final long[] startNanos;
+        private final ByteArrayOutputStream[] pendingLine = {new ByteArrayOutputStream(), new ByteArrayOutputStream()};
+        private final StringBuilder[] text = {new StringBuilder(), new StringBuilder()};
+        private final int[] current = {-1, -1};
+        private final boolean[] overflow = new boolean[2];
+        private final List<Map<Integer, Section>> ended = List.of(new HashMap<>(), new HashMap<>());
+        private volatile CompletableFuture<ExecResult> shell;
+
+        Batch(List<Probe> probes, String delimiter) {
+            this.probes = probes;
+            this.delimiter = delimiter;
+            this.startNanos = new long[probes.size()];
+            probes.forEach(probe -> probe.batch = this);
+        }
+
+        void start(Duration timeout) {
+            List<List<String>> commands = probes.stream().map(probe -> resolved(probe.command)).toList();
+            shell = delegate.execStreaming(List.of(SHELL.toString(), "-c", script(commands, delimiter)), timeout, this);
+            // Whatever the shell did not answer runs on its own
+            shell.whenComplete((result, error) -> probes.forEach(probe -> probe.result.complete(Optional.empty())));
+        }
+
+        @Override
+        public synchronized void onOutput(byte[] bytes, int length, boolean stderr) {
+            int stream = stderr ? STDERR : STDOUT;
+            ByteArrayOutputStream line = pendingLine[stream];
+            int start = 0;
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] == '\n') {
+                    line.write(bytes, start, i - start);
+                    onLine(line.toString(charset), stream);
+                    line.reset();
+                    start = i + 1;
+                }
+            }
+            line.write(bytes, start, length - start);
+            if (line.size() > DefaultProcessExecutor.DEFAULT_CAPTURE_LIMIT) {
+                overflow[stream] = true;
+                line.reset();
+            }
+        }
+
+        private void onLine(String line, int stream) {
+            String prefix = delimiter + ":";
+            if (line.startsWith(prefix)) {
+                // <index>:begin or <index>:end:<exit code>
+                String[] parts = line.substring(prefix.length()).split(":");
+                try {
+                    int index = Integer.parseInt(parts[0]);
+                    if (parts.length == 2 && parts[1].equals("begin")) {
+                        begin(index, stream);
+                        return;
+                    }
+                    if (parts.length == 3 && parts[1].equals("end")) {
+                        end(index, stream, Integer.parseInt(parts[2]));
+                        return;
+                    }
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    // Not one of our delimiters after all
+                }
+            }
+            int index = current[stream];
+            if (index < 0) {
+                return;
+            }
+            if (text[stream].length() + line.length() >= DefaultProcessExecutor.DEFAULT_CAPTURE_LIMIT) {
+                overflow[stream] = true;
+            } else {
+                text[stream].append(line).append('\n');
+            }
+            Pattern stopPattern = probes.get(index).stopPattern;
+            if (stopPattern != null && stopPattern.matcher(line).find()) {
+                stop(index);
+            }
+        }
+
+        /**
+         * Answers a probe whose stop pattern arrived after its output, if a line printed so far matches.
+         */
+        synchronized void matchPrinted(Probe probe) {
+            int index = probes.indexOf(probe);
+            for (int stream : new int[] {STDOUT, STDERR}) {
+                if (current[stream] != index) {
+                    continue;
+                }
+                for (String line : text[stream].toString().split("\n")) {
+                    if (probe.stopPattern.matcher(line).find()) {
+                        stop(index);
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void stop(int index) {
+            // Answer now; like a stopped process, the probe reports success with what it printed
+            probes.get(index).result.complete(Optional.of(new ExecResult(0,
+                sectionText(STDOUT, index).getBytes(charset), sectionText(STDERR, index).getBytes(charset),
+                charset, false, true)));
+        }
+
+        private void begin(int index, int stream) {
+            current[stream] = index;
+            text[stream].setLength(0);
+            overflow[stream] = false;
+            if (stream == STDOUT) {
+                startNanos[index] = System.nanoTime();
+                Probe probe = probes.get(index);
+                CompletableFuture.delayedExecutor(probe.timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> timedOut(probe));
+            }
+        }
+
+        private void end(int index, int stream, int exitCode) {
+            Section section = overflow[stream] ? null : new Section(sectionText(stream, index), exitCode);
+            current[stream] = -1;
+            ended.get(stream).put(index, section);
+            if (!ended.get(STDOUT).containsKey(index) || !ended.get(STDERR).containsKey(index)) {
+                return;
+            }
+            Section out = ended.get(STDOUT).remove(index);
+            Section err = ended.get(STDERR).remove(index);
+            Probe probe = probes.get(index);
+            if (out == null || err == null || out.exitCode() != err.exitCode()) {
+                probe.result.complete(Optional.empty());
+                return;
+            }
+            if (probe.result.complete(Optional.of(new ExecResult(out.exitCode(), out.text(), err.text())))) {
+                timeoutPolicy.record(probe.command, Duration.ofNanos(System.nanoTime() - startNanos[index]));
+            }
+        }
+
+        private String sectionText(int stream, int index) {
+            return current[stream] == index ? stripTrailingLineBreaks(text[stream].toString()) : "";
+        }
+
+        private void timedOut(Probe probe) {
+            if (probe.result.completeExceptionally(
+                    new Exception("Process execution timed out after " + DefaultProcessExecutor.describe(probe.timeout)))) {
+                timeoutPolicy.recordTimeout(probe.command, probe.timeout);
+                // Stops the shell together with the hung probe; the remaining probes run on their own
+                CompletableFuture<ExecResult> running = shell;
+                if (running != null) {
+                    running.cancel(true);
+                }
+            }
+        }
+    }
+
+    private static String stripTrailingLineBreaks(String text) {
+        int end = text.length();
+        while (end > 0 && (text.charAt(end - 1) == '\n' || text.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    private static String quote(String argument) {
+        return "'" + argument.replace("'", "'\\''") + "'";
+    }
+
+    private record Section(String text, int exitCode) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.falniak.devdoctor.check;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared pool used by {@link ProcessExecutor#execAsync(java.util.List, java.util.regex.Pattern)}
+ * to adapt blocking executors. Idle threads are reused and expire after a minute.
+ */
+final class BlockingExecPool {
+
+    static final ExecutorService POOL = Executors.newCachedThreadPool(new DaemonThreadFactory("devdoctor-exec-"));
+
+    private BlockingExecPool() {
+    }
+}
@@ -0,0 +1,119 @@
+package com.falniak.devdoctor.check;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Captures a byte stream in bounded memory.
+ * The first half of the limit keeps the head of the stream and the second half is a
+ * ring buffer holding the most recent bytes, so both the start of the output and its
+ * final lines (usually where errors are reported) survive truncation.
+ * Both parts start small and grow with the output, so a short output only costs what it holds;
+ * the tail is not allocated until the head is full.
+ * Not thread-safe; callers synchronize.
+ */
+class BoundedOutputBuffer {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final int headLimit;
+    private final int tailLimit;
+    private byte[] head = EMPTY;
+    private byte[] tail = EMPTY;
+    private int headSize;
+    private long tailWritten;
+    private long total;
+
+    /**
+     * Creates a buffer that keeps at most {@code limit} bytes.
+     *
+     * @param limit The maximum number of bytes kept (at least 2)
+     */
+    BoundedOutputBuffer(int limit) {
+        if (limit < 2) {
+            throw new IllegalArgumentException("Capture limit must be at least 2 bytes, got: " + limit);
+        }
+        this.headLimit = limit / 2;
+        this.tailLimit = limit - headLimit;
+    }
+
+    void write(byte[] bytes, int offset, int length) {
+        total += length;
+        int toHead = Math.min(length, headLimit - headSize);
+        if (toHead > 0) {
+            head = grow(head, headSize + toHead, headLimit);
+            System.arraycopy(bytes, offset, head, headSize, toHead);
+            headSize += toHead;
+        }
+        int remaining = length - toHead;
+        if (remaining > 0) {
+            writeTail(bytes, offset + toHead, remaining);
+        }
+    }
+
+    private void writeTail(byte[] bytes, int offset, int length) {
+        if (length > tailLimit) {
+            // Only the last tailLimit bytes can survive this write
+            int dropped = length - tailLimit;
+            offset += dropped;
+            length = tailLimit;
+            tailWritten += dropped;
+        }
+        // Until the ring wraps, its content is linear and can be copied into a larger array
+        tail = grow(tail, (int) Math.min(tailLimit, tailWritten + length), tailLimit);
+        int start = (int) (tailWritten % tailLimit);
+        int first = Math.min(length, tailLimit - start);
+        System.arraycopy(bytes, offset, tail, start, first);
+        System.arraycopy(bytes, offset + first, tail, 0, length - first);
+        tailWritten += length;
+    }
+
+    private static byte[] grow(byte[] array, int required, int limit) {
+        if (required <= array.length) {
+            return array;
+        }
+        int capacity = Math.max(required, Math.max(INITIAL_CAPACITY, array.length * 2));
+        return Arrays.copyOf(array, Math.min(capacity, limit));
+    }
+
+    /**
+     * @return Number of bytes written, including those that were dropped
+     */
+    long total() {
+        return total;
+    }
+
+    boolean truncated() {
+        return tailWritten > tailLimit;
+    }
+
+    /**
+     * @return Number of bytes currently allocated for the captured output
+     */
+    int capacity() {
+        return head.length + tail.length;
+    }
+
+    /**
+     * Returns the captured bytes; when truncated, a marker replaces the dropped middle.
+     *
+     * @return The captured bytes
+     */
+    byte[] toByteArray() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(headSize + tail.length + 64);
+        out.write(head, 0, headSize);
+        if (truncated()) {
+            long omitted = total - headSize - tailLimit;
+            byte[] marker = ("\n... [" + omitted + " bytes omitted] ...\n").getBytes(StandardCharsets.UTF_8);
+            out.write(marker, 0, marker.length);
+            int start = (int) (tailWritten % tailLimit);
+            out.write(tail, start, tailLimit - start);
+            out.write(tail, 0, start);
+        } else {
+            out.write(tail, 0, (int) tailWritten);
+        }
+        return out.toByteArray();
+    }
+}
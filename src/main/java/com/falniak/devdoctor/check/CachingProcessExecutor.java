@@ -0,0 +1,163 @@
+package com.falniak.devdoctor.check;
+
+import com.falniak.devdoctor.cache.ProbeCache;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+
+/**
+ * ProcessExecutor decorator that remembers tool version probes across runs.
+ * Only version probes ({@code <tool> --version} and similar) are cached. Entries are
+ * keyed by the command plus a fingerprint of the executable it resolves to on PATH
+ * (real path, size, modification time and file key), so upgrading or switching a
+ * tool invalidates its entry. When the executable is not on PATH the failure is
+ * cached too, keyed by the state of the PATH directories, so installing the tool
+ * invalidates it. Version manager shims stay the same file whichever version they
+ * run, so the key also covers the variables and version files that select the version
+ * (see {@link ToolVersionSelection}).
+ */
+public class CachingProcessExecutor implements ProcessExecutor {
+
+    private static final Set<String> VERSION_FLAGS = Set.of("--version", "-version", "-v", "-V", "version");
+
+    private final ProcessExecutor delegate;
+    private final ProbeCache cache;
+    private final ExecutableResolver resolver;
+    private final ToolVersionSelection versionSelection;
+
+    /**
+     * Creates a caching executor.
+     *
+     * @param delegate The executor that actually runs commands
+     * @param cache The persistent cache to consult and update
+     * @param resolver The resolver used to fingerprint executables
+     */
+    public CachingProcessExecutor(ProcessExecutor delegate, ProbeCache cache, ExecutableResolver resolver) {
+        this(delegate, cache, resolver, ToolVersionSelection.current(System::getenv));
+    }
+
+    CachingProcessExecutor(ProcessExecutor delegate, ProbeCache cache, ExecutableResolver resolver,
+                           ToolVersionSelection versionSelection) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.resolver = resolver;
+        this.versionSelection = versionSelection;
+    }
+
+    @Override
+    public ExecResult exec(List<String> command) throws Exception {
+        return exec(command, null);
+    }
+
+    @Override
+    public ExecResult exec(List<String> command, Pattern stopPattern) throws Exception {
+        if (!isVersionProbe(command)) {
+            return stopPattern != null ? delegate.exec(command, stopPattern) : delegate.exec(command);
+        }
+
+        String key = key(command);
+        Optional<ProbeCache.Entry> cached = lookup(key, stopPattern);
+        if (cached.isPresent()) {
+            return replay(cached.get());
+        }
+
+        ExecResult result;
+        try {
+            result = stopPattern != null ? delegate.exec(command, stopPattern) : delegate.exec(command);
+        } catch (IOException e) {
+            remember(key, stopPattern, null, e);
+            throw e;
+        }
+        remember(key, stopPattern, result, null);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<ExecResult> execAsync(List<String> command, Pattern stopPattern) {
+        if (!isVersionProbe(command)) {
+            return delegate.execAsync(command, stopPattern);
+        }
+
+        String key = key(command);
+        Optional<ProbeCache.Entry> cached = lookup(key, stopPattern);
+        if (cached.isPresent()) {
+            try {
+                return CompletableFuture.completedFuture(replay(cached.get()));
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return delegate.execAsync(command, stopPattern).whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+            remember(key, stopPattern, result, cause);
+        });
+    }
+
+    private String key(List<String> command) {
+        String key = String.join(" ", command) + " @ " + resolver.fingerprint(command.get(0));
+        String selection = versionSelection.fingerprint(executableName(command.get(0)));
+        return selection.isEmpty() ? key : key + " selected " + selection;
+    }
+
+    /**
+     * A complete result answers callers with or without a stop pattern; a result that was
+     * cut short only answers callers using the same pattern.
+     */
+    private Optional<ProbeCache.Entry> lookup(String key, Pattern stopPattern) {
+        Optional<ProbeCache.Entry> complete = cache.get(key);
+        if (complete.isPresent() || stopPattern == null) {
+            return complete;
+        }
+        return cache.get(stoppedKey(key, stopPattern));
+    }
+
+    private static String stoppedKey(String key, Pattern stopPattern) {
+        return key + " ~ " + stopPattern.pattern();
+    }
+
+    private static ExecResult replay(ProbeCache.Entry entry) throws IOException {
+        if (entry.isNegative()) {
+            throw new IOException(entry.error());
+        }
+        return new ExecResult(entry.exitCode(), entry.stdout(), entry.stderr());
+    }
+
+    private void remember(String key, Pattern stopPattern, ExecResult result, Throwable error) {
+        if (error instanceof IOException) {
+            // The executable could not be started: remember that it is missing
+            cache.put(key, new ProbeCache.Entry(0, null, null, String.valueOf(error.getMessage()),
+                System.currentTimeMillis()));
+        } else if (error == null && result.exitCode() == 0) {
+            // Failures other than a missing tool may be transient, so only successes are kept
+            String entryKey = result.stoppedEarly() && stopPattern != null ? stoppedKey(key, stopPattern) : key;
+            cache.put(entryKey, new ProbeCache.Entry(result.exitCode(), result.stdout(), result.stderr(), null,
+                System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Returns whether a result for the command is already cached for the executable on PATH.
+     *
+     * @param command The command
+     * @return true if running the command would be answered from the cache
+     */
+    public boolean isCached(List<String> command) {
+        return isVersionProbe(command) && cache.get(key(command)).isPresent();
+    }
+
+    private static String executableName(String executable) {
+        int separator = Math.max(executable.lastIndexOf('/'), executable.lastIndexOf('\\'));
+        return executable.substring(separator + 1);
+    }
+
+    static boolean isVersionProbe(List<String> command) {
+        return command.size() == 2 && VERSION_FLAGS.contains(command.get(1));
+    }
+}
@@ -1,5 +1,9 @@
 package com.falniak.devdoctor.check;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 /**
  * Interface for checks that can be executed.
  */
@@ -11,6 +15,55 @@ public interface Check {
      */
     String id();
 
+    /**
+     * Returns the IDs of checks that must complete before this one.
+     * If any prerequisite fails, this check is skipped instead of run.
+     * Prerequisites that are not part of the current run are ignored.
+     *
+     * @return The prerequisite check IDs (empty by default)
+     */
+    default Set<String> dependsOn() {
+        return Set.of();
+    }
+
+    /**
+     * Returns the commands this check is expected to run through the process executor.
+     * Executors may use this to start probes ahead of time, for example in a single
+     * batched shell; the check still calls {@link ProcessExecutor#exec(List)} as usual.
+     * Commands that end up not being needed only cost time, never correctness.
+     *
+     * @param ctx The check context
+     * @return The probe commands (empty by default)
+     */
+    default List<List<String>> probes(CheckContext ctx) {
+        return List.of();
+    }
+
+    /**
+     * Returns everything this check's result depends on besides the project root and types:
+     * the files it reads, the environment variables and the executables it runs. While the
+     * fingerprint of these inputs is unchanged, a stored result may be returned instead of
+     * running the check again, so only checks whose result is fully determined by them
+     * should declare inputs.
+     *
+     * @param ctx The check context
+     * @return The inputs, or empty if they are not declared and the check always has to run (the default)
+     */
+    default Optional<CheckInputs> inputs(CheckContext ctx) {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the files this check reads, relative to the project root.
+     * Watch mode re-runs the check when one of them changes.
+     *
+     * @param ctx The check context
+     * @return The file names (by default those of {@link #inputs(CheckContext)})
+     */
+    default Set<String> inputFiles(CheckContext ctx) {
+        return inputs(ctx).map(CheckInputs::files).orElse(Set.of());
+    }
+
     /**
      * Runs this check with the given context.
      *
@@ -14,12 +14,38 @@ import java.util.Set;
  * @param projectTypes The set of detected project types
  * @param detectionResult The full detection result (nullable)
  * @param processExecutor The process executor for running system commands
+ * @param versionSource Source of runtime versions that avoids spawning probes
  */
 public record CheckContext(
     Path targetPath,
     Path projectRoot,
     Set<ProjectType> projectTypes,
     DetectionResult detectionResult,
-    ProcessExecutor processExecutor
+    ProcessExecutor processExecutor,
+    VersionSource versionSource
 ) {
+    public CheckContext {
+        if (versionSource == null) {
+            versionSource = VersionSource.NONE;
+        }
+    }
+
+    /**
+     * Creates a context whose checks always spawn their version probes.
+     *
+     * @param targetPath The target path provided by the user
+     * @param projectRoot The detected project root directory
+     * @param projectTypes The set of detected project types
+     * @param detectionResult The full detection result (nullable)
+     * @param processExecutor The process executor for running system commands
+     */
+    public CheckContext(
+        Path targetPath,
+        Path projectRoot,
+        Set<ProjectType> projectTypes,
+        DetectionResult detectionResult,
+        ProcessExecutor processExecutor
+    ) {
+        this(targetPath, projectRoot, projectTypes, detectionResult, processExecutor, VersionSource.NONE);
+    }
 }
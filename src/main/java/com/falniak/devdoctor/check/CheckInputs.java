@@ -0,0 +1,61 @@
+package com.falniak.devdoctor.check;
+
+import java.util.Set;
+
+/**
+ * Everything a check's result depends on besides the project root and types, which count
+ * as inputs too unless the check only looks at the machine.
+ * A check declaring its inputs promises that, as long as these are unchanged, running it
+ * again produces the same result, which lets {@link CheckRunner} reuse a stored result.
+ *
+ * @param files Files read, relative to the project root
+ * @param environment Names of environment variables that affect the result
+ * @param tools Executables run, identified by the file they resolve to on PATH
+ * @param projectScoped Whether the result also depends on the project root and types; false for
+ *                      checks of the machine, whose results can then be shared between projects
+ */
+public record CheckInputs(
+    Set<String> files,
+    Set<String> environment,
+    Set<String> tools,
+    boolean projectScoped
+) {
+    /**
+     * No inputs: the result depends only on the project root and types.
+     */
+    public static final CheckInputs NONE = new CheckInputs(Set.of(), Set.of(), Set.of());
+
+    public CheckInputs {
+        files = files != null ? Set.copyOf(files) : Set.of();
+        environment = environment != null ? Set.copyOf(environment) : Set.of();
+        tools = tools != null ? Set.copyOf(tools) : Set.of();
+    }
+
+    /**
+     * Creates inputs of a check that depends on the project root and types.
+     */
+    public CheckInputs(Set<String> files, Set<String> environment, Set<String> tools) {
+        this(files, environment, tools, true);
+    }
+
+    /**
+     * Creates inputs of a machine check consisting of executables only.
+     *
+     * @param tools The executables
+     * @return The inputs
+     */
+    public static CheckInputs tools(String... tools) {
+        return machine(Set.of(), Set.of(tools));
+    }
+
+    /**
+     * Creates inputs of a check that depends on the machine only, not on the project.
+     *
+     * @param environment Names of environment variables that affect the result
+     * @param tools The executables
+     * @return The inputs
+     */
+    public static CheckInputs machine(Set<String> environment, Set<String> tools) {
+        return new CheckInputs(Set.of(), environment, tools, false);
+    }
+}
@@ -0,0 +1,15 @@
+package com.falniak.devdoctor.check;
+
+/**
+ * Receives check results as soon as they are available.
+ */
+@FunctionalInterface
+public interface CheckListener {
+    /**
+     * Called once for every check result, in completion order.
+     * Calls are never concurrent, but may come from different threads.
+     *
+     * @param result The completed check result
+     */
+    void onResult(CheckResult result);
+}
@@ -10,12 +10,27 @@ import java.util.List;
  * @param summary A brief summary of the check result
  * @param details Additional details (nullable)
  * @param suggestions List of suggestions for resolving issues (may be empty)
+ * @param skipped Whether the check was not run because a prerequisite did not pass
  */
 public record CheckResult(
     String id,
     CheckStatus status,
     String summary,
     String details,
-    List<Suggestion> suggestions
+    List<Suggestion> suggestions,
+    boolean skipped
 ) {
+
+    /**
+     * Creates the result of a check that ran.
+     *
+     * @param id The unique identifier of the check
+     * @param status The status of the check
+     * @param summary A brief summary of the check result
+     * @param details Additional details (nullable)
+     * @param suggestions List of suggestions for resolving issues (may be empty)
+     */
+    public CheckResult(String id, CheckStatus status, String summary, String details, List<Suggestion> suggestions) {
+        this(id, status, summary, details, suggestions, false);
+    }
 }
@@ -0,0 +1,80 @@
+package com.falniak.devdoctor.check;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Results of earlier check runs. Each check of a project has one slot, identified by a key
+ * made of the check ID and the project root, holding the latest result and the fingerprint of
+ * the inputs it was computed from. Checks of the machine have one slot for all projects,
+ * identified by the check ID alone.
+ * {@link CheckRunner} consults it before running a check that declares its inputs and
+ * records what the check returned. Implementations must be safe for concurrent use.
+ */
+public interface CheckResultStore {
+
+    /**
+     * Looks up the result stored for a check.
+     *
+     * @param key The slot, see {@link #key(String, Path)} and {@link #key(String)}
+     * @param fingerprint The fingerprint of the check's current inputs
+     * @return The result if one was stored for exactly this fingerprint
+     */
+    Optional<CheckResult> lookup(String key, String fingerprint);
+
+    /**
+     * Stores a result, replacing any result stored for the check before.
+     *
+     * @param key The slot, see {@link #key(String, Path)} and {@link #key(String)}
+     * @param fingerprint The fingerprint of the inputs the check ran with
+     * @param result The result
+     */
+    void store(String key, String fingerprint, CheckResult result);
+
+    /**
+     * Builds the key of a check's slot.
+     *
+     * @param checkId The check ID
+     * @param projectRoot The project root the check runs for
+     * @return The key
+     */
+    static String key(String checkId, Path projectRoot) {
+        return checkId + " @ " + projectRoot;
+    }
+
+    /**
+     * Builds the key of the slot of a check whose result does not depend on the project,
+     * see {@link CheckInputs#projectScoped()}.
+     *
+     * @param checkId The check ID
+     * @return The key
+     */
+    static String key(String checkId) {
+        return checkId;
+    }
+
+    /**
+     * Creates a store that keeps results in memory, e.g. for the lifetime of a watch session.
+     *
+     * @return The store
+     */
+    static CheckResultStore inMemory() {
+        Map<String, Map.Entry<String, CheckResult>> results = new ConcurrentHashMap<>();
+        return new CheckResultStore() {
+            @Override
+            public Optional<CheckResult> lookup(String key, String fingerprint) {
+                Map.Entry<String, CheckResult> entry = results.get(key);
+                return entry != null && entry.getKey().equals(fingerprint)
+                    ? Optional.of(entry.getValue())
+                    : Optional.empty();
+            }
+
+            @Override
+            public void store(String key, String fingerprint, CheckResult result) {
+                results.put(key, Map.entry(fingerprint, result));
+            }
+        };
+    }
+}
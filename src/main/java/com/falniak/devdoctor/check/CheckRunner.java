@@ -1,26 +1,469 @@
 package com.falniak.devdoctor.check;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Runs a list of checks and collects their results.
+ * Checks are scheduled according to their declared prerequisites: independent
+ * checks may run concurrently on a bounded pool of worker threads, while a
+ * check whose prerequisite failed is skipped instead of being run.
+ * Checks that exceed their deadline or the run budget are cancelled and
+ * reported with {@link CheckStatus#TIMEOUT}. A timed-out check that ignores the
+ * cancellation keeps its thread but gives up its slot, so the checks after it still run.
+ * <p>
+ * With a {@link CheckResultStore}, a check that declares its inputs is only run when the
+ * fingerprint of its inputs differs from the one its stored result was computed from;
+ * otherwise the stored result is returned. Results of checks that timed out are not stored.
  */
 public class CheckRunner {
 
     /**
-     * Runs the given checks in order and returns their results.
+     * Default upper bound on the number of checks running at the same time.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+    private final int maxConcurrency;
+    private final CheckTimeouts timeouts;
+    private final InputFingerprinter fingerprinter;
+    private final CheckResultStore resultStore;
+
+    /**
+     * Creates a runner that executes checks sequentially.
+     */
+    public CheckRunner() {
+        this(1);
+    }
+
+    /**
+     * Creates a runner that executes up to {@code maxConcurrency} checks at the same time.
+     * A value of 1 runs checks sequentially on the calling thread.
+     *
+     * @param maxConcurrency The maximum number of concurrently running checks
+     */
+    public CheckRunner(int maxConcurrency) {
+        this(maxConcurrency, CheckTimeouts.NONE);
+    }
+
+    /**
+     * Creates a runner that executes up to {@code maxConcurrency} checks at the same time
+     * and enforces the given time limits.
+     *
+     * @param maxConcurrency The maximum number of concurrently running checks
+     * @param timeouts The run budget and per-check deadlines
+     */
+    public CheckRunner(int maxConcurrency, CheckTimeouts timeouts) {
+        this(maxConcurrency, timeouts, null, null);
+    }
+
+    /**
+     * Creates a runner that also reuses stored results of checks whose inputs are unchanged.
+     *
+     * @param maxConcurrency The maximum number of concurrently running checks
+     * @param timeouts The run budget and per-check deadlines
+     * @param fingerprinter Computes the fingerprints of check inputs (nullable to disable reuse)
+     * @param resultStore Stored results to consult and update (nullable to disable reuse)
+     */
+    public CheckRunner(int maxConcurrency, CheckTimeouts timeouts, InputFingerprinter fingerprinter,
+                       CheckResultStore resultStore) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1, got: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.timeouts = timeouts != null ? timeouts : CheckTimeouts.NONE;
+        this.fingerprinter = fingerprinter;
+        this.resultStore = fingerprinter != null ? resultStore : null;
+    }
+
+    /**
+     * Runs the given checks and returns their results.
+     * Prerequisites that are not part of {@code checks} are ignored.
      *
      * @param checks The list of checks to run
      * @param context The context to pass to each check
      * @return List of check results in the same order as the input checks
+     * @throws IllegalArgumentException if the check prerequisites contain a cycle
      */
     public List<CheckResult> runChecks(List<Check> checks, CheckContext context) {
-        List<CheckResult> results = new ArrayList<>();
+        return runChecks(checks, context, null);
+    }
+
+    /**
+     * Runs the given checks, publishing each result to {@code listener} as soon as it completes.
+     * All listener calls have finished by the time this method returns.
+     *
+     * @param checks The list of checks to run
+     * @param context The context to pass to each check
+     * @param listener Receives results in completion order (nullable)
+     * @return List of check results in the same order as the input checks
+     * @throws IllegalArgumentException if the check prerequisites contain a cycle
+     */
+    public List<CheckResult> runChecks(List<Check> checks, CheckContext context, CheckListener listener) {
+        return runChecks(checks, context, listener, Map.of());
+    }
+
+    /**
+     * Runs the given checks like {@link #runChecks(List, CheckContext, CheckListener)}, resolving
+     * prerequisites that are not part of {@code checks} from results computed earlier, such as
+     * those of the previous run in watch mode. A check whose settled prerequisite failed, timed
+     * out or was itself skipped is skipped just as if the prerequisite had run with it.
+     * Prerequisites found in neither are ignored.
+     *
+     * @param checks The list of checks to run
+     * @param context The context to pass to each check
+     * @param listener Receives results in completion order (nullable)
+     * @param settled Earlier results keyed by check ID
+     * @return List of check results in the same order as the input checks
+     * @throws IllegalArgumentException if the check prerequisites contain a cycle
+     */
+    public List<CheckResult> runChecks(List<Check> checks, CheckContext context, CheckListener listener,
+                                       Map<String, CheckResult> settled) {
+        List<Node> nodes = buildGraph(checks, settled);
+        List<Node> order = topologicalOrder(nodes);
+
+        ExecutorService pool = null;
+        ScheduledExecutorService timer = null;
+        Semaphore slots = null;
+        Executor executor;
+        if (timeouts.isEnabled()) {
+            // Checks run on workers so the caller can return once time is up, even if a check
+            // does not react to being interrupted. Such a check keeps its thread, so concurrency
+            // is bounded by slots rather than by a fixed number of threads
+            pool = Executors.newCachedThreadPool(new DaemonThreadFactory("devdoctor-check-"));
+            timer = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("devdoctor-deadline-"));
+            slots = new Semaphore(maxConcurrency);
+            executor = pool;
+        } else if (maxConcurrency == 1 || checks.size() <= 1) {
+            // Run every check on the calling thread, in dependency order
+            executor = Runnable::run;
+        } else {
+            pool = Executors.newFixedThreadPool(Math.min(maxConcurrency, checks.size()),
+                new DaemonThreadFactory("devdoctor-check-"));
+            executor = pool;
+        }
+
+        try {
+            if (timeouts.runBudget() != null) {
+                Duration budget = timeouts.runBudget();
+                timer.schedule(() -> {
+                    // Dependents first: once a prerequisite times out, its dependents would
+                    // otherwise race to be skipped before the budget reaches them
+                    for (int i = order.size() - 1; i >= 0; i--) {
+                        order.get(i).timeOut("Run budget of " + budget.toMillis() + " ms exhausted");
+                    }
+                }, budget.toMillis(), TimeUnit.MILLISECONDS);
+            }
+
+            List<CompletableFuture<Void>> notifications = new ArrayList<>();
+            if (listener != null) {
+                Object lock = new Object();
+                for (Node node : nodes) {
+                    notifications.add(node.future.thenAccept(result -> {
+                        synchronized (lock) {
+                            listener.onResult(result);
+                        }
+                    }));
+                }
+            }
+
+            // Prerequisites come first in the order, so their futures always exist
+            for (Node node : order) {
+                CompletableFuture<?>[] prerequisites = node.prerequisites.stream()
+                    .map(prerequisite -> prerequisite.future)
+                    .toArray(CompletableFuture[]::new);
+                ScheduledExecutorService deadlineTimer = timer;
+                Semaphore checkSlots = slots;
+                CompletableFuture.allOf(prerequisites).whenCompleteAsync((ignored, error) -> {
+                    if (error != null) {
+                        node.future.completeExceptionally(error);
+                    } else {
+                        execute(node, context, deadlineTimer, checkSlots);
+                    }
+                }, executor);
+            }
+
+            List<CheckResult> results = new ArrayList<>();
+            for (Node node : nodes) {
+                results.add(await(node.future));
+            }
+            for (CompletableFuture<Void> notification : notifications) {
+                await(notification);
+            }
+            return results;
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+            if (timer != null) {
+                timer.shutdownNow();
+            }
+        }
+    }
+
+    private void execute(Node node, CheckContext context, ScheduledExecutorService timer, Semaphore slots) {
+        if (node.future.isDone()) {
+            // Already timed out by the run budget before it could start
+            return;
+        }
+
+        for (Node prerequisite : node.prerequisites) {
+            CheckResult prerequisiteResult = prerequisite.future.join();
+            String reason = prerequisite.skipped ? "was skipped"
+                : prerequisiteResult.status() == CheckStatus.FAIL ? "failed"
+                : prerequisiteResult.status() == CheckStatus.TIMEOUT ? "timed out"
+                : null;
+            if (reason != null) {
+                node.skipped = true;
+                node.future.complete(new CheckResult(
+                    node.check.id(),
+                    CheckStatus.NOT_APPLICABLE,
+                    "Skipped (prerequisite " + prerequisiteResult.id() + " " + reason + ")",
+                    null,
+                    List.of(),
+                    true
+                ));
+                return;
+            }
+        }
+
+        String storeKey = null;
+        String fingerprint = null;
+        if (resultStore != null) {
+            fingerprint = fingerprinter.fingerprint(node.check, context).orElse(null);
+            if (fingerprint != null) {
+                // Machine checks have one slot for all projects, so a result stored for one serves the others
+                boolean projectScoped = node.check.inputs(context).map(CheckInputs::projectScoped).orElse(true);
+                storeKey = projectScoped
+                    ? CheckResultStore.key(node.check.id(), context.projectRoot())
+                    : CheckResultStore.key(node.check.id());
+                Optional<CheckResult> stored = resultStore.lookup(storeKey, fingerprint);
+                if (stored.isPresent()) {
+                    node.future.complete(stored.get());
+                    return;
+                }
+            }
+        }
+
+        if (slots != null) {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                // The run is over and its workers are being shut down
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (!node.begin(slots)) {
+            return;
+        }
+        ScheduledFuture<?> deadline = null;
+        Duration limit = timeouts.deadlineFor(node.check.id());
+        try {
+            if (limit != null) {
+                deadline = timer.schedule(
+                    () -> node.timeOut("Timed out after " + limit.toMillis() + " ms"),
+                    limit.toMillis(),
+                    TimeUnit.MILLISECONDS
+                );
+            }
+            CheckResult result = node.check.run(context);
+            // A result that lost the race against a timeout may reflect the cancellation; do not keep it
+            if (node.future.complete(result) && fingerprint != null && result.status() != CheckStatus.TIMEOUT) {
+                resultStore.store(storeKey, fingerprint, result);
+            }
+        } catch (Throwable t) {
+            node.future.completeExceptionally(t);
+        } finally {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            node.end();
+        }
+    }
+
+    private List<Node> buildGraph(List<Check> checks, Map<String, CheckResult> settled) {
+        List<Node> nodes = new ArrayList<>();
+        Map<String, Node> byId = new HashMap<>();
         for (Check check : checks) {
-            CheckResult result = check.run(context);
-            results.add(result);
+            Node node = new Node(check);
+            nodes.add(node);
+            byId.putIfAbsent(check.id(), node);
+        }
+        for (Node node : nodes) {
+            for (String prerequisiteId : node.check.dependsOn()) {
+                Node prerequisite = byId.get(prerequisiteId);
+                if (prerequisite == null && settled.containsKey(prerequisiteId)) {
+                    // Not part of this run: only its result takes part in scheduling
+                    prerequisite = Node.settled(settled.get(prerequisiteId));
+                }
+                if (prerequisite != null) {
+                    node.prerequisites.add(prerequisite);
+                }
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Orders nodes so every prerequisite precedes its dependents.
+     * Ties are broken by input order to keep scheduling deterministic.
+     */
+    private List<Node> topologicalOrder(List<Node> nodes) {
+        Map<Node, Integer> pending = new IdentityHashMap<>();
+        Map<Node, List<Node>> dependents = new IdentityHashMap<>();
+        for (Node node : nodes) {
+            int unsettled = 0;
+            for (Node prerequisite : node.prerequisites) {
+                if (!prerequisite.isSettled()) {
+                    unsettled++;
+                    dependents.computeIfAbsent(prerequisite, key -> new ArrayList<>()).add(node);
+                }
+            }
+            pending.put(node, unsettled);
+        }
+
+        Deque<Node> ready = new ArrayDeque<>();
+        for (Node node : nodes) {
+            if (pending.get(node) == 0) {
+                ready.add(node);
+            }
+        }
+
+        List<Node> order = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            Node node = ready.poll();
+            order.add(node);
+            for (Node dependent : dependents.getOrDefault(node, List.of())) {
+                int remaining = pending.merge(dependent, -1, Integer::sum);
+                if (remaining == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (order.size() != nodes.size()) {
+            List<String> cyclic = new ArrayList<>();
+            for (Node node : nodes) {
+                if (pending.get(node) > 0) {
+                    cyclic.add(node.check.id());
+                }
+            }
+            throw new IllegalArgumentException("Check prerequisites contain a cycle: " + String.join(", ", cyclic));
+        }
+        return order;
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Surface check failures the same way a direct call would
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Check execution failed", cause);
+        }
+    }
+
+    /**
+     * A check together with its resolved prerequisites and scheduled result.
+     */
+    private static class Node {
+        private final Check check;
+        private final List<Node> prerequisites = new ArrayList<>();
+        private final CompletableFuture<CheckResult> future = new CompletableFuture<>();
+        private volatile boolean skipped;
+        private Thread worker;
+        private boolean interrupted;
+        private Semaphore slot;
+
+        Node(Check check) {
+            this.check = check;
+        }
+
+        /**
+         * Creates a node for a prerequisite that already has its result and is not run again.
+         */
+        static Node settled(CheckResult result) {
+            Node node = new Node(null);
+            // A check skipped in its own run still skips its dependents
+            node.skipped = result.skipped();
+            node.future.complete(result);
+            return node;
+        }
+
+        boolean isSettled() {
+            return check == null;
+        }
+
+        /**
+         * Marks the check as running on the current thread.
+         *
+         * @param slot The slot the check was admitted with, released once it ends or times out (nullable)
+         * @return false if the check already timed out and must not run; its slot is then released
+         */
+        synchronized boolean begin(Semaphore slot) {
+            this.slot = slot;
+            if (future.isDone()) {
+                releaseSlot();
+                return false;
+            }
+            worker = Thread.currentThread();
+            return true;
+        }
+
+        synchronized void end() {
+            worker = null;
+            releaseSlot();
+            if (interrupted) {
+                interrupted = false;
+                // Do not leak our cancellation into the next task on this thread
+                Thread.interrupted();
+            }
+        }
+
+        /**
+         * Completes the check with a TIMEOUT result and cancels it if it is running.
+         */
+        void timeOut(String summary) {
+            CheckResult result = new CheckResult(check.id(), CheckStatus.TIMEOUT, summary, null, List.of());
+            if (future.complete(result)) {
+                synchronized (this) {
+                    if (worker != null) {
+                        interrupted = true;
+                        worker.interrupt();
+                        // The check may ignore the interrupt; let the next one run meanwhile
+                        releaseSlot();
+                    }
+                }
+            }
+        }
+
+        private void releaseSlot() {
+            if (slot != null) {
+                slot.release();
+                slot = null;
+            }
         }
-        return results;
     }
 }
@@ -8,5 +8,6 @@ public enum CheckStatus {
     WARN,
     FAIL,
     INFO,
-    NOT_APPLICABLE
+    NOT_APPLICABLE,
+    TIMEOUT
 }
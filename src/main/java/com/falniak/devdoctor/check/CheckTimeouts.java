@@ -0,0 +1,81 @@
+package com.falniak.devdoctor.check;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Time limits enforced by {@link CheckRunner}.
+ *
+ * @param runBudget Upper bound for the whole run (nullable for no budget)
+ * @param defaultDeadline Deadline for checks without a specific deadline (nullable for none)
+ * @param checkDeadlines Deadlines for individual checks, keyed by check ID
+ */
+public record CheckTimeouts(
+    Duration runBudget,
+    Duration defaultDeadline,
+    Map<String, Duration> checkDeadlines
+) {
+    /**
+     * No budget and no deadlines.
+     */
+    public static final CheckTimeouts NONE = new CheckTimeouts(null, null, Map.of());
+
+    /**
+     * Key in a deadline map that applies to every check without its own entry.
+     */
+    public static final String DEFAULT_KEY = "default";
+
+    public CheckTimeouts {
+        if (checkDeadlines == null) {
+            checkDeadlines = Map.of();
+        }
+    }
+
+    /**
+     * Creates time limits from millisecond values as found on the command line and in config.
+     *
+     * @param runBudgetMillis Budget for the whole run (nullable for no budget)
+     * @param deadlineMillis Per-check deadlines keyed by check ID, with {@link #DEFAULT_KEY} as fallback
+     * @return The time limits
+     * @throws IllegalArgumentException if the run budget is not positive
+     */
+    public static CheckTimeouts of(Long runBudgetMillis, Map<String, Long> deadlineMillis) {
+        if (runBudgetMillis != null && runBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Run budget must be positive, got: " + runBudgetMillis + " ms");
+        }
+        Duration runBudget = runBudgetMillis != null ? Duration.ofMillis(runBudgetMillis) : null;
+        Duration defaultDeadline = null;
+        Map<String, Duration> deadlines = new HashMap<>();
+        if (deadlineMillis != null) {
+            for (Map.Entry<String, Long> entry : deadlineMillis.entrySet()) {
+                Duration deadline = Duration.ofMillis(entry.getValue());
+                if (DEFAULT_KEY.equals(entry.getKey())) {
+                    defaultDeadline = deadline;
+                } else {
+                    deadlines.put(entry.getKey(), deadline);
+                }
+            }
+        }
+        return new CheckTimeouts(runBudget, defaultDeadline, Map.copyOf(deadlines));
+    }
+
+    /**
+     * Returns the deadline for the given check, measured from when it starts running.
+     *
+     * @param checkId The check ID
+     * @return The deadline, or null if the check may run without limit
+     */
+    public Duration deadlineFor(String checkId) {
+        return checkDeadlines.getOrDefault(checkId, defaultDeadline);
+    }
+
+    /**
+     * Returns whether any budget or deadline is configured.
+     *
+     * @return true if the runner has to enforce time limits
+     */
+    public boolean isEnabled() {
+        return runBudget != null || defaultDeadline != null || !checkDeadlines.isEmpty();
+    }
+}
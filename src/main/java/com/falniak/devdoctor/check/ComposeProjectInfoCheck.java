@@ -3,6 +3,7 @@ package com.falniak.devdoctor.check;
 import com.falniak.devdoctor.detect.ProjectType;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -15,6 +16,11 @@ public class ComposeProjectInfoCheck implements Check {
         return "project.compose";
     }
 
+    @Override
+    public Optional<CheckInputs> inputs(CheckContext ctx) {
+        return Optional.of(CheckInputs.NONE);
+    }
+
     @Override
     public CheckResult run(CheckContext ctx) {
         Set<ProjectType> types = ctx.projectTypes();
@@ -1,24 +1,58 @@
 package com.falniak.devdoctor.check;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
 
 /**
  * Default implementation of ProcessExecutor using ProcessBuilder.
+ * Bare executable names are looked up with an {@link ExecutableResolver} first, so a
+ * missing tool fails fast with an IOException instead of a failed spawn, and the
+ * resolved absolute path is what gets started.
+ * Output is captured as raw bytes up to a per-stream limit and decoded lazily by {@link ExecResult}.
  */
 public class DefaultProcessExecutor implements ProcessExecutor {
 
-    private static final int TIMEOUT_SECONDS = 5;
+    private static final long DRAIN_GRACE_MILLIS = 1000;
+    private static final int MAX_LINE_BYTES = 8192;
+
+    /**
+     * Default number of bytes kept per stream (head and tail combined).
+     */
+    public static final int DEFAULT_CAPTURE_LIMIT = 1024 * 1024;
+
+    /**
+     * Shared by all executors; idle threads are reused across invocations and expire after a minute.
+     */
+    private static final ExecutorService DRAIN_POOL = Executors.newCachedThreadPool(
+        new DaemonThreadFactory("devdoctor-drain-"));
+
     private final Path workingDirectory;
+    private final ExecutableResolver resolver;
+    private final int captureLimit;
+    private final TimeoutPolicy timeoutPolicy;
+    private final ExecMetrics metrics;
 
     /**
      * Creates a DefaultProcessExecutor with no specific working directory.
      */
     public DefaultProcessExecutor() {
-        this.workingDirectory = null;
+        this(null, new ExecutableResolver());
     }
 
     /**
@@ -27,71 +61,370 @@ public class DefaultProcessExecutor implements ProcessExecutor {
      * @param workingDirectory The working directory for executed commands
      */
     public DefaultProcessExecutor(Path workingDirectory) {
+        this(workingDirectory, new ExecutableResolver());
+    }
+
+    /**
+     * Creates a DefaultProcessExecutor sharing an existing resolver.
+     *
+     * @param workingDirectory The working directory for executed commands (nullable)
+     * @param resolver The resolver used to locate executables on PATH
+     */
+    public DefaultProcessExecutor(Path workingDirectory, ExecutableResolver resolver) {
+        this(workingDirectory, resolver, DEFAULT_CAPTURE_LIMIT);
+    }
+
+    /**
+     * Creates a DefaultProcessExecutor with a specific capture limit.
+     * Output beyond the limit is dropped from the middle of the stream, keeping its beginning and end.
+     *
+     * @param workingDirectory The working directory for executed commands (nullable)
+     * @param resolver The resolver used to locate executables on PATH
+     * @param captureLimit Maximum number of bytes kept per stream
+     */
+    public DefaultProcessExecutor(Path workingDirectory, ExecutableResolver resolver, int captureLimit) {
+        this(workingDirectory, resolver, captureLimit, TimeoutPolicy.fixed(TimeoutPolicy.DEFAULT_TIMEOUT),
+            new ExecMetrics());
+    }
+
+    /**
+     * Creates a DefaultProcessExecutor with a specific capture limit and timeout policy that reports
+     * into shared metrics.
+     *
+     * @param workingDirectory The working directory for executed commands (nullable)
+     * @param resolver The resolver used to locate executables on PATH
+     * @param captureLimit Maximum number of bytes kept per stream
+     * @param timeoutPolicy Decides how long each command may run, and learns from how long it took
+     * @param metrics Receives counts of processes terminated by this executor
+     */
+    public DefaultProcessExecutor(Path workingDirectory, ExecutableResolver resolver, int captureLimit,
+                                  TimeoutPolicy timeoutPolicy, ExecMetrics metrics) {
+        if (captureLimit < 2) {
+            throw new IllegalArgumentException("Capture limit must be at least 2 bytes, got: " + captureLimit);
+        }
         this.workingDirectory = workingDirectory;
+        this.resolver = resolver;
+        this.captureLimit = captureLimit;
+        this.timeoutPolicy = timeoutPolicy;
+        this.metrics = metrics;
     }
 
     @Override
     public ExecResult exec(List<String> command) throws Exception {
-        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        return exec(command, null);
+    }
+
+    @Override
+    public ExecResult exec(List<String> command, Pattern stopPattern) throws Exception {
+        RunningProcess running = start(command, stopPattern);
+        try {
+            return running.completion.get();
+        } catch (InterruptedException e) {
+            // The calling check was cancelled; do not leave the process running
+            running.kill();
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw new IllegalStateException("Process execution failed", cause);
+        }
+    }
+
+    /**
+     * Starts the command and completes the returned future from {@link Process#onExit()},
+     * so no thread waits for the process. Cancelling the future kills the process and its descendants.
+     */
+    @Override
+    public CompletableFuture<ExecResult> execAsync(List<String> command, Pattern stopPattern) {
+        try {
+            return start(command, stopPattern).completion;
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Starts the command with the given timeout and passes its output to the listener as the
+     * drains read it, before it is captured.
+     */
+    @Override
+    public CompletableFuture<ExecResult> execStreaming(List<String> command, Duration timeout,
+                                                       OutputListener listener) {
+        try {
+            return start(command, null, timeout, listener).completion;
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private RunningProcess start(List<String> command, Pattern stopPattern) throws IOException {
+        return start(command, stopPattern, timeoutPolicy.timeoutFor(command), null);
+    }
+
+    private RunningProcess start(List<String> command, Pattern stopPattern, Duration timeout,
+                                 OutputListener listener) throws IOException {
+        ProcessBuilder processBuilder = new ProcessBuilder(resolveExecutable(command));
         processBuilder.redirectErrorStream(false);
         if (workingDirectory != null) {
             processBuilder.directory(workingDirectory.toFile());
         }
-
+        long startNanos = System.nanoTime();
         Process process = processBuilder.start();
+        metrics.recordSpawn(command, millisSince(startNanos));
+        return new RunningProcess(command, process, stopPattern, timeout, startNanos, listener);
+    }
 
-        StringBuilder stdout = new StringBuilder();
-        StringBuilder stderr = new StringBuilder();
-
-        try (BufferedReader stdoutReader = new BufferedReader(
-                new InputStreamReader(process.getInputStream()));
-             BufferedReader stderrReader = new BufferedReader(
-                new InputStreamReader(process.getErrorStream()))) {
-
-            // Read stdout in a separate thread to avoid blocking
-            Thread stdoutThread = new Thread(() -> {
-                try {
-                    String line;
-                    while ((line = stdoutReader.readLine()) != null) {
-                        if (stdout.length() > 0) {
-                            stdout.append(System.lineSeparator());
-                        }
-                        stdout.append(line);
-                    }
-                } catch (Exception e) {
-                    // Ignore read errors
+    private static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    static String describe(Duration timeout) {
+        long millis = timeout.toMillis();
+        return millis % 1000 == 0 ? (millis / 1000) + " seconds" : millis + " ms";
+    }
+
+    private List<String> resolveExecutable(List<String> command) throws IOException {
+        if (command.isEmpty()) {
+            return command;
+        }
+        String executable = command.get(0);
+        if (executable.contains("/") || executable.contains(File.separator)) {
+            // Explicit paths are resolved by the OS relative to the working directory
+            return command;
+        }
+        Optional<Path> resolved = resolver.resolve(executable);
+        if (resolved.isEmpty()) {
+            throw new IOException("Cannot run program \"" + executable + "\": not found on PATH");
+        }
+        List<String> resolvedCommand = new ArrayList<>(command);
+        resolvedCommand.set(0, resolved.get().toString());
+        return resolvedCommand;
+    }
+
+    /**
+     * A started process together with its drains and the future of its result.
+     */
+    private final class RunningProcess {
+        private final List<String> command;
+        private final Process process;
+        private final long startNanos;
+        private final Charset charset = Charset.defaultCharset();
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        // Whether the stop pattern matched while the process was still running
+        private volatile boolean stoppedRunning;
+        private final StreamDrain stdout;
+        private final StreamDrain stderr;
+        private final CompletableFuture<ExecResult> completion = new CompletableFuture<>();
+        private final AtomicBoolean killed = new AtomicBoolean();
+
+        RunningProcess(List<String> command, Process process, Pattern stopPattern, Duration timeout,
+                       long startNanos, OutputListener listener) {
+            this.command = command;
+            this.process = process;
+            this.startNanos = startNanos;
+            Runnable stop = () -> {
+                if (stopped.compareAndSet(false, true) && process.isAlive()) {
+                    stoppedRunning = true;
+                    // A shim's child would keep the pipes open, so stop the whole tree
+                    kill();
                 }
-            });
+            };
+            // Both pipes are drained on the shared pool so a chatty process never blocks on a full pipe
+            this.stdout = StreamDrain.start(process.getInputStream(), captureLimit, stopPattern, charset, stop,
+                listener, false);
+            this.stderr = StreamDrain.start(process.getErrorStream(), captureLimit, stopPattern, charset, stop,
+                listener, true);
 
-            // Read stderr in a separate thread
-            Thread stderrThread = new Thread(() -> {
-                try {
-                    String line;
-                    while ((line = stderrReader.readLine()) != null) {
-                        if (stderr.length() > 0) {
-                            stderr.append(System.lineSeparator());
-                        }
-                        stderr.append(line);
+            process.onExit()
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((exited, error) -> {
+                    if (error != null) {
+                        metrics.recordTimeout(command, millisSince(startNanos));
+                        timeoutPolicy.recordTimeout(command, timeout);
+                        // Report the timeout only once the whole process tree is gone
+                        kill().whenComplete((ignored, failure) -> completion.completeExceptionally(
+                            new Exception("Process execution timed out after " + describe(timeout))));
+                        return;
                     }
-                } catch (Exception e) {
-                    // Ignore read errors
+                    stdout.whenDrained(DRAIN_GRACE_MILLIS)
+                        .thenCombine(stderr.whenDrained(DRAIN_GRACE_MILLIS), this::toResult)
+                        .whenComplete((result, failure) -> {
+                            if (failure != null) {
+                                completion.completeExceptionally(failure);
+                                return;
+                            }
+                            // Recorded before the caller sees the result. Timed-out runs are recorded
+                            // at their timeout; cancelled ones say nothing about the command
+                            if (!completion.isDone()) {
+                                timeoutPolicy.record(command, Duration.ofNanos(System.nanoTime() - startNanos));
+                            }
+                            completion.complete(result);
+                        });
+                });
+            completion.whenComplete((result, error) -> {
+                if (error instanceof CancellationException) {
+                    kill();
                 }
             });
+        }
+
+        private ExecResult toResult(byte[] stdoutBytes, byte[] stderrBytes) {
+            // A process we stopped on purpose produced what the caller asked for; one that had
+            // already exited reports how it ended
+            int exitCode = stoppedRunning ? 0 : process.exitValue();
+            long firstByteNanos = Math.min(stdout.firstByteNanos(), stderr.firstByteNanos());
+            metrics.recordCompletion(command, exitCode, millisSince(startNanos),
+                firstByteNanos == Long.MAX_VALUE ? -1 : TimeUnit.NANOSECONDS.toMillis(firstByteNanos - startNanos),
+                stdout.bytesRead(), stderr.bytesRead());
+            return new ExecResult(exitCode, stdoutBytes, stderrBytes, charset,
+                stdout.truncated() || stderr.truncated(), stoppedRunning);
+        }
+
+        /**
+         * Terminates the process and everything it started, gracefully first and then forcibly.
+         *
+         * @return Completes once the processes are reaped or given up on
+         */
+        CompletableFuture<Void> kill() {
+            if (!killed.compareAndSet(false, true)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return ProcessTreeTerminator.terminate(process.toHandle(), ProcessTreeTerminator.DEFAULT_GRACE)
+                .handle((termination, error) -> {
+                    if (termination != null) {
+                        metrics.recordTermination(command, termination);
+                    } else {
+                        process.destroyForcibly();
+                    }
+                    stdout.close();
+                    stderr.close();
+                    return null;
+                });
+        }
+    }
+
+    /**
+     * Reads one process stream to the end on the drain pool.
+     * Bytes are captured under the drain's lock and read back under the same lock,
+     * which gives the caller a happens-before view of everything read so far.
+     */
+    private static final class StreamDrain {
+        private final InputStream stream;
+        private final BoundedOutputBuffer output;
+        private final Pattern stopPattern;
+        private final Charset charset;
+        private final Runnable stop;
+        private final OutputListener listener;
+        private final boolean isStderr;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private volatile long firstByteNanos = Long.MAX_VALUE;
+        private CompletableFuture<Void> done;
+
+        private StreamDrain(InputStream stream, int captureLimit, Pattern stopPattern, Charset charset, Runnable stop,
+                            OutputListener listener, boolean isStderr) {
+            this.stream = stream;
+            this.output = new BoundedOutputBuffer(captureLimit);
+            this.stopPattern = stopPattern;
+            this.charset = charset;
+            this.stop = stop;
+            this.listener = listener;
+            this.isStderr = isStderr;
+        }
 
-            stdoutThread.start();
-            stderrThread.start();
+        static StreamDrain start(InputStream stream, int captureLimit, Pattern stopPattern,
+                                 Charset charset, Runnable stop, OutputListener listener, boolean isStderr) {
+            StreamDrain drain = new StreamDrain(stream, captureLimit, stopPattern, charset, stop, listener, isStderr);
+            drain.done = CompletableFuture.runAsync(drain::drain, DRAIN_POOL);
+            return drain;
+        }
+
+        private void drain() {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = stream) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (read > 0 && firstByteNanos == Long.MAX_VALUE) {
+                        firstByteNanos = System.nanoTime();
+                    }
+                    synchronized (this) {
+                        output.write(buffer, 0, read);
+                    }
+                    if (listener != null) {
+                        listener.onOutput(buffer, read, isStderr);
+                    }
+                    if (stopPattern != null) {
+                        scanLines(buffer, read);
+                    }
+                }
+            } catch (IOException e) {
+                // Stream closed early; keep what was read
+            }
+        }
 
-            boolean finished = process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
-            if (!finished) {
-                process.destroyForcibly();
-                throw new Exception("Process execution timed out after " + TIMEOUT_SECONDS + " seconds");
+        private void scanLines(byte[] buffer, int length) {
+            int start = 0;
+            for (int i = 0; i < length; i++) {
+                if (buffer[i] == '\n') {
+                    appendToLine(buffer, start, i - start);
+                    String text = line.toString(charset);
+                    line.reset();
+                    start = i + 1;
+                    if (stopPattern.matcher(text).find()) {
+                        stop.run();
+                    }
+                }
             }
+            appendToLine(buffer, start, length - start);
+        }
 
-            stdoutThread.join(1000);
-            stderrThread.join(1000);
+        private void appendToLine(byte[] buffer, int offset, int length) {
+            // Only the start of very long lines is matched against the pattern
+            int room = MAX_LINE_BYTES - line.size();
+            line.write(buffer, offset, Math.max(0, Math.min(room, length)));
+        }
+
+        synchronized boolean truncated() {
+            return output.truncated();
+        }
+
+        synchronized long bytesRead() {
+            return output.total();
+        }
+
+        /**
+         * @return When the first byte arrived, as {@link System#nanoTime()}, or {@code Long.MAX_VALUE} if none did
+         */
+        long firstByteNanos() {
+            return firstByteNanos;
+        }
+
+        /**
+         * Completes with the captured bytes once the stream reaches end of file.
+         * If a descendant process still holds the pipe open after the grace period,
+         * reading stops and the output captured so far is returned.
+         */
+        CompletableFuture<byte[]> whenDrained(long graceMillis) {
+            return done.copy()
+                .completeOnTimeout(null, graceMillis, TimeUnit.MILLISECONDS)
+                .handle((ignored, error) -> {
+                    if (!done.isDone()) {
+                        close();
+                    }
+                    synchronized (this) {
+                        return output.toByteArray();
+                    }
+                });
+        }
 
-            int exitCode = process.exitValue();
-            return new ExecResult(exitCode, stdout.toString(), stderr.toString());
+        void close() {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // Ignore close errors
+            }
         }
     }
 }
@@ -0,0 +1,178 @@
+package com.falniak.devdoctor.check;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measurements of the processes a run started, per command and in total.
+ * Commands are grouped by executable name and first argument (e.g. {@code git --version}).
+ * Only processes that were actually spawned are counted, so commands answered from a cache
+ * or a probe batch do not appear. Shared by every {@link DefaultProcessExecutor} of a run
+ * and safe to update concurrently.
+ */
+public class ExecMetrics {
+
+    private final Map<String, CommandMetrics> commands = new ConcurrentHashMap<>();
+    private final AtomicInteger processesTerminated = new AtomicInteger();
+    private final AtomicInteger processesForceKilled = new AtomicInteger();
+    private final AtomicInteger processesLeaked = new AtomicInteger();
+
+    void recordSpawn(List<String> command, long spawnMillis) {
+        CommandMetrics metrics = metricsFor(command);
+        metrics.invocations.incrementAndGet();
+        metrics.spawnLatency.record(spawnMillis);
+    }
+
+    void recordCompletion(List<String> command, int exitCode, long durationMillis, long firstByteMillis,
+                          long stdoutBytes, long stderrBytes) {
+        CommandMetrics metrics = metricsFor(command);
+        metrics.exitCodes.merge(exitCode, 1, Integer::sum);
+        metrics.duration.record(durationMillis);
+        if (firstByteMillis >= 0) {
+            metrics.timeToFirstByte.record(firstByteMillis);
+        }
+        metrics.stdoutBytes.addAndGet(stdoutBytes);
+        metrics.stderrBytes.addAndGet(stderrBytes);
+    }
+
+    void recordTimeout(List<String> command, long durationMillis) {
+        CommandMetrics metrics = metricsFor(command);
+        metrics.timeouts.incrementAndGet();
+        metrics.duration.record(durationMillis);
+    }
+
+    void recordTermination(List<String> command, ProcessTreeTerminator.Termination termination) {
+        metricsFor(command).processesTerminated.addAndGet(termination.terminated());
+        processesTerminated.addAndGet(termination.terminated());
+        processesForceKilled.addAndGet(termination.forced());
+        processesLeaked.addAndGet(termination.survived());
+    }
+
+    private CommandMetrics metricsFor(List<String> command) {
+        return commands.computeIfAbsent(TimeoutPolicy.commandKey(command), key -> new CommandMetrics());
+    }
+
+    /**
+     * @return Metrics per command, ordered by command
+     */
+    public Map<String, CommandMetrics> commands() {
+        return new TreeMap<>(commands);
+    }
+
+    /**
+     * @return Number of processes started
+     */
+    public int processesStarted() {
+        return commands.values().stream().mapToInt(CommandMetrics::invocations).sum();
+    }
+
+    /**
+     * @return Number of commands that ran past their timeout
+     */
+    public int timeouts() {
+        return commands.values().stream().mapToInt(CommandMetrics::timeouts).sum();
+    }
+
+    /**
+     * @return Number of processes (including descendants) terminated after a timeout or cancellation
+     */
+    public int processesTerminated() {
+        return processesTerminated.get();
+    }
+
+    /**
+     * @return Number of those processes that ignored the graceful request and were killed forcibly
+     */
+    public int processesForceKilled() {
+        return processesForceKilled.get();
+    }
+
+    /**
+     * @return Number of processes still alive after being killed forcibly
+     */
+    public int processesLeaked() {
+        return processesLeaked.get();
+    }
+
+    /**
+     * Measurements of one command.
+     */
+    public static final class CommandMetrics {
+        private final AtomicInteger invocations = new AtomicInteger();
+        private final AtomicInteger timeouts = new AtomicInteger();
+        private final AtomicInteger processesTerminated = new AtomicInteger();
+        private final Map<Integer, Integer> exitCodes = new ConcurrentHashMap<>();
+        private final AtomicLong stdoutBytes = new AtomicLong();
+        private final AtomicLong stderrBytes = new AtomicLong();
+        private final LatencyHistogram spawnLatency = new LatencyHistogram();
+        private final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+        private final LatencyHistogram duration = new LatencyHistogram();
+
+        /**
+         * @return Number of times the command was started
+         */
+        public int invocations() {
+            return invocations.get();
+        }
+
+        /**
+         * @return Number of runs that hit their timeout
+         */
+        public int timeouts() {
+            return timeouts.get();
+        }
+
+        /**
+         * @return Number of processes terminated on behalf of this command
+         */
+        public int processesTerminated() {
+            return processesTerminated.get();
+        }
+
+        /**
+         * @return Number of completed runs per exit code, ordered by exit code
+         */
+        public Map<Integer, Integer> exitCodes() {
+            return new TreeMap<>(exitCodes);
+        }
+
+        /**
+         * @return Bytes the command wrote to stdout, including any that were not kept
+         */
+        public long stdoutBytes() {
+            return stdoutBytes.get();
+        }
+
+        /**
+         * @return Bytes the command wrote to stderr, including any that were not kept
+         */
+        public long stderrBytes() {
+            return stderrBytes.get();
+        }
+
+        /**
+         * @return Time spent in starting the process
+         */
+        public LatencyHistogram spawnLatency() {
+            return spawnLatency;
+        }
+
+        /**
+         * @return Time from starting the process until its first output byte, for runs with output
+         */
+        public LatencyHistogram timeToFirstByte() {
+            return timeToFirstByte;
+        }
+
+        /**
+         * @return Time from starting the process until its result was available, timed out runs included
+         */
+        public LatencyHistogram duration() {
+            return duration;
+        }
+    }
+}
@@ -1,15 +1,167 @@
 package com.falniak.devdoctor.check;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
 /**
  * Represents the result of executing a process.
- *
- * @param exitCode The exit code of the process
- * @param stdout The standard output
- * @param stderr The standard error output
+ * Output captured from a real process is kept as raw bytes and only decoded when
+ * {@link #stdout()} or {@link #stderr()} is first called; decoded text has trailing
+ * line breaks removed.
  */
-public record ExecResult(
-    int exitCode,
-    String stdout,
-    String stderr
-) {
+public final class ExecResult {
+
+    private final int exitCode;
+    private final Charset charset;
+    private final boolean truncated;
+    private final boolean stoppedEarly;
+    private byte[] stdoutBytes;
+    private byte[] stderrBytes;
+    private String stdout;
+    private String stderr;
+
+    /**
+     * Creates a result from already decoded output.
+     *
+     * @param exitCode The exit code of the process
+     * @param stdout The standard output
+     * @param stderr The standard error output
+     */
+    public ExecResult(int exitCode, String stdout, String stderr) {
+        this.exitCode = exitCode;
+        this.stdout = stdout;
+        this.stderr = stderr;
+        this.charset = StandardCharsets.UTF_8;
+        this.truncated = false;
+        this.stoppedEarly = false;
+    }
+
+    /**
+     * Creates a result from raw captured output.
+     *
+     * @param exitCode The exit code of the process
+     * @param stdoutBytes The captured standard output
+     * @param stderrBytes The captured standard error output
+     * @param charset The charset used to decode the output on demand
+     * @param truncated Whether the middle of a stream was dropped to respect the capture limit
+     * @param stoppedEarly Whether the process was stopped because its output matched a stop pattern
+     */
+    public ExecResult(int exitCode, byte[] stdoutBytes, byte[] stderrBytes, Charset charset,
+                      boolean truncated, boolean stoppedEarly) {
+        this.exitCode = exitCode;
+        this.stdoutBytes = stdoutBytes;
+        this.stderrBytes = stderrBytes;
+        this.charset = charset;
+        this.truncated = truncated;
+        this.stoppedEarly = stoppedEarly;
+    }
+
+    /**
+     * Returns the exit code of the process.
+     * A process stopped because of a stop pattern reports 0.
+     *
+     * @return The exit code
+     */
+    public int exitCode() {
+        return exitCode;
+    }
+
+    /**
+     * Returns the standard output, decoding it on first use.
+     *
+     * @return The standard output
+     */
+    public synchronized String stdout() {
+        if (stdout == null && stdoutBytes != null) {
+            stdout = decode(stdoutBytes);
+        }
+        return stdout;
+    }
+
+    /**
+     * Returns the standard error output, decoding it on first use.
+     *
+     * @return The standard error output
+     */
+    public synchronized String stderr() {
+        if (stderr == null && stderrBytes != null) {
+            stderr = decode(stderrBytes);
+        }
+        return stderr;
+    }
+
+    /**
+     * Returns the raw standard output.
+     *
+     * @return The captured bytes (empty if there was no output)
+     */
+    public synchronized byte[] stdoutBytes() {
+        if (stdoutBytes == null) {
+            stdoutBytes = stdout != null ? stdout.getBytes(charset) : new byte[0];
+        }
+        return stdoutBytes.clone();
+    }
+
+    /**
+     * Returns the raw standard error output.
+     *
+     * @return The captured bytes (empty if there was no output)
+     */
+    public synchronized byte[] stderrBytes() {
+        if (stderrBytes == null) {
+            stderrBytes = stderr != null ? stderr.getBytes(charset) : new byte[0];
+        }
+        return stderrBytes.clone();
+    }
+
+    /**
+     * Returns whether part of the output was dropped because it exceeded the capture limit.
+     * The beginning and the end of the stream are always kept.
+     *
+     * @return true if the output is incomplete
+     */
+    public boolean truncated() {
+        return truncated;
+    }
+
+    /**
+     * Returns whether the process was stopped as soon as its output matched a stop pattern.
+     *
+     * @return true if the process did not run to completion
+     */
+    public boolean stoppedEarly() {
+        return stoppedEarly;
+    }
+
+    private String decode(byte[] bytes) {
+        int end = bytes.length;
+        while (end > 0 && (bytes[end - 1] == '\n' || bytes[end - 1] == '\r')) {
+            end--;
+        }
+        return new String(bytes, 0, end, charset);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ExecResult other)) {
+            return false;
+        }
+        return exitCode == other.exitCode
+            && Objects.equals(stdout(), other.stdout())
+            && Objects.equals(stderr(), other.stderr());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(exitCode, stdout(), stderr());
+    }
+
+    @Override
+    public String toString() {
+        return "ExecResult[exitCode=" + exitCode + ", stdout=" + stdout() + ", stderr=" + stderr() + "]";
+    }
 }
@@ -0,0 +1,246 @@
+package com.falniak.devdoctor.check;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * Finds executables on PATH without spawning them.
+ * Each PATH directory is listed at most once and the listing is kept for the lifetime
+ * of the resolver, so asking for many tools costs one directory read per PATH entry.
+ * Create one instance per run; a new instance picks up tools installed in the meantime.
+ * <p>
+ * On Windows, a name is tried with each extension of {@code PATHEXT} before it is tried as
+ * given, like {@code cmd.exe} does: tools such as {@code npm} ship an extensionless shell
+ * script next to {@code npm.cmd}, and only the latter can be started.
+ */
+public class ExecutableResolver {
+
+    /**
+     * Extensions tried on Windows when {@code PATHEXT} is not set, in the system's default order.
+     */
+    static final String DEFAULT_PATHEXT = ".COM;.EXE;.BAT;.CMD";
+
+    private final List<Path> pathDirectories;
+    private final List<String> extensions;
+    private final boolean caseInsensitive;
+    private final ConcurrentMap<Path, Set<String>> listings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Optional<Path>> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a resolver for the PATH of the current process.
+     */
+    public ExecutableResolver() {
+        this(System.getenv("PATH"), System.getenv("PATHEXT"), isWindows());
+    }
+
+    /**
+     * Creates a resolver for the given PATH value.
+     *
+     * @param path The PATH value, entries separated by the platform path separator (nullable)
+     * @param windows Whether to apply Windows rules (executable extensions, case-insensitive names)
+     */
+    public ExecutableResolver(String path, boolean windows) {
+        this(path, null, windows);
+    }
+
+    /**
+     * Creates a resolver for the given PATH and PATHEXT values.
+     *
+     * @param path The PATH value, entries separated by the platform path separator (nullable)
+     * @param pathExt The PATHEXT value, extensions separated by {@code ;} (nullable for the Windows default)
+     * @param windows Whether to apply Windows rules (executable extensions, case-insensitive names)
+     */
+    public ExecutableResolver(String path, String pathExt, boolean windows) {
+        this.pathDirectories = parsePath(path);
+        this.extensions = windows ? parsePathExt(pathExt) : List.of("");
+        this.caseInsensitive = windows;
+    }
+
+    /**
+     * Resolves an executable name to the absolute path that would be run.
+     * Names containing a path separator are not looked up on PATH; they resolve to
+     * themselves if they point at an executable file.
+     *
+     * @param executable The executable name, e.g. {@code git}
+     * @return The absolute path of the executable, or empty if it is not installed
+     */
+    public Optional<Path> resolve(String executable) {
+        return resolved.computeIfAbsent(executable, this::lookup);
+    }
+
+    /**
+     * Returns whether the executable can be found.
+     *
+     * @param executable The executable name
+     * @return true if {@link #resolve(String)} finds it
+     */
+    public boolean isAvailable(String executable) {
+        return resolve(executable).isPresent();
+    }
+
+    /**
+     * Returns the PATH directories in lookup order.
+     *
+     * @return The PATH directories
+     */
+    public List<Path> pathDirectories() {
+        return pathDirectories;
+    }
+
+    /**
+     * Describes the executable a name resolves to, so callers can tell when it changed.
+     * A resolved executable is described by its real path, size, modification time and file
+     * key. A missing one is described by the modification times of the PATH directories,
+     * which change when a tool is installed into one of them.
+     *
+     * @param executable The executable name
+     * @return The fingerprint
+     */
+    public String fingerprint(String executable) {
+        return describe(executable, true);
+    }
+
+    /**
+     * Describes the executable a name resolves to like {@link #fingerprint(String)}, but
+     * without the file key. The file key (e.g. an inode number) differs between machines
+     * even when they were created from the same image, so only this description can be
+     * compared across machines.
+     *
+     * @param executable The executable name
+     * @return The fingerprint
+     */
+    public String portableFingerprint(String executable) {
+        return describe(executable, false);
+    }
+
+    private String describe(String executable, boolean withFileKey) {
+        Optional<Path> resolvedPath = resolve(executable);
+        if (resolvedPath.isEmpty()) {
+            return "missing[" + pathDirectoriesFingerprint() + "]";
+        }
+        try {
+            Path real = resolvedPath.get().toRealPath();
+            BasicFileAttributes attributes = Files.readAttributes(real, BasicFileAttributes.class);
+            String description = real + "|" + attributes.size()
+                + "|" + attributes.lastModifiedTime().toMillis();
+            return withFileKey ? description + "|" + attributes.fileKey() : description;
+        } catch (IOException e) {
+            return "unreadable[" + resolvedPath.get() + "]";
+        }
+    }
+
+    private String pathDirectoriesFingerprint() {
+        StringBuilder fingerprint = new StringBuilder();
+        for (Path directory : pathDirectories) {
+            long modified;
+            try {
+                modified = Files.getLastModifiedTime(directory).toMillis();
+            } catch (IOException e) {
+                modified = -1;
+            }
+            fingerprint.append(directory).append('=').append(modified).append(';');
+        }
+        return fingerprint.toString();
+    }
+
+    private Optional<Path> lookup(String executable) {
+        if (executable.isEmpty()) {
+            return Optional.empty();
+        }
+        if (executable.contains("/") || executable.contains(File.separator)) {
+            Path path;
+            try {
+                path = Paths.get(executable);
+            } catch (InvalidPathException e) {
+                return Optional.empty();
+            }
+            return isExecutableFile(path) ? Optional.of(path.toAbsolutePath()) : Optional.empty();
+        }
+        for (Path directory : pathDirectories) {
+            Set<String> names = listing(directory);
+            for (String extension : extensions) {
+                String candidate = executable + extension;
+                if (names.contains(normalize(candidate))) {
+                    Path path = directory.resolve(candidate);
+                    if (isExecutableFile(path)) {
+                        return Optional.of(path.toAbsolutePath());
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Set<String> listing(Path directory) {
+        return listings.computeIfAbsent(directory, dir -> {
+            Set<String> names = new HashSet<>();
+            try (Stream<Path> entries = Files.list(dir)) {
+                entries.forEach(entry -> names.add(normalize(entry.getFileName().toString())));
+            } catch (IOException | SecurityException e) {
+                // Missing or unreadable PATH entries simply contribute nothing
+            }
+            return names;
+        });
+    }
+
+    private String normalize(String name) {
+        return caseInsensitive ? name.toLowerCase(Locale.ROOT) : name;
+    }
+
+    private static boolean isExecutableFile(Path path) {
+        return Files.isRegularFile(path) && Files.isExecutable(path);
+    }
+
+    private static List<Path> parsePath(String path) {
+        List<Path> directories = new ArrayList<>();
+        if (path == null || path.isEmpty()) {
+            return directories;
+        }
+        for (String entry : path.split(File.pathSeparator)) {
+            if (entry.isEmpty()) {
+                continue;
+            }
+            try {
+                Path directory = Paths.get(entry);
+                if (!directories.contains(directory)) {
+                    directories.add(directory);
+                }
+            } catch (InvalidPathException e) {
+                // Ignore malformed entries, as shells do
+            }
+        }
+        return List.copyOf(directories);
+    }
+
+    private static List<String> parsePathExt(String pathExt) {
+        List<String> extensions = new ArrayList<>();
+        String value = pathExt == null || pathExt.isBlank() ? DEFAULT_PATHEXT : pathExt;
+        for (String entry : value.split(";")) {
+            String extension = entry.trim().toLowerCase(Locale.ROOT);
+            if (extension.startsWith(".") && extension.length() > 1 && !extensions.contains(extension)) {
+                extensions.add(extension);
+            }
+        }
+        // A name that already carries its extension, e.g. npm.cmd
+        extensions.add("");
+        return List.copyOf(extensions);
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("windows");
+    }
+}
@@ -2,6 +2,7 @@ package com.falniak.devdoctor.check;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Check for Git availability.
@@ -13,6 +14,16 @@ public class GitCheck implements Check {
         return "system.git";
     }
 
+    @Override
+    public List<List<String>> probes(CheckContext ctx) {
+        return List.of(List.of("git", "--version"));
+    }
+
+    @Override
+    public Optional<CheckInputs> inputs(CheckContext ctx) {
+        return Optional.of(CheckInputs.tools("git"));
+    }
+
     @Override
     public CheckResult run(CheckContext ctx) {
         try {
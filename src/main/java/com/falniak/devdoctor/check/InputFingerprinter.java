@@ -0,0 +1,160 @@
+package com.falniak.devdoctor.check;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Computes fingerprints of the inputs a check declares through {@link Check#inputs(CheckContext)}.
+ * A fingerprint is a SHA-256 over the DevDoctor version and platform, the check ID, the
+ * project root and types (for project-scoped inputs), the content of each input file, the
+ * values of the input environment variables and the portable fingerprint of each input
+ * executable as resolved on PATH, together with the version manager settings that select what
+ * it runs (see {@link ToolVersionSelection}), since a shim stays the same file. Two runs with
+ * the same fingerprint are expected to produce the same result, on any machine: it contains no
+ * file keys or host names, so machines created from the same image compute the same
+ * fingerprints for their machine checks, which makes it usable as the address of a shared
+ * cache entry.
+ * <p>
+ * File content is hashed rather than compared by modification time, so touching a file or
+ * checking out a branch with identical content does not invalidate anything. Size and
+ * modification time only decide whether a file has to be hashed again: digests are kept per
+ * instance, which makes repeated fingerprinting in a watch session cheap. Safe for concurrent use.
+ */
+public class InputFingerprinter {
+
+    /**
+     * Version of the code computing results and the platform it runs on; results computed by
+     * another version or on another platform are never reused.
+     */
+    private static final String PLATFORM = "devdoctor "
+        + Objects.requireNonNullElse(InputFingerprinter.class.getPackage().getImplementationVersion(), "dev")
+        + " " + System.getProperty("os.name") + " " + System.getProperty("os.arch");
+
+    private final ExecutableResolver resolver;
+    private final Function<String, String> environment;
+    private final ToolVersionSelection versionSelection;
+    private final Map<Path, FileDigest> fileDigests = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a fingerprinter reading the environment of the current process.
+     *
+     * @param resolver The resolver used to fingerprint executables
+     */
+    public InputFingerprinter(ExecutableResolver resolver) {
+        this(resolver, System::getenv);
+    }
+
+    /**
+     * Creates a fingerprinter.
+     *
+     * @param resolver The resolver used to fingerprint executables
+     * @param environment Looks up environment variables (returns null for unset ones)
+     */
+    public InputFingerprinter(ExecutableResolver resolver, Function<String, String> environment) {
+        this(resolver, environment, ToolVersionSelection.current(environment));
+    }
+
+    InputFingerprinter(ExecutableResolver resolver, Function<String, String> environment,
+                       ToolVersionSelection versionSelection) {
+        this.resolver = resolver;
+        this.environment = environment;
+        this.versionSelection = versionSelection;
+    }
+
+    /**
+     * Computes the fingerprint of a check's inputs.
+     *
+     * @param check The check
+     * @param ctx The context the check would run with
+     * @return The fingerprint, or empty if the check does not declare its inputs
+     */
+    public Optional<String> fingerprint(Check check, CheckContext ctx) {
+        Optional<CheckInputs> declared = check.inputs(ctx);
+        if (declared.isEmpty()) {
+            return Optional.empty();
+        }
+        CheckInputs inputs = declared.get();
+        MessageDigest digest = sha256();
+        update(digest, "platform", PLATFORM);
+        update(digest, "check", check.id());
+        if (inputs.projectScoped()) {
+            update(digest, "root", String.valueOf(ctx.projectRoot()));
+            update(digest, "types", new TreeSet<>(ctx.projectTypes().stream().map(Enum::name).toList()).toString());
+        }
+        for (String file : new TreeSet<>(inputs.files())) {
+            update(digest, "file " + file, describeFile(ctx.projectRoot().resolve(file)));
+        }
+        for (String name : new TreeSet<>(inputs.environment())) {
+            String value = environment.apply(name);
+            update(digest, "env " + name, value != null ? "=" + value : "unset");
+        }
+        for (String tool : new TreeSet<>(inputs.tools())) {
+            String selection = versionSelection.fingerprint(tool);
+            update(digest, "tool " + tool, resolver.portableFingerprint(tool)
+                + (selection.isEmpty() ? "" : " selected " + selection));
+        }
+        return Optional.of(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private String describeFile(Path file) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return "missing";
+        }
+        if (!attributes.isRegularFile()) {
+            return "not a file";
+        }
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        FileDigest known = fileDigests.get(file);
+        if (known != null && known.size() == size && known.modified() == modified) {
+            return known.hash();
+        }
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            return "unreadable";
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        fileDigests.put(file, new FileDigest(size, modified, hash));
+        return hash;
+    }
+
+    private static void update(MessageDigest digest, String key, String value) {
+        digest.update(key.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record FileDigest(long size, long modified, String hash) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.falniak.devdoctor.check;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads runtime versions from the files every installation ships with:
+ * <ul>
+ *   <li>Java: {@code release} in the JDK home ({@code JAVA_VERSION="17.0.2"})</li>
+ *   <li>Go: {@code VERSION} in GOROOT ({@code go1.21.0})</li>
+ *   <li>Node.js: {@code include/node/node_version.h} under the install prefix</li>
+ *   <li>Python: {@code pyvenv.cfg} of a virtual environment, or the {@code lib/pythonX.Y} directory of the install</li>
+ * </ul>
+ * The installation is located by resolving the executable on PATH and following
+ * symlinks, so the version always belongs to the binary a probe would have run.
+ * Results are computed once per instance.
+ */
+public class InstallMetadataVersionSource implements VersionSource {
+
+    private static final Pattern JAVA_RELEASE_VERSION = Pattern.compile("^JAVA_VERSION=\"?([^\"]+)\"?\\s*$");
+    private static final Pattern GO_VERSION = Pattern.compile("^go\\d+(\\.\\d+)*\\S*$");
+    private static final Pattern NODE_DEFINE = Pattern.compile("^#define\\s+NODE_(MAJOR|MINOR|PATCH)_VERSION\\s+(\\d+)");
+    private static final Pattern PYVENV_VERSION = Pattern.compile("^(version|version_info)\\s*=\\s*(\\d+\\.\\d+(\\.\\d+)?)");
+    private static final Pattern PYTHON_LIB_DIR = Pattern.compile("^python(\\d+\\.\\d+)$");
+
+    private final ExecutableResolver resolver;
+    private final ConcurrentMap<String, Optional<String>> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a version source that locates installations with the given resolver.
+     *
+     * @param resolver The resolver used to find executables on PATH
+     */
+    public InstallMetadataVersionSource(ExecutableResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Optional<String> javaVersion() {
+        return cached("java", () -> home("java").flatMap(this::readJavaRelease));
+    }
+
+    @Override
+    public Optional<String> nodeVersion() {
+        return cached("node", () -> resolveReal("node").flatMap(this::readNodeHeader));
+    }
+
+    @Override
+    public Optional<String> goVersion() {
+        return cached("go", () -> home("go").flatMap(this::readGoVersion));
+    }
+
+    @Override
+    public Optional<String> pythonVersion() {
+        return cached("python", () -> {
+            // Match the probe order of the checks: python first, python3 only if python is missing
+            Optional<Path> python = resolver.resolve("python");
+            if (python.isEmpty()) {
+                python = resolver.resolve("python3");
+            }
+            return python.flatMap(this::readPythonVersion);
+        });
+    }
+
+    private Optional<String> cached(String tool, Supplier<Optional<String>> reader) {
+        return versions.computeIfAbsent(tool, key -> reader.get());
+    }
+
+    private Optional<Path> resolveReal(String executable) {
+        return resolver.resolve(executable).flatMap(InstallMetadataVersionSource::realPath);
+    }
+
+    /**
+     * Returns the installation home of a binary living in {@code <home>/bin}.
+     */
+    private Optional<Path> home(String executable) {
+        return resolveReal(executable)
+            .map(Path::getParent)
+            .map(Path::getParent);
+    }
+
+    private Optional<String> readJavaRelease(Path javaHome) {
+        for (String line : readLines(javaHome.resolve("release"))) {
+            Matcher matcher = JAVA_RELEASE_VERSION.matcher(line.trim());
+            if (matcher.matches()) {
+                return Optional.of(matcher.group(1));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<String> readGoVersion(Path goRoot) {
+        List<String> lines = readLines(goRoot.resolve("VERSION"));
+        if (lines.isEmpty()) {
+            return Optional.empty();
+        }
+        String first = lines.get(0).trim();
+        return GO_VERSION.matcher(first).matches() ? Optional.of(first) : Optional.empty();
+    }
+
+    private Optional<String> readNodeHeader(Path node) {
+        // Unix layouts keep the binary in <prefix>/bin, Windows installs keep it in <prefix>
+        Path binDir = node.getParent();
+        List<Path> prefixes = new ArrayList<>();
+        if (binDir != null) {
+            if (binDir.getParent() != null) {
+                prefixes.add(binDir.getParent());
+            }
+            prefixes.add(binDir);
+        }
+        for (Path prefix : prefixes) {
+            String major = null;
+            String minor = null;
+            String patch = null;
+            for (String line : readLines(prefix.resolve("include").resolve("node").resolve("node_version.h"))) {
+                Matcher matcher = NODE_DEFINE.matcher(line.trim());
+                if (matcher.find()) {
+                    switch (matcher.group(1)) {
+                        case "MAJOR" -> major = matcher.group(2);
+                        case "MINOR" -> minor = matcher.group(2);
+                        default -> patch = matcher.group(2);
+                    }
+                }
+            }
+            if (major != null && minor != null && patch != null) {
+                return Optional.of("v" + major + "." + minor + "." + patch);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<String> readPythonVersion(Path python) {
+        // A virtual environment's bin/python is a symlink to the base interpreter,
+        // so look for pyvenv.cfg next to the unresolved path first
+        Path binDir = python.toAbsolutePath().getParent();
+        if (binDir != null && binDir.getParent() != null) {
+            for (String line : readLines(binDir.getParent().resolve("pyvenv.cfg"))) {
+                Matcher matcher = PYVENV_VERSION.matcher(line.trim());
+                if (matcher.find()) {
+                    return Optional.of(matcher.group(2));
+                }
+            }
+        }
+
+        Optional<Path> prefix = realPath(python).map(Path::getParent).map(Path::getParent);
+        if (prefix.isEmpty()) {
+            return Optional.empty();
+        }
+        Path lib = prefix.get().resolve("lib");
+        if (!Files.isDirectory(lib)) {
+            return Optional.empty();
+        }
+        String found = null;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(lib, "python*")) {
+            for (Path entry : entries) {
+                Matcher matcher = PYTHON_LIB_DIR.matcher(entry.getFileName().toString());
+                if (matcher.matches() && Files.isRegularFile(entry.resolve("os.py"))) {
+                    if (found != null) {
+                        // Several interpreters share this prefix; only the binary knows which it is
+                        return Optional.empty();
+                    }
+                    found = matcher.group(1);
+                }
+            }
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(found);
+    }
+
+    private static Optional<Path> realPath(Path path) {
+        try {
+            return Optional.of(path.toRealPath());
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static List<String> readLines(Path file) {
+        List<String> lines = new ArrayList<>();
+        if (!Files.isRegularFile(file)) {
+            return lines;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            // Unreadable metadata: let the caller fall back to spawning
+            lines.clear();
+        }
+        return lines;
+    }
+}
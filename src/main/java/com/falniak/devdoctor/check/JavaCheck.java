@@ -2,6 +2,8 @@ package com.falniak.devdoctor.check;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -9,27 +11,49 @@ import java.util.regex.Pattern;
  */
 public class JavaCheck implements Check {
 
-    private static final Pattern VERSION_PATTERN = Pattern.compile("version \"([^\"]+)\"");
+    /**
+     * Environment variables that change the output of {@code java -version}: the launcher reports
+     * on the options ones (e.g. "Picked up JAVA_TOOL_OPTIONS"), and {@code JAVA_HOME} picks the JDK
+     * behind launcher stubs such as macOS's {@code /usr/bin/java}.
+     */
+    public static final Set<String> ENVIRONMENT = Set.of("JAVA_HOME", "JAVA_TOOL_OPTIONS", "JDK_JAVA_OPTIONS");
+
+    /**
+     * Extracts the version from the output of {@code java -version}. Every check probing
+     * {@code java -version} stops on this pattern, so they all share one memoized probe.
+     */
+    public static final Pattern VERSION_PATTERN = Pattern.compile("version \"([^\"]+)\"");
 
     @Override
     public String id() {
         return "system.java";
     }
 
+    @Override
+    public List<List<String>> probes(CheckContext ctx) {
+        if (ctx.versionSource().javaVersion().isPresent()) {
+            return List.of();
+        }
+        return List.of(List.of("java", "-version"));
+    }
+
+    @Override
+    public Optional<CheckInputs> inputs(CheckContext ctx) {
+        return Optional.of(CheckInputs.machine(ENVIRONMENT, Set.of("java")));
+    }
+
     @Override
     public CheckResult run(CheckContext ctx) {
+        // The JDK's release file avoids starting a JVM just to learn its version
+        Optional<String> installed = ctx.versionSource().javaVersion();
+        if (installed.isPresent()) {
+            return createPassResult(installed.get());
+        }
+
         try {
-            ExecResult result = ctx.processExecutor().exec(List.of("java", "-version"));
+            ExecResult result = ctx.processExecutor().exec(List.of("java", "-version"), VERSION_PATTERN);
             if (result.exitCode() == 0) {
-                String version = extractVersion(result.stderr());
-                String summary = version != null ? "Java is available (" + version + ")" : "Java is available";
-                return new CheckResult(
-                    id(),
-                    CheckStatus.PASS,
-                    summary,
-                    null,
-                    List.of()
-                );
+                return createPassResult(extractVersion(result.stderr()));
             } else {
                 return createFailResult("Java command returned non-zero exit code: " + result.exitCode());
             }
@@ -49,6 +73,17 @@ public class JavaCheck implements Check {
         return null;
     }
 
+    private CheckResult createPassResult(String version) {
+        String summary = version != null ? "Java is available (" + version + ")" : "Java is available";
+        return new CheckResult(
+            id(),
+            CheckStatus.PASS,
+            summary,
+            null,
+            List.of()
+        );
+    }
+
     private CheckResult createFailResult(String details) {
         List<Suggestion> suggestions = new ArrayList<>();
         suggestions.add(new Suggestion(
@@ -4,6 +4,7 @@ import com.falniak.devdoctor.detect.ProjectType;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -16,6 +17,11 @@ public class JavaProjectInfoCheck implements Check {
         return "project.java";
     }
 
+    @Override
+    public Optional<CheckInputs> inputs(CheckContext ctx) {
+        return Optional.of(CheckInputs.NONE);
+    }
+
     @Override
     public CheckResult run(CheckContext ctx) {
         Set<ProjectType> types = ctx.projectTypes();
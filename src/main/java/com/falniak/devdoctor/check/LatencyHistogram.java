@@ -0,0 +1,114 @@
+package com.falniak.devdoctor.check;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Histogram of millisecond durations over fixed, roughly logarithmic buckets.
+ * Percentiles are estimated from the buckets (the upper bound of the bucket holding the
+ * requested rank, capped at the largest value seen), which is precise enough to tune
+ * timeouts while keeping memory constant. Thread-safe.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Inclusive upper bounds of the buckets in milliseconds; larger values go into an overflow bucket.
+     */
+    static final long[] BUCKET_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000};
+
+    private final long[] counts = new long[BUCKET_BOUNDS.length + 1];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records one duration.
+     *
+     * @param millis The duration in milliseconds (negative values count as 0)
+     */
+    public synchronized void record(long millis) {
+        long value = Math.max(0, millis);
+        counts[bucketOf(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * @return Number of durations recorded
+     */
+    public synchronized long count() {
+        return count;
+    }
+
+    /**
+     * @return The shortest duration recorded in milliseconds, or 0 if nothing was recorded
+     */
+    public synchronized long min() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * @return The longest duration recorded in milliseconds, or 0 if nothing was recorded
+     */
+    public synchronized long max() {
+        return max;
+    }
+
+    /**
+     * @return The mean duration in milliseconds, rounded down, or 0 if nothing was recorded
+     */
+    public synchronized long mean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Estimates a percentile from the buckets.
+     *
+     * @param percentile The percentile, between 0 (exclusive) and 1 (inclusive)
+     * @return The estimate in milliseconds, or 0 if nothing was recorded
+     */
+    public synchronized long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i < BUCKET_BOUNDS.length ? Math.min(BUCKET_BOUNDS[i], max) : max;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the non-empty buckets keyed by their label, e.g. {@code "<=50"} or {@code ">60000"}.
+     *
+     * @return The bucket counts in ascending order
+     */
+    public synchronized Map<String, Long> buckets() {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                String label = i < BUCKET_BOUNDS.length
+                    ? "<=" + BUCKET_BOUNDS[i]
+                    : ">" + BUCKET_BOUNDS[BUCKET_BOUNDS.length - 1];
+                buckets.put(label, counts[i]);
+            }
+        }
+        return buckets;
+    }
+
+    private static int bucketOf(long millis) {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            if (millis <= BUCKET_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS.length;
+    }
+}
@@ -0,0 +1,120 @@
+package com.falniak.devdoctor.check;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+
+/**
+ * ProcessExecutor decorator that runs each distinct command at most once.
+ * Results (including failures such as a missing executable) are shared by all
+ * callers asking for the same command list, and concurrent callers wait for the
+ * invocation already in flight instead of spawning their own.
+ * Intended to be scoped to a single run; create a new instance per run.
+ */
+public class MemoizingProcessExecutor implements ProcessExecutor {
+
+    private final ProcessExecutor delegate;
+    private final ConcurrentMap<Key, CompletableFuture<ExecResult>> results = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a memoizing executor.
+     *
+     * @param delegate The executor that actually runs commands
+     */
+    public MemoizingProcessExecutor(ProcessExecutor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ExecResult exec(List<String> command) throws Exception {
+        return exec(command, null);
+    }
+
+    @Override
+    public ExecResult exec(List<String> command, Pattern stopPattern) throws Exception {
+        // A run stopped early only has the output up to the match, so it is shared per pattern
+        Key key = new Key(List.copyOf(command), stopPattern != null ? stopPattern.pattern() : null);
+        while (true) {
+            CompletableFuture<ExecResult> pending = new CompletableFuture<>();
+            CompletableFuture<ExecResult> existing = results.putIfAbsent(key, pending);
+            if (existing == null) {
+                return execAndPublish(key, stopPattern, pending);
+            }
+
+            try {
+                return existing.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof InterruptedException) {
+                    // The owning caller was cancelled, not the command; try again
+                    continue;
+                }
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                throw new IllegalStateException("Process execution failed", cause);
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<ExecResult> execAsync(List<String> command, Pattern stopPattern) {
+        Key key = new Key(List.copyOf(command), stopPattern != null ? stopPattern.pattern() : null);
+        CompletableFuture<ExecResult> pending = new CompletableFuture<>();
+        CompletableFuture<ExecResult> existing = results.putIfAbsent(key, pending);
+        if (existing == null) {
+            delegate.execAsync(key.command(), stopPattern).whenComplete((result, error) -> {
+                if (error != null) {
+                    if (isCancellation(error)) {
+                        // Do not remember a cancellation as the outcome of the command
+                        results.remove(key, pending);
+                    }
+                    pending.completeExceptionally(error);
+                } else {
+                    pending.complete(result);
+                }
+            });
+            existing = pending;
+        }
+        // Callers get their own view, so cancelling it never cancels the shared invocation
+        return existing.copy().exceptionallyCompose(error -> isCancellation(error)
+            ? execAsync(command, stopPattern)
+            : CompletableFuture.failedFuture(error));
+    }
+
+    private static boolean isCancellation(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof InterruptedException || cause instanceof CancellationException;
+    }
+
+    private ExecResult execAndPublish(Key key, Pattern stopPattern, CompletableFuture<ExecResult> pending)
+            throws Exception {
+        try {
+            ExecResult result = stopPattern != null
+                ? delegate.exec(key.command(), stopPattern)
+                : delegate.exec(key.command());
+            pending.complete(result);
+            return result;
+        } catch (InterruptedException e) {
+            // Do not remember a cancellation as the outcome of the command
+            results.remove(key, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        } catch (Exception e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } catch (Error e) {
+            results.remove(key, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private record Key(List<String> command, String stopPattern) {
+    }
+}
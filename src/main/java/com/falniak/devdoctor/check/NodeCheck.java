@@ -2,6 +2,7 @@ package com.falniak.devdoctor.check;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Check for Node.js availability.
@@ -13,20 +14,30 @@ public class NodeCheck implements Check {
         return "system.node";
     }
 
+    @Override
+    public List<List<String>> probes(CheckContext ctx) {
+        if (ctx.versionSource().nodeVersion().isPresent()) {
+            return List.of();
+        }
+        return List.of(List.of("node", "-v"));
+    }
+
+    @Override
+    public Optional<CheckInputs> inputs(CheckContext ctx) {
+        return Optional.of(CheckInputs.tools("node"));
+    }
+
     @Override
     public CheckResult run(CheckContext ctx) {
+        Optional<String> installed = ctx.versionSource().nodeVersion();
+        if (installed.isPresent()) {
+            return createPassResult(installed.get());
+        }
+
         try {
             ExecResult result = ctx.processExecutor().exec(List.of("node", "-v"));
             if (result.exitCode() == 0) {
-                String version = result.stdout().trim();
-                String summary = version.isEmpty() ? "Node.js is available" : "Node.js is available (" + version + ")";
-                return new CheckResult(
-                    id(),
-                    CheckStatus.PASS,
-                    summary,
-                    null,
-                    List.of()
-                );
+                return createPassResult(result.stdout().trim());
             } else {
                 return createFailResult("Node.js command returned non-zero exit code: " + result.exitCode());
             }
@@ -35,6 +46,17 @@ public class NodeCheck implements Check {
         }
     }
 
+    private CheckResult createPassResult(String version) {
+        String summary = version.isEmpty() ? "Node.js is available" : "Node.js is available (" + version + ")";
+        return new CheckResult(
+            id(),
+            CheckStatus.PASS,
+            summary,
+            null,
+            List.of()
+        );
+    }
+
     private CheckResult createFailResult(String details) {
         List<Suggestion> suggestions = new ArrayList<>();
         suggestions.add(new Suggestion(
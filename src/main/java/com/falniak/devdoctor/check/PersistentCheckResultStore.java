@@ -0,0 +1,179 @@
+package com.falniak.devdoctor.check;
+
+import com.falniak.devdoctor.cache.CheckResultCache;
+import com.falniak.devdoctor.cache.SharedCheckResultCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * CheckResultStore backed by a {@link CheckResultCache}, so results are reused across runs.
+ * A stored result is returned while the fingerprint of the check's inputs is unchanged and it
+ * is younger than the check's time to live. The lifetime bounds what fingerprints cannot see,
+ * such as a daemon that was stopped since a system check last ran.
+ * <p>
+ * Optionally a {@link SharedCheckResultCache} is consulted when the user's own cache has no
+ * usable result, with the input fingerprint as the entry's address, and every stored result is
+ * added to it as well. Since fingerprints do not depend on the machine, machines created from
+ * the same image reuse each other's results for their machine checks.
+ * <p>
+ * Failed results are not stored, so a fixed problem shows up on the next run. In refresh
+ * mode every lookup misses, but fresh results are still stored for the runs that follow.
+ * Counts hits and misses for the report. Safe for concurrent use.
+ */
+public class PersistentCheckResultStore implements CheckResultStore {
+
+    /**
+     * How long a result is reused when neither the check nor {@link CheckTimeouts#DEFAULT_KEY}
+     * has a configured lifetime.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    private final CheckResultCache cache;
+    private final SharedCheckResultCache shared;
+    private final Map<String, Long> ttlMillis;
+    private final boolean refresh;
+    private final Clock clock;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger sharedHits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Creates a store.
+     *
+     * @param cache The persistent cache to consult and update
+     * @param ttlMillis Lifetimes in milliseconds keyed by check ID, with {@link CheckTimeouts#DEFAULT_KEY}
+     *                  as fallback; 0 disables reuse
+     * @param refresh Whether to ignore stored results and only store fresh ones
+     */
+    public PersistentCheckResultStore(CheckResultCache cache, Map<String, Long> ttlMillis, boolean refresh) {
+        this(cache, null, ttlMillis, refresh);
+    }
+
+    /**
+     * Creates a store that also shares results through a shared cache directory.
+     *
+     * @param cache The persistent cache to consult and update
+     * @param shared The shared cache consulted after {@code cache} (nullable for none)
+     * @param ttlMillis Lifetimes in milliseconds keyed by check ID, with {@link CheckTimeouts#DEFAULT_KEY}
+     *                  as fallback; 0 disables reuse
+     * @param refresh Whether to ignore stored results and only store fresh ones
+     */
+    public PersistentCheckResultStore(CheckResultCache cache, SharedCheckResultCache shared,
+                                      Map<String, Long> ttlMillis, boolean refresh) {
+        this(cache, shared, ttlMillis, refresh, Clock.systemUTC());
+    }
+
+    PersistentCheckResultStore(CheckResultCache cache, SharedCheckResultCache shared, Map<String, Long> ttlMillis,
+                               boolean refresh, Clock clock) {
+        this.cache = cache;
+        this.shared = shared;
+        this.ttlMillis = ttlMillis != null ? Map.copyOf(ttlMillis) : Map.of();
+        this.refresh = refresh;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<CheckResult> lookup(String key, String fingerprint) {
+        Optional<CheckResult> result = Optional.empty();
+        if (!refresh) {
+            result = cache.get(key).filter(usable(fingerprint)).flatMap(PersistentCheckResultStore::toResult);
+            if (result.isEmpty() && shared != null) {
+                Optional<CheckResultCache.Entry> entry = shared.get(fingerprint).filter(usable(fingerprint));
+                result = entry.flatMap(PersistentCheckResultStore::toResult);
+                if (result.isPresent()) {
+                    sharedHits.incrementAndGet();
+                    cache.put(key, entry.get());
+                }
+            }
+        }
+        (result.isPresent() ? hits : misses).incrementAndGet();
+        return result;
+    }
+
+    private Predicate<CheckResultCache.Entry> usable(String fingerprint) {
+        return stored -> fingerprint.equals(stored.fingerprint())
+            && clock.millis() - stored.storedAt() < ttlMillis(stored.id());
+    }
+
+    @Override
+    public void store(String key, String fingerprint, CheckResult result) {
+        if (result.status() == CheckStatus.FAIL || ttlMillis(result.id()) == 0) {
+            return;
+        }
+        List<CheckResultCache.StoredSuggestion> suggestions = result.suggestions() == null
+            ? List.of()
+            : result.suggestions().stream()
+                .map(s -> new CheckResultCache.StoredSuggestion(s.message(), s.commands(), s.risk().name()))
+                .collect(Collectors.toList());
+        CheckResultCache.Entry entry = new CheckResultCache.Entry(fingerprint, clock.millis(), result.id(),
+            result.status().name(), result.summary(), result.details(), suggestions, result.skipped());
+        cache.put(key, entry);
+        if (shared != null) {
+            shared.put(fingerprint, entry);
+        }
+    }
+
+    /**
+     * @return Number of checks answered with a stored result
+     */
+    public int hits() {
+        return hits.get();
+    }
+
+    /**
+     * @return Number of those hits that came from the shared cache
+     */
+    public int sharedHits() {
+        return sharedHits.get();
+    }
+
+    /**
+     * @return Whether a shared cache is consulted
+     */
+    public boolean isShared() {
+        return shared != null;
+    }
+
+    /**
+     * @return Number of checks that declare their inputs but had to run
+     */
+    public int misses() {
+        return misses.get();
+    }
+
+    /**
+     * Writes the stored results to disk.
+     */
+    public void save() {
+        cache.save();
+    }
+
+    private long ttlMillis(String checkId) {
+        Long ttl = ttlMillis.get(checkId);
+        if (ttl == null) {
+            ttl = ttlMillis.getOrDefault(CheckTimeouts.DEFAULT_KEY, DEFAULT_TTL.toMillis());
+        }
+        return ttl;
+    }
+
+    private static Optional<CheckResult> toResult(CheckResultCache.Entry entry) {
+        try {
+            List<Suggestion> suggestions = entry.suggestions().stream()
+                .map(s -> new Suggestion(s.message(), s.commands() != null ? s.commands() : List.of(),
+                    Risk.valueOf(s.risk())))
+                .collect(Collectors.toList());
+            return Optional.of(new CheckResult(entry.id(), CheckStatus.valueOf(entry.status()), entry.summary(),
+                entry.details(), suggestions, entry.skipped()));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            // Written by a version with other statuses or risks: run the check instead
+            return Optional.empty();
+        }
+    }
+}
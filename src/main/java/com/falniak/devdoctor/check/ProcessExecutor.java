@@ -1,6 +1,9 @@
 package com.falniak.devdoctor.check;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 
 /**
  * Interface for executing system processes.
@@ -14,4 +17,92 @@ public interface ProcessExecutor {
      * @throws Exception if the process execution fails
      */
     ExecResult exec(List<String> command) throws Exception;
+
+    /**
+     * Executes a command, stopping it as soon as a line of its output matches {@code stopPattern}.
+     * Useful for version probes of tools that keep printing after the version line.
+     * Implementations that cannot stop early simply run the command to completion.
+     *
+     * @param command The command to execute as a list of strings
+     * @param stopPattern Pattern searched for in each output line (nullable to never stop early)
+     * @return The execution result
+     * @throws Exception if the process execution fails
+     */
+    default ExecResult exec(List<String> command, Pattern stopPattern) throws Exception {
+        return exec(command);
+    }
+
+    /**
+     * Starts a command and returns a future completed with its result.
+     * Failures, including a missing executable, complete the future exceptionally.
+     *
+     * @param command The command to execute as a list of strings
+     * @return The future result
+     */
+    default CompletableFuture<ExecResult> execAsync(List<String> command) {
+        return execAsync(command, null);
+    }
+
+    /**
+     * Starts a command, stopping it early when its output matches {@code stopPattern},
+     * and returns a future completed with its result.
+     * The default implementation adapts the blocking {@link #exec(List, Pattern)} by running
+     * it on a shared pool; implementations that can wait for processes without blocking a
+     * thread should override it.
+     *
+     * @param command The command to execute as a list of strings
+     * @param stopPattern Pattern searched for in each output line (nullable to never stop early)
+     * @return The future result
+     */
+    default CompletableFuture<ExecResult> execAsync(List<String> command, Pattern stopPattern) {
+        CompletableFuture<ExecResult> future = new CompletableFuture<>();
+        BlockingExecPool.POOL.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(exec(command, stopPattern));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Starts a command that may run for {@code timeout} instead of the timeout the executor would
+     * choose, and passes its output to {@code listener} while it runs.
+     * The default implementation ignores the timeout and passes all output once the command completed.
+     *
+     * @param command The command to execute as a list of strings
+     * @param timeout How long the command may run
+     * @param listener Receives the output as it is read
+     * @return The future result
+     */
+    default CompletableFuture<ExecResult> execStreaming(List<String> command, Duration timeout,
+                                                        OutputListener listener) {
+        return execAsync(command).thenApply(result -> {
+            byte[] stdout = result.stdoutBytes();
+            listener.onOutput(stdout, stdout.length, false);
+            byte[] stderr = result.stderrBytes();
+            listener.onOutput(stderr, stderr.length, true);
+            return result;
+        });
+    }
+
+    /**
+     * Receives the output of a running command.
+     */
+    @FunctionalInterface
+    interface OutputListener {
+        /**
+         * Called in the order the output was read, from one thread per stream.
+         * The array is reused afterwards, so implementations copy what they keep.
+         *
+         * @param bytes The bytes read
+         * @param length The number of valid bytes in {@code bytes}
+         * @param stderr Whether the bytes were read from standard error
+         */
+        void onOutput(byte[] bytes, int length, boolean stderr);
+    }
 }
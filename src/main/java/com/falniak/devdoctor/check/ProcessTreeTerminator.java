@@ -0,0 +1,148 @@
+package com.falniak.devdoctor.check;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Terminates a process together with everything it started.
+ * Wrappers such as version manager shims or {@code npm} run the real work in child
+ * processes, so killing only the direct child leaves grandchildren running.
+ * <p>
+ * The tree is collected before anything is signalled, since descendants are re-parented
+ * (and no longer reachable) once their parent dies; the collected handles stay valid after
+ * that. Every process gets a graceful termination request, the root first so a wrapper stops
+ * before it can replace children that exit. A wrapper that ignores the request may still
+ * start new children during the grace period, so the descendants of every survivor are
+ * collected again before all remaining processes are killed forcibly. Waiting is done on
+ * {@link ProcessHandle#onExit()} futures, so no thread blocks.
+ * <p>
+ * Children of a process that exited first are reaped by init instead of their parent. Until
+ * then they are zombies, which {@link ProcessHandle#isAlive()} still reports as alive, so
+ * {@link #isRunning(ProcessHandle)} is used to tell whether a process is still running.
+ */
+final class ProcessTreeTerminator {
+
+    /**
+     * How long the processes get to exit after the graceful request.
+     */
+    static final Duration DEFAULT_GRACE = Duration.ofMillis(500);
+
+    /**
+     * How long to wait for forcibly killed processes to disappear.
+     */
+    static final Duration REAP_TIMEOUT = Duration.ofSeconds(1);
+
+    private ProcessTreeTerminator() {
+    }
+
+    /**
+     * Terminates the process and all of its descendants.
+     *
+     * @param root The process to terminate
+     * @param grace How long the processes get between the graceful and the forcible attempt
+     * @return The outcome, completed once every process exited or the reap timeout passed
+     */
+    static CompletableFuture<Termination> terminate(ProcessHandle root, Duration grace) {
+        Set<ProcessHandle> tree = withDescendants(List.of(root));
+        tree.forEach(ProcessTreeTerminator::requestTermination);
+        // Children started while the requests were sent
+        Set<ProcessHandle> late = withDescendants(tree);
+        late.removeAll(tree);
+        late.forEach(ProcessTreeTerminator::requestTermination);
+        tree.addAll(late);
+
+        return awaitExit(running(tree), grace).thenCompose(ignored -> {
+            // Survivors may have started new children in the meantime
+            List<ProcessHandle> survivors = List.copyOf(withDescendants(tree));
+            tree.addAll(survivors);
+            survivors.forEach(ProcessHandle::destroyForcibly);
+            return awaitExit(survivors, REAP_TIMEOUT).thenApply(reaped -> {
+                int survived = running(tree).size();
+                return new Termination(tree.size() - survived, survivors.size(), survived);
+            });
+        });
+    }
+
+    private static void requestTermination(ProcessHandle process) {
+        if (process.supportsNormalTermination()) {
+            process.destroy();
+        } else {
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * Collects the living processes among the given ones, each followed by its descendants.
+     */
+    private static Set<ProcessHandle> withDescendants(Collection<ProcessHandle> processes) {
+        Set<ProcessHandle> living = new LinkedHashSet<>();
+        for (ProcessHandle process : processes) {
+            // Descendants of a collected process were collected with it; listing them is slow
+            if (!living.contains(process) && isRunning(process)) {
+                living.add(process);
+                process.descendants().filter(ProcessTreeTerminator::isRunning).forEach(living::add);
+            }
+        }
+        return living;
+    }
+
+    private static List<ProcessHandle> running(Collection<ProcessHandle> processes) {
+        return processes.stream().filter(ProcessTreeTerminator::isRunning).toList();
+    }
+
+    /**
+     * Tells whether a process is still running, as opposed to exited, including exited but
+     * not yet reaped. Where {@code /proc} is available the process state is read from it.
+     *
+     * @param process The process
+     * @return Whether the process is running
+     */
+    static boolean isRunning(ProcessHandle process) {
+        if (!process.isAlive()) {
+            return false;
+        }
+        try {
+            String stat = Files.readString(Path.of("/proc", Long.toString(process.pid()), "stat"));
+            // The state follows the command name, which is in parentheses and may contain any character
+            int nameEnd = stat.lastIndexOf(')');
+            if (nameEnd < 0 || nameEnd + 2 >= stat.length()) {
+                return true;
+            }
+            char state = stat.charAt(nameEnd + 2);
+            return state != 'Z' && state != 'X';
+        } catch (IOException | UncheckedIOException e) {
+            // No /proc (e.g. macOS) or the process is gone
+            return process.isAlive();
+        }
+    }
+
+    private static CompletableFuture<Void> awaitExit(List<ProcessHandle> processes, Duration timeout) {
+        if (processes.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<?>[] exits = processes.stream()
+            .map(ProcessHandle::onExit)
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(exits)
+            .completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Outcome of terminating a process tree.
+     *
+     * @param terminated Processes that exited
+     * @param forced Processes still running after the grace period, which were killed forcibly
+     * @param survived Processes still alive after the forcible kill
+     */
+    record Termination(int terminated, int forced, int survived) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.falniak.devdoctor.check;
+
+import com.falniak.devdoctor.cache.CommandDurationHistory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Decides how long {@link DefaultProcessExecutor} lets a process run.
+ * Commands are identified by their executable name, optionally followed by their first
+ * argument (e.g. {@code npm ci}). A configured timeout for {@code "npm ci"} wins over one
+ * for {@code "npm"}, which wins over the default. Without a configured timeout and with a
+ * history attached, the timeout adapts to past runs: {@link #HEADROOM} times the
+ * {@link #PERCENTILE} of observed durations, kept between {@link #ADAPTIVE_FLOOR} and
+ * {@link #ADAPTIVE_CEILING}.
+ */
+public class TimeoutPolicy {
+
+    /**
+     * Timeout used when nothing else applies.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Key in a timeout map that replaces {@link #DEFAULT_TIMEOUT}.
+     */
+    public static final String DEFAULT_KEY = "default";
+
+    /**
+     * Shortest timeout the adaptive mode will choose.
+     */
+    public static final Duration ADAPTIVE_FLOOR = Duration.ofSeconds(1);
+
+    /**
+     * Longest timeout the adaptive mode will choose.
+     */
+    public static final Duration ADAPTIVE_CEILING = Duration.ofMinutes(2);
+
+    static final double PERCENTILE = 0.95;
+    static final double HEADROOM = 2.0;
+    static final int MIN_SAMPLES = 5;
+
+    private final Duration defaultTimeout;
+    private final Map<String, Duration> overrides;
+    private final CommandDurationHistory history;
+
+    /**
+     * Creates a policy.
+     *
+     * @param defaultTimeout Timeout for commands without a configured one
+     * @param overrides Timeouts keyed by executable name or executable plus first argument
+     * @param history Observed durations for the adaptive mode (nullable to disable it)
+     */
+    public TimeoutPolicy(Duration defaultTimeout, Map<String, Duration> overrides, CommandDurationHistory history) {
+        this.defaultTimeout = defaultTimeout;
+        this.overrides = Map.copyOf(overrides);
+        this.history = history;
+    }
+
+    /**
+     * Creates a policy that gives every command the same timeout.
+     *
+     * @param timeout The timeout
+     * @return The policy
+     */
+    public static TimeoutPolicy fixed(Duration timeout) {
+        return new TimeoutPolicy(timeout, Map.of(), null);
+    }
+
+    /**
+     * Creates a policy from millisecond values as found in config.
+     *
+     * @param timeoutMillis Timeouts keyed by command, with {@link #DEFAULT_KEY} as fallback
+     * @param history Observed durations for the adaptive mode (nullable to disable it)
+     * @return The policy
+     */
+    public static TimeoutPolicy of(Map<String, Long> timeoutMillis, CommandDurationHistory history) {
+        Duration defaultTimeout = DEFAULT_TIMEOUT;
+        Map<String, Duration> overrides = new HashMap<>();
+        if (timeoutMillis != null) {
+            for (Map.Entry<String, Long> entry : timeoutMillis.entrySet()) {
+                Duration timeout = Duration.ofMillis(entry.getValue());
+                if (DEFAULT_KEY.equals(entry.getKey())) {
+                    defaultTimeout = timeout;
+                } else {
+                    overrides.put(entry.getKey(), timeout);
+                }
+            }
+        }
+        return new TimeoutPolicy(defaultTimeout, overrides, history);
+    }
+
+    /**
+     * Returns the timeout for a command.
+     *
+     * @param command The command about to run
+     * @return The timeout
+     */
+    public Duration timeoutFor(List<String> command) {
+        String key = commandKey(command);
+        Duration configured = overrides.get(key);
+        if (configured == null) {
+            configured = overrides.get(executableName(command));
+        }
+        if (configured != null) {
+            return configured;
+        }
+        if (history != null && history.sampleCount(key) >= MIN_SAMPLES) {
+            OptionalLong observed = history.percentile(key, PERCENTILE);
+            if (observed.isPresent()) {
+                long millis = (long) (observed.getAsLong() * HEADROOM);
+                millis = Math.max(ADAPTIVE_FLOOR.toMillis(), Math.min(ADAPTIVE_CEILING.toMillis(), millis));
+                return Duration.ofMillis(millis);
+            }
+        }
+        return defaultTimeout;
+    }
+
+    /**
+     * Records how long a completed command ran, so commands that are legitimately slow earn a
+     * longer timeout over time. Runs that hit their timeout are recorded with
+     * {@link #recordTimeout(List, Duration)} instead.
+     *
+     * @param command The command that ran
+     * @param elapsed How long it ran
+     */
+    public void record(List<String> command, Duration elapsed) {
+        if (history != null) {
+            history.record(commandKey(command), elapsed.toMillis());
+        }
+    }
+
+    /**
+     * Records that a command was stopped at its timeout. The command needed at least that long,
+     * so the timeout counts as a sample: a command slower than the default keeps doubling its
+     * timeout over a few runs until it completes in time. Adaptive timeouts never exceed
+     * {@link #ADAPTIVE_CEILING}, so a command that hangs stops growing there.
+     *
+     * @param command The command that timed out
+     * @param timeout The timeout it was given
+     */
+    public void recordTimeout(List<String> command, Duration timeout) {
+        if (history != null) {
+            history.record(commandKey(command), Math.min(timeout.toMillis(), ADAPTIVE_CEILING.toMillis()));
+        }
+    }
+
+    /**
+     * Returns the key identifying a command: its executable name plus its first argument.
+     *
+     * @param command The command
+     * @return The key, e.g. {@code git --version}
+     */
+    static String commandKey(List<String> command) {
+        String executable = executableName(command);
+        return command.size() > 1 ? executable + " " + command.get(1) : executable;
+    }
+
+    private static String executableName(List<String> command) {
+        if (command.isEmpty()) {
+            return "";
+        }
+        String executable = command.get(0);
+        int separator = Math.max(executable.lastIndexOf('/'), executable.lastIndexOf('\\'));
+        return executable.substring(separator + 1);
+    }
+}
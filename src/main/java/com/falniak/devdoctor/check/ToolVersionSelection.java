@@ -0,0 +1,178 @@
+package com.falniak.devdoctor.check;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Fingerprints what selects the version of a tool besides its executable file.
+ * Version managers such as pyenv, nodenv, jenv, goenv and asdf put shims on PATH whose file
+ * never changes while the version they run does, and on macOS {@code /usr/bin/java} is a stub
+ * that starts the JDK {@code JAVA_HOME} points to. For those tools the environment variables
+ * and version files the managers read are part of the tool's identity.
+ * <p>
+ * Local version files are looked up like the managers do: in the working directory and then
+ * in each parent, the nearest one winning. Global version files live below the user's home or
+ * the manager's root directory. Version files contribute their contents, never where they were
+ * found, and SDKMAN's link only the name of its target. Environment variables contribute their
+ * values as set, and for {@code JAVA_HOME} and {@code VIRTUAL_ENV} that value is a path: the
+ * result is the same on two machines only if they install those tools in the same place, as
+ * machines created from the same image do.
+ */
+final class ToolVersionSelection {
+
+    private static final Rule JAVA = new Rule(
+        List.of("JAVA_HOME", "JENV_VERSION", "ASDF_JAVA_VERSION"),
+        List.of(".java-version", ".tool-versions", ".sdkmanrc"),
+        List.of(new Global("JENV_ROOT", ".jenv", "version"), new Global(null, "", ".tool-versions"),
+            new Global("SDKMAN_DIR", ".sdkman", "candidates/java/current")));
+
+    private static final Rule PYTHON = new Rule(
+        List.of("PYENV_VERSION", "ASDF_PYTHON_VERSION", "VIRTUAL_ENV"),
+        List.of(".python-version", ".tool-versions"),
+        List.of(new Global("PYENV_ROOT", ".pyenv", "version"), new Global(null, "", ".tool-versions")));
+
+    private static final Rule NODE = new Rule(
+        List.of("NODENV_VERSION", "ASDF_NODEJS_VERSION"),
+        List.of(".node-version", ".nvmrc", ".tool-versions"),
+        List.of(new Global("NODENV_ROOT", ".nodenv", "version"), new Global(null, "", ".tool-versions")));
+
+    private static final Rule GO = new Rule(
+        List.of("GOENV_VERSION", "ASDF_GOLANG_VERSION", "GOTOOLCHAIN"),
+        // The toolchain line of go.mod makes the go command switch versions by itself
+        List.of(".go-version", ".tool-versions", "go.mod"),
+        List.of(new Global("GOENV_ROOT", ".goenv", "version"), new Global(null, "", ".tool-versions")));
+
+    private static final Map<String, Rule> RULES = Map.of(
+        "java", JAVA,
+        "javac", JAVA,
+        "python", PYTHON,
+        "python3", PYTHON,
+        "pip", PYTHON,
+        "pip3", PYTHON,
+        "node", NODE,
+        "npm", NODE,
+        "go", GO
+    );
+
+    private final Function<String, String> environment;
+    private final Path workingDirectory;
+    private final Path home;
+
+    /**
+     * Creates a selection reader.
+     *
+     * @param environment Looks up environment variables (returns null for unset ones)
+     * @param workingDirectory The directory tools are started in
+     * @param home The user's home directory
+     */
+    ToolVersionSelection(Function<String, String> environment, Path workingDirectory, Path home) {
+        this.environment = environment;
+        this.workingDirectory = workingDirectory.toAbsolutePath().normalize();
+        this.home = home;
+    }
+
+    /**
+     * Creates a selection reader for tools started by this process.
+     *
+     * @param environment Looks up environment variables (returns null for unset ones)
+     * @return The reader
+     */
+    static ToolVersionSelection current(Function<String, String> environment) {
+        return new ToolVersionSelection(environment, Paths.get(System.getProperty("user.dir")),
+            Paths.get(System.getProperty("user.home")));
+    }
+
+    /**
+     * Returns a fingerprint of what currently selects the version of a tool.
+     *
+     * @param executable The executable name as run, e.g. {@code python3}
+     * @return A hexadecimal fingerprint, or an empty string for tools without known version selection
+     */
+    String fingerprint(String executable) {
+        Rule rule = RULES.get(executable);
+        if (rule == null) {
+            return "";
+        }
+        MessageDigest digest = sha256();
+        for (String name : rule.environment()) {
+            String value = environment.apply(name);
+            update(digest, "env " + name, value != null ? "=" + value : "unset");
+        }
+        for (String name : rule.localFiles()) {
+            update(digest, "local " + name, nearest(name));
+        }
+        for (Global global : rule.globalFiles()) {
+            update(digest, "global " + global.file(), read(global.resolve(environment, home)));
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+
+    private String nearest(String name) {
+        for (Path directory = workingDirectory; directory != null; directory = directory.getParent()) {
+            Path file = directory.resolve(name);
+            if (Files.isRegularFile(file)) {
+                return read(file);
+            }
+        }
+        return "missing";
+    }
+
+    private static String read(Path file) {
+        try {
+            if (Files.isSymbolicLink(file)) {
+                // SDKMAN switches versions by pointing a link elsewhere
+                return "link " + Files.readSymbolicLink(file).getFileName();
+            }
+            if (!Files.isRegularFile(file)) {
+                return "missing";
+            }
+            return Files.readString(file, StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            return "unreadable";
+        }
+    }
+
+    private static void update(MessageDigest digest, String key, String value) {
+        digest.update(key.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Where the version managers of a tool look for its version.
+     */
+    private record Rule(List<String> environment, List<String> localFiles, List<Global> globalFiles) {
+    }
+
+    /**
+     * A version file below a manager's root directory, which an environment variable may move.
+     *
+     * @param rootVariable Variable naming the root directory (nullable if it cannot be moved)
+     * @param defaultRoot The root directory relative to the home directory
+     * @param file The file relative to the root directory
+     */
+    private record Global(String rootVariable, String defaultRoot, String file) {
+        Path resolve(Function<String, String> environment, Path home) {
+            String root = rootVariable != null ? environment.apply(rootVariable) : null;
+            return (root != null && !root.isBlank() ? Paths.get(root) : home.resolve(defaultRoot)).resolve(file);
+        }
+    }
+}
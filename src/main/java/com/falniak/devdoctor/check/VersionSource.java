@@ -0,0 +1,55 @@
+package com.falniak.devdoctor.check;
+
+import java.util.Optional;
+
+/**
+ * Provides versions of installed runtimes without running them.
+ * Each method describes the runtime a check would otherwise probe on PATH, and
+ * returns empty when the version cannot be determined this way; callers then fall
+ * back to spawning the tool.
+ */
+public interface VersionSource {
+
+    /**
+     * A source that never knows a version, so every check spawns its probe.
+     */
+    VersionSource NONE = new VersionSource() {
+    };
+
+    /**
+     * Returns the version of {@code java}, in the form printed by {@code java -version} (e.g. {@code 17.0.2}).
+     *
+     * @return The Java version if known
+     */
+    default Optional<String> javaVersion() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the version of {@code node}, in the form printed by {@code node -v} (e.g. {@code v20.11.0}).
+     *
+     * @return The Node.js version if known
+     */
+    default Optional<String> nodeVersion() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the version of {@code go}, in the form used by Go toolchains (e.g. {@code go1.21.0}).
+     *
+     * @return The Go version if known
+     */
+    default Optional<String> goVersion() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the version of {@code python} (or {@code python3} when {@code python} is not installed),
+     * without the {@code Python} prefix (e.g. {@code 3.11.4}, or {@code 3.11} when only the minor version is known).
+     *
+     * @return The Python version if known
+     */
+    default Optional<String> pythonVersion() {
+        return Optional.empty();
+    }
+}
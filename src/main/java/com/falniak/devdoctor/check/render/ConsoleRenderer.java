@@ -2,6 +2,7 @@ package com.falniak.devdoctor.check.render;
 
 import com.falniak.devdoctor.check.CheckResult;
 import com.falniak.devdoctor.check.CheckStatus;
+import com.falniak.devdoctor.check.ExecMetrics;
 import com.falniak.devdoctor.check.Suggestion;
 import com.falniak.devdoctor.detect.DetectionResult;
 import com.falniak.devdoctor.detect.ProjectType;
@@ -32,34 +33,12 @@ public class ConsoleRenderer {
      * @param failedRequiredChecks Set of required check IDs that failed
      */
     public void render(DetectionResult detectionResult, List<CheckResult> results, Set<String> failedRequiredChecks) {
-        // Print header
-        System.out.println("Project root: " + detectionResult.root());
-        System.out.println("Detected project types:");
-        
-        if (detectionResult.types().isEmpty()) {
-            System.out.println("  None");
-        } else {
-            for (ProjectType type : detectionResult.types()) {
-                System.out.println("  - " + type.displayName());
-            }
-        }
-        
-        System.out.println();
+        renderHeader(detectionResult);
 
         // Separate system and project checks
         List<CheckResult> systemChecks = new ArrayList<>();
         List<CheckResult> projectChecks = new ArrayList<>();
-        
-        for (CheckResult result : results) {
-            if (result.id().startsWith("system.")) {
-                systemChecks.add(result);
-            } else if (result.id().startsWith("project.")) {
-                projectChecks.add(result);
-            } else {
-                // Fallback: treat as system check if no prefix matches
-                systemChecks.add(result);
-            }
-        }
+        splitByGroup(results, systemChecks, projectChecks);
 
         // Print system checks (only if there are visible checks)
         boolean hasVisibleSystemChecks = hasVisibleChecks(systemChecks);
@@ -90,6 +69,130 @@ public class ConsoleRenderer {
         render(detectionResult, results, Set.of());
     }
 
+    /**
+     * Prints the project header. Used on its own when results are rendered incrementally.
+     *
+     * @param detectionResult The project detection result
+     */
+    public void renderHeader(DetectionResult detectionResult) {
+        System.out.println("Project root: " + detectionResult.root());
+        System.out.println("Detected project types:");
+        
+        if (detectionResult.types().isEmpty()) {
+            System.out.println("  None");
+        } else {
+            for (ProjectType type : detectionResult.types()) {
+                System.out.println("  - " + type.displayName());
+            }
+        }
+        
+        System.out.println();
+    }
+
+    /**
+     * Prints a single check result as soon as it completes.
+     * Intended to be used as a {@link com.falniak.devdoctor.check.CheckListener}.
+     *
+     * @param result The completed check result
+     */
+    public void renderResult(CheckResult result) {
+        printResult(result);
+    }
+
+    /**
+     * Prints the grouped system/project counts and the overall summary
+     * after all results were rendered incrementally.
+     *
+     * @param results All check results of the run
+     * @param failedRequiredChecks Set of required check IDs that failed
+     */
+    public void renderIncrementalSummary(List<CheckResult> results, Set<String> failedRequiredChecks) {
+        List<CheckResult> systemChecks = new ArrayList<>();
+        List<CheckResult> projectChecks = new ArrayList<>();
+        splitByGroup(results, systemChecks, projectChecks);
+
+        System.out.println();
+        if (!systemChecks.isEmpty()) {
+            System.out.println("System checks: " + formatCounts(countByStatus(systemChecks)));
+        }
+        if (!projectChecks.isEmpty()) {
+            System.out.println("Project checks: " + formatCounts(countByStatus(projectChecks)));
+        }
+        printSummary(results, failedRequiredChecks);
+    }
+
+    /**
+     * Prints how many checks were answered from the check result cache and how many of them
+     * came from the shared cache directory.
+     * Nothing is printed when no result was reused, unless in verbose mode.
+     *
+     * @param hits Number of checks answered with a stored result
+     * @param sharedHits Number of those answered from the shared cache, negative without one
+     * @param misses Number of checks that declare their inputs but had to run
+     */
+    public void renderResultCache(int hits, int sharedHits, int misses) {
+        if (hits == 0 && (!verbose || misses == 0)) {
+            return;
+        }
+        System.out.println();
+        System.out.println("Result cache: " + hits + " reused"
+            + (sharedHits >= 0 ? " (" + sharedHits + " from shared cache)" : "")
+            + ", " + misses + " run (use --refresh to run all)");
+    }
+
+    /**
+     * Prints per-command process metrics in verbose mode.
+     * Nothing is printed when no process was started.
+     *
+     * @param metrics The metrics collected while running checks
+     */
+    public void renderExecMetrics(ExecMetrics metrics) {
+        if (!verbose || metrics.processesStarted() == 0) {
+            return;
+        }
+        System.out.println();
+        System.out.println("Process metrics");
+        System.out.println("  Started: " + metrics.processesStarted()
+            + ", timed out: " + metrics.timeouts()
+            + ", terminated: " + metrics.processesTerminated()
+            + " (" + metrics.processesForceKilled() + " forcibly, " + metrics.processesLeaked() + " still running)");
+        for (Map.Entry<String, ExecMetrics.CommandMetrics> entry : metrics.commands().entrySet()) {
+            ExecMetrics.CommandMetrics command = entry.getValue();
+            List<String> exitCodes = new ArrayList<>();
+            command.exitCodes().forEach((code, count) -> exitCodes.add(code + "=" + count));
+            StringBuilder line = new StringBuilder("  ").append(entry.getKey()).append(": ")
+                .append(command.invocations()).append(" run(s)");
+            if (!exitCodes.isEmpty()) {
+                line.append(", exit codes ").append(String.join(" ", exitCodes));
+            }
+            if (command.timeouts() > 0) {
+                line.append(", ").append(command.timeouts()).append(" timed out");
+            }
+            line.append(", spawn ").append(command.spawnLatency().max()).append(" ms");
+            if (command.timeToFirstByte().count() > 0) {
+                line.append(", first byte ").append(command.timeToFirstByte().percentile(0.5)).append(" ms");
+            }
+            line.append(", duration p50 ").append(command.duration().percentile(0.5))
+                .append(" / p95 ").append(command.duration().percentile(0.95))
+                .append(" / max ").append(command.duration().max()).append(" ms");
+            line.append(", ").append(command.stdoutBytes()).append("+").append(command.stderrBytes()).append(" bytes");
+            System.out.println(line);
+        }
+    }
+
+    private void splitByGroup(List<CheckResult> results, List<CheckResult> systemChecks, List<CheckResult> projectChecks) {
+        for (CheckResult result : results) {
+            if (result.id().startsWith("system.")) {
+                systemChecks.add(result);
+            } else if (result.id().startsWith("project.")) {
+                projectChecks.add(result);
+            } else {
+                // Fallback: treat as system check if no prefix matches
+                systemChecks.add(result);
+            }
+        }
+    }
+
     private boolean hasVisibleChecks(List<CheckResult> checks) {
         for (CheckResult result : checks) {
             if (result.status() != CheckStatus.NOT_APPLICABLE || showNa) {
@@ -101,38 +204,66 @@ public class ConsoleRenderer {
 
     private void printCheckGroup(List<CheckResult> checks) {
         for (CheckResult result : checks) {
-            // Filter out NOT_APPLICABLE unless showNa is true
-            if (result.status() == CheckStatus.NOT_APPLICABLE && !showNa) {
-                continue;
-            }
+            printResult(result);
+        }
+    }
 
-            // Print one-line summary
-            String statusStr = "[" + result.status() + "]";
-            System.out.println(statusStr + " " + result.id() + "  " + result.summary());
+    private void printResult(CheckResult result) {
+        // Filter out NOT_APPLICABLE unless showNa is true
+        if (result.status() == CheckStatus.NOT_APPLICABLE && !showNa) {
+            return;
+        }
 
-            // Print details and suggestions if verbose
-            if (verbose) {
-                if (result.details() != null && !result.details().isEmpty()) {
-                    System.out.println("  " + result.details());
-                }
+        // Print one-line summary
+        String statusStr = "[" + result.status() + "]";
+        System.out.println(statusStr + " " + result.id() + "  " + result.summary());
 
-                if (result.suggestions() != null && !result.suggestions().isEmpty()) {
-                    for (Suggestion suggestion : result.suggestions()) {
-                        if (!suggestion.commands().isEmpty()) {
-                            for (String command : suggestion.commands()) {
-                                System.out.println("  > " + command);
-                            }
-                        }
-                        if (suggestion.message() != null && !suggestion.message().isEmpty()) {
-                            System.out.println("  " + suggestion.message());
+        // Print details and suggestions if verbose
+        if (verbose) {
+            if (result.details() != null && !result.details().isEmpty()) {
+                System.out.println("  " + result.details());
+            }
+
+            if (result.suggestions() != null && !result.suggestions().isEmpty()) {
+                for (Suggestion suggestion : result.suggestions()) {
+                    if (!suggestion.commands().isEmpty()) {
+                        for (String command : suggestion.commands()) {
+                            System.out.println("  > " + command);
                         }
                     }
+                    if (suggestion.message() != null && !suggestion.message().isEmpty()) {
+                        System.out.println("  " + suggestion.message());
+                    }
                 }
             }
         }
     }
 
     private void printSummary(List<CheckResult> results, Set<String> failedRequiredChecks) {
+        // Count all results (including filtered ones)
+        Map<CheckStatus, Integer> counts = countByStatus(results);
+
+        String summaryLine = "Summary: " + formatCounts(counts);
+        System.out.println(summaryLine);
+        
+        // Print required checks failure message on separate line if applicable
+        if (!failedRequiredChecks.isEmpty()) {
+            String failedIds = String.join(", ", failedRequiredChecks);
+            System.out.println("Required checks failed: " + failedIds);
+        }
+
+        // Print next steps if any FAIL or WARN exists (but not in verbose mode)
+        int failures = counts.get(CheckStatus.FAIL) + counts.get(CheckStatus.TIMEOUT);
+        if (!verbose && (failures > 0 || counts.get(CheckStatus.WARN) > 0)) {
+            if (failures > 0) {
+                System.out.println("Next steps: re-run with --verbose to see details and suggestions.");
+            } else {
+                System.out.println("Next steps: re-run with --verbose to see recommendations.");
+            }
+        }
+    }
+
+    private Map<CheckStatus, Integer> countByStatus(List<CheckResult> results) {
         Map<CheckStatus, Integer> counts = new HashMap<>();
         
         // Initialize all statuses to 0
@@ -140,35 +271,22 @@ public class ConsoleRenderer {
             counts.put(status, 0);
         }
 
-        // Count all results (including filtered ones)
         for (CheckResult result : results) {
             counts.put(result.status(), counts.get(result.status()) + 1);
         }
+        return counts;
+    }
 
-        // Build summary string
+    private String formatCounts(Map<CheckStatus, Integer> counts) {
         List<String> parts = new ArrayList<>();
         parts.add("PASS=" + counts.get(CheckStatus.PASS));
         parts.add("WARN=" + counts.get(CheckStatus.WARN));
         parts.add("FAIL=" + counts.get(CheckStatus.FAIL));
         parts.add("INFO=" + counts.get(CheckStatus.INFO));
         parts.add("NA=" + counts.get(CheckStatus.NOT_APPLICABLE));
-
-        String summaryLine = "Summary: " + String.join(" ", parts);
-        System.out.println(summaryLine);
-        
-        // Print required checks failure message on separate line if applicable
-        if (!failedRequiredChecks.isEmpty()) {
-            String failedIds = String.join(", ", failedRequiredChecks);
-            System.out.println("Required checks failed: " + failedIds);
-        }
-
-        // Print next steps if any FAIL or WARN exists (but not in verbose mode)
-        if (!verbose && (counts.get(CheckStatus.FAIL) > 0 || counts.get(CheckStatus.WARN) > 0)) {
-            if (counts.get(CheckStatus.FAIL) > 0) {
-                System.out.println("Next steps: re-run with --verbose to see details and suggestions.");
-            } else {
-                System.out.println("Next steps: re-run with --verbose to see recommendations.");
-            }
+        if (counts.get(CheckStatus.TIMEOUT) > 0) {
+            parts.add("TIMEOUT=" + counts.get(CheckStatus.TIMEOUT));
         }
+        return String.join(" ", parts);
     }
 }
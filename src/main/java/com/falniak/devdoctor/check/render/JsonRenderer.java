@@ -2,13 +2,17 @@ package com.falniak.devdoctor.check.render;
 
 import com.falniak.devdoctor.check.CheckResult;
 import com.falniak.devdoctor.check.CheckStatus;
+import com.falniak.devdoctor.check.ExecMetrics;
 import com.falniak.devdoctor.config.DevDoctorConfig;
 import com.falniak.devdoctor.detect.DetectionResult;
 import com.falniak.devdoctor.detect.ProjectType;
 import com.falniak.devdoctor.report.CheckReport;
 import com.falniak.devdoctor.report.CheckResultDto;
 import com.falniak.devdoctor.report.ConfigInfo;
+import com.falniak.devdoctor.report.MetricsInfo;
 import com.falniak.devdoctor.report.ProjectInfo;
+import com.falniak.devdoctor.report.ProjectsReport;
+import com.falniak.devdoctor.report.ResultCacheInfo;
 import com.falniak.devdoctor.report.SummaryInfo;
 import com.falniak.devdoctor.report.ToolInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -44,9 +48,111 @@ public class JsonRenderer {
         Path configPath,
         boolean pretty
     ) {
+        render(detectionResult, results, config, configPath, pretty, null);
+    }
+
+    /**
+     * Renders the detection result and check results to JSON, with process metrics.
+     *
+     * @param detectionResult The project detection result
+     * @param results The list of check results to render (includes all checks, not filtered)
+     * @param config Optional configuration
+     * @param configPath Path to the config file if loaded, null otherwise
+     * @param pretty Whether to pretty-print the JSON
+     * @param metrics Process metrics to include as the {@code metrics} section, null to omit it
+     */
+    public void render(
+        DetectionResult detectionResult,
+        List<CheckResult> results,
+        Optional<DevDoctorConfig> config,
+        Path configPath,
+        boolean pretty,
+        ExecMetrics metrics
+    ) {
+        render(detectionResult, results, config, configPath, pretty, metrics, null);
+    }
+
+    /**
+     * Renders the detection result and check results to JSON, with process metrics and
+     * check result cache statistics.
+     *
+     * @param detectionResult The project detection result
+     * @param results The list of check results to render (includes all checks, not filtered)
+     * @param config Optional configuration
+     * @param configPath Path to the config file if loaded, null otherwise
+     * @param pretty Whether to pretty-print the JSON
+     * @param metrics Process metrics to include as the {@code metrics} section, null to omit it
+     * @param resultCache Cache statistics to include as the {@code resultCache} section, null to omit it
+     */
+    public void render(
+        DetectionResult detectionResult,
+        List<CheckResult> results,
+        Optional<DevDoctorConfig> config,
+        Path configPath,
+        boolean pretty,
+        ExecMetrics metrics,
+        ResultCacheInfo resultCache
+    ) {
+        print(buildReport(detectionResult, results, config, configPath, metrics, resultCache), pretty);
+    }
+
+    /**
+     * Renders the results of a recursive run to JSON: one report per project under
+     * {@code projects}, with the configuration, summary and metrics of the whole run at the top.
+     *
+     * @param resultsByProject The check results of each project, in output order
+     * @param config Optional configuration
+     * @param configPath Path to the config file if loaded, null otherwise
+     * @param pretty Whether to pretty-print the JSON
+     * @param metrics Process metrics to include as the {@code metrics} section, null to omit it
+     */
+    public void renderProjects(
+        Map<DetectionResult, List<CheckResult>> resultsByProject,
+        Optional<DevDoctorConfig> config,
+        Path configPath,
+        boolean pretty,
+        ExecMetrics metrics
+    ) {
+        renderProjects(resultsByProject, config, configPath, pretty, metrics, null);
+    }
+
+    /**
+     * Renders the results of a recursive run to JSON, with check result cache statistics.
+     *
+     * @param resultsByProject The check results of each project, in output order
+     * @param config Optional configuration
+     * @param configPath Path to the config file if loaded, null otherwise
+     * @param pretty Whether to pretty-print the JSON
+     * @param metrics Process metrics to include as the {@code metrics} section, null to omit it
+     * @param resultCache Cache statistics to include as the {@code resultCache} section, null to omit it
+     */
+    public void renderProjects(
+        Map<DetectionResult, List<CheckResult>> resultsByProject,
+        Optional<DevDoctorConfig> config,
+        Path configPath,
+        boolean pretty,
+        ExecMetrics metrics,
+        ResultCacheInfo resultCache
+    ) {
+        List<CheckReport> projects = resultsByProject.entrySet().stream()
+            .map(entry -> buildReport(entry.getKey(), entry.getValue(), Optional.empty(), null, null, null))
+            .collect(Collectors.toList());
+        List<CheckResult> allResults = resultsByProject.values().stream()
+            .flatMap(List::stream)
+            .collect(Collectors.toList());
+        ProjectsReport report = new ProjectsReport(
+            new ToolInfo(TOOL_NAME, TOOL_VERSION),
+            buildConfigInfo(config, configPath),
+            buildSummary(allResults),
+            projects,
+            metrics != null ? MetricsInfo.from(metrics) : null,
+            resultCache
+        );
+        print(report, pretty);
+    }
+
+    private void print(Object report, boolean pretty) {
         try {
-            CheckReport report = buildReport(detectionResult, results, config, configPath);
-            
             ObjectMapper mapper = new ObjectMapper();
             if (pretty) {
                 mapper.enable(SerializationFeature.INDENT_OUTPUT);
@@ -63,7 +169,9 @@ public class JsonRenderer {
         DetectionResult detectionResult,
         List<CheckResult> results,
         Optional<DevDoctorConfig> config,
-        Path configPath
+        Path configPath,
+        ExecMetrics metrics,
+        ResultCacheInfo resultCache
     ) {
         // Build tool info
         ToolInfo tool = new ToolInfo(TOOL_NAME, TOOL_VERSION);
@@ -75,6 +183,22 @@ public class JsonRenderer {
         ProjectInfo project = new ProjectInfo(detectionResult.root(), projectTypes);
 
         // Build config info
+        ConfigInfo configInfo = buildConfigInfo(config, configPath);
+
+        // Build summary
+        SummaryInfo summary = buildSummary(results);
+
+        // Build check results (include all, no filtering)
+        List<CheckResultDto> checkDtos = results.stream()
+            .map(CheckResultDto::from)
+            .collect(Collectors.toList());
+
+        MetricsInfo metricsInfo = metrics != null ? MetricsInfo.from(metrics) : null;
+
+        return new CheckReport(tool, project, configInfo, summary, checkDtos, metricsInfo, resultCache);
+    }
+
+    private ConfigInfo buildConfigInfo(Optional<DevDoctorConfig> config, Path configPath) {
         ConfigInfo configInfo = null;
         if (config.isPresent() || configPath != null) {
             DevDoctorConfig cfg = config.orElse(new DevDoctorConfig(null, null, null));
@@ -84,8 +208,10 @@ public class JsonRenderer {
                 cfg.requireChecks()
             );
         }
+        return configInfo;
+    }
 
-        // Build summary
+    private SummaryInfo buildSummary(List<CheckResult> results) {
         Map<CheckStatus, Integer> counts = new HashMap<>();
         for (CheckStatus status : CheckStatus.values()) {
             counts.put(status, 0);
@@ -93,19 +219,13 @@ public class JsonRenderer {
         for (CheckResult result : results) {
             counts.put(result.status(), counts.get(result.status()) + 1);
         }
-        SummaryInfo summary = new SummaryInfo(
+        return new SummaryInfo(
             counts.get(CheckStatus.PASS),
             counts.get(CheckStatus.WARN),
             counts.get(CheckStatus.FAIL),
             counts.get(CheckStatus.INFO),
-            counts.get(CheckStatus.NOT_APPLICABLE)
+            counts.get(CheckStatus.NOT_APPLICABLE),
+            counts.get(CheckStatus.TIMEOUT)
         );
-
-        // Build check results (include all, no filtering)
-        List<CheckResultDto> checkDtos = results.stream()
-            .map(CheckResultDto::from)
-            .collect(Collectors.toList());
-
-        return new CheckReport(tool, project, configInfo, summary, checkDtos);
     }
 }
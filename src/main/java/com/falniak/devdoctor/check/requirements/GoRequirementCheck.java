@@ -2,6 +2,7 @@ package com.falniak.devdoctor.check.requirements;
 
 import com.falniak.devdoctor.check.Check;
 import com.falniak.devdoctor.check.CheckContext;
+import com.falniak.devdoctor.check.CheckInputs;
 import com.falniak.devdoctor.check.CheckResult;
 import com.falniak.devdoctor.check.CheckStatus;
 import com.falniak.devdoctor.check.ExecResult;
@@ -26,6 +27,19 @@ public class GoRequirementCheck implements Check {
         return "project.go.requirements";
     }
 
+    @Override
+    public List<List<String>> probes(CheckContext ctx) {
+        if (!ctx.projectTypes().contains(ProjectType.GO_MODULES) || ctx.versionSource().goVersion().isPresent()) {
+            return List.of();
+        }
+        return List.of(List.of("go", "version"));
+    }
+
+    @Override
+    public Optional<CheckInputs> inputs(CheckContext ctx) {
+        return Optional.of(new CheckInputs(GoRequirementReader.INPUT_FILES, Set.of(), Set.of("go")));
+    }
+
     @Override
     public CheckResult run(CheckContext ctx) {
         Set<ProjectType> types = ctx.projectTypes();
@@ -54,18 +68,22 @@ public class GoRequirementCheck implements Check {
         Requirement requirement = requirementOpt.get();
 
         // Try to get local version
-        String localVersion;
-        try {
-            ExecResult result = ctx.processExecutor().exec(List.of("go", "version"));
-            if (result.exitCode() != 0) {
-                return createWarnResult("Go not found", requirement);
-            }
-            localVersion = result.stdout().trim();
-            if (localVersion.isEmpty()) {
-                return createWarnResult("Go version output is empty", requirement);
+        String localVersion = ctx.versionSource().goVersion()
+            .map(version -> "go version " + version) // same shape as the probe output
+            .orElse(null);
+        if (localVersion == null) {
+            try {
+                ExecResult result = ctx.processExecutor().exec(List.of("go", "version"));
+                if (result.exitCode() != 0) {
+                    return createWarnResult("Go not found", requirement);
+                }
+                localVersion = result.stdout().trim();
+                if (localVersion.isEmpty()) {
+                    return createWarnResult("Go version output is empty", requirement);
+                }
+            } catch (Exception e) {
+                return createWarnResult("Go not found: " + e.getMessage(), requirement);
             }
-        } catch (Exception e) {
-            return createWarnResult("Go not found: " + e.getMessage(), requirement);
         }
 
         // Extract version from "go version go1.21.0 ..." format
@@ -4,12 +4,18 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Reads Go version requirements from go.mod file.
  */
 public class GoRequirementReader {
 
+    /**
+     * Files read by {@link #read(Path)}, relative to the project root.
+     */
+    public static final Set<String> INPUT_FILES = Set.of("go.mod");
+
     /**
      * Reads the Go version requirement from go.mod.
      *
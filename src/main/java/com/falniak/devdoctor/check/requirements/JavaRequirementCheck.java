@@ -2,9 +2,11 @@ package com.falniak.devdoctor.check.requirements;
 
 import com.falniak.devdoctor.check.Check;
 import com.falniak.devdoctor.check.CheckContext;
+import com.falniak.devdoctor.check.CheckInputs;
 import com.falniak.devdoctor.check.CheckResult;
 import com.falniak.devdoctor.check.CheckStatus;
 import com.falniak.devdoctor.check.ExecResult;
+import com.falniak.devdoctor.check.JavaCheck;
 import com.falniak.devdoctor.check.Risk;
 import com.falniak.devdoctor.check.Suggestion;
 import com.falniak.devdoctor.detect.ProjectType;
@@ -13,6 +15,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Matcher;
 
 /**
  * Check for Java version requirements.
@@ -26,6 +29,26 @@ public class JavaRequirementCheck implements Check {
         return "project.java.requirements";
     }
 
+    @Override
+    public List<List<String>> probes(CheckContext ctx) {
+        Set<ProjectType> types = ctx.projectTypes();
+        if ((!types.contains(ProjectType.JAVA_MAVEN) && !types.contains(ProjectType.JAVA_GRADLE))
+            || ctx.versionSource().javaVersion().isPresent()) {
+            return List.of();
+        }
+        return List.of(List.of("java", "-version"));
+    }
+
+    @Override
+    public Set<String> dependsOn() {
+        return Set.of("system.java");
+    }
+
+    @Override
+    public Optional<CheckInputs> inputs(CheckContext ctx) {
+        return Optional.of(new CheckInputs(JavaRequirementReader.INPUT_FILES, JavaCheck.ENVIRONMENT, Set.of("java")));
+    }
+
     @Override
     public CheckResult run(CheckContext ctx) {
         Set<ProjectType> types = ctx.projectTypes();
@@ -54,19 +77,21 @@ public class JavaRequirementCheck implements Check {
         Requirement requirement = requirementOpt.get();
 
         // Try to get local version using JavaCheck's extractVersion method
-        String localVersion;
-        try {
-            ExecResult result = ctx.processExecutor().exec(List.of("java", "-version"));
-            if (result.exitCode() != 0) {
-                return createWarnResult("Java not found", requirement);
-            }
-            // Use JavaCheck's version extraction logic
-            localVersion = extractJavaVersion(result.stderr());
-            if (localVersion == null || localVersion.isEmpty()) {
-                return createWarnResult("Java version output is empty", requirement);
+        String localVersion = ctx.versionSource().javaVersion().orElse(null);
+        if (localVersion == null) {
+            try {
+                ExecResult result = ctx.processExecutor().exec(List.of("java", "-version"), JavaCheck.VERSION_PATTERN);
+                if (result.exitCode() != 0) {
+                    return createWarnResult("Java not found", requirement);
+                }
+                // Use JavaCheck's version extraction logic
+                localVersion = extractJavaVersion(result.stderr());
+                if (localVersion == null || localVersion.isEmpty()) {
+                    return createWarnResult("Java version output is empty", requirement);
+                }
+            } catch (Exception e) {
+                return createWarnResult("Java not found: " + e.getMessage(), requirement);
             }
-        } catch (Exception e) {
-            return createWarnResult("Java not found: " + e.getMessage(), requirement);
         }
 
         // Parse versions
@@ -132,9 +157,7 @@ public class JavaRequirementCheck implements Check {
         if (output == null || output.isEmpty()) {
             return null;
         }
-        // Reuse JavaCheck's pattern exactly
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("version \"([^\"]+)\"");
-        java.util.regex.Matcher matcher = pattern.matcher(output);
+        Matcher matcher = JavaCheck.VERSION_PATTERN.matcher(output);
         if (matcher.find()) {
             return matcher.group(1);
         }
@@ -1,16 +1,18 @@
 package com.falniak.devdoctor.check.requirements;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -18,6 +20,11 @@ import java.util.regex.Pattern;
  */
 public class JavaRequirementReader {
 
+    /**
+     * Files read by {@link #read(Path)}, relative to the project root.
+     */
+    public static final Set<String> INPUT_FILES = Set.of("pom.xml", "build.gradle", "build.gradle.kts");
+
     private static final Pattern GRADLE_SOURCE_COMPATIBILITY_PATTERN = Pattern.compile(
         "sourceCompatibility\\s*=\\s*(?:JavaVersion\\.VERSION_(\\d+)|[\"'](\\d+)[\"'])"
     );
@@ -60,86 +67,175 @@ public class JavaRequirementReader {
     }
 
     private Optional<Requirement> readFromPomXml(Path pomXmlPath) {
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document doc = builder.parse(pomXmlPath.toFile());
-
-            // Priority 1: maven.compiler.release
-            String release = getPropertyValue(doc, "maven.compiler.release");
-            if (release != null && !release.isEmpty()) {
-                Integer major = VersionParser.parseJavaVersion(release);
-                return Optional.of(new Requirement("java", "pom.xml", release, major));
+        PomScanner scanner = new PomScanner();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(pomXmlPath))) {
+            XMLStreamReader reader = createPomInputFactory().createXMLStreamReader(in);
+            try {
+                scanner.scan(reader);
+            } finally {
+                reader.close();
             }
+        } catch (IOException | XMLStreamException e) {
+            // Return empty on any parsing error
+            return Optional.empty();
+        }
+        String version = scanner.version();
+        if (version == null) {
+            return Optional.empty();
+        }
+        Integer major = VersionParser.parseJavaVersion(version);
+        return Optional.of(new Requirement("java", "pom.xml", version, major));
+    }
 
-            // Priority 2: java.version
-            String javaVersion = getPropertyValue(doc, "java.version");
-            if (javaVersion != null && !javaVersion.isEmpty()) {
-                Integer major = VersionParser.parseJavaVersion(javaVersion);
-                return Optional.of(new Requirement("java", "pom.xml", javaVersion, major));
-            }
+    private static XMLInputFactory createPomInputFactory() {
+        // Factories are not guaranteed to be thread-safe and the default one is cheap to create
+        XMLInputFactory factory = XMLInputFactory.newDefaultFactory();
+        // Never load DTDs or external entities: no network access and no entity expansion
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        return factory;
+    }
 
-            // Priority 3: maven.compiler.target (in properties)
-            String target = getPropertyValue(doc, "maven.compiler.target");
-            if (target != null && !target.isEmpty()) {
-                Integer major = VersionParser.parseJavaVersion(target);
-                return Optional.of(new Requirement("java", "pom.xml", target, major));
-            }
+    /**
+     * Finds the Java version of a POM while streaming through it once. In order of priority,
+     * the version comes from the {@code maven.compiler.release}, {@code java.version} or
+     * {@code maven.compiler.target} property of the project, or else from the {@code release}
+     * or {@code target} setting in the first configuration of the first
+     * {@code maven-compiler-plugin} that has one.
+     * <p>
+     * Only the text of these elements is kept, so memory use does not depend on the size of the
+     * POM. Scanning stops at {@code maven.compiler.release}, and at the end of the project's
+     * properties if one of them was set, since nothing after that can take precedence.
+     */
+    static final class PomScanner {
+        private static final List<String> PROPERTY_NAMES = List.of(
+            "maven.compiler.release", "java.version", "maven.compiler.target");
+        private static final List<String> PLUGIN_SETTING_NAMES = List.of("release", "target");
+        private static final String COMPILER_PLUGIN = "maven-compiler-plugin";
 
-            // Priority 4: maven.compiler.target in plugin configuration
-            String pluginTarget = getPluginConfigValue(doc, "maven-compiler-plugin", "target");
-            if (pluginTarget != null && !pluginTarget.isEmpty()) {
-                Integer major = VersionParser.parseJavaVersion(pluginTarget);
-                return Optional.of(new Requirement("java", "pom.xml", pluginTarget, major));
+        private final String[] properties = new String[PROPERTY_NAMES.size()];
+        private String[] pluginSettings;
+
+        // Element whose text is being collected
+        private String capturedName;
+        private int capturedDepth = -1;
+        private final StringBuilder text = new StringBuilder();
+
+        // Plugin being read
+        private int pluginDepth = -1;
+        private String artifactId;
+        private int configurationDepth = -1;
+        private boolean configurationSeen;
+        private final String[] candidates = new String[PLUGIN_SETTING_NAMES.size()];
+
+        /**
+         * Reads events until the version is known or the document ends.
+         *
+         * @param reader The reader, positioned at the start of the document
+         * @throws XMLStreamException if the POM is malformed
+         */
+        void scan(XMLStreamReader reader) throws XMLStreamException {
+            int depth = 0;
+            boolean inProperties = false;
+            boolean propertiesSeen = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String name = reader.getLocalName();
+                    if (capturedDepth >= 0) {
+                        // Text of nested elements belongs to the captured element
+                        continue;
+                    }
+                    if (depth == 2 && name.equals("properties") && !propertiesSeen) {
+                        inProperties = true;
+                    } else if (inProperties && depth == 3 && PROPERTY_NAMES.contains(name)) {
+                        capture(name, depth);
+                    } else if (pluginDepth < 0 && name.equals("plugin")) {
+                        startPlugin(depth);
+                    } else if (pluginDepth >= 0 && depth == pluginDepth + 1 && name.equals("artifactId")) {
+                        capture(name, depth);
+                    } else if (pluginDepth >= 0 && !configurationSeen && name.equals("configuration")) {
+                        configurationDepth = depth;
+                        configurationSeen = true;
+                    } else if (configurationDepth >= 0 && PLUGIN_SETTING_NAMES.contains(name)
+                            && candidates[PLUGIN_SETTING_NAMES.indexOf(name)] == null) {
+                        capture(name, depth);
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    if (capturedDepth >= 0) {
+                        text.append(reader.getText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == capturedDepth) {
+                        String value = text.toString().trim();
+                        capturedDepth = -1;
+                        if (inProperties) {
+                            properties[PROPERTY_NAMES.indexOf(capturedName)] = value;
+                            if (capturedName.equals(PROPERTY_NAMES.get(0)) && !value.isEmpty()) {
+                                return;
+                            }
+                        } else if (capturedName.equals("artifactId")) {
+                            artifactId = value;
+                        } else {
+                            candidates[PLUGIN_SETTING_NAMES.indexOf(capturedName)] = value;
+                        }
+                    } else if (depth == configurationDepth) {
+                        configurationDepth = -1;
+                    } else if (depth == pluginDepth) {
+                        endPlugin();
+                    } else if (depth == 2 && inProperties) {
+                        inProperties = false;
+                        propertiesSeen = true;
+                        if (firstSet(properties) != null) {
+                            return;
+                        }
+                    }
+                    depth--;
+                }
             }
+        }
 
-        } catch (Exception e) {
-            // Return empty on any parsing error
+        /**
+         * @return The version found, or null if the POM does not specify one
+         */
+        String version() {
+            String version = firstSet(properties);
+            if (version == null && pluginSettings != null) {
+                version = firstSet(pluginSettings);
+            }
+            return version;
         }
 
-        return Optional.empty();
-    }
+        private void capture(String name, int depth) {
+            capturedName = name;
+            capturedDepth = depth;
+            text.setLength(0);
+        }
 
-    private String getPropertyValue(Document doc, String propertyName) {
-        NodeList properties = doc.getElementsByTagName("properties");
-        if (properties.getLength() == 0) {
-            return null;
+        private void startPlugin(int depth) {
+            pluginDepth = depth;
+            artifactId = null;
+            configurationSeen = false;
+            Arrays.fill(candidates, null);
         }
 
-        Element propertiesElement = (Element) properties.item(0);
-        NodeList propertyNodes = propertiesElement.getChildNodes();
-        for (int i = 0; i < propertyNodes.getLength(); i++) {
-            Node node = propertyNodes.item(i);
-            if (node.getNodeType() == Node.ELEMENT_NODE) {
-                Element element = (Element) node;
-                if (propertyName.equals(element.getTagName())) {
-                    return element.getTextContent().trim();
-                }
+        private void endPlugin() {
+            if (pluginSettings == null && COMPILER_PLUGIN.equals(artifactId) && firstSet(candidates) != null) {
+                pluginSettings = candidates.clone();
             }
+            pluginDepth = -1;
         }
-        return null;
-    }
 
-    private String getPluginConfigValue(Document doc, String pluginArtifactId, String configName) {
-        NodeList plugins = doc.getElementsByTagName("plugin");
-        for (int i = 0; i < plugins.getLength(); i++) {
-            Element plugin = (Element) plugins.item(i);
-            NodeList artifactIds = plugin.getElementsByTagName("artifactId");
-            if (artifactIds.getLength() > 0) {
-                String artifactId = artifactIds.item(0).getTextContent().trim();
-                if (pluginArtifactId.equals(artifactId)) {
-                    NodeList configurations = plugin.getElementsByTagName("configuration");
-                    if (configurations.getLength() > 0) {
-                        Element config = (Element) configurations.item(0);
-                        NodeList targets = config.getElementsByTagName(configName);
-                        if (targets.getLength() > 0) {
-                            return targets.item(0).getTextContent().trim();
-                        }
-                    }
+        private static String firstSet(String[] values) {
+            for (String value : values) {
+                if (value != null && !value.isEmpty()) {
+                    return value;
                 }
             }
+            return null;
         }
-        return null;
     }
 
     private Optional<Requirement> readFromBuildGradle(Path buildGradlePath) {
@@ -2,6 +2,7 @@ package com.falniak.devdoctor.check.requirements;
 
 import com.falniak.devdoctor.check.Check;
 import com.falniak.devdoctor.check.CheckContext;
+import com.falniak.devdoctor.check.CheckInputs;
 import com.falniak.devdoctor.check.CheckResult;
 import com.falniak.devdoctor.check.CheckStatus;
 import com.falniak.devdoctor.check.ExecResult;
@@ -26,6 +27,24 @@ public class NodeRequirementCheck implements Check {
         return "project.node.requirements";
     }
 
+    @Override
+    public List<List<String>> probes(CheckContext ctx) {
+        if (!ctx.projectTypes().contains(ProjectType.NODE) || ctx.versionSource().nodeVersion().isPresent()) {
+            return List.of();
+        }
+        return List.of(List.of("node", "-v"));
+    }
+
+    @Override
+    public Set<String> dependsOn() {
+        return Set.of("system.node");
+    }
+
+    @Override
+    public Optional<CheckInputs> inputs(CheckContext ctx) {
+        return Optional.of(new CheckInputs(NodeRequirementReader.INPUT_FILES, Set.of(), Set.of("node")));
+    }
+
     @Override
     public CheckResult run(CheckContext ctx) {
         Set<ProjectType> types = ctx.projectTypes();
@@ -54,18 +73,20 @@ public class NodeRequirementCheck implements Check {
         Requirement requirement = requirementOpt.get();
 
         // Try to get local version
-        String localVersion;
-        try {
-            ExecResult result = ctx.processExecutor().exec(List.of("node", "-v"));
-            if (result.exitCode() != 0) {
-                return createWarnResult("Node.js not found", requirement);
-            }
-            localVersion = result.stdout().trim();
-            if (localVersion.isEmpty()) {
-                return createWarnResult("Node.js version output is empty", requirement);
+        String localVersion = ctx.versionSource().nodeVersion().orElse(null);
+        if (localVersion == null) {
+            try {
+                ExecResult result = ctx.processExecutor().exec(List.of("node", "-v"));
+                if (result.exitCode() != 0) {
+                    return createWarnResult("Node.js not found", requirement);
+                }
+                localVersion = result.stdout().trim();
+                if (localVersion.isEmpty()) {
+                    return createWarnResult("Node.js version output is empty", requirement);
+                }
+            } catch (Exception e) {
+                return createWarnResult("Node.js not found: " + e.getMessage(), requirement);
             }
-        } catch (Exception e) {
-            return createWarnResult("Node.js not found: " + e.getMessage(), requirement);
         }
 
         // Parse versions
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Reads Node.js version requirements from project files.
@@ -16,6 +17,11 @@ public class NodeRequirementReader {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
+    /**
+     * Files read by {@link #read(Path)}, relative to the project root.
+     */
+    public static final Set<String> INPUT_FILES = Set.of(".nvmrc", ".node-version", "package.json");
+
     /**
      * Reads the Node.js version requirement from the project root.
      *
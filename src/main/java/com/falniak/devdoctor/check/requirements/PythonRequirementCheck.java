@@ -2,6 +2,7 @@ package com.falniak.devdoctor.check.requirements;
 
 import com.falniak.devdoctor.check.Check;
 import com.falniak.devdoctor.check.CheckContext;
+import com.falniak.devdoctor.check.CheckInputs;
 import com.falniak.devdoctor.check.CheckResult;
 import com.falniak.devdoctor.check.CheckStatus;
 import com.falniak.devdoctor.check.ExecResult;
@@ -27,14 +28,21 @@ public class PythonRequirementCheck implements Check {
     }
 
     @Override
-    public CheckResult run(CheckContext ctx) {
-        Set<ProjectType> types = ctx.projectTypes();
-        boolean hasPythonProject = types.contains(ProjectType.PYTHON_PYPROJECT) ||
-            types.contains(ProjectType.PYTHON_REQUIREMENTS) ||
-            types.contains(ProjectType.PYTHON_PIPENV) ||
-            types.contains(ProjectType.PYTHON_SETUPPY);
+    public List<List<String>> probes(CheckContext ctx) {
+        if (!hasPythonProject(ctx.projectTypes()) || ctx.versionSource().pythonVersion().isPresent()) {
+            return List.of();
+        }
+        return List.of(List.of("python", "--version"), List.of("python3", "--version"));
+    }
 
-        if (!hasPythonProject) {
+    @Override
+    public Optional<CheckInputs> inputs(CheckContext ctx) {
+        return Optional.of(new CheckInputs(PythonRequirementReader.INPUT_FILES, Set.of(), Set.of("python", "python3")));
+    }
+
+    @Override
+    public CheckResult run(CheckContext ctx) {
+        if (!hasPythonProject(ctx.projectTypes())) {
             return new CheckResult(
                 id(),
                 CheckStatus.NOT_APPLICABLE,
@@ -58,18 +66,22 @@ public class PythonRequirementCheck implements Check {
 
         Requirement requirement = requirementOpt.get();
 
-        // Try to get local version (try python first, then python3)
-        String localVersion = null;
-        try {
-            ExecResult result = ctx.processExecutor().exec(List.of("python", "--version"));
-            if (result.exitCode() == 0) {
-                localVersion = result.stdout().trim();
-                if (localVersion.isEmpty()) {
-                    localVersion = result.stderr().trim();
+        // Try to get local version (install metadata first, then python, then python3)
+        String localVersion = ctx.versionSource().pythonVersion()
+            .map(version -> "Python " + version) // same shape as the probe output
+            .orElse(null);
+        if (localVersion == null) {
+            try {
+                ExecResult result = ctx.processExecutor().exec(List.of("python", "--version"));
+                if (result.exitCode() == 0) {
+                    localVersion = result.stdout().trim();
+                    if (localVersion.isEmpty()) {
+                        localVersion = result.stderr().trim();
+                    }
                 }
+            } catch (Exception e) {
+                // Try python3
             }
-        } catch (Exception e) {
-            // Try python3
         }
 
         if (localVersion == null || localVersion.isEmpty()) {
@@ -178,6 +190,13 @@ public class PythonRequirementCheck implements Check {
         }
     }
 
+    private static boolean hasPythonProject(Set<ProjectType> types) {
+        return types.contains(ProjectType.PYTHON_PYPROJECT) ||
+            types.contains(ProjectType.PYTHON_REQUIREMENTS) ||
+            types.contains(ProjectType.PYTHON_PIPENV) ||
+            types.contains(ProjectType.PYTHON_SETUPPY);
+    }
+
     private CheckResult createWarnResult(String details, Requirement requirement) {
         return new CheckResult(
             id(),
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -12,6 +13,11 @@ import java.util.regex.Pattern;
  */
 public class PythonRequirementReader {
 
+    /**
+     * Files read by {@link #read(Path)}, relative to the project root.
+     */
+    public static final Set<String> INPUT_FILES = Set.of(".python-version", "pyproject.toml");
+
     private static final Pattern PYPROJECT_REQUIRES_PYTHON_PATTERN = Pattern.compile(
         "requires-python\\s*=\\s*[\"']([^\"']+)[\"']"
     );
@@ -1,18 +1,27 @@
 package com.falniak.devdoctor.commands;
 
+import com.falniak.devdoctor.cache.CacheLocations;
+import com.falniak.devdoctor.cache.CheckResultCache;
+import com.falniak.devdoctor.cache.SharedCheckResultCache;
 import com.falniak.devdoctor.check.Check;
 import com.falniak.devdoctor.check.CheckContext;
 import com.falniak.devdoctor.check.CheckResult;
+import com.falniak.devdoctor.check.CheckResultStore;
 import com.falniak.devdoctor.check.CheckRunner;
 import com.falniak.devdoctor.check.CheckStatus;
+import com.falniak.devdoctor.check.CheckTimeouts;
 import com.falniak.devdoctor.check.ComposeProjectInfoCheck;
-import com.falniak.devdoctor.check.DefaultProcessExecutor;
 import com.falniak.devdoctor.check.DockerCheck;
+import com.falniak.devdoctor.check.ExecMetrics;
+import com.falniak.devdoctor.check.ExecutableResolver;
 import com.falniak.devdoctor.check.GitCheck;
+import com.falniak.devdoctor.check.InputFingerprinter;
+import com.falniak.devdoctor.check.InstallMetadataVersionSource;
 import com.falniak.devdoctor.check.JavaCheck;
 import com.falniak.devdoctor.check.JavaProjectInfoCheck;
 import com.falniak.devdoctor.check.NodeCheck;
 import com.falniak.devdoctor.check.NodeProjectInfoCheck;
+import com.falniak.devdoctor.check.PersistentCheckResultStore;
 import com.falniak.devdoctor.check.ProcessExecutor;
 import com.falniak.devdoctor.check.requirements.GoRequirementCheck;
 import com.falniak.devdoctor.check.requirements.JavaRequirementCheck;
@@ -23,17 +32,30 @@ import com.falniak.devdoctor.check.render.JsonRenderer;
 import com.falniak.devdoctor.config.ConfigException;
 import com.falniak.devdoctor.config.ConfigLoader;
 import com.falniak.devdoctor.config.DevDoctorConfig;
+import com.falniak.devdoctor.detect.DetectionCache;
 import com.falniak.devdoctor.detect.DetectionResult;
 import com.falniak.devdoctor.detect.ProjectDetector;
+import com.falniak.devdoctor.detect.ProjectWalker;
+import com.falniak.devdoctor.report.ResultCacheInfo;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Command(
@@ -42,6 +64,9 @@ import java.util.stream.Collectors;
 )
 public class CheckCommand implements java.util.concurrent.Callable<Integer> {
 
+    @Spec
+    private CommandSpec spec;
+
     @Option(
         names = {"--path", "-p"},
         description = "Path to the project directory (default: current directory)",
@@ -91,8 +116,186 @@ public class CheckCommand implements java.util.concurrent.Callable<Integer> {
     )
     private boolean jsonPretty;
 
+    @Option(
+        names = "--sequential",
+        description = "Run checks one after another instead of concurrently"
+    )
+    private boolean sequential;
+
+    private int maxConcurrency = CheckRunner.DEFAULT_MAX_CONCURRENCY;
+
+    @Option(
+        names = "--max-concurrency",
+        defaultValue = "" + CheckRunner.DEFAULT_MAX_CONCURRENCY,
+        description = "Maximum number of checks running at the same time (default: ${DEFAULT-VALUE})"
+    )
+    private void setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new ParameterException(spec.commandLine(),
+                "Invalid value for option '--max-concurrency': must be at least 1, got " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    private Long budget;
+
+    @Option(
+        names = "--budget",
+        paramLabel = "<ms>",
+        description = "Time budget for the whole run in milliseconds; checks still running are reported as TIMEOUT"
+    )
+    private void setBudget(long budget) {
+        if (budget < 1) {
+            throw new ParameterException(spec.commandLine(),
+                "Invalid value for option '--budget': must be a positive number of milliseconds, got " + budget);
+        }
+        this.budget = budget;
+    }
+
+    @Option(
+        names = "--no-cache",
+        description = "Do not use or update the persistent tool version, detection and check result caches"
+    )
+    private boolean noCache;
+
+    @Option(
+        names = "--refresh",
+        description = "Run every check instead of reusing stored results, and store the fresh results"
+    )
+    private boolean refresh;
+
+    @Option(
+        names = "--cache-dir",
+        paramLabel = "<dir>",
+        description = "Shared directory (e.g. a volume mounted into every CI agent) where check results "
+            + "are also stored and looked up"
+    )
+    private String cacheDir;
+
+    @Option(
+        names = "--batch-probes",
+        description = "Run all version probes in a single shell instead of one process each"
+    )
+    private boolean batchProbes;
+
+    @Option(
+        names = "--recursive",
+        description = "Find every sub-project below the path and run project checks for each"
+    )
+    private boolean recursive;
+
+    private int maxDepth = ProjectWalker.DEFAULT_MAX_DEPTH;
+
+    @Option(
+        names = "--max-depth",
+        defaultValue = "" + ProjectWalker.DEFAULT_MAX_DEPTH,
+        description = "Directory levels below the path searched by --recursive (default: ${DEFAULT-VALUE})"
+    )
+    private void setMaxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new ParameterException(spec.commandLine(),
+                "Invalid value for option '--max-depth': must not be negative, got " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    @Option(
+        names = "--stream",
+        negatable = true,
+        description = "Print each console result as soon as it completes "
+            + "(default: on when attached to a terminal)"
+    )
+    private Boolean stream;
+
+    @Option(
+        names = "--watch",
+        description = "Keep running and re-run the checks whose files change (console output only)"
+    )
+    private boolean watch;
+
+    /**
+     * Directory of the per-user probe, duration and check result caches.
+     */
+    private final Path userCacheDirectory;
+
+    /**
+     * Creates the executable resolver of each run.
+     */
+    private final Supplier<ExecutableResolver> resolvers;
+
+    /**
+     * State of the last run, kept in watch mode to re-run single checks.
+     */
+    private WatchSession session;
+
+    /**
+     * Results of this watch session, reused while the inputs of a check are unchanged,
+     * when the persistent check result cache is disabled.
+     */
+    private final CheckResultStore watchResults = CheckResultStore.inMemory();
+
+    /**
+     * The persistent check result store of the last run, null with --no-cache.
+     */
+    private PersistentCheckResultStore resultStore;
+
+    public CheckCommand() {
+        this(CacheLocations.userCacheDirectory());
+    }
+
+    /**
+     * Creates the command with its per-user caches in the given directory.
+     *
+     * @param userCacheDirectory Directory of the probe, duration and check result caches
+     */
+    CheckCommand(Path userCacheDirectory) {
+        this(userCacheDirectory, ExecutableResolver::new);
+    }
+
+    /**
+     * Creates the command with its per-user caches in the given directory, looking up
+     * executables with resolvers from the given supplier.
+     *
+     * @param userCacheDirectory Directory of the probe, duration and check result caches
+     * @param resolvers Creates the resolver of each run
+     */
+    CheckCommand(Path userCacheDirectory, Supplier<ExecutableResolver> resolvers) {
+        this.userCacheDirectory = userCacheDirectory;
+        this.resolvers = resolvers;
+    }
+
     @Override
     public Integer call() {
+        if (watch && (json || jsonPretty)) {
+            System.err.println("--watch cannot be combined with --json");
+            return 2;
+        }
+        if (cacheDir != null && noCache) {
+            System.err.println("--cache-dir cannot be combined with --no-cache");
+            return 2;
+        }
+        int exitCode = runOnce();
+        while (watch && session != null) {
+            try (CheckWatcher watcher = new CheckWatcher(session.watchedDirectories(), CheckWatcher.DEFAULT_DEBOUNCE)) {
+                if (!watchUntilFullRunNeeded(watcher)) {
+                    return exitCode(session.runs());
+                }
+            } catch (IOException e) {
+                System.err.println("Cannot watch for changes: " + e.getMessage());
+                return 2;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return exitCode(session.runs());
+            }
+            // Markers or config changed: detect and load everything again
+            clearScreen();
+            exitCode = runOnce();
+        }
+        return exitCode;
+    }
+
+    private int runOnce() {
+        session = null;
         try {
             Path targetPath = Paths.get(path).toAbsolutePath().normalize();
             
@@ -134,67 +337,153 @@ public class CheckCommand implements java.util.concurrent.Callable<Integer> {
             }
             
             // Build context
-            ProcessExecutor executor = new DefaultProcessExecutor();
-            CheckContext context = new CheckContext(
-                targetPath,
-                detectionResult.root(),
-                detectionResult.types(),
-                detectionResult,
-                executor
-            );
-            
-            // Build check list based on flags
-            List<Check> checks = buildCheckList();
-            
-            // Apply ignoreChecks filtering
-            if (config.isPresent() && !config.get().ignoreChecks().isEmpty()) {
-                Set<String> ignoreSet = config.get().ignoreChecks();
-                checks = checks.stream()
+            ExecMetrics execMetrics = new ExecMetrics();
+            ProcessExecutorStack executors = ProcessExecutorStack.create(
+                userCacheDirectory, !noCache, config, batchProbes, execMetrics, resolvers);
+            ExecutableResolver resolver = executors.resolver();
+            ProcessExecutor executor = executors.executor();
+            // Runtime versions are read from install metadata where possible
+            InstallMetadataVersionSource versionSource = new InstallMetadataVersionSource(resolver);
+
+            // With --recursive every sub-project gets its own project checks; system checks run once
+            List<DetectionResult> projects = List.of(detectionResult);
+            if (recursive) {
+                DetectionCache detectionCache = noCache ? null : DetectionCache.load(targetPath, detector.registry());
+                List<DetectionResult> found = new ProjectWalker(detector, maxDepth, ProjectWalker.defaultParallelism())
+                    .walk(targetPath, detectionCache);
+                if (detectionCache != null) {
+                    detectionCache.save();
+                }
+                if (!found.isEmpty()) {
+                    projects = found;
+                }
+            }
+            Set<String> ignoreSet = config.map(DevDoctorConfig::ignoreChecks).orElse(Set.of());
+            List<CheckContext> contexts = new ArrayList<>();
+            List<List<Check>> checkLists = new ArrayList<>();
+            for (DetectionResult project : projects) {
+                contexts.add(new CheckContext(
+                    targetPath,
+                    project.root(),
+                    project.types(),
+                    project,
+                    executor,
+                    versionSource
+                ));
+                // Apply ignoreChecks filtering
+                checkLists.add(buildCheckList(checkLists.isEmpty()).stream()
                     .filter(check -> !ignoreSet.contains(check.id()))
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toList()));
             }
+
+            // With --batch-probes, start every probe that is not already cached in one shell
+            List<List<String>> probes = new ArrayList<>();
+            for (int i = 0; i < projects.size(); i++) {
+                CheckContext context = contexts.get(i);
+                checkLists.get(i).forEach(check -> probes.addAll(check.probes(context)));
+            }
+            executors.prefetch(probes);
             
             // Run checks
-            CheckRunner runner = new CheckRunner();
-            List<CheckResult> results = runner.runChecks(checks, context);
-            
-            // Determine failed required checks
-            Set<String> failedRequiredChecks = Set.of();
-            if (config.isPresent() && !config.get().requireChecks().isEmpty()) {
-                Set<String> requireSet = config.get().requireChecks();
-                failedRequiredChecks = results.stream()
-                    .filter(result -> requireSet.contains(result.id()))
-                    .filter(result -> result.status() == CheckStatus.FAIL)
-                    .map(CheckResult::id)
-                    .collect(Collectors.toSet());
+            CheckTimeouts timeouts = CheckTimeouts.of(
+                budget,
+                config.map(DevDoctorConfig::checkTimeouts).orElse(Map.of())
+            );
+            // Checks whose declared inputs did not change reuse their stored result until it expires
+            // With --cache-dir, machines built from the same image also reuse each other's results
+            SharedCheckResultCache sharedCache = cacheDir != null ? SharedCheckResultCache.open(Paths.get(cacheDir)) : null;
+            resultStore = noCache ? null : new PersistentCheckResultStore(
+                CheckResultCache.load(userCacheDirectory.resolve(CheckResultCache.FILE_NAME)), sharedCache,
+                config.map(DevDoctorConfig::checkCacheTtl).orElse(Map.of()), refresh);
+            CheckResultStore store = resultStore != null ? resultStore : watch ? watchResults : null;
+            int concurrency = sequential ? 1 : maxConcurrency;
+            CheckRunner runner = new CheckRunner(concurrency, timeouts, new InputFingerprinter(resolver), store);
+            boolean jsonOutput = json || jsonPretty;
+            boolean streaming = !jsonOutput && (stream != null ? stream : System.console() != null);
+            ConsoleRenderer renderer = new ConsoleRenderer(showNa, verbose);
+            Set<String> requireSet = config.map(DevDoctorConfig::requireChecks).orElse(Set.of());
+            List<ProjectRun> runs = new ArrayList<>();
+            for (int i = 0; i < projects.size(); i++) {
+                DetectionResult project = projects.get(i);
+                if (streaming && i > 0) {
+                    System.out.println();
+                }
+                // System checks run with the first project; the others resolve prerequisites from them
+                Map<String, CheckResult> settled = settledResults(runs, i);
+                List<CheckResult> results;
+                if (streaming) {
+                    renderer.renderHeader(project);
+                    results = runner.runChecks(checkLists.get(i), contexts.get(i), renderer::renderResult, settled);
+                } else {
+                    results = runner.runChecks(checkLists.get(i), contexts.get(i), null, settled);
+                }
+
+                // Determine failed required checks
+                Set<String> failedRequiredChecks = failedRequiredChecks(results, requireSet);
+                runs.add(new ProjectRun(project, results, failedRequiredChecks));
+                if (streaming) {
+                    // Results were already printed as they completed
+                    renderer.renderIncrementalSummary(results, failedRequiredChecks);
+                }
+            }
+            executors.save();
+            if (resultStore != null) {
+                resultStore.save();
             }
             
             // Print output
-            if (json || jsonPretty) {
+            if (jsonOutput) {
                 // JSON output mode
                 JsonRenderer jsonRenderer = new JsonRenderer();
-                jsonRenderer.render(
-                    detectionResult,
-                    results,
-                    config,
-                    loadedConfigPath,
-                    jsonPretty
-                );
-            } else {
+                if (recursive) {
+                    Map<DetectionResult, List<CheckResult>> resultsByProject = new LinkedHashMap<>();
+                    runs.forEach(run -> resultsByProject.put(run.project(), run.results()));
+                    jsonRenderer.renderProjects(
+                        resultsByProject,
+                        config,
+                        loadedConfigPath,
+                        jsonPretty,
+                        verbose ? execMetrics : null,
+                        resultCacheInfo()
+                    );
+                } else {
+                    jsonRenderer.render(
+                        detectionResult,
+                        runs.get(0).results(),
+                        config,
+                        loadedConfigPath,
+                        jsonPretty,
+                        verbose ? execMetrics : null,
+                        resultCacheInfo()
+                    );
+                }
+            } else if (!streaming) {
                 // Console output mode
-                ConsoleRenderer renderer = new ConsoleRenderer(showNa, verbose);
-                renderer.render(detectionResult, results, failedRequiredChecks);
+                for (int i = 0; i < runs.size(); i++) {
+                    if (i > 0) {
+                        System.out.println();
+                    }
+                    ProjectRun run = runs.get(i);
+                    renderer.render(run.project(), run.results(), run.failedRequiredChecks());
+                }
+            }
+            if (!jsonOutput) {
+                if (resultStore != null) {
+                    renderer.renderResultCache(resultStore.hits(),
+                        resultStore.isShared() ? resultStore.sharedHits() : -1, resultStore.misses());
+                }
+                renderer.renderExecMetrics(execMetrics);
             }
             
-            // Calculate exit code
-            boolean hasFailures = results.stream()
-                .anyMatch(r -> r.status() == CheckStatus.FAIL);
-            boolean hasFailedRequired = !failedRequiredChecks.isEmpty();
-            
-            if (hasFailures || hasFailedRequired) {
-                return 1;
+            if (watch) {
+                Path configFile = loadedConfigPath != null
+                    ? loadedConfigPath
+                    : configLoader.defaultConfigPath(detectionResult.root());
+                session = new WatchSession(runs, contexts, checkLists, renderer, requireSet, configFile, detector,
+                    executors, concurrency, timeouts, store);
             }
-            return 0;
+
+            return exitCode(runs);
         } catch (Exception e) {
             // Unexpected exception during execution
             System.err.println("Unexpected error: " + e.getMessage());
@@ -202,10 +491,126 @@ public class CheckCommand implements java.util.concurrent.Callable<Integer> {
         }
     }
     
-    private List<Check> buildCheckList() {
+    /**
+     * Waits for changes and re-runs the checks whose input files changed, redrawing the results.
+     *
+     * @param watcher The watcher of the session's directories
+     * @return True if markers or the config changed and everything has to run again,
+     *         false if the watcher was closed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private boolean watchUntilFullRunNeeded(CheckWatcher watcher) throws InterruptedException {
+        WatchSession current = session;
+        while (true) {
+            System.out.println();
+            System.out.println("Watching for changes (Ctrl+C to stop)...");
+            Set<Path> changed = watcher.awaitChanges();
+            if (changed.isEmpty()) {
+                return false;
+            }
+            if (current.needsFullRun(changed)) {
+                return true;
+            }
+
+            long start = System.nanoTime();
+            int rerun = 0;
+            List<ProjectRun> runs = current.runs();
+            Rerun next = current.rerun();
+            List<List<Check>> affectedLists = new ArrayList<>();
+            List<List<String>> probes = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i++) {
+                CheckContext context = next.contexts().get(i);
+                List<Check> affected = CheckWatcher.affectedChecks(current.checkLists().get(i), context, changed);
+                affectedLists.add(affected);
+                affected.forEach(check -> probes.addAll(check.probes(context)));
+            }
+            next.executors().prefetch(probes);
+            for (int i = 0; i < runs.size(); i++) {
+                CheckContext context = next.contexts().get(i);
+                List<Check> affected = affectedLists.get(i);
+                if (affected.isEmpty()) {
+                    continue;
+                }
+                // Prerequisites that did not change keep their last result, e.g. a failed system.java
+                // still skips project.java.requirement after an edit of pom.xml
+                Map<String, CheckResult> previous = settledResults(runs, i);
+                Map<String, CheckResult> fresh = next.runner().runChecks(affected, context, null, previous).stream()
+                    .collect(Collectors.toMap(CheckResult::id, result -> result));
+                List<CheckResult> merged = runs.get(i).results().stream()
+                    .map(result -> fresh.getOrDefault(result.id(), result))
+                    .collect(Collectors.toList());
+                runs.set(i, new ProjectRun(runs.get(i).project(), merged,
+                    failedRequiredChecks(merged, current.requireSet())));
+                rerun += affected.size();
+            }
+            String changedNames = changed.stream()
+                .map(path -> path.getFileName().toString())
+                .distinct()
+                .collect(Collectors.joining(", "));
+            next.executors().save();
+            if (resultStore != null) {
+                resultStore.save();
+            }
+            if (rerun == 0) {
+                System.out.println("Changed: " + changedNames + " (no checks affected)");
+                continue;
+            }
+
+            clearScreen();
+            for (int i = 0; i < runs.size(); i++) {
+                if (i > 0) {
+                    System.out.println();
+                }
+                current.renderer().render(runs.get(i).project(), runs.get(i).results(), runs.get(i).failedRequiredChecks());
+            }
+            System.out.println();
+            System.out.println("Re-ran " + rerun + " check(s) in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms after changes to " + changedNames);
+        }
+    }
+
+    private ResultCacheInfo resultCacheInfo() {
+        if (resultStore == null) {
+            return null;
+        }
+        return new ResultCacheInfo(resultStore.hits(), resultStore.isShared() ? resultStore.sharedHits() : null,
+            resultStore.misses());
+    }
+
+    private static void clearScreen() {
+        if (System.console() != null) {
+            System.out.print("\033[H\033[2J");
+            System.out.flush();
+        }
+    }
+
+    private static Set<String> failedRequiredChecks(List<CheckResult> results, Set<String> requireSet) {
+        return results.stream()
+            .filter(result -> requireSet.contains(result.id()))
+            .filter(result -> result.status() == CheckStatus.FAIL
+                || result.status() == CheckStatus.TIMEOUT)
+            .map(CheckResult::id)
+            .collect(Collectors.toSet());
+    }
+
+    private static int exitCode(List<ProjectRun> runs) {
+        boolean hasFailures = runs.stream()
+            .flatMap(run -> run.results().stream())
+            .anyMatch(r -> r.status() == CheckStatus.FAIL || r.status() == CheckStatus.TIMEOUT);
+        boolean hasFailedRequired = runs.stream().anyMatch(run -> !run.failedRequiredChecks().isEmpty());
+        return hasFailures || hasFailedRequired ? 1 : 0;
+    }
+
+    /**
+     * Builds the checks selected by the flags.
+     *
+     * @param includeSystemChecks Whether system checks are wanted (only for the first project of a recursive run)
+     * @return The checks
+     */
+    private List<Check> buildCheckList(boolean includeSystemChecks) {
         List<Check> checks = new ArrayList<>();
         
-        if (!projectOnly) {
+        if (!projectOnly && includeSystemChecks) {
             // System checks
             checks.add(new JavaCheck());
             checks.add(new GitCheck());
@@ -226,4 +631,96 @@ public class CheckCommand implements java.util.concurrent.Callable<Integer> {
         
         return checks;
     }
+
+    /**
+     * Collects the results a project's checks may use for prerequisites they do not run with:
+     * the system checks of the first project, which run once for all projects, and the
+     * project's own latest results.
+     *
+     * @param runs The projects run so far
+     * @param index The index of the project about to run
+     * @return Results keyed by check ID
+     */
+    private static Map<String, CheckResult> settledResults(List<ProjectRun> runs, int index) {
+        Map<String, CheckResult> settled = new HashMap<>();
+        if (index < runs.size()) {
+            runs.get(index).results().forEach(result -> settled.putIfAbsent(result.id(), result));
+        }
+        if (!runs.isEmpty()) {
+            runs.get(0).results().stream()
+                .filter(result -> result.id().startsWith("system."))
+                .forEach(result -> settled.putIfAbsent(result.id(), result));
+        }
+        return settled;
+    }
+
+    /**
+     * Check results of one project.
+     */
+    private record ProjectRun(DetectionResult project, List<CheckResult> results, Set<String> failedRequiredChecks) {
+    }
+
+    /**
+     * The executors, contexts and runner of one watch re-run.
+     */
+    private record Rerun(ProcessExecutorStack executors, List<CheckContext> contexts, CheckRunner runner) {
+    }
+
+    /**
+     * What watch mode keeps of a run: the contexts, the check lists and the latest results per
+     * project, plus what it needs to build the executors and runner of a re-run. Resolved
+     * executables, batched and memoized probe results and versions only hold for one run, since
+     * a tool may change while watching, so every re-run gets fresh ones; the persistent caches
+     * and the result store are shared.
+     */
+    private record WatchSession(List<ProjectRun> runs, List<CheckContext> contexts, List<List<Check>> checkLists,
+                                ConsoleRenderer renderer, Set<String> requireSet, Path configFile,
+                                ProjectDetector detector, ProcessExecutorStack executors, int concurrency,
+                                CheckTimeouts timeouts, CheckResultStore store) {
+
+        /**
+         * @return Fresh executors, and the contexts and runner of the session using them
+         */
+        Rerun rerun() {
+            ProcessExecutorStack fresh = executors.rerun();
+            InstallMetadataVersionSource versionSource = new InstallMetadataVersionSource(fresh.resolver());
+            List<CheckContext> rerunContexts = contexts.stream()
+                .map(context -> new CheckContext(context.targetPath(), context.projectRoot(),
+                    context.projectTypes(), context.detectionResult(), fresh.executor(), versionSource))
+                .toList();
+            CheckRunner runner = new CheckRunner(concurrency, timeouts, new InputFingerprinter(fresh.resolver()), store);
+            return new Rerun(fresh, rerunContexts, runner);
+        }
+
+        Set<Path> watchedDirectories() {
+            Set<Path> dirs = new LinkedHashSet<>();
+            contexts.forEach(context -> dirs.add(context.projectRoot()));
+            dirs.add(configFile.getParent());
+            return dirs;
+        }
+
+        /**
+         * A changed config, lost events, or markers appearing or disappearing (the project types
+         * may differ) mean the whole run has to be repeated. Editing a marker such as
+         * {@code package.json} only re-runs the checks reading it.
+         */
+        boolean needsFullRun(Set<Path> changed) {
+            Set<Path> dirs = watchedDirectories();
+            for (Path path : changed) {
+                if (path.equals(configFile) || dirs.contains(path)) {
+                    return true;
+                }
+            }
+            for (ProjectRun run : runs) {
+                Path root = run.project().root();
+                boolean markerChanged = changed.stream()
+                    .filter(path -> root.equals(path.getParent()))
+                    .anyMatch(path -> !detector.registry().match(path.getFileName().toString()).isEmpty());
+                if (markerChanged && !detector.detectIn(root).markersFound().equals(run.project().markersFound())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
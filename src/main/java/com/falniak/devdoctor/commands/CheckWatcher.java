@@ -0,0 +1,136 @@
+package com.falniak.devdoctor.commands;
+
+import com.falniak.devdoctor.check.Check;
+import com.falniak.devdoctor.check.CheckContext;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Waits for files to change in a set of directories, for {@code check --watch}.
+ * Directories are watched with a {@link WatchService}, without their subdirectories, since
+ * the files checks read are next to the project's markers. Bursts of events, such as an
+ * editor writing a file in several steps or a branch switch touching many files, are
+ * reported as one change once no event arrived for the debounce interval.
+ */
+final class CheckWatcher implements Closeable {
+
+    /**
+     * How long the file system has to be quiet before a change is reported.
+     */
+    static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(150);
+
+    /**
+     * Longest time a change is held back while events keep arriving.
+     */
+    static final Duration MAX_DELAY = Duration.ofSeconds(2);
+
+    private final WatchService watchService;
+    private final Duration debounce;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+
+    /**
+     * Starts watching.
+     *
+     * @param dirs The directories to watch
+     * @param debounce How long the file system has to be quiet before a change is reported
+     * @throws IOException if a directory cannot be watched
+     */
+    CheckWatcher(Collection<Path> dirs, Duration debounce) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.debounce = debounce;
+        try {
+            for (Path dir : dirs) {
+                WatchKey key = dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+                directories.put(key, dir);
+            }
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Blocks until files changed and the file system has been quiet for the debounce interval.
+     * If events were lost, the affected directory itself is reported, meaning anything in it
+     * may have changed.
+     *
+     * @return The changed paths, or an empty set if the watcher was closed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    Set<Path> awaitChanges() throws InterruptedException {
+        Set<Path> changed = new TreeSet<>();
+        try {
+            WatchKey key = watchService.take();
+            long deadline = System.nanoTime() + MAX_DELAY.toNanos();
+            while (key != null) {
+                collect(key, changed);
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                key = remaining > 0
+                    ? watchService.poll(Math.min(debounce.toMillis(), remaining), TimeUnit.MILLISECONDS)
+                    : null;
+            }
+        } catch (ClosedWatchServiceException e) {
+            return Set.of();
+        }
+        return changed;
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path dir = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed.add(dir);
+            } else {
+                changed.add(dir.resolve((Path) event.context()));
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * Selects the checks that read one of the changed files.
+     *
+     * @param checks The checks of a project
+     * @param ctx The project's check context
+     * @param changed The changed paths
+     * @return The checks with a changed input file, in their original order
+     */
+    static List<Check> affectedChecks(List<Check> checks, CheckContext ctx, Set<Path> changed) {
+        Set<String> changedNames = changed.stream()
+            .filter(path -> ctx.projectRoot().equals(path.getParent()))
+            .map(path -> path.getFileName().toString())
+            .collect(Collectors.toSet());
+        return checks.stream()
+            .filter(check -> !Collections.disjoint(check.inputFiles(ctx), changedNames))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -1,13 +1,19 @@
 package com.falniak.devdoctor.commands;
 
+import com.falniak.devdoctor.detect.DetectionCache;
 import com.falniak.devdoctor.detect.DetectionResult;
 import com.falniak.devdoctor.detect.ProjectDetector;
 import com.falniak.devdoctor.detect.ProjectType;
+import com.falniak.devdoctor.detect.ProjectWalker;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 @Command(
     name = "detect",
@@ -15,6 +21,9 @@ import java.nio.file.Paths;
 )
 public class DetectCommand implements Runnable {
 
+    @Spec
+    private CommandSpec spec;
+
     @Option(
         names = {"--path", "-p"},
         description = "Path to the project directory (default: current directory)",
@@ -22,12 +31,57 @@ public class DetectCommand implements Runnable {
     )
     private String path;
 
+    @Option(
+        names = "--recursive",
+        description = "Find every sub-project below the path instead of the enclosing project"
+    )
+    private boolean recursive;
+
+    private int maxDepth = ProjectWalker.DEFAULT_MAX_DEPTH;
+
+    @Option(
+        names = "--max-depth",
+        defaultValue = "" + ProjectWalker.DEFAULT_MAX_DEPTH,
+        description = "Directory levels below the path searched by --recursive (default: ${DEFAULT-VALUE})"
+    )
+    private void setMaxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new ParameterException(spec.commandLine(),
+                "Invalid value for option '--max-depth': must not be negative, got " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    @Option(
+        names = "--no-cache",
+        description = "Do not use or update the detection cache of --recursive"
+    )
+    private boolean noCache;
+
     @Override
     public void run() {
         Path targetPath = Paths.get(path).toAbsolutePath().normalize();
         ProjectDetector detector = new ProjectDetector();
-        DetectionResult result = detector.detect(targetPath);
 
+        if (recursive) {
+            DetectionCache cache = noCache ? null : DetectionCache.load(targetPath, detector.registry());
+            List<DetectionResult> projects = new ProjectWalker(detector, maxDepth, ProjectWalker.defaultParallelism())
+                .walk(targetPath, cache);
+            if (cache != null) {
+                cache.save();
+            }
+            System.out.println("Projects found: " + projects.size());
+            for (DetectionResult project : projects) {
+                System.out.println();
+                printResult(project);
+            }
+            return;
+        }
+
+        printResult(detector.detect(targetPath));
+    }
+
+    private void printResult(DetectionResult result) {
         System.out.println("Project root: " + result.root());
         System.out.println("Detected project types:");
         
@@ -1,20 +1,26 @@
 package com.falniak.devdoctor.commands;
 
+import com.falniak.devdoctor.cache.CacheLocations;
 import com.falniak.devdoctor.check.Check;
 import com.falniak.devdoctor.check.CheckContext;
 import com.falniak.devdoctor.check.CheckResult;
 import com.falniak.devdoctor.check.CheckRunner;
 import com.falniak.devdoctor.check.CheckStatus;
+import com.falniak.devdoctor.check.CheckTimeouts;
 import com.falniak.devdoctor.check.ComposeProjectInfoCheck;
 import com.falniak.devdoctor.check.DefaultProcessExecutor;
 import com.falniak.devdoctor.check.DockerCheck;
+import com.falniak.devdoctor.check.ExecMetrics;
 import com.falniak.devdoctor.check.ExecResult;
+import com.falniak.devdoctor.check.ExecutableResolver;
 import com.falniak.devdoctor.check.GitCheck;
+import com.falniak.devdoctor.check.InstallMetadataVersionSource;
 import com.falniak.devdoctor.check.JavaCheck;
 import com.falniak.devdoctor.check.JavaProjectInfoCheck;
 import com.falniak.devdoctor.check.NodeCheck;
 import com.falniak.devdoctor.check.NodeProjectInfoCheck;
 import com.falniak.devdoctor.check.ProcessExecutor;
+import com.falniak.devdoctor.check.TimeoutPolicy;
 import com.falniak.devdoctor.check.requirements.GoRequirementCheck;
 import com.falniak.devdoctor.check.requirements.JavaRequirementCheck;
 import com.falniak.devdoctor.check.requirements.NodeRequirementCheck;
@@ -29,7 +35,10 @@ import com.falniak.devdoctor.fix.FixPlan;
 import com.falniak.devdoctor.fix.FixPlanner;
 import com.falniak.devdoctor.fix.Risk;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
@@ -37,6 +46,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -47,6 +57,9 @@ import java.util.stream.Collectors;
 )
 public class FixCommand implements java.util.concurrent.Callable<Integer> {
 
+    @Spec
+    private CommandSpec spec;
+
     @Option(
         names = {"--path", "-p"},
         description = "Path to the project directory (default: current directory)",
@@ -66,6 +79,72 @@ public class FixCommand implements java.util.concurrent.Callable<Integer> {
     )
     private boolean yes;
 
+    @Option(
+        names = "--sequential",
+        description = "Run checks one after another instead of concurrently"
+    )
+    private boolean sequential;
+
+    private int maxConcurrency = CheckRunner.DEFAULT_MAX_CONCURRENCY;
+
+    @Option(
+        names = "--max-concurrency",
+        defaultValue = "" + CheckRunner.DEFAULT_MAX_CONCURRENCY,
+        description = "Maximum number of checks running at the same time (default: ${DEFAULT-VALUE})"
+    )
+    private void setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new ParameterException(spec.commandLine(),
+                "Invalid value for option '--max-concurrency': must be at least 1, got " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    private Long budget;
+
+    @Option(
+        names = "--budget",
+        paramLabel = "<ms>",
+        description = "Time budget for the whole run in milliseconds; checks still running are reported as TIMEOUT"
+    )
+    private void setBudget(long budget) {
+        if (budget < 1) {
+            throw new ParameterException(spec.commandLine(),
+                "Invalid value for option '--budget': must be a positive number of milliseconds, got " + budget);
+        }
+        this.budget = budget;
+    }
+
+    @Option(
+        names = "--no-cache",
+        description = "Do not use or update the persistent tool version cache"
+    )
+    private boolean noCache;
+
+    @Option(
+        names = "--batch-probes",
+        description = "Run all version probes in a single shell instead of one process each"
+    )
+    private boolean batchProbes;
+
+    /**
+     * Directory of the per-user probe cache and duration history.
+     */
+    private final Path userCacheDirectory;
+
+    public FixCommand() {
+        this(CacheLocations.userCacheDirectory());
+    }
+
+    /**
+     * Creates the command with its per-user caches in the given directory.
+     *
+     * @param userCacheDirectory Directory of the probe cache and duration history
+     */
+    FixCommand(Path userCacheDirectory) {
+        this.userCacheDirectory = userCacheDirectory;
+    }
+
     @Override
     public Integer call() {
         try {
@@ -87,13 +166,18 @@ public class FixCommand implements java.util.concurrent.Callable<Integer> {
             }
             
             // Build context
-            ProcessExecutor executor = new DefaultProcessExecutor();
+            ProcessExecutorStack executors = ProcessExecutorStack.create(
+                userCacheDirectory, !noCache, config, batchProbes, new ExecMetrics());
+            ProcessExecutor executor = executors.executor();
+            ExecutableResolver resolver = executors.resolver();
             CheckContext context = new CheckContext(
                 targetPath,
                 detectionResult.root(),
                 detectionResult.types(),
                 detectionResult,
-                executor
+                executor,
+                // Runtime versions are read from install metadata where possible
+                new InstallMetadataVersionSource(resolver)
             );
             
             // Build check list
@@ -106,10 +190,20 @@ public class FixCommand implements java.util.concurrent.Callable<Integer> {
                     .filter(check -> !ignoreSet.contains(check.id()))
                     .collect(Collectors.toList());
             }
+
+            // With --batch-probes, start every probe that is not already cached in one shell
+            executors.prefetch(checks.stream()
+                .flatMap(check -> check.probes(context).stream())
+                .collect(Collectors.toList()));
             
             // Run checks
-            CheckRunner runner = new CheckRunner();
+            CheckTimeouts timeouts = CheckTimeouts.of(
+                budget,
+                config.map(DevDoctorConfig::checkTimeouts).orElse(Map.of())
+            );
+            CheckRunner runner = new CheckRunner(sequential ? 1 : maxConcurrency, timeouts);
             List<CheckResult> results = runner.runChecks(checks, context);
+            executors.save();
             
             // Generate fix plan
             FixPlanner planner = new FixPlanner();
@@ -125,7 +219,9 @@ public class FixCommand implements java.util.concurrent.Callable<Integer> {
             
             // Apply fixes if requested
             if (apply) {
-                return applyFixes(plan, executor, detectionResult.root());
+                int exitCode = applyFixes(plan, detectionResult.root(), executors.timeoutPolicy());
+                executors.save();
+                return exitCode;
             }
             
             return 0;
@@ -228,7 +324,7 @@ public class FixCommand implements java.util.concurrent.Callable<Integer> {
         }
     }
     
-    private int applyFixes(FixPlan plan, ProcessExecutor executor, Path projectRoot) {
+    private int applyFixes(FixPlan plan, Path projectRoot, TimeoutPolicy timeoutPolicy) {
         // Filter to only SAFE and applyable actions
         List<FixAction> safeActions = plan.actions().stream()
             .filter(action -> action.risk() == Risk.SAFE && action.applyable())
@@ -255,7 +351,9 @@ public class FixCommand implements java.util.concurrent.Callable<Integer> {
         System.out.println("==============");
         
         // Create executor with project root as working directory
-        ProcessExecutor projectExecutor = new DefaultProcessExecutor(projectRoot);
+        ProcessExecutor projectExecutor = new DefaultProcessExecutor(
+            projectRoot, new ExecutableResolver(), DefaultProcessExecutor.DEFAULT_CAPTURE_LIMIT, timeoutPolicy,
+            new ExecMetrics());
         
         int applied = 0;
         int skipped = 0;
@@ -0,0 +1,160 @@
+package com.falniak.devdoctor.commands;
+
+import com.falniak.devdoctor.cache.CommandDurationHistory;
+import com.falniak.devdoctor.cache.ProbeCache;
+import com.falniak.devdoctor.check.BatchingProcessExecutor;
+import com.falniak.devdoctor.check.CachingProcessExecutor;
+import com.falniak.devdoctor.check.DefaultProcessExecutor;
+import com.falniak.devdoctor.check.ExecMetrics;
+import com.falniak.devdoctor.check.ExecutableResolver;
+import com.falniak.devdoctor.check.MemoizingProcessExecutor;
+import com.falniak.devdoctor.check.ProcessExecutor;
+import com.falniak.devdoctor.check.TimeoutPolicy;
+import com.falniak.devdoctor.config.DevDoctorConfig;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The process executors the check and fix commands run their checks with.
+ * Version probes are answered from the persistent cache when the tool is unchanged,
+ * and identical probes (e.g. java -version from two checks) spawn only once per run.
+ * Everything but the persistent caches only holds for one run; see {@link #rerun()}.
+ */
+final class ProcessExecutorStack {
+
+    private final Supplier<ExecutableResolver> resolvers;
+    private final ExecutableResolver resolver;
+    private final TimeoutPolicy timeoutPolicy;
+    private final ProbeCache probeCache;
+    private final CommandDurationHistory durationHistory;
+    private final ExecMetrics metrics;
+    private final BatchingProcessExecutor batchingExecutor;
+    private final CachingProcessExecutor cachingExecutor;
+    private final ProcessExecutor executor;
+
+    private ProcessExecutorStack(Supplier<ExecutableResolver> resolvers, TimeoutPolicy timeoutPolicy,
+                                 ProbeCache probeCache, CommandDurationHistory durationHistory,
+                                 boolean batchProbes, ExecMetrics metrics) {
+        this.resolvers = resolvers;
+        this.resolver = resolvers.get();
+        this.timeoutPolicy = timeoutPolicy;
+        this.probeCache = probeCache;
+        this.durationHistory = durationHistory;
+        this.metrics = metrics;
+        ProcessExecutor baseExecutor = new DefaultProcessExecutor(
+            null, resolver, DefaultProcessExecutor.DEFAULT_CAPTURE_LIMIT, timeoutPolicy, metrics);
+        if (batchProbes) {
+            batchingExecutor = new BatchingProcessExecutor(baseExecutor, resolver, timeoutPolicy);
+            baseExecutor = batchingExecutor;
+        } else {
+            batchingExecutor = null;
+        }
+        if (probeCache != null) {
+            cachingExecutor = new CachingProcessExecutor(baseExecutor, probeCache, resolver);
+            baseExecutor = cachingExecutor;
+        } else {
+            cachingExecutor = null;
+        }
+        this.executor = new MemoizingProcessExecutor(baseExecutor);
+    }
+
+    /**
+     * Builds the executors for one run.
+     *
+     * @param cacheDirectory Directory of the per-user probe cache and duration history
+     * @param useProbeCache Whether to read and update the persistent probe cache
+     * @param config The loaded configuration, if any
+     * @param batchProbes Whether to run version probes in a single shell
+     * @param metrics Receives per-command process metrics
+     * @return The executors
+     */
+    static ProcessExecutorStack create(Path cacheDirectory, boolean useProbeCache, Optional<DevDoctorConfig> config,
+                                       boolean batchProbes, ExecMetrics metrics) {
+        return create(cacheDirectory, useProbeCache, config, batchProbes, metrics, ExecutableResolver::new);
+    }
+
+    /**
+     * Builds the executors for one run, looking up executables with resolvers from the given supplier.
+     *
+     * @param cacheDirectory Directory of the per-user probe cache and duration history
+     * @param useProbeCache Whether to read and update the persistent probe cache
+     * @param config The loaded configuration, if any
+     * @param batchProbes Whether to run version probes in a single shell
+     * @param metrics Receives per-command process metrics
+     * @param resolvers Creates the resolver of each run
+     * @return The executors
+     */
+    static ProcessExecutorStack create(Path cacheDirectory, boolean useProbeCache, Optional<DevDoctorConfig> config,
+                                       boolean batchProbes, ExecMetrics metrics,
+                                       Supplier<ExecutableResolver> resolvers) {
+        ProbeCache probeCache = useProbeCache ? ProbeCache.load(cacheDirectory.resolve(ProbeCache.FILE_NAME)) : null;
+        // Per-command timeouts come from config; with adaptive_timeouts they are learned from past runs
+        CommandDurationHistory durationHistory = config.map(DevDoctorConfig::adaptiveTimeouts).orElse(false)
+            ? CommandDurationHistory.load(cacheDirectory.resolve(CommandDurationHistory.FILE_NAME))
+            : null;
+        TimeoutPolicy timeoutPolicy = TimeoutPolicy.of(
+            config.map(DevDoctorConfig::commandTimeouts).orElse(Map.of()),
+            durationHistory
+        );
+        return new ProcessExecutorStack(resolvers, timeoutPolicy, probeCache, durationHistory, batchProbes, metrics);
+    }
+
+    /**
+     * Builds the executors for another run of the same session, e.g. a watch re-run. A tool may
+     * have been installed, removed or upgraded since, so the resolver, the batched probes and the
+     * memoized results start out empty; only the probe cache and duration history are shared.
+     *
+     * @return The executors
+     */
+    ProcessExecutorStack rerun() {
+        return new ProcessExecutorStack(resolvers, timeoutPolicy, probeCache, durationHistory,
+            batchingExecutor != null, metrics);
+    }
+
+    ExecutableResolver resolver() {
+        return resolver;
+    }
+
+    TimeoutPolicy timeoutPolicy() {
+        return timeoutPolicy;
+    }
+
+    /**
+     * @return The memoizing executor checks run their commands with
+     */
+    ProcessExecutor executor() {
+        return executor;
+    }
+
+    /**
+     * With --batch-probes, starts every probe that is not already cached in one shell, ahead of the checks.
+     * Does nothing otherwise.
+     *
+     * @param probes The probes the checks are going to run
+     */
+    void prefetch(List<List<String>> probes) {
+        if (batchingExecutor == null) {
+            return;
+        }
+        batchingExecutor.prefetch(probes.stream()
+            .filter(command -> cachingExecutor == null || !cachingExecutor.isCached(command))
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * Writes the probe cache and duration history back to disk, if they are in use.
+     */
+    void save() {
+        if (probeCache != null) {
+            probeCache.save();
+        }
+        if (durationHistory != null) {
+            durationHistory.save();
+        }
+    }
+}
@@ -97,8 +97,13 @@ public class ConfigLoader {
             Set<String> ignoreChecks = parseStringSet(configMap, "ignore_checks", configPath);
             Set<String> requireChecks = parseStringSet(configMap, "require_checks", configPath);
             List<Integer> ports = parseIntegerList(configMap, "ports", configPath);
+            Map<String, Long> checkTimeouts = parseDurationMap(configMap, "check_timeouts", "check IDs");
+            Map<String, Long> commandTimeouts = parseDurationMap(configMap, "command_timeouts", "commands");
+            boolean adaptiveTimeouts = parseBoolean(configMap, "adaptive_timeouts");
+            Map<String, Long> checkCacheTtl = parseDurationMap(configMap, "check_cache_ttl", "check IDs", true);
             
-            return new DevDoctorConfig(ignoreChecks, requireChecks, ports);
+            return new DevDoctorConfig(ignoreChecks, requireChecks, ports, checkTimeouts,
+                commandTimeouts, adaptiveTimeouts, checkCacheTtl);
         } catch (ClassCastException e) {
             throw new ConfigException("Invalid YAML structure: " + e.getMessage(), e);
         }
@@ -168,4 +173,54 @@ public class ConfigLoader {
         
         return result;
     }
+    
+    private boolean parseBoolean(Map<String, Object> configMap, String key) throws ConfigException {
+        Object value = configMap.get(key);
+        if (value == null) {
+            return false;
+        }
+        if (!(value instanceof Boolean)) {
+            throw new ConfigException("'" + key + "' must be true or false, found: " + value);
+        }
+        return (Boolean) value;
+    }
+    
+    private Map<String, Long> parseDurationMap(Map<String, Object> configMap, String key, String keyDescription)
+            throws ConfigException {
+        return parseDurationMap(configMap, key, keyDescription, false);
+    }
+    
+    private Map<String, Long> parseDurationMap(Map<String, Object> configMap, String key, String keyDescription,
+                                               boolean allowZero) throws ConfigException {
+        Object value = configMap.get(key);
+        if (value == null) {
+            return Map.of();
+        }
+        
+        if (!(value instanceof Map)) {
+            throw new ConfigException("'" + key + "' must be a mapping of " + keyDescription + " to milliseconds");
+        }
+        
+        @SuppressWarnings("unchecked")
+        Map<Object, Object> map = (Map<Object, Object>) value;
+        Map<String, Long> result = new LinkedHashMap<>();
+        
+        for (Map.Entry<Object, Object> entry : map.entrySet()) {
+            if (!(entry.getKey() instanceof String)) {
+                throw new ConfigException("'" + key + "' keys must be strings, found: " + entry.getKey());
+            }
+            Object item = entry.getValue();
+            if (!(item instanceof Integer) && !(item instanceof Long)) {
+                throw new ConfigException("'" + key + "' values must be integers (milliseconds), found: " + item);
+            }
+            long millis = ((Number) item).longValue();
+            if (millis < 0 || (millis == 0 && !allowZero)) {
+                throw new ConfigException("'" + key + "' values must be " + (allowZero ? "zero or positive" : "positive")
+                    + ", found: " + millis + " for " + entry.getKey());
+            }
+            result.put((String) entry.getKey(), millis);
+        }
+        
+        return result;
+    }
 }
@@ -1,6 +1,7 @@
 package com.falniak.devdoctor.config;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -9,11 +10,21 @@ import java.util.Set;
  * @param ignoreChecks Set of check IDs to skip during execution
  * @param requireChecks Set of check IDs that must pass
  * @param ports List of port numbers (stored for future use)
+ * @param checkTimeouts Per-check deadlines in milliseconds, keyed by check ID ("default" applies to all others)
+ * @param commandTimeouts Per-command process timeouts in milliseconds, keyed by executable name or
+ *                        executable plus first argument ("default" applies to all others)
+ * @param adaptiveTimeouts Whether process timeouts are learned from previously observed durations
+ * @param checkCacheTtl How long stored check results are reused, in milliseconds, keyed by check ID
+ *                      ("default" applies to all others, 0 disables reuse)
  */
 public record DevDoctorConfig(
     Set<String> ignoreChecks,
     Set<String> requireChecks,
-    List<Integer> ports
+    List<Integer> ports,
+    Map<String, Long> checkTimeouts,
+    Map<String, Long> commandTimeouts,
+    boolean adaptiveTimeouts,
+    Map<String, Long> checkCacheTtl
 ) {
     /**
      * Creates a config with empty defaults for missing fields.
@@ -28,5 +39,30 @@ public record DevDoctorConfig(
         if (ports == null) {
             ports = List.of();
         }
+        if (checkTimeouts == null) {
+            checkTimeouts = Map.of();
+        }
+        if (commandTimeouts == null) {
+            commandTimeouts = Map.of();
+        }
+        if (checkCacheTtl == null) {
+            checkCacheTtl = Map.of();
+        }
+    }
+
+    /**
+     * Creates a config without check timeouts.
+     */
+    public DevDoctorConfig(Set<String> ignoreChecks, Set<String> requireChecks, List<Integer> ports) {
+        this(ignoreChecks, requireChecks, ports, null, null, false, null);
+    }
+
+    /**
+     * Creates a config with the default check result cache lifetimes.
+     */
+    public DevDoctorConfig(Set<String> ignoreChecks, Set<String> requireChecks, List<Integer> ports,
+                           Map<String, Long> checkTimeouts, Map<String, Long> commandTimeouts,
+                           boolean adaptiveTimeouts) {
+        this(ignoreChecks, requireChecks, ports, checkTimeouts, commandTimeouts, adaptiveTimeouts, null);
     }
 }
@@ -0,0 +1,324 @@
+package com.falniak.devdoctor.detect;
+
+import com.falniak.devdoctor.cache.CacheFiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistent record of what {@link ProjectWalker} found in each directory of a tree, stored
+ * in a compact binary file below the walked directory. An entry holds a directory's project
+ * types, marker names and subdirectory names, and is keyed by the directory's modification
+ * time plus a hash of its entry names.
+ * <p>
+ * Entries are revalidated lazily while walking: a directory whose modification time is
+ * unchanged is not listed again, so an unchanged subtree costs one attribute read per
+ * directory instead of a listing and a read per entry. When only the modification time
+ * changed (e.g. an editor saved a file by renaming over it), the listing hash still matches
+ * and the cached subdirectory names spare reading the attributes of every other entry.
+ * Entries for directories modified within {@link #RACY_WINDOW_MILLIS} of the walk are never
+ * trusted by time alone, since a later change may not move the timestamp.
+ * <p>
+ * The listing hash covers entry names only, so it cannot tell a file replaced by a directory
+ * of the same name. The cached subdirectory names are therefore only used while the directory's
+ * link count, which counts its subdirectories on most Unix file systems, is unchanged too.
+ * Where the link count does not track subdirectories, every entry is looked at again.
+ * <p>
+ * Only directories reached by the last walk are kept. Like the other caches it is best
+ * effort: unreadable or outdated files are treated as empty and write errors are ignored.
+ * Safe to use from the walker's threads.
+ */
+public final class DetectionCache {
+
+    /**
+     * Location of the cache file relative to the walked directory.
+     */
+    public static final Path RELATIVE_PATH = Path.of(".devdoctor", "cache", "detect.bin");
+
+    /**
+     * Modification times this close to the walk are not trusted on the next walk.
+     */
+    static final long RACY_WINDOW_MILLIS = 2000;
+
+    /**
+     * Link count of a directory whose file system does not count its subdirectories in it.
+     */
+    static final long NO_LINKS = -1;
+
+    private static final int MAGIC = 0x44444443;
+    private static final int FORMAT_VERSION = 2;
+    private static final long UNTRUSTED = Long.MIN_VALUE;
+
+    private final Path file;
+    private final Path root;
+    private final long registryFingerprint;
+    private final long startedMillis = System.currentTimeMillis();
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger revalidated = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private volatile boolean dirty;
+
+    private DetectionCache(Path file, Path root, long registryFingerprint, Map<String, Entry> previous) {
+        this.file = file;
+        this.root = root;
+        this.registryFingerprint = registryFingerprint;
+        this.previous = previous;
+    }
+
+    /**
+     * Loads the cache of a directory tree from {@link #RELATIVE_PATH} below its root.
+     *
+     * @param root The directory the tree is walked from
+     * @param registry The marker rules in use; a cache written with other rules is discarded
+     * @return The loaded cache (empty if missing, unreadable or outdated)
+     */
+    public static DetectionCache load(Path root, MarkerRegistry registry) {
+        Path normalizedRoot = root.toAbsolutePath().normalize();
+        return load(normalizedRoot.resolve(RELATIVE_PATH), normalizedRoot, registry);
+    }
+
+    /**
+     * Loads the cache of a directory tree from the given file.
+     *
+     * @param file The cache file
+     * @param root The directory the tree is walked from
+     * @param registry The marker rules in use; a cache written with other rules is discarded
+     * @return The loaded cache (empty if missing, unreadable or outdated)
+     */
+    public static DetectionCache load(Path file, Path root, MarkerRegistry registry) {
+        long fingerprint = fingerprint(registry);
+        Map<String, Entry> entries = Map.of();
+        if (Files.isRegularFile(file)) {
+            try {
+                entries = read(Files.readAllBytes(file), fingerprint);
+            } catch (IOException | IllegalArgumentException e) {
+                // Corrupt, outdated or incompatible cache: start over
+            }
+        }
+        return new DetectionCache(file, root.toAbsolutePath().normalize(), fingerprint, entries);
+    }
+
+    /**
+     * Returns the entry of a directory if it can be used without listing the directory.
+     *
+     * @param dir The directory
+     * @param modified The directory's current modification time in milliseconds
+     * @return The entry, or null if the directory has to be listed
+     */
+    Entry lookup(Path dir, long modified) {
+        String key = key(dir);
+        Entry entry = previous.get(key);
+        if (entry == null || entry.modified() == UNTRUSTED || entry.modified() != modified) {
+            return null;
+        }
+        hits.incrementAndGet();
+        current.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Returns the entry of a directory that had to be listed again, if its entry names are still the same.
+     * The caller decides with the entry's link count whether its subdirectory names are still complete.
+     *
+     * @param dir The directory
+     * @param listingHash The hash of the directory's entry names, see {@link #listingHash(Collection)}
+     * @return The entry, or null if the listing changed
+     */
+    Entry revalidate(Path dir, long listingHash) {
+        Entry entry = previous.get(key(dir));
+        if (entry == null || entry.listingHash() != listingHash) {
+            misses.incrementAndGet();
+            return null;
+        }
+        revalidated.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Records what a listing of a directory found.
+     *
+     * @param dir The directory
+     * @param entry The entry; its modification time is not trusted if it is too recent
+     */
+    void put(Path dir, Entry entry) {
+        Entry stored = entry.modified() >= startedMillis - RACY_WINDOW_MILLIS
+            ? new Entry(UNTRUSTED, entry.listingHash(), entry.types(), entry.markers(), entry.directories(),
+                entry.links(), entry.hasIgnoreFile())
+            : entry;
+        current.put(key(dir), stored);
+        dirty = true;
+    }
+
+    /**
+     * @return Number of directories whose listing was skipped
+     */
+    public int hits() {
+        return hits.get();
+    }
+
+    /**
+     * @return Number of directories listed again whose entry names were unchanged
+     */
+    public int revalidated() {
+        return revalidated.get();
+    }
+
+    /**
+     * @return Number of directories listed without a usable entry
+     */
+    public int misses() {
+        return misses.get();
+    }
+
+    /**
+     * Writes the entries of the directories reached by the walk back to disk, if anything changed.
+     * A {@code .gitignore} is put next to the file so the cache is not committed by accident.
+     */
+    public void save() {
+        if (!dirty && current.size() == previous.size()) {
+            return;
+        }
+        try {
+            CacheFiles.writeAtomically(file, write());
+            Path gitignore = file.getParent().resolve(".gitignore");
+            if (!Files.exists(gitignore)) {
+                Files.writeString(gitignore, "*\n");
+            }
+            dirty = false;
+        } catch (IOException e) {
+            // The cache is an optimization; never fail a run because of it
+        }
+    }
+
+    /**
+     * Hashes the entry names of a directory, independent of their order.
+     *
+     * @param names The entry names
+     * @return The hash
+     */
+    static long listingHash(Collection<String> names) {
+        // Sum of per-name FNV-1a hashes, so the listing order does not matter
+        long hash = names.size();
+        for (String name : names) {
+            hash += fnv1a(name);
+        }
+        return hash;
+    }
+
+    private String key(Path dir) {
+        return root.relativize(dir.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+
+    private static long fingerprint(MarkerRegistry registry) {
+        return fnv1a(registry.rules().toString());
+    }
+
+    private static long fnv1a(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private byte[] write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(registryFingerprint);
+            Map<String, Entry> sorted = new TreeMap<>(current);
+            out.writeInt(sorted.size());
+            for (Map.Entry<String, Entry> mapEntry : sorted.entrySet()) {
+                Entry entry = mapEntry.getValue();
+                out.writeUTF(mapEntry.getKey());
+                out.writeLong(entry.modified());
+                out.writeLong(entry.listingHash());
+                writeStrings(out, entry.types().stream().map(Enum::name).toList());
+                writeStrings(out, entry.markers());
+                writeStrings(out, entry.directories());
+                out.writeLong(entry.links());
+                out.writeBoolean(entry.hasIgnoreFile());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Map<String, Entry> read(byte[] content, long expectedFingerprint) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(content))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readLong() != expectedFingerprint) {
+                return Map.of();
+            }
+            int count = in.readInt();
+            Map<String, Entry> entries = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                long modified = in.readLong();
+                long listingHash = in.readLong();
+                Set<ProjectType> types = EnumSet.noneOf(ProjectType.class);
+                for (String type : readStrings(in)) {
+                    types.add(ProjectType.valueOf(type));
+                }
+                List<String> markers = readStrings(in);
+                List<String> directories = readStrings(in);
+                long links = in.readLong();
+                boolean hasIgnoreFile = in.readBoolean();
+                entries.put(key, new Entry(modified, listingHash, types, markers, directories, links, hasIgnoreFile));
+            }
+            return entries;
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Negative list size: " + size);
+        }
+        List<String> values = new ArrayList<>(Math.min(size, 1024));
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    /**
+     * What a listing of one directory found.
+     *
+     * @param modified The directory's modification time in milliseconds when it was listed
+     * @param listingHash Hash of the directory's entry names
+     * @param types The project types its markers indicate
+     * @param markers The marker file names, in reporting order
+     * @param directories The names of its subdirectories, sorted, including ignored ones
+     * @param links Its link count when that was two plus its number of subdirectories, otherwise {@link #NO_LINKS}
+     * @param hasIgnoreFile Whether it contains a {@code .gitignore} or {@code .devdoctorignore}
+     */
+    record Entry(long modified, long listingHash, Set<ProjectType> types, List<String> markers,
+                 List<String> directories, long links, boolean hasIgnoreFile) {
+    }
+}
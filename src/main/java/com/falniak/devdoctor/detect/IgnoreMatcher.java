@@ -0,0 +1,280 @@
+package com.falniak.devdoctor.detect;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which directories a tree walk skips without opening them.
+ * The root matcher holds a built-in deny list of dependency, build output, VCS and
+ * DevDoctor state directories; {@link #forDirectory(Path)} adds the patterns of a directory's
+ * {@code .gitignore} and {@code .devdoctorignore} files, which then apply to everything
+ * below that directory. Patterns follow the gitignore syntax: {@code #} comments, {@code !}
+ * negation, a trailing {@code /} for directories only, a leading or inner {@code /} to anchor
+ * the pattern to its file's directory, and the wildcards {@code *}, {@code ?}, {@code [...]}
+ * and {@code **}. As in git, the last matching pattern wins and patterns in deeper
+ * directories override those above them, so {@code !build/} in a {@code .devdoctorignore}
+ * brings back a directory the deny list skips.
+ * <p>
+ * Patterns are compiled once per ignore file. In files without negations, plain names are
+ * kept in hash sets, so the common case costs a constant number of lookups; only wildcard
+ * patterns are tried one by one. Immutable and safe to share between walker threads.
+ */
+public final class IgnoreMatcher {
+
+    /**
+     * Directories skipped by default, wherever they appear.
+     */
+    public static final List<String> BUILT_IN_DIRECTORIES = List.of(
+        "node_modules", "target", "build", ".git", ".venv", "vendor", ".devdoctor");
+
+    /**
+     * Files whose patterns are applied to the directory they are in and everything below it.
+     */
+    public static final List<String> IGNORE_FILE_NAMES = List.of(".gitignore", ".devdoctorignore");
+
+    private static final IgnoreMatcher BUILT_IN = new IgnoreMatcher(null, null,
+        BUILT_IN_DIRECTORIES.stream().map(name -> name + "/").toList());
+
+    private final IgnoreMatcher parent;
+    private final Path base;
+    private final List<Rule> rules = new ArrayList<>();
+    private final Set<String> names = new HashSet<>();
+    private final Set<String> directoryNames = new HashSet<>();
+    private final boolean ordered;
+
+    private IgnoreMatcher(IgnoreMatcher parent, Path base, List<String> patterns) {
+        this.parent = parent;
+        this.base = base;
+        List<Rule> compiled = new ArrayList<>();
+        for (String line : patterns) {
+            Rule rule = Rule.parse(line);
+            if (rule != null) {
+                compiled.add(rule);
+            }
+        }
+        this.ordered = compiled.stream().anyMatch(Rule::negated);
+        for (Rule rule : compiled) {
+            if (!ordered && rule.literal() != null && !rule.anchored()) {
+                (rule.directoryOnly() ? directoryNames : names).add(rule.literal());
+            } else {
+                rules.add(rule);
+            }
+        }
+    }
+
+    /**
+     * Returns the matcher with only the built-in deny list.
+     *
+     * @return The matcher
+     */
+    public static IgnoreMatcher builtIn() {
+        return BUILT_IN;
+    }
+
+    /**
+     * Returns a matcher that ignores nothing, not even the built-in deny list,
+     * unless patterns are added with {@link #withPatterns(Path, List)}.
+     *
+     * @return The matcher
+     */
+    public static IgnoreMatcher none() {
+        return new IgnoreMatcher(null, null, List.of());
+    }
+
+    /**
+     * Returns a matcher that additionally applies the given patterns below {@code base}.
+     *
+     * @param base The directory the patterns are relative to
+     * @param patterns The patterns, one per line as in an ignore file
+     * @return The matcher
+     */
+    public IgnoreMatcher withPatterns(Path base, List<String> patterns) {
+        return new IgnoreMatcher(this, base.toAbsolutePath().normalize(), patterns);
+    }
+
+    /**
+     * Returns a matcher that additionally applies the ignore files found in {@code dir}.
+     * Unreadable ignore files are skipped.
+     *
+     * @param dir The directory about to be walked
+     * @return The matcher, or this one if {@code dir} has no ignore files
+     */
+    public IgnoreMatcher forDirectory(Path dir) {
+        List<String> patterns = new ArrayList<>();
+        for (String fileName : IGNORE_FILE_NAMES) {
+            try {
+                patterns.addAll(Files.readAllLines(dir.resolve(fileName), StandardCharsets.UTF_8));
+            } catch (NoSuchFileException e) {
+                // No such ignore file here
+            } catch (IOException e) {
+                // Unreadable ignore file: walk as if it did not exist
+            }
+        }
+        return patterns.isEmpty() ? this : withPatterns(dir, patterns);
+    }
+
+    /**
+     * Checks whether a path is ignored.
+     *
+     * @param path The path (absolute, or relative to the same directory the patterns were added with)
+     * @param directory Whether the path is a directory
+     * @return True if the path should be skipped
+     */
+    public boolean isIgnored(Path path, boolean directory) {
+        Path normalized = path.toAbsolutePath().normalize();
+        Path fileName = normalized.getFileName();
+        if (fileName == null) {
+            return false;
+        }
+        String name = fileName.toString();
+        for (IgnoreMatcher matcher = this; matcher != null; matcher = matcher.parent) {
+            Boolean decision = matcher.decide(normalized, name, directory);
+            if (decision != null) {
+                return decision;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return True to ignore, false to keep, or null if no pattern of this matcher applies
+     */
+    private Boolean decide(Path path, String name, boolean directory) {
+        if (names.contains(name) || (directory && directoryNames.contains(name))) {
+            return true;
+        }
+        String relative = null;
+        for (int i = rules.size() - 1; i >= 0; i--) {
+            Rule rule = rules.get(i);
+            if (rule.directoryOnly() && !directory) {
+                continue;
+            }
+            String candidate = name;
+            if (rule.anchored()) {
+                if (relative == null) {
+                    relative = relativize(path);
+                }
+                candidate = relative;
+            }
+            if (candidate != null && rule.matches(candidate)) {
+                return !rule.negated();
+            }
+        }
+        return null;
+    }
+
+    private String relativize(Path path) {
+        if (base == null || !path.startsWith(base) || path.equals(base)) {
+            return null;
+        }
+        return base.relativize(path).toString().replace('\\', '/');
+    }
+
+    /**
+     * One compiled pattern. Plain names keep their literal so no regular expression is needed.
+     */
+    private record Rule(String literal, Pattern pattern, boolean anchored, boolean directoryOnly, boolean negated) {
+
+        static Rule parse(String line) {
+            String text = stripTrailingSpaces(line);
+            if (text.isEmpty() || text.startsWith("#")) {
+                return null;
+            }
+            boolean negated = text.startsWith("!");
+            if (negated || text.startsWith("\\!") || text.startsWith("\\#")) {
+                text = text.substring(1);
+            }
+            boolean directoryOnly = text.endsWith("/");
+            if (directoryOnly) {
+                text = text.substring(0, text.length() - 1);
+            }
+            if (text.startsWith("**/") && text.indexOf('/', 3) < 0) {
+                // Matches at any level, like a pattern without a slash
+                text = text.substring(3);
+            }
+            // A leading **/ is kept in longer patterns and compiled to match at any depth
+            boolean anchored = text.contains("/");
+            if (text.startsWith("/")) {
+                text = text.substring(1);
+            }
+            if (text.isEmpty()) {
+                return null;
+            }
+            if (isLiteral(text)) {
+                return new Rule(text, null, anchored, directoryOnly, negated);
+            }
+            return new Rule(null, Pattern.compile(toRegex(text)), anchored, directoryOnly, negated);
+        }
+
+        boolean matches(String candidate) {
+            return literal != null ? literal.equals(candidate) : pattern.matcher(candidate).matches();
+        }
+
+        private static String stripTrailingSpaces(String line) {
+            int end = line.length();
+            while (end > 0 && line.charAt(end - 1) == ' ' && (end < 2 || line.charAt(end - 2) != '\\')) {
+                end--;
+            }
+            return line.substring(0, end);
+        }
+
+        private static boolean isLiteral(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '*' || c == '?' || c == '[' || c == '\\') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static String toRegex(String glob) {
+            StringBuilder regex = new StringBuilder();
+            int i = 0;
+            while (i < glob.length()) {
+                char c = glob.charAt(i);
+                if (c == '*' && glob.startsWith("**/", i)) {
+                    regex.append("(?:.*/)?");
+                    i += 3;
+                } else if (c == '*' && glob.startsWith("**", i)) {
+                    regex.append(".*");
+                    i += 2;
+                } else if (c == '*') {
+                    regex.append("[^/]*");
+                    i++;
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                    i++;
+                } else if (c == '[') {
+                    int close = glob.indexOf(']', i + 2);
+                    if (close < 0) {
+                        regex.append("\\[");
+                        i++;
+                    } else {
+                        String set = glob.substring(i + 1, close);
+                        if (set.startsWith("!")) {
+                            set = "^" + set.substring(1);
+                        }
+                        regex.append('[').append(set.replace("\\", "\\\\").replace("[", "\\[")).append(']');
+                        i = close + 1;
+                    }
+                } else if (c == '\\' && i + 1 < glob.length()) {
+                    regex.append(Pattern.quote(String.valueOf(glob.charAt(i + 1))));
+                    i += 2;
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                    i++;
+                }
+            }
+            return regex.toString();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.falniak.devdoctor.detect;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Marker rules compiled into a lookup structure.
+ * Exact names and extensions are kept in hash tables, so matching a file name costs a
+ * constant number of lookups (one per dot in the name for extensions) however many of these
+ * rules are registered; only glob rules are tried one by one.
+ * Immutable and safe to share.
+ */
+public final class MarkerRegistry {
+
+    /**
+     * Rules built into DevDoctor, in reporting order.
+     */
+    public static final List<MarkerRule> BUILT_IN_RULES = List.of(
+        MarkerRule.exact("pom.xml", ProjectType.JAVA_MAVEN),
+        MarkerRule.exact("build.gradle", ProjectType.JAVA_GRADLE),
+        MarkerRule.exact("build.gradle.kts", ProjectType.JAVA_GRADLE),
+        MarkerRule.exact("package.json", ProjectType.NODE),
+        MarkerRule.exact("docker-compose.yml", ProjectType.DOCKER_COMPOSE),
+        MarkerRule.exact("compose.yml", ProjectType.DOCKER_COMPOSE),
+        MarkerRule.exact("compose.yaml", ProjectType.DOCKER_COMPOSE),
+        MarkerRule.exact("pyproject.toml", ProjectType.PYTHON_PYPROJECT),
+        MarkerRule.exact("requirements.txt", ProjectType.PYTHON_REQUIREMENTS),
+        MarkerRule.exact("Pipfile", ProjectType.PYTHON_PIPENV),
+        MarkerRule.exact("setup.py", ProjectType.PYTHON_SETUPPY),
+        MarkerRule.exact("go.mod", ProjectType.GO_MODULES),
+        MarkerRule.exact("Cargo.toml", ProjectType.RUST_CARGO),
+        MarkerRule.extension(".sln", ProjectType.DOTNET_SOLUTION),
+        MarkerRule.extension(".csproj", ProjectType.DOTNET_CSHARP_PROJECT),
+        MarkerRule.extension(".fsproj", ProjectType.DOTNET_FSHARP_PROJECT)
+    );
+
+    private final List<MarkerRule> rules;
+    private final Map<String, List<MarkerRule>> exact = new HashMap<>();
+    private final Map<String, List<MarkerRule>> extensions = new HashMap<>();
+    private final List<CompiledGlob> globs = new ArrayList<>();
+
+    /**
+     * Compiles the given rules. Rules earlier in the list are reported first.
+     *
+     * @param rules The rules
+     */
+    public MarkerRegistry(List<MarkerRule> rules) {
+        this.rules = List.copyOf(rules);
+        for (MarkerRule rule : this.rules) {
+            switch (rule.kind()) {
+                case EXACT -> exact.computeIfAbsent(rule.pattern(), key -> new ArrayList<>()).add(rule);
+                case EXTENSION -> extensions.computeIfAbsent(rule.pattern(), key -> new ArrayList<>()).add(rule);
+                case GLOB -> globs.add(new CompiledGlob(
+                    FileSystems.getDefault().getPathMatcher("glob:" + rule.pattern()), rule));
+            }
+        }
+    }
+
+    /**
+     * Returns the registry with only the built-in rules.
+     *
+     * @return The registry
+     */
+    public static MarkerRegistry builtIn() {
+        return new MarkerRegistry(BUILT_IN_RULES);
+    }
+
+    /**
+     * Returns the registry with the built-in rules followed by those of every
+     * {@link MarkerRuleProvider} on the classpath. Providers are loaded once per process.
+     *
+     * @return The registry
+     */
+    public static MarkerRegistry defaultRegistry() {
+        return DefaultHolder.REGISTRY;
+    }
+
+    /**
+     * @return All rules, in reporting order
+     */
+    public List<MarkerRule> rules() {
+        return rules;
+    }
+
+    /**
+     * Returns the rules matching a file name.
+     *
+     * @param fileName The file name (without directories)
+     * @return The matching rules, empty for most files
+     */
+    public List<MarkerRule> match(String fileName) {
+        List<MarkerRule> matches = null;
+        List<MarkerRule> exactMatches = exact.get(fileName);
+        if (exactMatches != null) {
+            matches = new ArrayList<>(exactMatches);
+        }
+        if (!extensions.isEmpty()) {
+            // Try every suffix starting at a dot, so ".gradle.kts" style extensions work too
+            for (int dot = fileName.indexOf('.'); dot >= 0; dot = fileName.indexOf('.', dot + 1)) {
+                List<MarkerRule> extensionMatches = extensions.get(fileName.substring(dot));
+                if (extensionMatches != null) {
+                    matches = matches == null ? new ArrayList<>() : matches;
+                    matches.addAll(extensionMatches);
+                }
+            }
+        }
+        if (!globs.isEmpty()) {
+            Path name = Path.of(fileName);
+            for (CompiledGlob glob : globs) {
+                if (glob.matcher().matches(name)) {
+                    matches = matches == null ? new ArrayList<>() : matches;
+                    matches.add(glob.rule());
+                }
+            }
+        }
+        return matches == null ? List.of() : matches;
+    }
+
+    private static MarkerRegistry loadDefault() {
+        List<MarkerRule> rules = new ArrayList<>(BUILT_IN_RULES);
+        for (MarkerRuleProvider provider : ServiceLoader.load(MarkerRuleProvider.class)) {
+            rules.addAll(provider.rules());
+        }
+        return new MarkerRegistry(rules);
+    }
+
+    private record CompiledGlob(PathMatcher matcher, MarkerRule rule) {
+    }
+
+    private static final class DefaultHolder {
+        static final MarkerRegistry REGISTRY = loadDefault();
+    }
+}
@@ -0,0 +1,69 @@
+package com.falniak.devdoctor.detect;
+
+/**
+ * A rule that recognizes a marker file and the project type it indicates.
+ *
+ * @param kind How the pattern is matched against file names
+ * @param pattern The file name, extension (including the dot) or glob
+ * @param type The project type indicated by a matching file
+ */
+public record MarkerRule(Kind kind, String pattern, ProjectType type) {
+
+    /**
+     * How a rule's pattern is matched against file names.
+     */
+    public enum Kind {
+        /** The file name equals the pattern, e.g. {@code pom.xml}. */
+        EXACT,
+        /** The file name ends with the pattern, e.g. {@code .csproj}. */
+        EXTENSION,
+        /** The file name matches the glob, e.g. {@code requirements-*.txt}. */
+        GLOB
+    }
+
+    public MarkerRule {
+        if (kind == null || pattern == null || pattern.isEmpty() || type == null) {
+            throw new IllegalArgumentException("Marker rule needs a kind, a pattern and a project type");
+        }
+        if (kind == Kind.EXTENSION && (!pattern.startsWith(".") || pattern.length() < 2)) {
+            throw new IllegalArgumentException("Marker extension must start with a dot: " + pattern);
+        }
+        if (kind != Kind.GLOB && (pattern.contains("/") || pattern.contains("\\"))) {
+            throw new IllegalArgumentException("Marker pattern must be a file name: " + pattern);
+        }
+    }
+
+    /**
+     * Creates a rule matching one file name.
+     *
+     * @param name The file name
+     * @param type The project type it indicates
+     * @return The rule
+     */
+    public static MarkerRule exact(String name, ProjectType type) {
+        return new MarkerRule(Kind.EXACT, name, type);
+    }
+
+    /**
+     * Creates a rule matching every file with an extension.
+     *
+     * @param extension The extension including the dot, e.g. {@code .sln}
+     * @param type The project type it indicates
+     * @return The rule
+     */
+    public static MarkerRule extension(String extension, ProjectType type) {
+        return new MarkerRule(Kind.EXTENSION, extension, type);
+    }
+
+    /**
+     * Creates a rule matching file names against a glob.
+     * Globs are tried one by one, so prefer exact names and extensions where possible.
+     *
+     * @param glob The glob, in {@link java.nio.file.FileSystem#getPathMatcher(String)} syntax
+     * @param type The project type it indicates
+     * @return The rule
+     */
+    public static MarkerRule glob(String glob, ProjectType type) {
+        return new MarkerRule(Kind.GLOB, glob, type);
+    }
+}
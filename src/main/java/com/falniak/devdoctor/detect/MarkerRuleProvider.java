@@ -0,0 +1,19 @@
+package com.falniak.devdoctor.detect;
+
+import java.util.List;
+
+/**
+ * Contributes additional marker rules to project detection.
+ * Implementations are discovered with {@link java.util.ServiceLoader}: list the
+ * implementing class in {@code META-INF/services/com.falniak.devdoctor.detect.MarkerRuleProvider}
+ * on the classpath.
+ */
+public interface MarkerRuleProvider {
+
+    /**
+     * Returns the rules to add to the built-in ones.
+     *
+     * @return The marker rules
+     */
+    List<MarkerRule> rules();
+}
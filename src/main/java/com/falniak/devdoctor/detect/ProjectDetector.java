@@ -1,19 +1,53 @@
 package com.falniak.devdoctor.detect;
 
 import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Detects project types by scanning the filesystem for marker files.
+ * Each directory is listed exactly once and entry names are matched against a compiled
+ * {@link MarkerRegistry}, so the cost per directory does not grow with the number of
+ * supported markers. Only matching entries are stat'ed, to make sure they are regular files.
  */
 public class ProjectDetector {
 
+    private final MarkerRegistry registry;
+
+    /**
+     * Creates a detector using the built-in marker rules and those contributed by
+     * {@link MarkerRuleProvider}s on the classpath.
+     */
+    public ProjectDetector() {
+        this(MarkerRegistry.defaultRegistry());
+    }
+
+    /**
+     * Creates a detector using the given marker rules.
+     *
+     * @param registry The marker rules
+     */
+    public ProjectDetector(MarkerRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @return The marker rules this detector matches
+     */
+    public MarkerRegistry registry() {
+        return registry;
+    }
+
     /**
      * Detects the project root and types starting from the given path.
      *
@@ -22,11 +56,22 @@ public class ProjectDetector {
      */
     public DetectionResult detect(Path start) {
         Path normalizedStart = start.toAbsolutePath().normalize();
-        Path root = findProjectRoot(normalizedStart);
-        Set<ProjectType> types = detectTypes(root);
-        List<String> markersFound = collectMarkers(root, types);
-        
-        return new DetectionResult(root, types, markersFound);
+        Path current = normalizedStart;
+        Path filesystemRoot = current.getRoot();
+
+        // The listing that identified the root also provides its types and markers
+        while (current != null && !current.equals(filesystemRoot)) {
+            MarkerScan scan = scan(current);
+            if (!scan.isEmpty()) {
+                return new DetectionResult(current, scan.types(), scan.markers());
+            }
+            current = current.getParent();
+        }
+
+        // If we reached the filesystem root without finding markers,
+        // report the original start directory
+        MarkerScan scan = scan(normalizedStart);
+        return new DetectionResult(normalizedStart, scan.types(), scan.markers());
     }
 
     /**
@@ -41,14 +86,10 @@ public class ProjectDetector {
         Path root = current.getRoot();
 
         while (current != null && !current.equals(root)) {
-            if (hasAnyMarker(current)) {
+            if (!scan(current).isEmpty()) {
                 return current;
             }
-            Path parent = current.getParent();
-            if (parent == null || parent.equals(current)) {
-                break;
-            }
-            current = parent;
+            current = current.getParent();
         }
 
         // If we reached the filesystem root without finding markers,
@@ -63,277 +104,75 @@ public class ProjectDetector {
      * @return A set of detected project types
      */
     public Set<ProjectType> detectTypes(Path root) {
-        Set<ProjectType> types = EnumSet.noneOf(ProjectType.class);
-
-        if (hasMarker(root, "pom.xml")) {
-            types.add(ProjectType.JAVA_MAVEN);
-        }
-
-        if (hasMarker(root, "build.gradle") || hasMarker(root, "build.gradle.kts")) {
-            types.add(ProjectType.JAVA_GRADLE);
-        }
-
-        if (hasMarker(root, "package.json")) {
-            types.add(ProjectType.NODE);
-        }
-
-        if (hasMarker(root, "docker-compose.yml") 
-            || hasMarker(root, "compose.yml") 
-            || hasMarker(root, "compose.yaml")) {
-            types.add(ProjectType.DOCKER_COMPOSE);
-        }
-
-        // Python detection
-        if (hasMarker(root, "pyproject.toml")) {
-            types.add(ProjectType.PYTHON_PYPROJECT);
-        }
-        if (hasMarker(root, "requirements.txt")) {
-            types.add(ProjectType.PYTHON_REQUIREMENTS);
-        }
-        if (hasMarker(root, "Pipfile")) {
-            types.add(ProjectType.PYTHON_PIPENV);
-        }
-        if (hasMarker(root, "setup.py")) {
-            types.add(ProjectType.PYTHON_SETUPPY);
-        }
-
-        // Go detection
-        if (hasMarker(root, "go.mod")) {
-            types.add(ProjectType.GO_MODULES);
-        }
-
-        // Rust detection
-        if (hasMarker(root, "Cargo.toml")) {
-            types.add(ProjectType.RUST_CARGO);
-        }
-
-        // .NET detection
-        if (hasDotNetSolution(root)) {
-            types.add(ProjectType.DOTNET_SOLUTION);
-        }
-        if (hasDotNetCSharpProject(root)) {
-            types.add(ProjectType.DOTNET_CSHARP_PROJECT);
-        }
-        if (hasDotNetFSharpProject(root)) {
-            types.add(ProjectType.DOTNET_FSHARP_PROJECT);
-        }
-
-        return types;
+        return scan(root).types();
     }
 
     /**
-     * Checks if the given directory contains any known marker file.
+     * Detects the types and markers of exactly the given directory, without walking up.
      *
-     * @param dir The directory to check
-     * @return true if any marker file exists
+     * @param dir The directory to scan
+     * @return The detection result for that directory (no types if it has no markers)
      */
-    private boolean hasAnyMarker(Path dir) {
-        return hasMarker(dir, "pom.xml")
-            || hasMarker(dir, "build.gradle")
-            || hasMarker(dir, "build.gradle.kts")
-            || hasMarker(dir, "package.json")
-            || hasMarker(dir, "docker-compose.yml")
-            || hasMarker(dir, "compose.yml")
-            || hasMarker(dir, "compose.yaml")
-            || hasMarker(dir, "pyproject.toml")
-            || hasMarker(dir, "requirements.txt")
-            || hasMarker(dir, "Pipfile")
-            || hasMarker(dir, "setup.py")
-            || hasMarker(dir, "go.mod")
-            || hasMarker(dir, "Cargo.toml")
-            || hasDotNetSolution(dir)
-            || hasDotNetCSharpProject(dir)
-            || hasDotNetFSharpProject(dir);
+    public DetectionResult detectIn(Path dir) {
+        MarkerScan scan = scan(dir);
+        return new DetectionResult(dir, scan.types(), scan.markers());
     }
 
-    /**
-     * Checks if a specific marker file exists in the given directory.
-     *
-     * @param dir The directory to check
-     * @param marker The marker file name
-     * @return true if the marker file exists and is a regular file
-     */
-    private boolean hasMarker(Path dir, String marker) {
-        Path markerPath = dir.resolve(marker);
-        return Files.exists(markerPath) && Files.isRegularFile(markerPath);
+    private MarkerScan scan(Path dir) {
+        return scan(dir, null);
     }
 
     /**
-     * Collects the list of marker files that were found for the detected types.
+     * Lists the directory once and collects every marker file in it.
      *
-     * @param root The root directory
-     * @param types The detected project types
-     * @return List of marker file names that were found
+     * @param dir The directory to scan
+     * @param otherEntries Receives every entry that is not a marker file, so tree walkers
+     *                     can find subdirectories in the same listing (nullable)
+     * @return The detected types and marker names (empty if the directory cannot be read)
      */
-    private List<String> collectMarkers(Path root, Set<ProjectType> types) {
-        List<String> markers = new ArrayList<>();
-
-        if (types.contains(ProjectType.JAVA_MAVEN) && hasMarker(root, "pom.xml")) {
-            markers.add("pom.xml");
-        }
-
-        if (types.contains(ProjectType.JAVA_GRADLE)) {
-            if (hasMarker(root, "build.gradle")) {
-                markers.add("build.gradle");
-            }
-            if (hasMarker(root, "build.gradle.kts")) {
-                markers.add("build.gradle.kts");
-            }
-        }
-
-        if (types.contains(ProjectType.NODE) && hasMarker(root, "package.json")) {
-            markers.add("package.json");
-        }
-
-        if (types.contains(ProjectType.DOCKER_COMPOSE)) {
-            if (hasMarker(root, "docker-compose.yml")) {
-                markers.add("docker-compose.yml");
-            }
-            if (hasMarker(root, "compose.yml")) {
-                markers.add("compose.yml");
-            }
-            if (hasMarker(root, "compose.yaml")) {
-                markers.add("compose.yaml");
+    MarkerScan scan(Path dir, List<Path> otherEntries) {
+        Map<MarkerRule, Set<String>> matches = new HashMap<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                List<MarkerRule> rules = registry.match(name);
+                if (rules.isEmpty() || !Files.isRegularFile(entry)) {
+                    if (otherEntries != null) {
+                        otherEntries.add(entry);
+                    }
+                    continue;
+                }
+                for (MarkerRule rule : rules) {
+                    matches.computeIfAbsent(rule, key -> new TreeSet<>()).add(name);
+                }
             }
+        } catch (IOException | DirectoryIteratorException e) {
+            // Unreadable directories have no markers
         }
 
-        // Python markers
-        if (types.contains(ProjectType.PYTHON_PYPROJECT) && hasMarker(root, "pyproject.toml")) {
-            markers.add("pyproject.toml");
-        }
-        if (types.contains(ProjectType.PYTHON_REQUIREMENTS) && hasMarker(root, "requirements.txt")) {
-            markers.add("requirements.txt");
-        }
-        if (types.contains(ProjectType.PYTHON_PIPENV) && hasMarker(root, "Pipfile")) {
-            markers.add("Pipfile");
-        }
-        if (types.contains(ProjectType.PYTHON_SETUPPY) && hasMarker(root, "setup.py")) {
-            markers.add("setup.py");
-        }
-
-        // Go markers
-        if (types.contains(ProjectType.GO_MODULES) && hasMarker(root, "go.mod")) {
-            markers.add("go.mod");
-        }
-
-        // Rust markers
-        if (types.contains(ProjectType.RUST_CARGO) && hasMarker(root, "Cargo.toml")) {
-            markers.add("Cargo.toml");
-        }
-
-        // .NET markers
-        if (types.contains(ProjectType.DOTNET_SOLUTION)) {
-            markers.addAll(findDotNetSolutions(root));
-        }
-        if (types.contains(ProjectType.DOTNET_CSHARP_PROJECT)) {
-            markers.addAll(findDotNetCSharpProjects(root));
-        }
-        if (types.contains(ProjectType.DOTNET_FSHARP_PROJECT)) {
-            markers.addAll(findDotNetFSharpProjects(root));
-        }
-
-        return markers;
-    }
-
-    /**
-     * Checks if the directory contains any .NET solution files (*.sln).
-     *
-     * @param dir The directory to check
-     * @return true if any .sln file exists
-     */
-    private boolean hasDotNetSolution(Path dir) {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.sln")) {
-            return stream.iterator().hasNext();
-        } catch (IOException e) {
-            return false;
-        }
-    }
-
-    /**
-     * Checks if the directory contains any C# project files (*.csproj).
-     *
-     * @param dir The directory to check
-     * @return true if any .csproj file exists
-     */
-    private boolean hasDotNetCSharpProject(Path dir) {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.csproj")) {
-            return stream.iterator().hasNext();
-        } catch (IOException e) {
-            return false;
-        }
-    }
-
-    /**
-     * Checks if the directory contains any F# project files (*.fsproj).
-     *
-     * @param dir The directory to check
-     * @return true if any .fsproj file exists
-     */
-    private boolean hasDotNetFSharpProject(Path dir) {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.fsproj")) {
-            return stream.iterator().hasNext();
-        } catch (IOException e) {
-            return false;
-        }
-    }
-
-    /**
-     * Finds all .NET solution files (*.sln) in the directory.
-     *
-     * @param dir The directory to search
-     * @return List of .sln file names
-     */
-    private List<String> findDotNetSolutions(Path dir) {
-        List<String> solutions = new ArrayList<>();
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.sln")) {
-            for (Path path : stream) {
-                if (Files.isRegularFile(path)) {
-                    solutions.add(path.getFileName().toString());
-                }
-            }
-        } catch (IOException e) {
-            // Ignore and return empty list
+        Set<ProjectType> types = EnumSet.noneOf(ProjectType.class);
+        for (MarkerRule rule : matches.keySet()) {
+            types.add(rule.type());
         }
-        return solutions;
-    }
 
-    /**
-     * Finds all C# project files (*.csproj) in the directory.
-     *
-     * @param dir The directory to search
-     * @return List of .csproj file names
-     */
-    private List<String> findDotNetCSharpProjects(Path dir) {
-        List<String> projects = new ArrayList<>();
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.csproj")) {
-            for (Path path : stream) {
-                if (Files.isRegularFile(path)) {
-                    projects.add(path.getFileName().toString());
+        // Markers are reported grouped by type, in rule order, then by name
+        Set<String> markers = new LinkedHashSet<>();
+        for (ProjectType type : types) {
+            for (MarkerRule rule : registry.rules()) {
+                if (rule.type() == type) {
+                    markers.addAll(matches.getOrDefault(rule, Set.of()));
                 }
             }
-        } catch (IOException e) {
-            // Ignore and return empty list
         }
-        return projects;
+        return new MarkerScan(types, new ArrayList<>(markers));
     }
 
     /**
-     * Finds all F# project files (*.fsproj) in the directory.
-     *
-     * @param dir The directory to search
-     * @return List of .fsproj file names
+     * Project types and marker file names found in one directory.
      */
-    private List<String> findDotNetFSharpProjects(Path dir) {
-        List<String> projects = new ArrayList<>();
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.fsproj")) {
-            for (Path path : stream) {
-                if (Files.isRegularFile(path)) {
-                    projects.add(path.getFileName().toString());
-                }
-            }
-        } catch (IOException e) {
-            // Ignore and return empty list
+    record MarkerScan(Set<ProjectType> types, List<String> markers) {
+        boolean isEmpty() {
+            return types.isEmpty();
         }
-        return projects;
     }
 }
@@ -0,0 +1,341 @@
+package com.falniak.devdoctor.detect;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds every project root below a directory, for monorepos with many sub-projects.
+ * The tree is walked in parallel on a {@link ForkJoinPool}, one task per directory. Each
+ * directory is listed once: the listing provides both its markers and its subdirectories.
+ * Only the directories currently being walked and the project roots found are held in
+ * memory, never the whole tree.
+ * <p>
+ * Directories matched by the {@link IgnoreMatcher} (by default dependency, build output and
+ * VCS directories, plus the patterns of {@code .gitignore} and {@code .devdoctorignore} files
+ * met along the way) are pruned before they are listed. The start directory itself is always
+ * walked.
+ * <p>
+ * Symbolic links to directories are followed, but a directory whose file key (or real path,
+ * where the file system has no file keys) matches one of its ancestors is skipped, so link
+ * loops terminate. A project reached both directly and through a link elsewhere in the tree
+ * is reported once, under its own path. Results are in depth-first order with siblings sorted
+ * by name, regardless of how the work was scheduled.
+ * <p>
+ * With a {@link DetectionCache}, directories whose modification time is unchanged since the
+ * previous walk are not listed; their markers and subdirectories come from the cache.
+ */
+public class ProjectWalker {
+
+    /**
+     * Default number of directory levels below the start directory that are walked.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 10;
+
+    private final ProjectDetector detector;
+    private final IgnoreMatcher ignoreMatcher;
+    private final int maxDepth;
+    private final int parallelism;
+
+    /**
+     * Creates a walker with the default detector, depth limit and parallelism.
+     */
+    public ProjectWalker() {
+        this(new ProjectDetector(), DEFAULT_MAX_DEPTH, defaultParallelism());
+    }
+
+    /**
+     * Creates a walker that prunes the built-in deny list and ignore files.
+     *
+     * @param detector The detector used to recognize project roots
+     * @param maxDepth Number of directory levels below the start directory to walk (0 = only the start)
+     * @param parallelism Number of threads listing directories at the same time
+     */
+    public ProjectWalker(ProjectDetector detector, int maxDepth, int parallelism) {
+        this(detector, IgnoreMatcher.builtIn(), maxDepth, parallelism);
+    }
+
+    /**
+     * Creates a walker.
+     *
+     * @param detector The detector used to recognize project roots
+     * @param ignoreMatcher Decides which directories are skipped; ignore files found while walking are added to it
+     * @param maxDepth Number of directory levels below the start directory to walk (0 = only the start)
+     * @param parallelism Number of threads listing directories at the same time
+     */
+    public ProjectWalker(ProjectDetector detector, IgnoreMatcher ignoreMatcher, int maxDepth, int parallelism) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth must not be negative, got: " + maxDepth);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, got: " + parallelism);
+        }
+        this.detector = detector;
+        this.ignoreMatcher = ignoreMatcher;
+        this.maxDepth = maxDepth;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns every directory at or below {@code start} that contains a marker file.
+     *
+     * @param start The directory to start from
+     * @return The detection results, one per project root, in depth-first order
+     */
+    public List<DetectionResult> walk(Path start) {
+        return walk(start, null);
+    }
+
+    /**
+     * Returns every directory at or below {@code start} that contains a marker file,
+     * skipping the listing of directories the cache shows to be unchanged.
+     *
+     * @param start The directory to start from
+     * @param cache The cache of the tree below {@code start}, updated while walking (nullable)
+     * @return The detection results, one per project root, in depth-first order
+     */
+    public List<DetectionResult> walk(Path start, DetectionCache cache) {
+        Path normalizedStart = start.toAbsolutePath().normalize();
+        Object key = normalizedStart;
+        long modified = -1;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(normalizedStart, BasicFileAttributes.class);
+            key = attributes.fileKey() != null ? attributes.fileKey() : normalizedStart.toRealPath();
+            modified = attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            // Listing will find nothing either
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return distinct(pool.invoke(new WalkTask(normalizedStart, modified, 0, new Ancestor(key, null),
+                ignoreMatcher, cache)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Keeps one result per project directory, in the position the directory was first found.
+     */
+    private static List<DetectionResult> distinct(List<DetectionResult> results) {
+        if (results.size() < 2) {
+            return results;
+        }
+        Map<Path, DetectionResult> byRealPath = new LinkedHashMap<>();
+        for (DetectionResult result : results) {
+            Path real = realPath(result.root());
+            DetectionResult seen = byRealPath.get(real);
+            // Prefer the path without links, wherever the link sorted
+            if (seen == null || (!seen.root().equals(real) && result.root().equals(real))) {
+                byRealPath.put(real, result);
+            }
+        }
+        return new ArrayList<>(byRealPath.values());
+    }
+
+    /**
+     * Reads the link count of a directory, which on most Unix file systems is two plus its
+     * number of subdirectories.
+     *
+     * @return The link count, or {@link DetectionCache#NO_LINKS} if the file system does not report one
+     */
+    private static long linkCount(Path dir) {
+        try {
+            return ((Number) Files.getAttribute(dir, "unix:nlink")).longValue();
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            return DetectionCache.NO_LINKS;
+        }
+    }
+
+    private static Path realPath(Path path) {
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path;
+        }
+    }
+
+    /**
+     * @return The default number of threads listing directories at the same time
+     */
+    public static int defaultParallelism() {
+        // Listing directories mostly waits on the file system, so use more threads than cores
+        return Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * The chain of directories from the start to the one being walked, identified by file key.
+     */
+    private record Ancestor(Object key, Ancestor parent) {
+        boolean contains(Object candidate) {
+            for (Ancestor ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+                if (ancestor.key.equals(candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class WalkTask extends RecursiveTask<List<DetectionResult>> {
+        private final Path dir;
+        private final long modified;
+        private final int depth;
+        private final Ancestor ancestors;
+        private final IgnoreMatcher ignores;
+        private final DetectionCache cache;
+
+        WalkTask(Path dir, long modified, int depth, Ancestor ancestors, IgnoreMatcher ignores,
+                 DetectionCache cache) {
+            this.dir = dir;
+            this.modified = modified;
+            this.depth = depth;
+            this.ancestors = ancestors;
+            this.ignores = ignores;
+            this.cache = cache;
+        }
+
+        @Override
+        protected List<DetectionResult> compute() {
+            DetectionCache.Entry cached = cache != null ? cache.lookup(dir, modified) : null;
+            Set<ProjectType> types;
+            List<String> markers;
+            List<Path> entries = null;
+            List<Path> candidates;
+            boolean complete = false;
+            boolean hasIgnoreFile;
+            long listingHash = 0;
+            long links = DetectionCache.NO_LINKS;
+            if (cached != null) {
+                // Unchanged since the last walk: no need to list it
+                types = cached.types();
+                markers = cached.markers();
+                hasIgnoreFile = cached.hasIgnoreFile();
+                candidates = cached.directories().stream().map(dir::resolve).toList();
+            } else {
+                entries = depth < maxDepth ? new ArrayList<>() : null;
+                ProjectDetector.MarkerScan scan = detector.scan(dir, entries);
+                types = scan.types();
+                markers = scan.markers();
+                if (entries == null) {
+                    return scan.isEmpty() ? new ArrayList<>() : new ArrayList<>(List.of(resultOf(types, markers)));
+                }
+                entries.sort(Comparator.comparing(entry -> entry.getFileName().toString()));
+                hasIgnoreFile = hasIgnoreFile(entries);
+                DetectionCache.Entry previous = null;
+                if (cache != null) {
+                    List<String> names = new ArrayList<>(markers);
+                    entries.forEach(entry -> names.add(entry.getFileName().toString()));
+                    listingHash = DetectionCache.listingHash(names);
+                    links = linkCount(dir);
+                    previous = cache.revalidate(dir, listingHash);
+                }
+                // With the same entry names and as many subdirectory links as last time, no entry became
+                // a directory, so only the known subdirectories need a closer look
+                complete = previous != null && previous.links() != DetectionCache.NO_LINKS
+                    && previous.links() == links;
+                candidates = complete ? previous.directories().stream().map(dir::resolve).toList() : entries;
+            }
+
+            List<DetectionResult> results = new ArrayList<>();
+            if (!types.isEmpty()) {
+                results.add(resultOf(types, markers));
+            }
+            if (depth >= maxDepth) {
+                return results;
+            }
+
+            Map<Path, BasicFileAttributes> subdirectories = new LinkedHashMap<>();
+            if (!readDirectories(candidates, complete, subdirectories)) {
+                // A known subdirectory is gone, so another entry may have taken its place: look at all of them
+                subdirectories.clear();
+                readDirectories(entries, false, subdirectories);
+            }
+            IgnoreMatcher matcher = hasIgnoreFile ? ignores.forDirectory(dir) : ignores;
+            List<String> directories = new ArrayList<>();
+            List<WalkTask> children = new ArrayList<>();
+            for (Map.Entry<Path, BasicFileAttributes> subdirectory : subdirectories.entrySet()) {
+                Path entry = subdirectory.getKey();
+                BasicFileAttributes attributes = subdirectory.getValue();
+                directories.add(entry.getFileName().toString());
+                if (matcher.isIgnored(entry, true)) {
+                    continue;
+                }
+                Object key = attributes.fileKey() != null ? attributes.fileKey() : realPath(entry);
+                if (ancestors.contains(key)) {
+                    // A link back to a directory we are inside of
+                    continue;
+                }
+                children.add(new WalkTask(entry, attributes.lastModifiedTime().toMillis(), depth + 1,
+                    new Ancestor(key, ancestors), matcher, cache));
+            }
+            if (cache != null && cached == null) {
+                // The link count only stands for the subdirectories where the file system counts them that way
+                long subdirectoryLinks = links == 2L + directories.size() ? links : DetectionCache.NO_LINKS;
+                cache.put(dir, new DetectionCache.Entry(modified, listingHash, types, markers, directories,
+                    subdirectoryLinks, hasIgnoreFile));
+            }
+            invokeAll(children);
+            for (WalkTask child : children) {
+                results.addAll(child.join());
+            }
+            return results;
+        }
+
+        /**
+         * Reads the attributes of the given entries and keeps those of directories.
+         *
+         * @param candidates The entries to look at
+         * @param allDirectories Whether every candidate is expected to be a directory
+         * @param subdirectories Receives the directories found, in candidate order
+         * @return False if a candidate expected to be a directory no longer is one
+         */
+        private boolean readDirectories(List<Path> candidates, boolean allDirectories,
+                                        Map<Path, BasicFileAttributes> subdirectories) {
+            for (Path entry : candidates) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    // Broken link or vanished entry
+                    if (allDirectories) {
+                        return false;
+                    }
+                    continue;
+                }
+                if (!attributes.isDirectory()) {
+                    if (allDirectories) {
+                        return false;
+                    }
+                    continue;
+                }
+                subdirectories.put(entry, attributes);
+            }
+            return true;
+        }
+
+        private DetectionResult resultOf(Set<ProjectType> types, List<String> markers) {
+            return new DetectionResult(dir, types, markers);
+        }
+
+        private boolean hasIgnoreFile(List<Path> entries) {
+            // Only read ignore files the listing shows, instead of probing for them in every directory
+            for (Path entry : entries) {
+                if (IgnoreMatcher.IGNORE_FILE_NAMES.contains(entry.getFileName().toString())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
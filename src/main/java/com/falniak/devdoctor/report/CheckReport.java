@@ -14,6 +14,17 @@ public record CheckReport(
     @JsonProperty("project") ProjectInfo project,
     @JsonProperty("config") ConfigInfo config,
     @JsonProperty("summary") SummaryInfo summary,
-    @JsonProperty("checks") List<CheckResultDto> checks
+    @JsonProperty("checks") List<CheckResultDto> checks,
+    @JsonProperty("metrics") MetricsInfo metrics,
+    @JsonProperty("resultCache") ResultCacheInfo resultCache
 ) {
+    public CheckReport(ToolInfo tool, ProjectInfo project, ConfigInfo config, SummaryInfo summary,
+                       List<CheckResultDto> checks) {
+        this(tool, project, config, summary, checks, null, null);
+    }
+
+    public CheckReport(ToolInfo tool, ProjectInfo project, ConfigInfo config, SummaryInfo summary,
+                       List<CheckResultDto> checks, MetricsInfo metrics) {
+        this(tool, project, config, summary, checks, metrics, null);
+    }
 }
@@ -0,0 +1,44 @@
+package com.falniak.devdoctor.report;
+
+import com.falniak.devdoctor.check.ExecMetrics;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Metrics of one command for JSON output.
+ */
+public record CommandMetricsDto(
+    @JsonProperty("command") String command,
+    @JsonProperty("invocations") int invocations,
+    @JsonProperty("timeouts") int timeouts,
+    @JsonProperty("processesTerminated") int processesTerminated,
+    @JsonProperty("exitCodes") Map<String, Integer> exitCodes,
+    @JsonProperty("stdoutBytes") long stdoutBytes,
+    @JsonProperty("stderrBytes") long stderrBytes,
+    @JsonProperty("spawnMillis") HistogramDto spawnMillis,
+    @JsonProperty("firstByteMillis") HistogramDto firstByteMillis,
+    @JsonProperty("durationMillis") HistogramDto durationMillis
+) {
+    /**
+     * Creates a CommandMetricsDto from the metrics of a command.
+     */
+    public static CommandMetricsDto from(String command, ExecMetrics.CommandMetrics metrics) {
+        // JSON object keys are strings
+        Map<String, Integer> exitCodes = new LinkedHashMap<>();
+        metrics.exitCodes().forEach((code, count) -> exitCodes.put(String.valueOf(code), count));
+        return new CommandMetricsDto(
+            command,
+            metrics.invocations(),
+            metrics.timeouts(),
+            metrics.processesTerminated(),
+            exitCodes,
+            metrics.stdoutBytes(),
+            metrics.stderrBytes(),
+            HistogramDto.from(metrics.spawnLatency()),
+            HistogramDto.from(metrics.timeToFirstByte()),
+            HistogramDto.from(metrics.duration())
+        );
+    }
+}
@@ -0,0 +1,34 @@
+package com.falniak.devdoctor.report;
+
+import com.falniak.devdoctor.check.LatencyHistogram;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * Millisecond histogram for JSON output.
+ */
+public record HistogramDto(
+    @JsonProperty("count") long count,
+    @JsonProperty("min") long min,
+    @JsonProperty("mean") long mean,
+    @JsonProperty("p50") long p50,
+    @JsonProperty("p95") long p95,
+    @JsonProperty("max") long max,
+    @JsonProperty("buckets") Map<String, Long> buckets
+) {
+    /**
+     * Creates a HistogramDto from a LatencyHistogram.
+     */
+    public static HistogramDto from(LatencyHistogram histogram) {
+        return new HistogramDto(
+            histogram.count(),
+            histogram.min(),
+            histogram.mean(),
+            histogram.percentile(0.5),
+            histogram.percentile(0.95),
+            histogram.max(),
+            histogram.buckets()
+        );
+    }
+}
@@ -0,0 +1,36 @@
+package com.falniak.devdoctor.report;
+
+import com.falniak.devdoctor.check.ExecMetrics;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Process execution metrics for JSON output.
+ */
+public record MetricsInfo(
+    @JsonProperty("processesStarted") int processesStarted,
+    @JsonProperty("timeouts") int timeouts,
+    @JsonProperty("processesTerminated") int processesTerminated,
+    @JsonProperty("processesForceKilled") int processesForceKilled,
+    @JsonProperty("processesLeaked") int processesLeaked,
+    @JsonProperty("commands") List<CommandMetricsDto> commands
+) {
+    /**
+     * Creates a MetricsInfo from the metrics of a run.
+     */
+    public static MetricsInfo from(ExecMetrics metrics) {
+        List<CommandMetricsDto> commands = metrics.commands().entrySet().stream()
+            .map(entry -> CommandMetricsDto.from(entry.getKey(), entry.getValue()))
+            .collect(Collectors.toList());
+        return new MetricsInfo(
+            metrics.processesStarted(),
+            metrics.timeouts(),
+            metrics.processesTerminated(),
+            metrics.processesForceKilled(),
+            metrics.processesLeaked(),
+            commands
+        );
+    }
+}
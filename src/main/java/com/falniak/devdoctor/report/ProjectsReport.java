@@ -0,0 +1,20 @@
+package com.falniak.devdoctor.report;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Top-level report for JSON output of a recursive run, with one check report per project.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProjectsReport(
+    @JsonProperty("tool") ToolInfo tool,
+    @JsonProperty("config") ConfigInfo config,
+    @JsonProperty("summary") SummaryInfo summary,
+    @JsonProperty("projects") List<CheckReport> projects,
+    @JsonProperty("metrics") MetricsInfo metrics,
+    @JsonProperty("resultCache") ResultCacheInfo resultCache
+) {
+}
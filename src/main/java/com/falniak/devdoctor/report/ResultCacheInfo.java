@@ -0,0 +1,22 @@
+package com.falniak.devdoctor.report;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Check result cache statistics for JSON output.
+ *
+ * @param hits Checks answered with a stored result
+ * @param sharedHits Hits answered from the shared cache directory (null without one)
+ * @param misses Checks that declare their inputs but had to run
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResultCacheInfo(
+    @JsonProperty("hits") int hits,
+    @JsonProperty("sharedHits") Integer sharedHits,
+    @JsonProperty("misses") int misses
+) {
+    public ResultCacheInfo(int hits, int misses) {
+        this(hits, null, misses);
+    }
+}
@@ -10,6 +10,7 @@ public record SummaryInfo(
     @JsonProperty("warn") int warn,
     @JsonProperty("fail") int fail,
     @JsonProperty("info") int info,
-    @JsonProperty("notApplicable") int notApplicable
+    @JsonProperty("notApplicable") int notApplicable,
+    @JsonProperty("timeout") int timeout
 ) {
 }
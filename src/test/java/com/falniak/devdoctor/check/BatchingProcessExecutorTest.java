@@ -0,0 +1,176 @@
+package com.falniak.devdoctor.check;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisabledOnOs(OS.WINDOWS)
+class BatchingProcessExecutorTest {
+
+    @Test
+    void testBatchedProbesRunInOneShell() throws Exception {
+        RecordingExecutor delegate = new RecordingExecutor(new DefaultProcessExecutor());
+        BatchingProcessExecutor executor = new BatchingProcessExecutor(delegate, new ExecutableResolver());
+        List<String> hello = List.of("echo", "hello", "it's me");
+        List<String> failing = List.of("sh", "-c", "echo out; echo err >&2; exit 3");
+        List<String> noNewline = List.of("printf", "partial");
+
+        executor.prefetch(List.of(hello, failing, noNewline));
+
+        ExecResult helloResult = executor.exec(hello);
+        ExecResult failingResult = executor.exec(failing);
+        ExecResult noNewlineResult = executor.exec(noNewline, Pattern.compile("partial"));
+
+        assertEquals(1, delegate.commands.size());
+        assertEquals("/bin/sh", delegate.commands.get(0).get(0));
+        assertEquals(0, helloResult.exitCode());
+        assertEquals("hello it's me", helloResult.stdout());
+        assertEquals("", helloResult.stderr());
+        assertEquals(3, failingResult.exitCode());
+        assertEquals("out", failingResult.stdout());
+        assertEquals("err", failingResult.stderr());
+        assertEquals("partial", noNewlineResult.stdout());
+    }
+
+    @Test
+    void testCommandsOutsideTheBatchGoToDelegate() throws Exception {
+        RecordingExecutor delegate = new RecordingExecutor(new DefaultProcessExecutor());
+        BatchingProcessExecutor executor = new BatchingProcessExecutor(delegate, new ExecutableResolver());
+
+        executor.prefetch(List.of(List.of("echo", "a"), List.of("echo", "b")));
+        ExecResult other = executor.execAsync(List.of("echo", "c")).get(5, TimeUnit.SECONDS);
+
+        assertEquals("c", other.stdout());
+        assertEquals(2, delegate.commands.size());
+    }
+
+    @Test
+    void testMissingExecutablesAreNotBatched() {
+        RecordingExecutor delegate = new RecordingExecutor(new DefaultProcessExecutor());
+        BatchingProcessExecutor executor = new BatchingProcessExecutor(delegate, new ExecutableResolver());
+
+        executor.prefetch(List.of(List.of("echo", "a"), List.of("devdoctor-missing-tool", "--version")));
+
+        // Only one command is left, which is not worth a batch
+        assertTrue(delegate.commands.isEmpty());
+    }
+
+    @Test
+    void testFallsBackWhenBatchOutputIsUnusable() throws Exception {
+        RecordingExecutor delegate = new RecordingExecutor(command ->
+            command.get(0).equals("/bin/sh") ? new ExecResult(0, "garbage", "") : new ExecResult(0, "direct", ""));
+        BatchingProcessExecutor executor = new BatchingProcessExecutor(delegate, new ExecutableResolver());
+
+        executor.prefetch(List.of(List.of("echo", "a"), List.of("echo", "b")));
+        ExecResult result = executor.exec(List.of("echo", "a"));
+
+        assertEquals("direct", result.stdout());
+    }
+
+    @Test
+    void testProbeIsAnsweredBeforeTheBatchEnds() throws Exception {
+        BatchingProcessExecutor executor = new BatchingProcessExecutor(new DefaultProcessExecutor(),
+            new ExecutableResolver());
+        List<String> fast = List.of("echo", "fast");
+        executor.prefetch(List.of(fast, List.of("sleep", "3")));
+        long start = System.nanoTime();
+
+        ExecResult result = executor.exec(fast);
+
+        assertEquals("fast", result.stdout());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+
+    @Test
+    void testProbeOverItsTimeoutFailsAndLaterProbesRunOnTheirOwn() throws Exception {
+        RecordingExecutor delegate = new RecordingExecutor(new DefaultProcessExecutor());
+        BatchingProcessExecutor executor = new BatchingProcessExecutor(delegate, new ExecutableResolver(),
+            TimeoutPolicy.of(Map.of("sleep", 300L), null));
+        List<String> hung = List.of("sleep", "5");
+        List<String> after = List.of("echo", "after");
+        executor.prefetch(List.of(hung, after));
+        long start = System.nanoTime();
+
+        Exception exception = assertThrows(Exception.class, () -> executor.exec(hung));
+        ExecResult afterResult = executor.exec(after);
+
+        assertTrue(exception.getMessage().contains("timed out after 300 ms"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3000);
+        assertEquals("after", afterResult.stdout());
+        assertEquals(List.of("echo", "after"), delegate.commands.get(1));
+    }
+
+    @Test
+    void testStopPatternAnswersProbeEarly() throws Exception {
+        BatchingProcessExecutor executor = new BatchingProcessExecutor(new DefaultProcessExecutor(),
+            new ExecutableResolver());
+        List<String> chatty = List.of("sh", "-c", "echo 'version \"21\"' >&2; sleep 3");
+        executor.prefetch(List.of(chatty, List.of("echo", "b")));
+        long start = System.nanoTime();
+
+        ExecResult result = executor.exec(chatty, Pattern.compile("version \"([^\"]+)\""));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        assertEquals(0, result.exitCode());
+        assertTrue(result.stoppedEarly());
+        assertEquals("version \"21\"", result.stderr());
+    }
+
+    @Test
+    void testStopPatternMatchesOutputPrintedBeforeItWasGiven() throws Exception {
+        BatchingProcessExecutor executor = new BatchingProcessExecutor(new DefaultProcessExecutor(),
+            new ExecutableResolver());
+        List<String> chatty = List.of("sh", "-c", "echo 'version \"21\"' >&2; sleep 3");
+        executor.prefetch(List.of(chatty, List.of("echo", "b")));
+        Thread.sleep(500);
+        long start = System.nanoTime();
+
+        ExecResult result = executor.exec(chatty, Pattern.compile("version \"([^\"]+)\""));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1500);
+        assertTrue(result.stoppedEarly());
+        assertEquals("version \"21\"", result.stderr());
+    }
+
+    /**
+     * Delegate wrapper that records every command it is asked to start.
+     */
+    private static class RecordingExecutor implements ProcessExecutor {
+        private final ProcessExecutor delegate;
+        private final List<List<String>> commands = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingExecutor(ProcessExecutor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ExecResult exec(List<String> command) throws Exception {
+            commands.add(command);
+            return delegate.exec(command);
+        }
+
+        @Override
+        public CompletableFuture<ExecResult> execAsync(List<String> command, Pattern stopPattern) {
+            commands.add(command);
+            return delegate.execAsync(command, stopPattern);
+        }
+
+        @Override
+        public CompletableFuture<ExecResult> execStreaming(List<String> command, Duration timeout,
+                                                           OutputListener listener) {
+            commands.add(command);
+            return delegate.execStreaming(command, timeout, listener);
+        }
+    }
+}
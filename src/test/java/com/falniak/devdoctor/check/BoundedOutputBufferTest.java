@@ -0,0 +1,75 @@
+package com.falniak.devdoctor.check;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedOutputBufferTest {
+
+    @Test
+    void testKeepsEverythingWithinLimit() {
+        BoundedOutputBuffer buffer = new BoundedOutputBuffer(16);
+        write(buffer, "hello ");
+        write(buffer, "world");
+
+        assertFalse(buffer.truncated());
+        assertEquals("hello world", new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testKeepsHeadAndTailWhenTruncated() {
+        BoundedOutputBuffer buffer = new BoundedOutputBuffer(8);
+        write(buffer, "abcd");
+        write(buffer, "0123456789");
+        write(buffer, "wxyz");
+
+        assertTrue(buffer.truncated());
+        assertEquals("abcd\n... [10 bytes omitted] ...\nwxyz", new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testKeepsLatestBytesWhenOneWriteWrapsTheTail() {
+        BoundedOutputBuffer buffer = new BoundedOutputBuffer(8);
+        write(buffer, "abcd01");
+        write(buffer, "23456789wxyz");
+
+        assertTrue(buffer.truncated());
+        assertEquals("abcd\n... [10 bytes omitted] ...\nwxyz", new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testShortOutputDoesNotAllocateLimit() {
+        BoundedOutputBuffer buffer = new BoundedOutputBuffer(1024 * 1024);
+        write(buffer, "git version 2.43.0\n");
+
+        assertTrue(buffer.capacity() < 1024, "Allocated " + buffer.capacity() + " bytes for a short output");
+        assertEquals("git version 2.43.0\n", new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testGrowsTailUpToLimit() {
+        BoundedOutputBuffer buffer = new BoundedOutputBuffer(4096);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            String line = "line " + i + "\n";
+            expected.append(line);
+            write(buffer, line);
+        }
+
+        assertFalse(buffer.truncated());
+        assertTrue(buffer.capacity() <= 4096);
+        assertEquals(expected.toString(), new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRejectsTinyLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedOutputBuffer(1));
+    }
+
+    private static void write(BoundedOutputBuffer buffer, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        buffer.write(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,159 @@
+package com.falniak.devdoctor.check;
+
+import com.falniak.devdoctor.cache.ProbeCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingProcessExecutorTest {
+
+    private static final ExecutableResolver RESOLVER = new ExecutableResolver();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testVersionProbeIsServedFromCacheAcrossRuns() throws Exception {
+        Path file = tempDir.resolve("probes.json");
+        CountingExecutor delegate = new CountingExecutor();
+
+        ProbeCache firstCache = ProbeCache.load(file);
+        ExecResult first = new CachingProcessExecutor(delegate, firstCache, RESOLVER)
+            .exec(List.of("devdoctor-test-tool", "--version"));
+        firstCache.save();
+
+        ExecResult second = new CachingProcessExecutor(delegate, ProbeCache.load(file), RESOLVER)
+            .exec(List.of("devdoctor-test-tool", "--version"));
+
+        assertEquals(1, delegate.calls.get());
+        assertEquals(first.exitCode(), second.exitCode());
+        assertEquals(first.stdout(), second.stdout());
+        assertEquals(first.stderr(), second.stderr());
+    }
+
+    @Test
+    void testMissingExecutableIsCachedAsNegativeEntry() throws Exception {
+        Path file = tempDir.resolve("probes.json");
+        CountingExecutor delegate = new CountingExecutor();
+        delegate.failure = new IOException("Cannot run program \"devdoctor-test-tool\"");
+
+        ProbeCache firstCache = ProbeCache.load(file);
+        assertThrows(IOException.class, () -> new CachingProcessExecutor(delegate, firstCache, RESOLVER)
+            .exec(List.of("devdoctor-test-tool", "--version")));
+        firstCache.save();
+
+        IOException replayed = assertThrows(IOException.class,
+            () -> new CachingProcessExecutor(delegate, ProbeCache.load(file), RESOLVER)
+                .exec(List.of("devdoctor-test-tool", "--version")));
+
+        assertEquals(1, delegate.calls.get());
+        assertEquals("Cannot run program \"devdoctor-test-tool\"", replayed.getMessage());
+    }
+
+    @Test
+    void testNonZeroExitIsNotCached() throws Exception {
+        CountingExecutor delegate = new CountingExecutor();
+        delegate.exitCode = 1;
+        CachingProcessExecutor executor = new CachingProcessExecutor(delegate, ProbeCache.load(tempDir.resolve("probes.json")), RESOLVER);
+
+        executor.exec(List.of("devdoctor-test-tool", "--version"));
+        executor.exec(List.of("devdoctor-test-tool", "--version"));
+
+        assertEquals(2, delegate.calls.get());
+    }
+
+    @Test
+    void testOtherCommandsAreNotCached() throws Exception {
+        CountingExecutor delegate = new CountingExecutor();
+        CachingProcessExecutor executor = new CachingProcessExecutor(delegate, ProbeCache.load(tempDir.resolve("probes.json")), RESOLVER);
+
+        executor.exec(List.of("docker", "info"));
+        executor.exec(List.of("docker", "info"));
+
+        assertEquals(2, delegate.calls.get());
+    }
+
+    @Test
+    void testVersionManagerSelectionIsPartOfTheKey() throws Exception {
+        Map<String, String> environment = new HashMap<>();
+        ToolVersionSelection selection = new ToolVersionSelection(environment::get, tempDir, tempDir);
+        CountingExecutor delegate = new CountingExecutor();
+        CachingProcessExecutor executor = new CachingProcessExecutor(delegate,
+            ProbeCache.load(tempDir.resolve("probes.json")), RESOLVER, selection);
+
+        executor.exec(List.of("python3", "--version"));
+        executor.exec(List.of("python3", "--version"));
+        environment.put("PYENV_VERSION", "3.12.1");
+        executor.exec(List.of("python3", "--version"));
+
+        assertEquals(2, delegate.calls.get());
+    }
+
+    @Test
+    void testOldEntriesAreDroppedOnSave() {
+        Path file = tempDir.resolve("probes.json");
+        long expired = System.currentTimeMillis() - ProbeCache.MAX_AGE.toMillis() - 1;
+        ProbeCache cache = ProbeCache.load(file);
+        cache.put("old --version @ x", new ProbeCache.Entry(0, "old 1.0", "", null, expired));
+        cache.put("new --version @ x", new ProbeCache.Entry(0, "new 1.0", "", null, System.currentTimeMillis()));
+        cache.save();
+
+        ProbeCache reloaded = ProbeCache.load(file);
+
+        assertTrue(reloaded.get("old --version @ x").isEmpty());
+        assertTrue(reloaded.get("new --version @ x").isPresent());
+    }
+
+    @Test
+    void testEntriesInUseAreKeptOnSave() {
+        Path file = tempDir.resolve("probes.json");
+        long almostExpired = System.currentTimeMillis() - ProbeCache.MAX_AGE.toMillis() + 60_000;
+        ProbeCache cache = ProbeCache.load(file);
+        cache.put("used --version @ x", new ProbeCache.Entry(0, "used 1.0", "", null, almostExpired));
+        cache.save();
+
+        ProbeCache nextRun = ProbeCache.load(file);
+        assertEquals("used 1.0", nextRun.get("used --version @ x").orElseThrow().stdout());
+        nextRun.save();
+
+        long storedAt = ProbeCache.load(file).get("used --version @ x").orElseThrow().storedAt();
+        assertTrue(System.currentTimeMillis() - storedAt < 60_000, "A hit restarts the entry's lifetime");
+    }
+
+    @Test
+    void testCorruptCacheFileIsIgnored() throws Exception {
+        Path file = tempDir.resolve("probes.json");
+        Files.writeString(file, "{ not json");
+
+        ProbeCache cache = ProbeCache.load(file);
+
+        assertTrue(cache.get("anything").isEmpty());
+    }
+
+    /**
+     * Delegate that counts invocations and optionally fails.
+     */
+    private static class CountingExecutor implements ProcessExecutor {
+        private final AtomicInteger calls = new AtomicInteger();
+        private int exitCode;
+        private Exception failure;
+
+        @Override
+        public ExecResult exec(List<String> command) throws Exception {
+            calls.incrementAndGet();
+            if (failure != null) {
+                throw failure;
+            }
+            return new ExecResult(exitCode, "tool 1.2.3", "");
+        }
+    }
+}
@@ -6,9 +6,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -65,6 +72,390 @@ class CheckRunnerTest {
         assertTrue(results.isEmpty());
     }
 
+    @Test
+    void testConcurrentRunKeepsInputOrder() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        // The first check is the slowest, so it finishes last
+        List<Check> checks = List.of(
+            new SlowCheck("slow", 200, new AtomicInteger(), new AtomicInteger()),
+            new TestCheck("fast1", CheckStatus.PASS),
+            new TestCheck("fast2", CheckStatus.WARN)
+        );
+
+        CheckRunner runner = new CheckRunner(4);
+        List<CheckResult> results = runner.runChecks(checks, context);
+
+        assertEquals(3, results.size());
+        assertEquals("slow", results.get(0).id());
+        assertEquals("fast1", results.get(1).id());
+        assertEquals("fast2", results.get(2).id());
+    }
+
+    @Test
+    void testConcurrentRunIsBoundedByMaxConcurrency() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Check> checks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            checks.add(new SlowCheck("slow" + i, 50, running, peak));
+        }
+
+        CheckRunner runner = new CheckRunner(2);
+        List<CheckResult> results = runner.runChecks(checks, context);
+
+        assertEquals(6, results.size());
+        assertTrue(peak.get() <= 2, "At most 2 checks should run at once, saw " + peak.get());
+        assertTrue(peak.get() >= 2, "Checks should overlap when concurrency allows it");
+    }
+
+    @Test
+    void testConcurrentRunPropagatesCheckExceptions() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        Check failing = new Check() {
+            @Override
+            public String id() {
+                return "broken";
+            }
+
+            @Override
+            public CheckResult run(CheckContext ctx) {
+                throw new IllegalStateException("boom");
+            }
+        };
+
+        CheckRunner runner = new CheckRunner(4);
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> runner.runChecks(List.of(new TestCheck("ok", CheckStatus.PASS), failing), context));
+        assertEquals("boom", e.getMessage());
+    }
+
+    @Test
+    void testRejectsNonPositiveConcurrency() {
+        assertThrows(IllegalArgumentException.class, () -> new CheckRunner(0));
+    }
+
+    @Test
+    void testDependentIsSkippedWhenPrerequisiteFails() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        DependentCheck dependent = new DependentCheck("dependent", Set.of("prereq"));
+        List<Check> checks = List.of(dependent, new TestCheck("prereq", CheckStatus.FAIL));
+
+        List<CheckResult> results = new CheckRunner().runChecks(checks, context);
+
+        assertEquals("dependent", results.get(0).id());
+        assertEquals(CheckStatus.NOT_APPLICABLE, results.get(0).status());
+        assertTrue(results.get(0).summary().contains("prereq"));
+        assertEquals(0, dependent.runs.get(), "Skipped check must not run");
+        assertEquals("prereq", results.get(1).id());
+        assertEquals(CheckStatus.FAIL, results.get(1).status());
+    }
+
+    @Test
+    void testSettledPrerequisiteResultsDecideWhetherDependentsRun() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+        DependentCheck dependent = new DependentCheck("dependent", Set.of("prereq"));
+        CheckResult failed = new CheckResult("prereq", CheckStatus.FAIL, "Missing", null, List.of());
+        CheckResult passed = new CheckResult("prereq", CheckStatus.PASS, "Found", null, List.of());
+
+        List<CheckResult> skipped = new CheckRunner(4).runChecks(List.of(dependent), context, null,
+            Map.of("prereq", failed));
+        List<CheckResult> ran = new CheckRunner(4).runChecks(List.of(dependent), context, null,
+            Map.of("prereq", passed));
+
+        assertEquals(List.of("dependent"), skipped.stream().map(CheckResult::id).toList());
+        assertEquals(CheckStatus.NOT_APPLICABLE, skipped.get(0).status());
+        assertTrue(skipped.get(0).summary().contains("prereq"));
+        assertEquals(CheckStatus.PASS, ran.get(0).status());
+        assertEquals(1, dependent.runs.get(), "Only the run with a passing prerequisite runs the check");
+    }
+
+    @Test
+    void testSkipPropagatesToTransitiveDependents() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        DependentCheck middle = new DependentCheck("middle", Set.of("root"));
+        DependentCheck leaf = new DependentCheck("leaf", Set.of("middle"));
+        List<Check> checks = List.of(new TestCheck("root", CheckStatus.FAIL), middle, leaf);
+
+        List<CheckResult> results = new CheckRunner(4).runChecks(checks, context);
+
+        assertEquals(CheckStatus.NOT_APPLICABLE, results.get(1).status());
+        assertEquals(CheckStatus.NOT_APPLICABLE, results.get(2).status());
+        assertEquals(0, middle.runs.get());
+        assertEquals(0, leaf.runs.get());
+    }
+
+    @Test
+    void testSkipSummaryNamesWhyPrerequisiteDidNotPass() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        List<Check> checks = List.of(
+            new TestCheck("root", CheckStatus.FAIL),
+            new DependentCheck("middle", Set.of("root")),
+            new DependentCheck("leaf", Set.of("middle")),
+            new SlowCheck("slow", 5000, new AtomicInteger(), new AtomicInteger()),
+            new DependentCheck("after-slow", Set.of("slow"))
+        );
+        CheckTimeouts timeouts = CheckTimeouts.of(null, Map.of("slow", 100L));
+
+        List<CheckResult> results = new CheckRunner(4, timeouts).runChecks(checks, context);
+
+        assertEquals("Skipped (prerequisite root failed)", results.get(1).summary());
+        assertEquals("Skipped (prerequisite middle was skipped)", results.get(2).summary());
+        assertEquals("Skipped (prerequisite slow timed out)", results.get(4).summary());
+    }
+
+    @Test
+    void testSettledSkippedPrerequisiteSkipsDependents() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+        List<CheckResult> first = new CheckRunner().runChecks(
+            List.of(new TestCheck("root", CheckStatus.FAIL), new DependentCheck("middle", Set.of("root"))), context);
+        CheckResult skippedMiddle = first.get(1);
+        assertEquals(CheckStatus.NOT_APPLICABLE, skippedMiddle.status());
+        assertTrue(skippedMiddle.skipped());
+
+        // Only the leaf re-runs, as in watch mode; its prerequisite keeps the result of the first run
+        DependentCheck leaf = new DependentCheck("leaf", Set.of("middle"));
+        List<CheckResult> results = new CheckRunner(4).runChecks(List.of(leaf), context, null,
+            Map.of("middle", skippedMiddle));
+
+        assertEquals(CheckStatus.NOT_APPLICABLE, results.get(0).status());
+        assertEquals("Skipped (prerequisite middle was skipped)", results.get(0).summary());
+        assertEquals(0, leaf.runs.get());
+    }
+
+    @Test
+    void testOnlyResultsMarkedSkippedSkipDependents() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+        DependentCheck afterMarked = new DependentCheck("after-marked", Set.of("marked"));
+        DependentCheck afterLookalike = new DependentCheck("after-lookalike", Set.of("lookalike"));
+        Map<String, CheckResult> settled = Map.of(
+            // Skipped, whatever its summary says
+            "marked", new CheckResult("marked", CheckStatus.NOT_APPLICABLE, "Not run", null, List.of(), true),
+            // Not applicable for its own reasons, with a summary that merely looks like a skip
+            "lookalike", new CheckResult("lookalike", CheckStatus.NOT_APPLICABLE,
+                "Skipped (prerequisite of nothing)", null, List.of())
+        );
+
+        List<CheckResult> results = new CheckRunner(4).runChecks(List.of(afterMarked, afterLookalike), context, null,
+            settled);
+
+        assertTrue(results.get(0).skipped());
+        assertEquals(0, afterMarked.runs.get());
+        assertFalse(results.get(1).skipped());
+        assertEquals(1, afterLookalike.runs.get());
+    }
+
+    @Test
+    void testDependentRunsAfterPassingPrerequisite() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        AtomicInteger running = new AtomicInteger();
+        SlowCheck prerequisite = new SlowCheck("prereq", 100, running, new AtomicInteger());
+        DependentCheck dependent = new DependentCheck("dependent", Set.of("prereq"), running);
+
+        List<CheckResult> results = new CheckRunner(4).runChecks(List.of(dependent, prerequisite), context);
+
+        assertEquals(CheckStatus.PASS, results.get(0).status());
+        assertEquals(1, dependent.runs.get());
+        assertEquals(0, dependent.overlapping.get(), "Dependent must not overlap its prerequisite");
+    }
+
+    @Test
+    void testMissingPrerequisiteIsIgnored() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        DependentCheck dependent = new DependentCheck("dependent", Set.of("not.in.run"));
+        List<CheckResult> results = new CheckRunner().runChecks(List.of(dependent), context);
+
+        assertEquals(CheckStatus.PASS, results.get(0).status());
+        assertEquals(1, dependent.runs.get());
+    }
+
+    @Test
+    void testPrerequisiteCycleIsRejected() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        List<Check> checks = List.of(
+            new DependentCheck("a", Set.of("b")),
+            new DependentCheck("b", Set.of("a"))
+        );
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> new CheckRunner().runChecks(checks, context));
+        assertTrue(e.getMessage().contains("cycle"));
+    }
+
+    @Test
+    void testCheckExceedingDeadlineIsReportedAsTimeout() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        List<Check> checks = List.of(
+            new SlowCheck("slow", 5000, new AtomicInteger(), new AtomicInteger()),
+            new TestCheck("fast", CheckStatus.PASS)
+        );
+        CheckTimeouts timeouts = CheckTimeouts.of(null, Map.of("slow", 100L));
+
+        long start = System.nanoTime();
+        List<CheckResult> results = new CheckRunner(1, timeouts).runChecks(checks, context);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(CheckStatus.TIMEOUT, results.get(0).status());
+        assertTrue(results.get(0).summary().contains("100 ms"));
+        assertEquals(CheckStatus.PASS, results.get(1).status());
+        assertTrue(elapsedMillis < 3000, "Run should not wait for the slow check, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void testCheckIgnoringInterruptsDoesNotBlockTheNextOne() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        StubbornCheck stubborn = new StubbornCheck("stubborn");
+        List<Check> checks = List.of(stubborn, new TestCheck("queued", CheckStatus.PASS));
+        CheckTimeouts timeouts = CheckTimeouts.of(null, Map.of("stubborn", 100L));
+
+        try {
+            List<CheckResult> results = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> new CheckRunner(1, timeouts).runChecks(checks, context));
+
+            assertEquals(CheckStatus.TIMEOUT, results.get(0).status());
+            assertEquals(CheckStatus.PASS, results.get(1).status());
+        } finally {
+            stubborn.release = true;
+        }
+    }
+
+    @Test
+    void testRunBudgetTimesOutRemainingChecks() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        DependentCheck dependent = new DependentCheck("dependent", Set.of("slow"));
+        List<Check> checks = List.of(
+            new TestCheck("fast", CheckStatus.PASS),
+            new SlowCheck("slow", 5000, new AtomicInteger(), new AtomicInteger()),
+            dependent
+        );
+        CheckTimeouts timeouts = CheckTimeouts.of(200L, Map.of());
+
+        List<CheckResult> results = new CheckRunner(4, timeouts).runChecks(checks, context);
+
+        assertEquals(CheckStatus.PASS, results.get(0).status());
+        assertEquals(CheckStatus.TIMEOUT, results.get(1).status());
+        assertTrue(results.get(1).summary().contains("budget"));
+        assertEquals(CheckStatus.TIMEOUT, results.get(2).status());
+        assertEquals(0, dependent.runs.get());
+    }
+
+    @Test
+    void testListenerReceivesBudgetTimeoutOfDependent() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        DependentCheck dependent = new DependentCheck("dependent", Set.of("slow"));
+        List<Check> checks = List.of(
+            new SlowCheck("slow", 5000, new AtomicInteger(), new AtomicInteger()),
+            dependent
+        );
+        CheckTimeouts timeouts = CheckTimeouts.of(200L, Map.of());
+        Map<String, CheckStatus> published = new ConcurrentHashMap<>();
+
+        new CheckRunner(4, timeouts).runChecks(checks, context, result -> published.put(result.id(), result.status()));
+
+        // Streaming must not change what is reported: both are timed out by the budget
+        assertEquals(Map.of("slow", CheckStatus.TIMEOUT, "dependent", CheckStatus.TIMEOUT), published);
+        assertEquals(0, dependent.runs.get());
+    }
+
+    @Test
+    void testDefaultDeadlineAppliesToAllChecks() {
+        CheckTimeouts timeouts = CheckTimeouts.of(null, Map.of("default", 1000L, "system.docker", 3000L));
+
+        assertEquals(Duration.ofMillis(3000), timeouts.deadlineFor("system.docker"));
+        assertEquals(Duration.ofMillis(1000), timeouts.deadlineFor("system.git"));
+        assertThrows(IllegalArgumentException.class, () -> CheckTimeouts.of(0L, Map.of()));
+    }
+
+    @Test
+    void testListenerReceivesResultsInCompletionOrder() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        CheckContext context = createTestContext(executor);
+
+        List<Check> checks = List.of(
+            new SlowCheck("slow", 200, new AtomicInteger(), new AtomicInteger()),
+            new TestCheck("fast", CheckStatus.PASS)
+        );
+        List<String> published = Collections.synchronizedList(new ArrayList<>());
+
+        List<CheckResult> results = new CheckRunner(4).runChecks(checks, context, result -> published.add(result.id()));
+
+        assertEquals(List.of("slow", "fast"), results.stream().map(CheckResult::id).toList());
+        assertEquals(List.of("fast", "slow"), published, "All results must be published before returning");
+    }
+
+    @Test
+    void testStoredResultIsReusedWhileInputsAreUnchanged() throws Exception {
+        CheckContext context = createTestContext(new FakeProcessExecutor());
+        java.nio.file.Files.writeString(tempDir.resolve(".nvmrc"), "18");
+        AtomicInteger runs = new AtomicInteger();
+        Check declared = new CountingCheck("declared", runs, Optional.of(
+            new CheckInputs(Set.of(".nvmrc"), Set.of(), Set.of())));
+        AtomicInteger undeclaredRuns = new AtomicInteger();
+        Check undeclared = new CountingCheck("undeclared", undeclaredRuns, Optional.empty());
+        CheckRunner runner = new CheckRunner(1, CheckTimeouts.NONE,
+            new InputFingerprinter(new ExecutableResolver("", false)), CheckResultStore.inMemory());
+
+        runner.runChecks(List.of(declared, undeclared), context);
+        List<CheckResult> second = runner.runChecks(List.of(declared, undeclared), context);
+
+        assertEquals(1, runs.get(), "Unchanged inputs reuse the stored result");
+        assertEquals("run 1", second.get(0).summary());
+        assertEquals(2, undeclaredRuns.get(), "Checks without declared inputs always run");
+
+        java.nio.file.Files.writeString(tempDir.resolve(".nvmrc"), "20");
+        assertEquals("run 2", runner.runChecks(List.of(declared), context).get(0).summary());
+    }
+
+    @Test
+    void testMachineCheckResultIsSharedBetweenProjects() throws Exception {
+        Path other = java.nio.file.Files.createDirectory(tempDir.resolve("other"));
+        CheckContext context = createTestContext(new FakeProcessExecutor());
+        CheckContext otherContext = new CheckContext(other, other, EnumSet.noneOf(ProjectType.class),
+            new DetectionResult(other, EnumSet.noneOf(ProjectType.class), List.of()), new FakeProcessExecutor());
+        AtomicInteger machineRuns = new AtomicInteger();
+        Check machine = new CountingCheck("machine", machineRuns, Optional.of(CheckInputs.machine(Set.of(), Set.of())));
+        AtomicInteger projectRuns = new AtomicInteger();
+        Check project = new CountingCheck("project", projectRuns, Optional.of(CheckInputs.NONE));
+        CheckRunner runner = new CheckRunner(1, CheckTimeouts.NONE,
+            new InputFingerprinter(new ExecutableResolver("", false)), CheckResultStore.inMemory());
+
+        runner.runChecks(List.of(machine, project), context);
+        runner.runChecks(List.of(machine, project), otherContext);
+        runner.runChecks(List.of(machine, project), context);
+
+        assertEquals(1, machineRuns.get(), "Machine checks have one slot for all projects");
+        assertEquals(2, projectRuns.get(), "Project checks have one slot per project");
+    }
+
     private CheckContext createTestContext(ProcessExecutor executor) {
         Path targetPath = tempDir;
         Set<ProjectType> types = EnumSet.noneOf(ProjectType.class);
@@ -94,4 +485,135 @@ class CheckRunnerTest {
             return new CheckResult(id, status, "Test summary", null, List.of());
         }
     }
+
+    /**
+     * Test check that counts its runs and reports the count in its summary.
+     */
+    private static class CountingCheck implements Check {
+        private final String id;
+        private final AtomicInteger runs;
+        private final Optional<CheckInputs> inputs;
+
+        CountingCheck(String id, AtomicInteger runs, Optional<CheckInputs> inputs) {
+            this.id = id;
+            this.runs = runs;
+            this.inputs = inputs;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public Optional<CheckInputs> inputs(CheckContext ctx) {
+            return inputs;
+        }
+
+        @Override
+        public CheckResult run(CheckContext ctx) {
+            return new CheckResult(id, CheckStatus.PASS, "run " + runs.incrementAndGet(), null, List.of());
+        }
+    }
+
+    /**
+     * Test check that sleeps and tracks how many checks run at the same time.
+     */
+    private static class SlowCheck implements Check {
+        private final String id;
+        private final long sleepMillis;
+        private final AtomicInteger running;
+        private final AtomicInteger peak;
+
+        SlowCheck(String id, long sleepMillis, AtomicInteger running, AtomicInteger peak) {
+            this.id = id;
+            this.sleepMillis = sleepMillis;
+            this.running = running;
+            this.peak = peak;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public CheckResult run(CheckContext ctx) {
+            int now = running.incrementAndGet();
+            peak.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return new CheckResult(id, CheckStatus.PASS, "Slow summary", null, List.of());
+        }
+    }
+
+    /**
+     * Test check that keeps running, ignoring interrupts, until released.
+     */
+    private static class StubbornCheck implements Check {
+        private final String id;
+        private volatile boolean release;
+
+        StubbornCheck(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public CheckResult run(CheckContext ctx) {
+            while (!release) {
+                Thread.onSpinWait();
+            }
+            return new CheckResult(id, CheckStatus.PASS, "Released", null, List.of());
+        }
+    }
+
+    /**
+     * Test check with prerequisites that records how often it ran.
+     */
+    private static class DependentCheck implements Check {
+        private final String id;
+        private final Set<String> dependsOn;
+        private final AtomicInteger running;
+        private final AtomicInteger runs = new AtomicInteger();
+        private final AtomicInteger overlapping = new AtomicInteger();
+
+        DependentCheck(String id, Set<String> dependsOn) {
+            this(id, dependsOn, new AtomicInteger());
+        }
+
+        DependentCheck(String id, Set<String> dependsOn, AtomicInteger running) {
+            this.id = id;
+            this.dependsOn = dependsOn;
+            this.running = running;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public Set<String> dependsOn() {
+            return dependsOn;
+        }
+
+        @Override
+        public CheckResult run(CheckContext ctx) {
+            runs.incrementAndGet();
+            if (running.get() > 0) {
+                overlapping.incrementAndGet();
+            }
+            return new CheckResult(id, CheckStatus.PASS, "Dependent summary", null, List.of());
+        }
+    }
 }
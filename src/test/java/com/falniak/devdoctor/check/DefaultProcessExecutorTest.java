@@ -0,0 +1,281 @@
+package com.falniak.devdoctor.check;
+
+import com.falniak.devdoctor.cache.CommandDurationHistory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisabledOnOs(OS.WINDOWS)
+class DefaultProcessExecutorTest {
+
+    private final DefaultProcessExecutor executor = new DefaultProcessExecutor();
+
+    @Test
+    void testCapturesStdoutAndStderrSeparately() throws Exception {
+        ExecResult result = executor.exec(List.of("sh", "-c", "echo out1; echo err >&2; echo out2; exit 3"));
+
+        assertEquals(3, result.exitCode());
+        assertEquals("out1\nout2", result.stdout());
+        assertEquals("err", result.stderr());
+    }
+
+    @Test
+    void testConcurrentInvocationsKeepTheirOwnOutput() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ExecResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String marker = "run-" + i;
+                futures.add(callers.submit(() -> executor.exec(List.of("sh", "-c", "echo " + marker))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("run-" + i, futures.get(i).get(10, TimeUnit.SECONDS).stdout());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testKeepsOutputWhenDescendantHoldsPipeOpen() throws Exception {
+        long start = System.nanoTime();
+
+        // The background sleep inherits stdout, so end of file only arrives when it exits
+        ExecResult result = executor.exec(List.of("sh", "-c", "echo ready; sleep 4 &"));
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(0, result.exitCode());
+        assertEquals("ready", result.stdout());
+        assertTrue(elapsedMillis < 3500, "Returned after " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void testLargeOutputKeepsHeadAndTailWithinLimit() throws Exception {
+        DefaultProcessExecutor limited = new DefaultProcessExecutor(null, new ExecutableResolver(), 64);
+
+        ExecResult result = limited.exec(List.of("sh", "-c",
+            "echo first; i=0; while [ $i -lt 1000 ]; do echo line $i; i=$((i+1)); done; echo last"));
+
+        assertEquals(0, result.exitCode());
+        assertTrue(result.truncated());
+        assertTrue(result.stdout().startsWith("first"));
+        assertTrue(result.stdout().endsWith("last"));
+        assertTrue(result.stdout().contains("bytes omitted"));
+        assertTrue(result.stdoutBytes().length < 128);
+    }
+
+    @Test
+    void testStopsProcessWhenPatternMatches() throws Exception {
+        long start = System.nanoTime();
+
+        ExecResult result = executor.exec(List.of("sh", "-c", "echo tool version 1.2.3; sleep 4; echo done"),
+            Pattern.compile("version (\\S+)"));
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(result.stoppedEarly());
+        assertEquals(0, result.exitCode());
+        assertEquals("tool version 1.2.3", result.stdout());
+        assertTrue(elapsedMillis < 3500, "Returned after " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void testConfiguredCommandTimeoutKillsProcess() {
+        TimeoutPolicy policy = TimeoutPolicy.of(Map.of("sh", 300L), null);
+        DefaultProcessExecutor shortTimeout = new DefaultProcessExecutor(
+            null, new ExecutableResolver(), DefaultProcessExecutor.DEFAULT_CAPTURE_LIMIT, policy, new ExecMetrics());
+        long start = System.nanoTime();
+
+        Exception exception = assertThrows(Exception.class,
+            () -> shortTimeout.exec(List.of("sh", "-c", "sleep 3")));
+
+        assertTrue(exception.getMessage().contains("300 ms"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2500);
+    }
+
+    @Test
+    void testTimedOutRunsAreRecordedAtTheirTimeout(@TempDir Path tempDir) throws Exception {
+        CommandDurationHistory history = CommandDurationHistory.load(tempDir.resolve("durations.json"));
+        TimeoutPolicy policy = new TimeoutPolicy(Duration.ofMillis(300), Map.of(), history);
+        DefaultProcessExecutor adaptive = new DefaultProcessExecutor(
+            null, new ExecutableResolver(), DefaultProcessExecutor.DEFAULT_CAPTURE_LIMIT, policy, new ExecMetrics());
+
+        assertThrows(Exception.class, () -> adaptive.exec(List.of("sh", "-c", "sleep 3")));
+        adaptive.exec(List.of("sh", "-c", "exit 0"));
+
+        String key = TimeoutPolicy.commandKey(List.of("sh", "-c"));
+        assertEquals(2, history.sampleCount(key));
+        assertEquals(300, history.percentile(key, 1.0).orElseThrow());
+    }
+
+    @Test
+    void testStopPatternAfterExitKeepsTheExitCode() throws Exception {
+        // The pattern is printed by a leftover child after the process itself failed
+        ExecResult result = executor.exec(List.of("sh", "-c", "(sleep 0.5; echo tool version 1.2.3) & exit 3"),
+            Pattern.compile("version (\\S+)"));
+
+        assertEquals(3, result.exitCode());
+        assertFalse(result.stoppedEarly());
+    }
+
+    @Test
+    void testStopPatternTerminatesDescendants(@TempDir Path tempDir) throws Exception {
+        Path pidFile = tempDir.resolve("child.pid");
+        ExecMetrics metrics = new ExecMetrics();
+        DefaultProcessExecutor stopping = new DefaultProcessExecutor(null, new ExecutableResolver(),
+            DefaultProcessExecutor.DEFAULT_CAPTURE_LIMIT, TimeoutPolicy.fixed(Duration.ofSeconds(10)), metrics);
+
+        // Like a shim, the shell leaves a child holding the output pipe
+        ExecResult result = stopping.exec(List.of("sh", "-c",
+            "sleep 30 & echo $! > " + pidFile + "; echo tool version 1.2.3; wait"), Pattern.compile("version (\\S+)"));
+
+        long childPid = Long.parseLong(Files.readString(pidFile).trim());
+        assertTrue(result.stoppedEarly());
+        assertEquals(0, result.exitCode());
+        assertFalse(isRunning(childPid));
+        assertEquals(0, metrics.processesLeaked());
+    }
+
+    @Test
+    void testTimeoutTerminatesDescendants(@TempDir Path tempDir) throws Exception {
+        Path pidFile = tempDir.resolve("child.pid");
+        ExecMetrics metrics = new ExecMetrics();
+        DefaultProcessExecutor shortTimeout = new DefaultProcessExecutor(null, new ExecutableResolver(),
+            DefaultProcessExecutor.DEFAULT_CAPTURE_LIMIT, TimeoutPolicy.of(Map.of("sh", 500L), null), metrics);
+
+        // The grandchild ignores SIGTERM, so it has to be killed forcibly
+        assertThrows(Exception.class, () -> shortTimeout.exec(List.of("sh", "-c",
+            "sh -c 'trap \"\" TERM; sleep 30' & echo $! > " + pidFile + "; wait")));
+
+        long childPid = Long.parseLong(Files.readString(pidFile).trim());
+        assertFalse(isRunning(childPid));
+        assertEquals(1, metrics.timeouts());
+        assertTrue(metrics.processesTerminated() >= 2);
+        assertTrue(metrics.processesForceKilled() >= 1);
+        assertEquals(0, metrics.processesLeaked());
+    }
+
+    @Test
+    void testTimeoutTerminatesChildrenStartedDuringGracePeriod(@TempDir Path tempDir) throws Exception {
+        Path pidFile = tempDir.resolve("children.pid");
+        DefaultProcessExecutor shortTimeout = new DefaultProcessExecutor(null, new ExecutableResolver(),
+            DefaultProcessExecutor.DEFAULT_CAPTURE_LIMIT, TimeoutPolicy.of(Map.of("sh", 300L), null), new ExecMetrics());
+
+        // A wrapper that ignores SIGTERM and keeps starting children until it is killed
+        assertThrows(Exception.class, () -> shortTimeout.exec(List.of("sh", "-c",
+            "trap '' TERM; while true; do sleep 30 & echo $! >> " + pidFile + "; sleep 0.05; done")));
+
+        List<String> pids = Files.readAllLines(pidFile);
+        assertTrue(pids.size() > 6, "Wrapper should have kept starting children: " + pids.size());
+        for (String pid : pids) {
+            assertFalse(isRunning(Long.parseLong(pid.trim())), "Child " + pid + " leaked");
+        }
+    }
+
+    @Test
+    void testCancellingExecAsyncTerminatesDescendants(@TempDir Path tempDir) throws Exception {
+        Path pidFile = tempDir.resolve("child.pid");
+        ExecMetrics metrics = new ExecMetrics();
+        DefaultProcessExecutor withMetrics = new DefaultProcessExecutor(null, new ExecutableResolver(),
+            DefaultProcessExecutor.DEFAULT_CAPTURE_LIMIT, TimeoutPolicy.fixed(TimeoutPolicy.DEFAULT_TIMEOUT), metrics);
+        CompletableFuture<ExecResult> future = withMetrics.execAsync(List.of("sh", "-c",
+            "sleep 30 & echo $! > " + pidFile + "; wait"));
+        while (!Files.exists(pidFile) || Files.readString(pidFile).isBlank()) {
+            Thread.sleep(20);
+        }
+        long childPid = Long.parseLong(Files.readString(pidFile).trim());
+
+        future.cancel(true);
+
+        Optional<ProcessHandle> child = ProcessHandle.of(childPid);
+        if (child.isPresent()) {
+            child.get().onExit().get(5, TimeUnit.SECONDS);
+        }
+        assertFalse(ProcessHandle.of(childPid).map(ProcessHandle::isAlive).orElse(false));
+    }
+
+    @Test
+    void testRecordsMetricsPerCommand() throws Exception {
+        ExecMetrics metrics = new ExecMetrics();
+        DefaultProcessExecutor measured = new DefaultProcessExecutor(null, new ExecutableResolver(),
+            DefaultProcessExecutor.DEFAULT_CAPTURE_LIMIT, TimeoutPolicy.fixed(TimeoutPolicy.DEFAULT_TIMEOUT), metrics);
+
+        measured.exec(List.of("sh", "-c", "sleep 0.1; printf abc; printf de >&2"));
+        measured.exec(List.of("sh", "-c", "exit 2"));
+
+        ExecMetrics.CommandMetrics sh = metrics.commands().get("sh -c");
+        assertEquals(2, metrics.processesStarted());
+        assertEquals(2, sh.invocations());
+        assertEquals(Map.of(0, 1, 2, 1), sh.exitCodes());
+        assertEquals(3, sh.stdoutBytes());
+        assertEquals(2, sh.stderrBytes());
+        assertEquals(2, sh.duration().count());
+        assertEquals(1, sh.timeToFirstByte().count());
+        assertTrue(sh.timeToFirstByte().max() >= 90);
+        assertEquals(0, metrics.timeouts());
+    }
+
+    @Test
+    void testExecAsyncKeepsManyProcessesInFlight() throws Exception {
+        List<CompletableFuture<ExecResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            futures.add(executor.execAsync(List.of("sh", "-c", "sleep 0.2; echo async-" + i)));
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("async-" + i, futures.get(i).join().stdout());
+        }
+    }
+
+    @Test
+    void testExecAsyncFailsForMissingExecutable() {
+        DefaultProcessExecutor missing = new DefaultProcessExecutor(null, new ExecutableResolver(null, false));
+
+        CompletableFuture<ExecResult> future = missing.execAsync(List.of("git", "--version"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+
+    @Test
+    void testCancellingExecAsyncKillsProcess() throws Exception {
+        CompletableFuture<ExecResult> future = executor.execAsync(List.of("sh", "-c", "sleep 4"));
+
+        future.cancel(true);
+
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    void testDefaultExecAsyncAdaptsBlockingExecutor() throws Exception {
+        ProcessExecutor blocking = command -> new ExecResult(0, String.join(" ", command), "");
+
+        assertEquals("node -v", blocking.execAsync(List.of("node", "-v")).get(5, TimeUnit.SECONDS).stdout());
+    }
+
+    /**
+     * Exited descendants may stay zombies until init reaps them, which does not count as running.
+     */
+    private static boolean isRunning(long pid) {
+        return ProcessHandle.of(pid).map(ProcessTreeTerminator::isRunning).orElse(false);
+    }
+}
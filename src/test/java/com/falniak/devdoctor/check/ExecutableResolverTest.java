@@ -0,0 +1,120 @@
+package com.falniak.devdoctor.check;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisabledOnOs(OS.WINDOWS)
+class ExecutableResolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testResolvesFirstMatchInPathOrder() throws Exception {
+        Path first = Files.createDirectory(tempDir.resolve("first"));
+        Path second = Files.createDirectory(tempDir.resolve("second"));
+        Path expected = createExecutable(first, "tool");
+        createExecutable(second, "tool");
+
+        ExecutableResolver resolver = new ExecutableResolver(pathOf(first, second), false);
+
+        assertEquals(Optional.of(expected.toAbsolutePath()), resolver.resolve("tool"));
+        assertTrue(resolver.isAvailable("tool"));
+    }
+
+    @Test
+    void testSkipsFilesWithoutExecuteBit() throws Exception {
+        Path first = Files.createDirectory(tempDir.resolve("first"));
+        Path second = Files.createDirectory(tempDir.resolve("second"));
+        Path notExecutable = Files.createFile(first.resolve("tool"));
+        Files.setPosixFilePermissions(notExecutable, PosixFilePermissions.fromString("rw-r--r--"));
+        Path expected = createExecutable(second, "tool");
+
+        ExecutableResolver resolver = new ExecutableResolver(pathOf(first, second), false);
+
+        assertEquals(Optional.of(expected.toAbsolutePath()), resolver.resolve("tool"));
+    }
+
+    @Test
+    void testWindowsPrefersPathExtOverExtensionlessScript() throws Exception {
+        Path bin = Files.createDirectory(tempDir.resolve("bin"));
+        createExecutable(bin, "npm");
+        Path cmd = createExecutable(bin, "npm.cmd");
+        Path exe = createExecutable(bin, "node.exe");
+
+        ExecutableResolver resolver = new ExecutableResolver(pathOf(bin), ".EXE;.CMD", true);
+
+        assertEquals(Optional.of(cmd.toAbsolutePath()), resolver.resolve("npm"));
+        assertEquals(Optional.of(cmd.toAbsolutePath()), resolver.resolve("npm.cmd"));
+        assertEquals(Optional.of(exe.toAbsolutePath()), resolver.resolve("node"));
+        assertEquals(Optional.of(cmd.toAbsolutePath()), new ExecutableResolver(pathOf(bin), null, true).resolve("npm"));
+        assertTrue(new ExecutableResolver(pathOf(bin), ".EXE", true).resolve("npm").isPresent(),
+            "Without a matching extension the name is tried as given");
+    }
+
+    @Test
+    void testMissingExecutableAndDirectories() throws Exception {
+        Path existing = Files.createDirectory(tempDir.resolve("bin"));
+        Files.createDirectory(existing.resolve("tool"));
+
+        ExecutableResolver resolver = new ExecutableResolver(pathOf(tempDir.resolve("missing"), existing), false);
+
+        assertTrue(resolver.resolve("tool").isEmpty());
+        assertTrue(resolver.resolve("other").isEmpty());
+        assertTrue(new ExecutableResolver(null, false).resolve("tool").isEmpty());
+    }
+
+    @Test
+    void testDirectoryListingIsCachedForTheRun() throws Exception {
+        Path bin = Files.createDirectory(tempDir.resolve("bin"));
+        ExecutableResolver resolver = new ExecutableResolver(pathOf(bin), false);
+
+        assertTrue(resolver.resolve("tool").isEmpty());
+        createExecutable(bin, "tool");
+        createExecutable(bin, "other");
+
+        // Listing was taken on first use; a fresh resolver sees the new tools
+        assertTrue(resolver.resolve("other").isEmpty());
+        assertTrue(new ExecutableResolver(pathOf(bin), false).resolve("other").isPresent());
+    }
+
+    @Test
+    void testExplicitPathIsNotLookedUpOnPath() throws Exception {
+        Path tool = createExecutable(Files.createDirectory(tempDir.resolve("bin")), "tool");
+
+        ExecutableResolver resolver = new ExecutableResolver(null, false);
+
+        assertEquals(Optional.of(tool.toAbsolutePath()), resolver.resolve(tool.toString()));
+    }
+
+    @Test
+    void testDefaultProcessExecutorFailsFastForMissingTool() {
+        DefaultProcessExecutor executor = new DefaultProcessExecutor(null, new ExecutableResolver(null, false));
+
+        IOException e = assertThrows(IOException.class, () -> executor.exec(List.of("git", "--version")));
+
+        assertTrue(e.getMessage().contains("git"));
+    }
+
+    private static Path createExecutable(Path directory, String name) throws IOException {
+        Path file = Files.createFile(directory.resolve(name));
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rwxr-xr-x"));
+        return file;
+    }
+
+    private static String pathOf(Path... directories) {
+        return String.join(File.pathSeparator, List.of(directories).stream().map(Path::toString).toList());
+    }
+}
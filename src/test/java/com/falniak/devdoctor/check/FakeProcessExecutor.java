@@ -3,6 +3,8 @@ package com.falniak.devdoctor.check;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 
 /**
  * Fake ProcessExecutor for testing that allows configuring command results.
@@ -51,4 +53,14 @@ public class FakeProcessExecutor implements ProcessExecutor {
         // Default: return failure
         return new ExecResult(1, "", "Command not configured: " + commandKey);
     }
+
+    @Override
+    public CompletableFuture<ExecResult> execAsync(List<String> command, Pattern stopPattern) {
+        // Results are known up front, so complete immediately on the calling thread
+        try {
+            return CompletableFuture.completedFuture(exec(command));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
@@ -0,0 +1,167 @@
+package com.falniak.devdoctor.check;
+
+import com.falniak.devdoctor.detect.DetectionResult;
+import com.falniak.devdoctor.detect.ProjectType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputFingerprinterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<String, String> environment = new HashMap<>();
+
+    @Test
+    void testFingerprintFollowsFileContentNotTimestamps() throws Exception {
+        Path project = Files.createDirectories(tempDir.resolve("project"));
+        Path nvmrc = Files.writeString(project.resolve(".nvmrc"), "18");
+        Check check = check(new CheckInputs(Set.of(".nvmrc", "package.json"), Set.of(), Set.of()));
+        CheckContext ctx = context(project, Set.of(ProjectType.NODE));
+
+        String original = fingerprinter().fingerprint(check, ctx).orElseThrow();
+        assertEquals(original, fingerprinter().fingerprint(check, ctx).orElseThrow());
+
+        Files.setLastModifiedTime(nvmrc, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        assertEquals(original, fingerprinter().fingerprint(check, ctx).orElseThrow(), "Touching alone changes nothing");
+
+        Files.writeString(nvmrc, "20");
+        String changed = fingerprinter().fingerprint(check, ctx).orElseThrow();
+        assertNotEquals(original, changed);
+
+        Files.writeString(project.resolve("package.json"), "{}");
+        assertNotEquals(changed, fingerprinter().fingerprint(check, ctx).orElseThrow(), "A file appearing counts");
+        assertNotEquals(fingerprinter().fingerprint(check, ctx), fingerprinter().fingerprint(check,
+            context(project, Set.of(ProjectType.NODE, ProjectType.GO_MODULES))), "Project types are part of it");
+    }
+
+    @Test
+    void testFingerprintCoversEnvironmentVariables() {
+        Check check = check(new CheckInputs(Set.of(), Set.of("JAVA_TOOL_OPTIONS"), Set.of()));
+        CheckContext ctx = context(tempDir, Set.of());
+
+        String unset = fingerprinter().fingerprint(check, ctx).orElseThrow();
+        environment.put("JAVA_TOOL_OPTIONS", "-Xmx1g");
+        String set = fingerprinter().fingerprint(check, ctx).orElseThrow();
+        environment.put("UNRELATED", "x");
+
+        assertNotEquals(unset, set);
+        assertEquals(set, fingerprinter().fingerprint(check, ctx).orElseThrow());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void testFingerprintCoversResolvedTools() throws Exception {
+        Path bin = Files.createDirectories(tempDir.resolve("bin"));
+        Check check = check(CheckInputs.tools("node"));
+        CheckContext ctx = context(tempDir, Set.of());
+
+        String missing = new InputFingerprinter(new ExecutableResolver(bin.toString(), false))
+            .fingerprint(check, ctx).orElseThrow();
+        Path node = Files.writeString(bin.resolve("node"), "#!/bin/sh\n");
+        Files.setPosixFilePermissions(node, PosixFilePermissions.fromString("rwxr-xr-x"));
+        String installed = new InputFingerprinter(new ExecutableResolver(bin.toString(), false))
+            .fingerprint(check, ctx).orElseThrow();
+
+        assertNotEquals(missing, installed);
+    }
+
+    @Test
+    void testFingerprintCoversVersionManagerSelection() throws Exception {
+        Path home = Files.createDirectories(tempDir.resolve("home"));
+        Path workDir = Files.createDirectories(tempDir.resolve("work/sub"));
+        Check check = check(CheckInputs.tools("python3"));
+        CheckContext ctx = context(tempDir, Set.of());
+        InputFingerprinter fingerprinter = new InputFingerprinter(new ExecutableResolver("", false),
+            environment::get, new ToolVersionSelection(environment::get, workDir, home));
+
+        String original = fingerprinter.fingerprint(check, ctx).orElseThrow();
+        environment.put("PYENV_VERSION", "3.12.1");
+        String variable = fingerprinter.fingerprint(check, ctx).orElseThrow();
+        environment.remove("PYENV_VERSION");
+        Files.writeString(tempDir.resolve("work/.python-version"), "3.11.7\n");
+        String parentFile = fingerprinter.fingerprint(check, ctx).orElseThrow();
+        Files.createDirectories(home.resolve(".pyenv"));
+        Files.writeString(home.resolve(".pyenv/version"), "3.10.13\n");
+        String globalFile = fingerprinter.fingerprint(check, ctx).orElseThrow();
+
+        assertEquals(4, Set.of(original, variable, parentFile, globalFile).size());
+        assertEquals(globalFile, fingerprinter.fingerprint(check, ctx).orElseThrow());
+    }
+
+    @Test
+    void testJavaFingerprintFollowsJavaHome() {
+        Check check = new JavaCheck();
+        CheckContext ctx = context(tempDir, Set.of());
+
+        String unset = fingerprinter().fingerprint(check, ctx).orElseThrow();
+        environment.put("JAVA_HOME", "/opt/jdk-21");
+
+        assertNotEquals(unset, fingerprinter().fingerprint(check, ctx).orElseThrow());
+    }
+
+    @Test
+    void testMachineChecksDoNotDependOnTheProject() {
+        Check machine = check(CheckInputs.tools("git"));
+        Check project = check(CheckInputs.NONE);
+        CheckContext first = context(tempDir.resolve("a"), Set.of(ProjectType.NODE));
+        CheckContext second = context(tempDir.resolve("b"), Set.of(ProjectType.JAVA_MAVEN));
+
+        assertEquals(fingerprinter().fingerprint(machine, first), fingerprinter().fingerprint(machine, second));
+        assertNotEquals(fingerprinter().fingerprint(project, first), fingerprinter().fingerprint(project, second));
+    }
+
+    @Test
+    void testChecksWithoutDeclaredInputsHaveNoFingerprint() {
+        Check check = new GitCheck() {
+            @Override
+            public Optional<CheckInputs> inputs(CheckContext ctx) {
+                return Optional.empty();
+            }
+        };
+
+        assertEquals(Optional.empty(), fingerprinter().fingerprint(check, context(tempDir, Set.of())));
+        assertTrue(fingerprinter().fingerprint(new GitCheck(), context(tempDir, Set.of())).isPresent());
+    }
+
+    private InputFingerprinter fingerprinter() {
+        return new InputFingerprinter(new ExecutableResolver("", false), environment::get);
+    }
+
+    private static CheckContext context(Path root, Set<ProjectType> types) {
+        return new CheckContext(root, root, types, new DetectionResult(root, types, List.of()), new FakeProcessExecutor());
+    }
+
+    private static Check check(CheckInputs inputs) {
+        return new Check() {
+            @Override
+            public String id() {
+                return "test.inputs";
+            }
+
+            @Override
+            public Optional<CheckInputs> inputs(CheckContext ctx) {
+                return Optional.of(inputs);
+            }
+
+            @Override
+            public CheckResult run(CheckContext ctx) {
+                return new CheckResult(id(), CheckStatus.PASS, "ok", null, List.of());
+            }
+        };
+    }
+}
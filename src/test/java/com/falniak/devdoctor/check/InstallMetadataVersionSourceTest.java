@@ -0,0 +1,114 @@
+package com.falniak.devdoctor.check;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisabledOnOs(OS.WINDOWS)
+class InstallMetadataVersionSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testJavaVersionFromReleaseFileThroughSymlink() throws Exception {
+        Path jdk = tempDir.resolve("jdk-17");
+        Path java = createExecutable(jdk.resolve("bin"), "java");
+        Files.writeString(jdk.resolve("release"), "IMPLEMENTOR=\"Eclipse Adoptium\"\nJAVA_VERSION=\"17.0.2\"\n");
+        Path bin = Files.createDirectories(tempDir.resolve("usr-bin"));
+        Files.createSymbolicLink(bin.resolve("java"), java);
+
+        VersionSource source = sourceFor(bin);
+
+        assertEquals(Optional.of("17.0.2"), source.javaVersion());
+    }
+
+    @Test
+    void testGoVersionFromGoroot() throws Exception {
+        Path goRoot = tempDir.resolve("go");
+        createExecutable(goRoot.resolve("bin"), "go");
+        Files.writeString(goRoot.resolve("VERSION"), "go1.21.5\ntime 2023-11-29T21:21:48Z\n");
+
+        assertEquals(Optional.of("go1.21.5"), sourceFor(goRoot.resolve("bin")).goVersion());
+    }
+
+    @Test
+    void testNodeVersionFromHeader() throws Exception {
+        Path prefix = tempDir.resolve("node");
+        createExecutable(prefix.resolve("bin"), "node");
+        Path include = Files.createDirectories(prefix.resolve("include").resolve("node"));
+        Files.writeString(include.resolve("node_version.h"), String.join("\n",
+            "#ifndef SRC_NODE_VERSION_H_",
+            "#define NODE_MAJOR_VERSION 20",
+            "#define NODE_MINOR_VERSION 11",
+            "#define NODE_PATCH_VERSION 1",
+            "#define NODE_VERSION_IS_RELEASE 1"));
+
+        assertEquals(Optional.of("v20.11.1"), sourceFor(prefix.resolve("bin")).nodeVersion());
+    }
+
+    @Test
+    void testPythonVersionFromVirtualEnvironment() throws Exception {
+        Path base = tempDir.resolve("base");
+        Path interpreter = createExecutable(base.resolve("bin"), "python3.12");
+        Path venv = tempDir.resolve("venv");
+        Path venvBin = Files.createDirectories(venv.resolve("bin"));
+        Files.createSymbolicLink(venvBin.resolve("python"), interpreter);
+        Files.writeString(venv.resolve("pyvenv.cfg"), "home = " + base.resolve("bin") + "\nversion = 3.12.1\n");
+
+        assertEquals(Optional.of("3.12.1"), sourceFor(venvBin).pythonVersion());
+    }
+
+    @Test
+    void testPythonVersionFromLibDirectory() throws Exception {
+        Path prefix = tempDir.resolve("python");
+        createExecutable(prefix.resolve("bin"), "python3");
+        Path lib = Files.createDirectories(prefix.resolve("lib").resolve("python3.11"));
+        Files.writeString(lib.resolve("os.py"), "");
+
+        assertEquals(Optional.of("3.11"), sourceFor(prefix.resolve("bin")).pythonVersion());
+    }
+
+    @Test
+    void testEmptyWhenMetadataIsMissing() throws Exception {
+        Path bin = tempDir.resolve("bin");
+        createExecutable(bin, "java");
+        createExecutable(bin, "go");
+        createExecutable(bin, "node");
+
+        VersionSource source = sourceFor(bin);
+
+        assertTrue(source.javaVersion().isEmpty());
+        assertTrue(source.goVersion().isEmpty());
+        assertTrue(source.nodeVersion().isEmpty());
+        assertTrue(source.pythonVersion().isEmpty());
+    }
+
+    private static VersionSource sourceFor(Path... pathDirectories) {
+        StringBuilder path = new StringBuilder();
+        for (Path directory : pathDirectories) {
+            if (path.length() > 0) {
+                path.append(File.pathSeparator);
+            }
+            path.append(directory);
+        }
+        return new InstallMetadataVersionSource(new ExecutableResolver(path.toString(), false));
+    }
+
+    private static Path createExecutable(Path directory, String name) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createFile(directory.resolve(name));
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rwxr-xr-x"));
+        return file;
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.io.TempDir;
 import java.nio.file.Path;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -83,6 +84,28 @@ class JavaCheckTest {
         assertFalse(result.suggestions().isEmpty());
     }
 
+    @Test
+    void testInstallMetadataVersionAvoidsSpawning() {
+        FakeProcessExecutor executor = new FakeProcessExecutor();
+        executor.setException("java", new Exception("java must not be spawned"));
+        VersionSource versions = new VersionSource() {
+            @Override
+            public Optional<String> javaVersion() {
+                return Optional.of("21.0.2");
+            }
+        };
+
+        Path targetPath = tempDir;
+        Set<ProjectType> types = EnumSet.noneOf(ProjectType.class);
+        CheckContext context = new CheckContext(targetPath, targetPath, types,
+            new DetectionResult(targetPath, types, List.<String>of()), executor, versions);
+
+        CheckResult result = new JavaCheck().run(context);
+
+        assertEquals(CheckStatus.PASS, result.status());
+        assertEquals("Java is available (21.0.2)", result.summary());
+    }
+
     private CheckContext createTestContext(ProcessExecutor executor) {
         Path targetPath = tempDir;
         Set<ProjectType> types = EnumSet.noneOf(ProjectType.class);
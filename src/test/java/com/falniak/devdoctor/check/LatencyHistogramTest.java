@@ -0,0 +1,47 @@
+package com.falniak.devdoctor.check;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.min());
+        assertEquals(0, histogram.percentile(0.95));
+        assertTrue(histogram.buckets().isEmpty());
+    }
+
+    @Test
+    void testSummaryStatisticsAndBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long millis : new long[] {3, 4, 8, 40, 70_000}) {
+            histogram.record(millis);
+        }
+
+        assertEquals(5, histogram.count());
+        assertEquals(3, histogram.min());
+        assertEquals(70_000, histogram.max());
+        assertEquals(14_011, histogram.mean());
+        assertEquals(Map.of("<=5", 2L, "<=10", 1L, "<=50", 1L, ">60000", 1L), histogram.buckets());
+    }
+
+    @Test
+    void testPercentilesUseBucketBoundsCappedAtMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 19; i++) {
+            histogram.record(12);
+        }
+        histogram.record(130);
+
+        assertEquals(20, histogram.percentile(0.5));
+        assertEquals(20, histogram.percentile(0.95));
+        assertEquals(130, histogram.percentile(1.0));
+    }
+}
@@ -0,0 +1,124 @@
+package com.falniak.devdoctor.check;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoizingProcessExecutorTest {
+
+    @Test
+    void testIdenticalCommandRunsOnce() throws Exception {
+        CountingExecutor delegate = new CountingExecutor(0);
+        MemoizingProcessExecutor executor = new MemoizingProcessExecutor(delegate);
+
+        ExecResult first = executor.exec(List.of("java", "-version"));
+        ExecResult second = executor.exec(new ArrayList<>(List.of("java", "-version")));
+
+        assertSame(first, second);
+        assertEquals(1, delegate.calls.get());
+    }
+
+    @Test
+    void testDifferentCommandsRunSeparately() throws Exception {
+        CountingExecutor delegate = new CountingExecutor(0);
+        MemoizingProcessExecutor executor = new MemoizingProcessExecutor(delegate);
+
+        executor.exec(List.of("node", "-v"));
+        executor.exec(List.of("node", "--version"));
+
+        assertEquals(2, delegate.calls.get());
+    }
+
+    @Test
+    void testFailuresAreShared() {
+        CountingExecutor delegate = new CountingExecutor(0);
+        delegate.failure = new IOException("docker: not found");
+        MemoizingProcessExecutor executor = new MemoizingProcessExecutor(delegate);
+
+        IOException first = assertThrows(IOException.class, () -> executor.exec(List.of("docker", "--version")));
+        IOException second = assertThrows(IOException.class, () -> executor.exec(List.of("docker", "--version")));
+
+        assertEquals("docker: not found", first.getMessage());
+        assertSame(first, second);
+        assertEquals(1, delegate.calls.get());
+    }
+
+    @Test
+    void testConcurrentCallersShareInFlightInvocation() throws Exception {
+        CountingExecutor delegate = new CountingExecutor(200);
+        MemoizingProcessExecutor executor = new MemoizingProcessExecutor(delegate);
+
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ExecResult>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return executor.exec(List.of("git", "--version"));
+                }));
+            }
+            start.countDown();
+
+            ExecResult expected = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<ExecResult> future : futures) {
+                assertSame(expected, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, delegate.calls.get());
+    }
+
+    @Test
+    void testAsyncCallersShareOneInvocation() throws Exception {
+        CountingExecutor delegate = new CountingExecutor(100);
+        MemoizingProcessExecutor executor = new MemoizingProcessExecutor(delegate);
+
+        CompletableFuture<ExecResult> first = executor.execAsync(List.of("go", "version"));
+        CompletableFuture<ExecResult> second = executor.execAsync(List.of("go", "version"));
+        ExecResult blocking = executor.exec(List.of("go", "version"));
+
+        assertSame(blocking, first.get(5, TimeUnit.SECONDS));
+        assertSame(blocking, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, delegate.calls.get());
+    }
+
+    /**
+     * Delegate that counts invocations and optionally sleeps or fails.
+     */
+    private static class CountingExecutor implements ProcessExecutor {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final long sleepMillis;
+        private Exception failure;
+
+        CountingExecutor(long sleepMillis) {
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public ExecResult exec(List<String> command) throws Exception {
+            calls.incrementAndGet();
+            if (sleepMillis > 0) {
+                Thread.sleep(sleepMillis);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return new ExecResult(0, String.join(" ", command), "");
+        }
+    }
+}
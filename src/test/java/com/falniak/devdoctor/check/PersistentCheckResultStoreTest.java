@@ -0,0 +1,185 @@
+package com.falniak.devdoctor.check;
+
+import com.falniak.devdoctor.cache.CheckResultCache;
+import com.falniak.devdoctor.cache.SharedCheckResultCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentCheckResultStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final Instant NOW = Instant.now();
+
+    private final CheckResult docker = new CheckResult("system.docker", CheckStatus.PASS, "Docker 24.0.7",
+        "details", List.of(new Suggestion("Keep it", List.of("docker info"), Risk.SAFE)));
+
+    @Test
+    void testResultsSurviveSaveAndLoad() {
+        Path file = tempDir.resolve("check-results.json");
+        PersistentCheckResultStore first = store(CheckResultCache.load(file), Map.of(), false, NOW);
+        first.store("system.docker @ /p", "abc", docker);
+        first.save();
+
+        PersistentCheckResultStore second = store(CheckResultCache.load(file), Map.of(), false, NOW.plusSeconds(1));
+
+        assertEquals(Optional.of(docker), second.lookup("system.docker @ /p", "abc"));
+        assertEquals(Optional.empty(), second.lookup("system.docker @ /p", "changed"));
+        assertEquals(1, second.hits());
+        assertEquals(1, second.misses());
+    }
+
+    @Test
+    void testSkippedResultsStaySkippedAfterSaveAndLoad() {
+        Path file = tempDir.resolve("check-results.json");
+        CheckResult skipped = new CheckResult("project.java.requirements", CheckStatus.NOT_APPLICABLE,
+            "Skipped (prerequisite system.java failed)", null, List.of(), true);
+        PersistentCheckResultStore first = store(CheckResultCache.load(file), Map.of(), false, NOW);
+        first.store("skipped", "abc", skipped);
+        first.store("docker", "abc", docker);
+        first.save();
+
+        PersistentCheckResultStore second = store(CheckResultCache.load(file), Map.of(), false, NOW.plusSeconds(1));
+
+        assertTrue(second.lookup("skipped", "abc").orElseThrow().skipped());
+        assertFalse(second.lookup("docker", "abc").orElseThrow().skipped());
+    }
+
+    @Test
+    void testResultsExpireAfterTheirTimeToLive() {
+        CheckResultCache cache = CheckResultCache.load(tempDir.resolve("check-results.json"));
+        Map<String, Long> ttl = Map.of("default", 60_000L, "system.docker", 5_000L);
+        store(cache, ttl, false, NOW).store("docker", "abc", docker);
+        CheckResult git = new CheckResult("system.git", CheckStatus.PASS, "git 2.43", null, List.of());
+        store(cache, ttl, false, NOW).store("git", "abc", git);
+
+        PersistentCheckResultStore later = store(cache, ttl, false, NOW.plusSeconds(10));
+
+        assertEquals(Optional.empty(), later.lookup("docker", "abc"), "Own TTL of 5 s has passed");
+        assertEquals(Optional.of(git), later.lookup("git", "abc"), "Default TTL of 60 s has not");
+        assertEquals(Optional.empty(), store(cache, Map.of(), false, NOW.plus(PersistentCheckResultStore.DEFAULT_TTL))
+            .lookup("git", "abc"));
+    }
+
+    @Test
+    void testFailuresAndDisabledChecksAreNotStored() {
+        CheckResultCache cache = CheckResultCache.load(tempDir.resolve("check-results.json"));
+        PersistentCheckResultStore store = store(cache, Map.of("system.git", 0L), false, NOW);
+        store.store("docker", "abc", new CheckResult("system.docker", CheckStatus.FAIL, "Not found", null, List.of()));
+        store.store("git", "abc", new CheckResult("system.git", CheckStatus.PASS, "git 2.43", null, List.of()));
+
+        assertTrue(cache.get("docker").isEmpty());
+        assertTrue(cache.get("git").isEmpty());
+    }
+
+    @Test
+    void testRefreshIgnoresButStillStoresResults() {
+        CheckResultCache cache = CheckResultCache.load(tempDir.resolve("check-results.json"));
+        store(cache, Map.of(), false, NOW).store("docker", "abc", docker);
+        PersistentCheckResultStore refreshing = store(cache, Map.of(), true, NOW);
+
+        assertEquals(Optional.empty(), refreshing.lookup("docker", "abc"));
+        refreshing.store("docker", "def", docker);
+
+        assertEquals(Optional.of(docker), store(cache, Map.of(), false, NOW).lookup("docker", "def"));
+        assertEquals(1, refreshing.misses());
+    }
+
+    @Test
+    void testMachinesShareResultsThroughTheCacheDirectory() throws Exception {
+        SharedCheckResultCache shared = SharedCheckResultCache.open(tempDir.resolve("shared"));
+        String fingerprint = "0123456789abcdef0123456789abcdef";
+        PersistentCheckResultStore agent1 = new PersistentCheckResultStore(
+            CheckResultCache.load(tempDir.resolve("agent1.json")), shared, Map.of(), false, Clock.systemUTC());
+        assertEquals(Optional.empty(), agent1.lookup("system.docker @ /a", fingerprint));
+        agent1.store("system.docker @ /a", fingerprint, docker);
+
+        CheckResultCache agent2Cache = CheckResultCache.load(tempDir.resolve("agent2.json"));
+        PersistentCheckResultStore agent2 = new PersistentCheckResultStore(agent2Cache,
+            SharedCheckResultCache.open(tempDir.resolve("shared")), Map.of(), false, Clock.systemUTC());
+
+        assertEquals(Optional.of(docker), agent2.lookup("system.docker @ /b", fingerprint));
+        assertEquals(1, agent2.hits());
+        assertEquals(1, agent2.sharedHits());
+        assertTrue(agent2Cache.get("system.docker @ /b").isPresent(), "Shared hits are kept locally too");
+        assertTrue(Files.isRegularFile(tempDir.resolve("shared").resolve(SharedCheckResultCache.ENTRIES_DIRECTORY)
+            .resolve("01").resolve(fingerprint + ".json")));
+    }
+
+    @Test
+    void testConcurrentWritersLeaveOneReadableEntry() throws Exception {
+        Path dir = tempDir.resolve("shared");
+        String fingerprint = "fedcba9876543210fedcba9876543210";
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                long storedAt = NOW.toEpochMilli() + i;
+                writers.add(pool.submit(() -> SharedCheckResultCache.open(dir).put(fingerprint,
+                    new CheckResultCache.Entry(fingerprint, storedAt, "system.git", "PASS", "git", null, List.of()))));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Optional<CheckResultCache.Entry> entry = SharedCheckResultCache.open(dir).get(fingerprint);
+        assertTrue(entry.isPresent());
+        assertEquals("system.git", entry.get().id());
+        try (Stream<Path> files = Files.list(dir.resolve(SharedCheckResultCache.ENTRIES_DIRECTORY).resolve("fe"))) {
+            assertEquals(List.of(fingerprint + ".json"), files.map(file -> file.getFileName().toString())
+                .filter(name -> !name.equals(".lock")).toList(), "No temporary files are left behind");
+        }
+    }
+
+    @Test
+    void testWritersPruneOldEntriesOfTheirShard() throws Exception {
+        SharedCheckResultCache shared = SharedCheckResultCache.open(tempDir);
+        String old = "ab00000000000000";
+        String fresh = "ab11111111111111";
+        shared.put(old, new CheckResultCache.Entry(old, 1, "system.git", "PASS", "git", null, List.of()));
+        Path oldFile = tempDir.resolve(SharedCheckResultCache.ENTRIES_DIRECTORY).resolve("ab").resolve(old + ".json");
+        long expired = System.currentTimeMillis() - CheckResultCache.MAX_AGE.toMillis() - 60_000;
+        Files.setLastModifiedTime(oldFile, FileTime.fromMillis(expired));
+
+        shared.put(fresh, new CheckResultCache.Entry(fresh, NOW.toEpochMilli(), "system.git", "PASS", "git", null,
+            List.of()));
+
+        assertFalse(Files.exists(oldFile));
+        assertTrue(shared.get(fresh).isPresent());
+    }
+
+    @Test
+    void testSharedCacheIgnoresAddressesThatAreNotFingerprints() {
+        SharedCheckResultCache shared = SharedCheckResultCache.open(tempDir);
+        shared.put("../../escape", new CheckResultCache.Entry("x", 1, "system.git", "PASS", "git", null, List.of()));
+
+        assertEquals(Optional.empty(), shared.get("../../escape"));
+        assertFalse(Files.exists(tempDir.resolve(SharedCheckResultCache.ENTRIES_DIRECTORY)));
+    }
+
+    private static PersistentCheckResultStore store(CheckResultCache cache, Map<String, Long> ttl, boolean refresh,
+                                                    Instant now) {
+        return new PersistentCheckResultStore(cache, null, ttl, refresh, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
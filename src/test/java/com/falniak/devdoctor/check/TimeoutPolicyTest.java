@@ -0,0 +1,111 @@
+package com.falniak.devdoctor.check;
+
+import com.falniak.devdoctor.cache.CommandDurationHistory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeoutPolicyTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMostSpecificConfiguredTimeoutWins() {
+        TimeoutPolicy policy = TimeoutPolicy.of(
+            Map.of("default", 8000L, "npm", 20000L, "npm ci", 120000L),
+            null
+        );
+
+        assertEquals(Duration.ofSeconds(120), policy.timeoutFor(List.of("npm", "ci")));
+        assertEquals(Duration.ofSeconds(20), policy.timeoutFor(List.of("/usr/bin/npm", "--version")));
+        assertEquals(Duration.ofSeconds(8), policy.timeoutFor(List.of("git", "--version")));
+    }
+
+    @Test
+    void testAdaptiveTimeoutNeedsEnoughSamples() {
+        CommandDurationHistory history = CommandDurationHistory.load(tempDir.resolve("durations.json"));
+        TimeoutPolicy policy = TimeoutPolicy.of(Map.of(), history);
+        List<String> command = List.of("docker", "info");
+
+        for (int i = 0; i < TimeoutPolicy.MIN_SAMPLES - 1; i++) {
+            policy.record(command, Duration.ofSeconds(4));
+        }
+        assertEquals(TimeoutPolicy.DEFAULT_TIMEOUT, policy.timeoutFor(command));
+
+        policy.record(command, Duration.ofSeconds(4));
+        assertEquals(Duration.ofSeconds(8), policy.timeoutFor(command));
+    }
+
+    @Test
+    void testAdaptiveTimeoutIsClamped() {
+        CommandDurationHistory history = CommandDurationHistory.load(tempDir.resolve("durations.json"));
+        TimeoutPolicy policy = TimeoutPolicy.of(Map.of(), history);
+        List<String> fast = List.of("git", "--version");
+        List<String> slow = List.of("npm", "ci");
+
+        for (int i = 0; i < TimeoutPolicy.MIN_SAMPLES; i++) {
+            policy.record(fast, Duration.ofMillis(20));
+            policy.record(slow, Duration.ofMinutes(5));
+        }
+
+        assertEquals(TimeoutPolicy.ADAPTIVE_FLOOR, policy.timeoutFor(fast));
+        assertEquals(TimeoutPolicy.ADAPTIVE_CEILING, policy.timeoutFor(slow));
+    }
+
+    @Test
+    void testSlowCommandEarnsLongerTimeoutAndHungCommandStopsAtCeiling() {
+        CommandDurationHistory history = CommandDurationHistory.load(tempDir.resolve("durations.json"));
+        TimeoutPolicy policy = TimeoutPolicy.of(Map.of(), history);
+        List<String> command = List.of("docker", "--version");
+
+        for (int i = 0; i < TimeoutPolicy.MIN_SAMPLES; i++) {
+            policy.recordTimeout(command, policy.timeoutFor(command));
+        }
+        assertEquals(TimeoutPolicy.DEFAULT_TIMEOUT.multipliedBy(2), policy.timeoutFor(command));
+
+        // A cold start of 7 seconds now completes, and its timeout follows the real duration
+        policy.record(command, Duration.ofSeconds(7));
+        assertEquals(Duration.ofSeconds(14), policy.timeoutFor(command));
+
+        for (int i = 0; i < 50; i++) {
+            policy.recordTimeout(command, policy.timeoutFor(command));
+        }
+        assertEquals(TimeoutPolicy.ADAPTIVE_CEILING, policy.timeoutFor(command));
+    }
+
+    @Test
+    void testConfiguredTimeoutBeatsHistory() {
+        CommandDurationHistory history = CommandDurationHistory.load(tempDir.resolve("durations.json"));
+        TimeoutPolicy policy = TimeoutPolicy.of(Map.of("docker", 3000L), history);
+        List<String> command = List.of("docker", "info");
+
+        for (int i = 0; i < TimeoutPolicy.MIN_SAMPLES; i++) {
+            policy.record(command, Duration.ofSeconds(10));
+        }
+
+        assertEquals(Duration.ofSeconds(3), policy.timeoutFor(command));
+    }
+
+    @Test
+    void testHistoryKeepsRecentSamplesAcrossRuns() {
+        Path file = tempDir.resolve("durations.json");
+        CommandDurationHistory history = CommandDurationHistory.load(file);
+        for (int i = 1; i <= CommandDurationHistory.MAX_SAMPLES + 5; i++) {
+            history.record("go version", i * 100L);
+        }
+        history.save();
+
+        CommandDurationHistory reloaded = CommandDurationHistory.load(file);
+
+        assertEquals(CommandDurationHistory.MAX_SAMPLES, reloaded.sampleCount("go version"));
+        assertEquals(2500L, reloaded.percentile("go version", 1.0).getAsLong());
+        assertEquals(600L, reloaded.percentile("go version", 0.01).getAsLong());
+    }
+}
@@ -344,6 +344,35 @@ class ConsoleRendererTest {
         assertTrue(betweenLines.contains("\n"), "Required checks failed should be on a separate line");
     }
 
+    @Test
+    void testIncrementalRenderingPrintsResultsThenGroupedSummary() {
+        DetectionResult detectionResult = createDetectionResult(EnumSet.noneOf(ProjectType.class));
+        CheckResult git = new CheckResult("system.git", CheckStatus.PASS, "Git is available", null, List.of());
+        CheckResult java = new CheckResult("system.java", CheckStatus.FAIL, "Java not found", null, List.of());
+        CheckResult node = new CheckResult("project.node", CheckStatus.NOT_APPLICABLE, "Not applicable", null, List.of());
+
+        ConsoleRenderer renderer = new ConsoleRenderer(false, false);
+        renderer.renderHeader(detectionResult);
+        renderer.renderResult(git);
+        renderer.renderResult(node);
+        renderer.renderResult(java);
+        renderer.renderIncrementalSummary(List.of(java, git, node), Set.of());
+
+        String output = getOutput();
+        // Results appear in completion order, without group headings
+        int gitIndex = output.indexOf("[PASS] system.git  Git is available");
+        int javaIndex = output.indexOf("[FAIL] system.java  Java not found");
+        assertTrue(gitIndex >= 0);
+        assertTrue(javaIndex > gitIndex);
+        assertFalse(output.contains("project.node"), "NOT_APPLICABLE should stay hidden");
+        assertFalse(output.contains("System checks\n"));
+
+        assertTrue(output.contains("System checks: PASS=1 WARN=0 FAIL=1 INFO=0 NA=0"));
+        assertTrue(output.contains("Project checks: PASS=0 WARN=0 FAIL=0 INFO=0 NA=1"));
+        assertTrue(output.contains("Summary: PASS=1 WARN=0 FAIL=1 INFO=0 NA=1"));
+        assertTrue(output.indexOf("Summary:") > javaIndex);
+    }
+
     private DetectionResult createDetectionResult(Set<ProjectType> types) {
         return new DetectionResult(tempDir, types, List.of());
     }
@@ -2,6 +2,7 @@ package com.falniak.devdoctor.check.render;
 
 import com.falniak.devdoctor.check.CheckResult;
 import com.falniak.devdoctor.check.CheckStatus;
+import com.falniak.devdoctor.check.ExecMetrics;
 import com.falniak.devdoctor.check.Risk;
 import com.falniak.devdoctor.check.Suggestion;
 import com.falniak.devdoctor.config.DevDoctorConfig;
@@ -326,6 +327,29 @@ class JsonRendererTest {
         assertNull(check.suggestions());
     }
 
+    @Test
+    void testMetricsOmittedByDefault() throws Exception {
+        DetectionResult detectionResult = createDetectionResult(EnumSet.noneOf(ProjectType.class));
+
+        JsonRenderer renderer = new JsonRenderer();
+        renderer.render(detectionResult, List.of(), Optional.empty(), null, false);
+
+        assertFalse(objectMapper.readTree(getOutput()).has("metrics"));
+    }
+
+    @Test
+    void testMetricsIncludedWhenGiven() throws Exception {
+        DetectionResult detectionResult = createDetectionResult(EnumSet.noneOf(ProjectType.class));
+
+        JsonRenderer renderer = new JsonRenderer();
+        renderer.render(detectionResult, List.of(), Optional.empty(), null, false, new ExecMetrics());
+
+        CheckReport report = objectMapper.readValue(getOutput(), CheckReport.class);
+        assertNotNull(report.metrics());
+        assertEquals(0, report.metrics().processesStarted());
+        assertTrue(report.metrics().commands().isEmpty());
+    }
+
     private DetectionResult createDetectionResult(Set<ProjectType> types) {
         return new DetectionResult(tempDir, types, List.of());
     }
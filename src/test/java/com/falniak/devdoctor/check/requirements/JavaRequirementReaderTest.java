@@ -0,0 +1,136 @@
+package com.falniak.devdoctor.check.requirements;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaRequirementReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final JavaRequirementReader reader = new JavaRequirementReader();
+
+    @Test
+    void testReleasePropertyWinsWhereverItAppears() throws Exception {
+        writePom("""
+            <project>
+              <properties>
+                <maven.compiler.target>11</maven.compiler.target>
+                <java.version>17</java.version>
+                <maven.compiler.release>21</maven.compiler.release>
+              </properties>
+            </project>
+            """);
+
+        assertEquals(Optional.of(new Requirement("java", "pom.xml", "21", 21)), reader.read(tempDir));
+    }
+
+    @Test
+    void testProjectPropertiesOutrankPluginConfiguration() throws Exception {
+        writePom("""
+            <project>
+              <build>
+                <plugins>
+                  <plugin>
+                    <artifactId>maven-compiler-plugin</artifactId>
+                    <configuration><release>21</release></configuration>
+                  </plugin>
+                </plugins>
+              </build>
+              <profiles>
+                <profile>
+                  <properties><java.version>8</java.version></properties>
+                </profile>
+              </profiles>
+              <properties>
+                <maven.compiler.target>11</maven.compiler.target>
+              </properties>
+            </project>
+            """);
+
+        assertEquals("11", reader.read(tempDir).orElseThrow().rawValue());
+    }
+
+    @Test
+    void testReadsCompilerPluginConfiguration() throws Exception {
+        writePom("""
+            <project>
+              <properties><project.build.sourceEncoding>UTF-8</project.build.sourceEncoding></properties>
+              <build>
+                <plugins>
+                  <plugin>
+                    <artifactId>maven-surefire-plugin</artifactId>
+                    <configuration><target>8</target></configuration>
+                  </plugin>
+                  <plugin>
+                    <groupId>org.apache.maven.plugins</groupId>
+                    <artifactId>maven-compiler-plugin</artifactId>
+                    <configuration>
+                      <source>17</source>
+                      <target><![CDATA[ 17 ]]></target>
+                    </configuration>
+                  </plugin>
+                </plugins>
+              </build>
+            </project>
+            """);
+
+        assertEquals(Optional.of(new Requirement("java", "pom.xml", "17", 17)), reader.read(tempDir));
+    }
+
+    @Test
+    void testNeverResolvesDoctypes() throws Exception {
+        writePom("""
+            <?xml version="1.0"?>
+            <!DOCTYPE project SYSTEM "http://devdoctor.invalid/project.dtd">
+            <project>
+              <properties><java.version>17</java.version></properties>
+            </project>
+            """);
+
+        assertEquals("17", reader.read(tempDir).orElseThrow().rawValue());
+    }
+
+    @Test
+    void testStopsAfterTheProjectProperties() throws Exception {
+        writePom("""
+            <project>
+              <properties><java.version>17</java.version></properties>
+              <build><plugins><plugin></broken>
+            """);
+
+        assertEquals("17", reader.read(tempDir).orElseThrow().rawValue());
+    }
+
+    @Test
+    void testMalformedPomHasNoRequirement() throws Exception {
+        writePom("<project><properties><java.version>17</properties>");
+
+        assertEquals(Optional.empty(), reader.read(tempDir));
+    }
+
+    @Test
+    void testStreamsLargePoms() throws Exception {
+        try (BufferedWriter writer = Files.newBufferedWriter(tempDir.resolve("pom.xml"))) {
+            writer.write("<project><dependencies>\n");
+            for (int i = 0; i < 200_000; i++) {
+                writer.write("<dependency><groupId>g" + i + "</groupId><artifactId>a" + i
+                    + "</artifactId><version>1.0</version></dependency>\n");
+            }
+            writer.write("</dependencies><properties><java.version>21</java.version></properties></project>\n");
+        }
+
+        assertEquals("21", reader.read(tempDir).orElseThrow().rawValue());
+    }
+
+    private void writePom(String content) throws Exception {
+        Files.writeString(tempDir.resolve("pom.xml"), content.strip());
+    }
+}
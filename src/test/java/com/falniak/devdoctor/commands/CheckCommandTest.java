@@ -5,9 +5,11 @@ import com.falniak.devdoctor.check.CheckContext;
 import com.falniak.devdoctor.check.CheckResult;
 import com.falniak.devdoctor.check.CheckRunner;
 import com.falniak.devdoctor.check.CheckStatus;
+import com.falniak.devdoctor.check.ExecutableResolver;
 import com.falniak.devdoctor.check.FakeProcessExecutor;
 import com.falniak.devdoctor.check.ProcessExecutor;
 import com.falniak.devdoctor.report.CheckReport;
+import com.falniak.devdoctor.report.ProjectsReport;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.falniak.devdoctor.config.ConfigException;
 import com.falniak.devdoctor.config.ConfigLoader;
@@ -15,30 +17,39 @@ import com.falniak.devdoctor.detect.DetectionResult;
 import com.falniak.devdoctor.detect.ProjectType;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class CheckCommandTest {
 
     @TempDir
     Path tempDir;
 
+    @TempDir
+    Path cacheDir;
+
     @Test
     void testExitCodeZeroWhenNoFailuresAndNoRequiredChecks() throws Exception {
         // Create a minimal project structure
         Path projectRoot = tempDir.resolve("project");
         Files.createDirectories(projectRoot);
         
-        CheckCommand command = new CheckCommand();
+        CheckCommand command = newCommand();
         setPath(command, projectRoot.toString());
         
         // Capture output to avoid cluttering test output
@@ -66,7 +77,7 @@ class CheckCommandTest {
         Path configFile = tempDir.resolve(".devdoctor.yml");
         Files.writeString(configFile, yaml);
         
-        CheckCommand command = new CheckCommand();
+        CheckCommand command = newCommand();
         setPath(command, tempDir.toString());
         
         redirectOutput();
@@ -93,7 +104,7 @@ class CheckCommandTest {
         Path configFile = tempDir.resolve(".devdoctor.yml");
         Files.writeString(configFile, yaml);
         
-        CheckCommand command = new CheckCommand();
+        CheckCommand command = newCommand();
         setPath(command, tempDir.toString());
         
         redirectOutput();
@@ -113,7 +124,7 @@ class CheckCommandTest {
     @Test
     void testExitCodeTwoWhenConfigLoadFails() throws Exception {
         // Create command with invalid config path
-        CheckCommand command = new CheckCommand();
+        CheckCommand command = newCommand();
         setPath(command, tempDir.toString());
         setConfigPath(command, tempDir.resolve("nonexistent-config.yml").toString());
         
@@ -136,7 +147,7 @@ class CheckCommandTest {
         Path configFile = tempDir.resolve(".devdoctor.yml");
         Files.writeString(configFile, invalidYaml);
         
-        CheckCommand command = new CheckCommand();
+        CheckCommand command = newCommand();
         setPath(command, tempDir.toString());
         
         redirectOutput();
@@ -159,7 +170,7 @@ class CheckCommandTest {
         Path configFile = tempDir.resolve(".devdoctor.yml");
         Files.writeString(configFile, invalidYaml);
         
-        CheckCommand command = new CheckCommand();
+        CheckCommand command = newCommand();
         setPath(command, tempDir.toString());
         
         redirectOutput();
@@ -291,7 +302,7 @@ class CheckCommandTest {
         Path projectRoot = tempDir.resolve("project");
         Files.createDirectories(projectRoot);
         
-        CheckCommand command = new CheckCommand();
+        CheckCommand command = newCommand();
         setPath(command, projectRoot.toString());
         setJson(command, true);
         
@@ -322,7 +333,7 @@ class CheckCommandTest {
         Path projectRoot = tempDir.resolve("project");
         Files.createDirectories(projectRoot);
         
-        CheckCommand command = new CheckCommand();
+        CheckCommand command = newCommand();
         setPath(command, projectRoot.toString());
         setJson(command, true);
         
@@ -350,7 +361,7 @@ class CheckCommandTest {
         Path projectRoot = tempDir.resolve("project");
         Files.createDirectories(projectRoot);
         
-        CheckCommand command = new CheckCommand();
+        CheckCommand command = newCommand();
         setPath(command, projectRoot.toString());
         setJsonPretty(command, true);
         
@@ -379,7 +390,7 @@ class CheckCommandTest {
         Files.createDirectories(projectRoot);
         
         // Run without JSON
-        CheckCommand command1 = new CheckCommand();
+        CheckCommand command1 = newCommand();
         setPath(command1, projectRoot.toString());
         setJson(command1, false);
         
@@ -392,7 +403,7 @@ class CheckCommandTest {
         }
         
         // Run with JSON
-        CheckCommand command2 = new CheckCommand();
+        CheckCommand command2 = newCommand();
         setPath(command2, projectRoot.toString());
         setJson(command2, true);
         
@@ -413,7 +424,7 @@ class CheckCommandTest {
         Path projectRoot = tempDir.resolve("project");
         Files.createDirectories(projectRoot);
         
-        CheckCommand command = new CheckCommand();
+        CheckCommand command = newCommand();
         setPath(command, projectRoot.toString());
         setJson(command, true);
         // Note: showNa is false by default
@@ -445,7 +456,265 @@ class CheckCommandTest {
         }
     }
 
+    @Test
+    void testRecursiveJsonReportsEverySubProject() throws Exception {
+        Path projectRoot = tempDir.resolve("monorepo");
+        Files.createDirectories(projectRoot.resolve("services/api"));
+        Files.createDirectories(projectRoot.resolve("services/web"));
+        Files.createFile(projectRoot.resolve("services/api/go.mod"));
+        Files.createFile(projectRoot.resolve("services/web/compose.yml"));
+        
+        CheckCommand command = newCommand();
+        setPath(command, projectRoot.toString());
+        setJson(command, true);
+        java.lang.reflect.Field recursive = CheckCommand.class.getDeclaredField("recursive");
+        recursive.setAccessible(true);
+        recursive.set(command, true);
+        
+        redirectOutput();
+        
+        try {
+            Integer exitCode = command.call();
+            
+            ProjectsReport report = new ObjectMapper().readValue(outContent.toString(), ProjectsReport.class);
+            assertEquals(2, report.projects().size());
+            assertTrue(report.projects().get(0).project().root().endsWith("api"));
+            assertTrue(report.projects().get(1).project().root().endsWith("web"));
+            // System checks run once, for the first project only
+            assertTrue(report.projects().get(0).checks().stream().anyMatch(c -> c.id().equals("system.git")));
+            assertTrue(report.projects().get(1).checks().stream().noneMatch(c -> c.id().startsWith("system.")));
+            assertTrue(exitCode == 0 || exitCode == 1);
+        } finally {
+            restoreOutput();
+        }
+    }
+
+    @Test
+    void testRecursiveSubProjectsShareSystemCheckPrerequisites() throws Exception {
+        Path projectRoot = tempDir.resolve("node-monorepo");
+        for (String app : List.of("a", "b")) {
+            Path dir = Files.createDirectories(projectRoot.resolve("apps").resolve(app));
+            Files.writeString(dir.resolve("package.json"), "{}");
+            Files.writeString(dir.resolve(".nvmrc"), "18");
+        }
+
+        CheckCommand command = newCommand();
+        setPath(command, projectRoot.toString());
+        setJson(command, true);
+        setField(command, "recursive", true);
+
+        redirectOutput();
+        try {
+            command.call();
+
+            ProjectsReport report = new ObjectMapper().readValue(outContent.toString(), ProjectsReport.class);
+            assertEquals(2, report.projects().size());
+            // Both projects depend on the same system.node result, so they agree on the requirement
+            List<String> statuses = report.projects().stream()
+                .map(project -> project.checks().stream()
+                    .filter(check -> check.id().equals("project.node.requirements"))
+                    .findFirst().orElseThrow().status())
+                .toList();
+            assertEquals(statuses.get(0), statuses.get(1));
+        } finally {
+            restoreOutput();
+        }
+    }
+
+    @Test
+    void testWatchRerunsOnlyChecksReadingTheChangedFile() throws Exception {
+        Path projectRoot = tempDir.resolve("watched");
+        Files.createDirectories(projectRoot);
+        Files.writeString(projectRoot.resolve("package.json"), "{}");
+        Files.writeString(projectRoot.resolve(".nvmrc"), "18");
+
+        CheckCommand command = newCommand();
+        setPath(command, projectRoot.toString());
+        setField(command, "projectOnly", true);
+        setField(command, "watch", true);
+
+        redirectOutput();
+        try {
+            CompletableFuture<Integer> exitCode = new CompletableFuture<>();
+            Thread thread = new Thread(() -> exitCode.complete(command.call()));
+            thread.start();
+            awaitOutput("Watching for changes");
+
+            Files.writeString(projectRoot.resolve(".nvmrc"), "20");
+            awaitOutput("Re-ran 1 check(s)");
+            thread.interrupt();
+
+            int code = exitCode.get(30, TimeUnit.SECONDS);
+            assertTrue(code == 0 || code == 1);
+            assertTrue(outContent.toString().contains("after changes to .nvmrc"));
+        } finally {
+            restoreOutput();
+        }
+    }
+
+    @Test
+    void testWatchRerunsProbeAgainAfterTheToolChanged() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")), "Needs /bin/sh for the fake tool and the batch");
+        Path projectRoot = tempDir.resolve("python-watched");
+        Files.createDirectories(projectRoot);
+        Files.writeString(projectRoot.resolve("pyproject.toml"), "[project]\nname = \"watched\"\n");
+        Files.writeString(projectRoot.resolve(".python-version"), "3.11");
+        // python and python3 print the version in the file, so the batch holds two probes
+        Path bin = Files.createDirectories(tempDir.resolve("bin"));
+        Path version = tempDir.resolve("python-version.txt");
+        Files.writeString(version, "3.11.4");
+        for (String name : List.of("python", "python3")) {
+            Path tool = bin.resolve(name);
+            Files.writeString(tool, "#!/bin/sh\nread v < '" + version + "'\necho \"Python $v\"\n");
+            assertTrue(tool.toFile().setExecutable(true));
+        }
+
+        CheckCommand command = new CheckCommand(cacheDir, () -> new ExecutableResolver(bin.toString(), false));
+        setField(command, "noCache", true);
+        setPath(command, projectRoot.toString());
+        setField(command, "projectOnly", true);
+        setField(command, "batchProbes", true);
+        setField(command, "watch", true);
+
+        redirectOutput();
+        try {
+            CompletableFuture<Integer> exitCode = new CompletableFuture<>();
+            Thread thread = new Thread(() -> exitCode.complete(command.call()));
+            thread.start();
+            awaitOutput("Watching for changes");
+            assertTrue(outContent.toString().contains("Local: 3.11.4"));
+
+            // Upgrade the tool, then the requirement; the re-run must probe the new version
+            Files.writeString(version, "3.12.1");
+            Files.writeString(projectRoot.resolve(".python-version"), "3.12");
+            awaitOutput("Re-ran 1 check(s)");
+            thread.interrupt();
+
+            exitCode.get(30, TimeUnit.SECONDS);
+            assertTrue(outContent.toString().contains("Local: 3.12.1"), outContent.toString());
+        } finally {
+            restoreOutput();
+        }
+    }
+
+    @Test
+    void testWatchCannotBeCombinedWithJson() throws Exception {
+        CheckCommand command = newCommand();
+        setPath(command, tempDir.toString());
+        setJson(command, true);
+        setField(command, "watch", true);
+
+        redirectOutput();
+        try {
+            assertEquals(2, command.call());
+            assertTrue(errContent.toString().contains("--watch cannot be combined with --json"));
+        } finally {
+            restoreOutput();
+        }
+    }
+
+    @Test
+    void testCacheDirCannotBeCombinedWithNoCache() throws Exception {
+        Path sharedDir = tempDir.resolve("shared");
+        CheckCommand command = newCommand();
+        setPath(command, tempDir.toString());
+        setField(command, "cacheDir", sharedDir.toString());
+
+        redirectOutput();
+        try {
+            assertEquals(2, command.call());
+            assertTrue(errContent.toString().contains("--cache-dir cannot be combined with --no-cache"));
+        } finally {
+            restoreOutput();
+        }
+        assertFalse(Files.exists(sharedDir), "The shared cache must not be created");
+    }
+
+    @Test
+    void testNegativeMaxDepthIsRejectedWhileParsing() {
+        StringWriter err = new StringWriter();
+        CommandLine commandLine = new CommandLine(new CheckCommand(cacheDir));
+        commandLine.setErr(new PrintWriter(err));
+
+        assertEquals(2, commandLine.execute("--recursive", "--max-depth=-1"));
+        assertTrue(err.toString().contains("Invalid value for option '--max-depth': must not be negative, got -1"),
+            err.toString());
+    }
+
+    @Test
+    void testNonPositiveBudgetAndConcurrencyAreRejectedWhileParsing() {
+        assertParameterRejected("Invalid value for option '--budget': must be a positive number of milliseconds, "
+            + "got -5", "--budget=-5");
+        assertParameterRejected("Invalid value for option '--max-concurrency': must be at least 1, got 0",
+            "--max-concurrency=0");
+    }
+
+    private void assertParameterRejected(String message, String... args) {
+        StringWriter err = new StringWriter();
+        CommandLine commandLine = new CommandLine(new CheckCommand(cacheDir));
+        commandLine.setErr(new PrintWriter(err));
+
+        assertEquals(2, commandLine.execute(args));
+        assertTrue(err.toString().contains(message), err.toString());
+        assertFalse(err.toString().contains("Unexpected error"), err.toString());
+    }
+
+    @Test
+    void testCheckResultsAreStoredInTheUserCacheDirectory() throws Exception {
+        Path projectRoot = tempDir.resolve("cached");
+        Files.createDirectories(projectRoot);
+        Files.writeString(projectRoot.resolve("package.json"), "{}");
+        Files.writeString(projectRoot.resolve(".nvmrc"), "18");
+
+        CheckReport first = runCachedJson(projectRoot);
+        assertTrue(Files.isRegularFile(cacheDir.resolve("check-results.json")));
+        assertEquals(0, first.resultCache().hits());
+
+        CheckReport second = runCachedJson(projectRoot);
+        assertTrue(second.resultCache().hits() > 0, "Unchanged project checks should reuse stored results");
+    }
+
+    private CheckReport runCachedJson(Path projectRoot) throws Exception {
+        CheckCommand command = newCommand();
+        setField(command, "noCache", false);
+        setField(command, "projectOnly", true);
+        setPath(command, projectRoot.toString());
+        setJson(command, true);
+        redirectOutput();
+        try {
+            command.call();
+        } finally {
+            restoreOutput();
+        }
+        return new ObjectMapper().readValue(outContent.toString(), CheckReport.class);
+    }
+
+    /**
+     * Creates a command that neither reads nor writes the per-user caches, so results do not
+     * depend on earlier runs; tests of the caches turn them back on.
+     */
+    private CheckCommand newCommand() throws Exception {
+        CheckCommand command = new CheckCommand(cacheDir);
+        setField(command, "noCache", true);
+        return command;
+    }
+
+    private void awaitOutput(String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!outContent.toString().contains(expected)) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for: " + expected);
+            Thread.sleep(50);
+        }
+    }
+
     // Helper methods to set private fields via reflection
+    private void setField(CheckCommand command, String name, Object value) throws Exception {
+        java.lang.reflect.Field field = CheckCommand.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(command, value);
+    }
+
+
     private void setPath(CheckCommand command, String path) throws Exception {
         java.lang.reflect.Field field = CheckCommand.class.getDeclaredField("path");
         field.setAccessible(true);
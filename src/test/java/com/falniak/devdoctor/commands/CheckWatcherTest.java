@@ -0,0 +1,82 @@
+package com.falniak.devdoctor.commands;
+
+import com.falniak.devdoctor.check.Check;
+import com.falniak.devdoctor.check.CheckContext;
+import com.falniak.devdoctor.check.FakeProcessExecutor;
+import com.falniak.devdoctor.check.GitCheck;
+import com.falniak.devdoctor.check.requirements.JavaRequirementCheck;
+import com.falniak.devdoctor.check.requirements.NodeRequirementCheck;
+import com.falniak.devdoctor.detect.DetectionResult;
+import com.falniak.devdoctor.detect.ProjectType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testBurstOfChangesIsReportedOnce() throws Exception {
+        try (CheckWatcher watcher = new CheckWatcher(List.of(tempDir), Duration.ofMillis(300))) {
+            CompletableFuture<Set<Path>> changes = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return watcher.awaitChanges();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            for (String name : List.of(".nvmrc", "package.json", "go.mod")) {
+                Files.writeString(tempDir.resolve(name), "1");
+                Thread.sleep(20);
+            }
+
+            Set<Path> changed = changes.get(30, TimeUnit.SECONDS);
+
+            assertTrue(changed.containsAll(Set.of(
+                tempDir.resolve(".nvmrc"), tempDir.resolve("package.json"), tempDir.resolve("go.mod"))), changed.toString());
+        }
+    }
+
+    @Test
+    void testClosingEndsTheWait() throws Exception {
+        CheckWatcher watcher = new CheckWatcher(List.of(tempDir), CheckWatcher.DEFAULT_DEBOUNCE);
+        CompletableFuture<Set<Path>> changes = CompletableFuture.supplyAsync(() -> {
+            try {
+                return watcher.awaitChanges();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        watcher.close();
+
+        assertEquals(Set.of(), changes.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testOnlyChecksReadingAChangedFileAreAffected() {
+        Set<ProjectType> types = Set.of(ProjectType.NODE, ProjectType.JAVA_MAVEN);
+        CheckContext ctx = new CheckContext(tempDir, tempDir, types,
+            new DetectionResult(tempDir, types, List.of("pom.xml", "package.json")), new FakeProcessExecutor());
+        Check node = new NodeRequirementCheck();
+        Check java = new JavaRequirementCheck();
+        List<Check> checks = List.of(new GitCheck(), java, node);
+
+        assertEquals(List.of(node),
+            CheckWatcher.affectedChecks(checks, ctx, Set.of(tempDir.resolve(".nvmrc"), tempDir.resolve("sub/pom.xml"))));
+        assertEquals(List.of(java, node),
+            CheckWatcher.affectedChecks(checks, ctx, Set.of(tempDir.resolve("package.json"), tempDir.resolve("pom.xml"))));
+        assertEquals(List.of(), CheckWatcher.affectedChecks(checks, ctx, Set.of(tempDir.resolve("README.md"))));
+    }
+}
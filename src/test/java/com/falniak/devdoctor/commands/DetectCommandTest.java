@@ -0,0 +1,24 @@
+package com.falniak.devdoctor.commands;
+
+import org.junit.jupiter.api.Test;
+import picocli.CommandLine;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectCommandTest {
+
+    @Test
+    void testNegativeMaxDepthIsRejectedWhileParsing() {
+        StringWriter err = new StringWriter();
+        CommandLine commandLine = new CommandLine(new DetectCommand());
+        commandLine.setErr(new PrintWriter(err));
+
+        assertEquals(2, commandLine.execute("--recursive", "--max-depth=-1"));
+        assertTrue(err.toString().contains("Invalid value for option '--max-depth': must not be negative, got -1"),
+            err.toString());
+        assertFalse(err.toString().contains("IllegalArgumentException"), err.toString());
+    }
+}
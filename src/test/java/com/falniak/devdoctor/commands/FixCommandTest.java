@@ -1,5 +1,6 @@
 package com.falniak.devdoctor.commands;
 
+import com.falniak.devdoctor.cache.ProbeCache;
 import com.falniak.devdoctor.check.Check;
 import com.falniak.devdoctor.check.CheckContext;
 import com.falniak.devdoctor.check.CheckResult;
@@ -18,10 +19,13 @@ import com.falniak.devdoctor.fix.FixPlanner;
 import com.falniak.devdoctor.fix.Risk;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.EnumSet;
@@ -35,6 +39,9 @@ class FixCommandTest {
     @TempDir
     Path tempDir;
 
+    @TempDir
+    Path cacheDir;
+
     @Test
     void testDockerFailProducesCautionAction() throws Exception {
         // Create a FakeProcessExecutor that fails docker check
@@ -92,7 +99,7 @@ class FixCommandTest {
         assertNotNull(cautionAction, "Should have CAUTION action");
 
         // Create FixCommand with --apply --yes
-        FixCommand command = new FixCommand();
+        FixCommand command = newCommand();
         setApply(command, true);
         setYes(command, true);
         setPath(command, tempDir.toString());
@@ -149,7 +156,7 @@ class FixCommandTest {
         Path projectRoot = tempDir.resolve("project");
         Files.createDirectories(projectRoot);
         
-        FixCommand command = new FixCommand();
+        FixCommand command = newCommand();
         setPath(command, projectRoot.toString());
         
         redirectOutput();
@@ -228,7 +235,7 @@ class FixCommandTest {
         Path projectRoot = tempDir.resolve("project");
         Files.createDirectories(projectRoot);
         
-        FixCommand command = new FixCommand();
+        FixCommand command = newCommand();
         setPath(command, projectRoot.toString());
         setYes(command, true);
         setApply(command, false);
@@ -250,7 +257,7 @@ class FixCommandTest {
         Path projectRoot = tempDir.resolve("project");
         Files.createDirectories(projectRoot);
         
-        FixCommand command = new FixCommand();
+        FixCommand command = newCommand();
         setPath(command, projectRoot.toString());
         setApply(command, true);
         setYes(command, true);
@@ -349,6 +356,45 @@ class FixCommandTest {
     }
 
     // Helper methods to set private fields via reflection
+    @Test
+    void testKeepsProbeCacheInGivenDirectory() throws Exception {
+        Path projectRoot = tempDir.resolve("project");
+        Files.createDirectories(projectRoot);
+
+        FixCommand command = newCommand();
+        setPath(command, projectRoot.toString());
+
+        redirectOutput();
+        try {
+            command.call();
+        } finally {
+            restoreOutput();
+        }
+
+        assertTrue(Files.isRegularFile(cacheDir.resolve(ProbeCache.FILE_NAME)),
+            "Probe results should be stored in the command's cache directory");
+    }
+
+    @Test
+    void testNonPositiveBudgetAndConcurrencyAreRejectedWhileParsing() {
+        for (String option : List.of("--budget=-5", "--max-concurrency=0")) {
+            StringWriter err = new StringWriter();
+            CommandLine commandLine = new CommandLine(newCommand());
+            commandLine.setErr(new PrintWriter(err));
+
+            assertEquals(2, commandLine.execute(option));
+            assertTrue(err.toString().contains("Invalid value for option '" + option.substring(0, option.indexOf('='))
+                + "'"), err.toString());
+        }
+    }
+
+    /**
+     * Creates a command whose per-user caches live in a temporary directory.
+     */
+    private FixCommand newCommand() {
+        return new FixCommand(cacheDir);
+    }
+
     private void setPath(FixCommand command, String path) throws Exception {
         java.lang.reflect.Field field = FixCommand.class.getDeclaredField("path");
         field.setAccessible(true);
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -269,6 +270,125 @@ class ConfigLoaderTest {
         assertTrue(exception.getMessage().contains("must contain only integers"));
     }
 
+    @Test
+    void testCheckTimeoutsAreParsed() throws IOException {
+        String yaml = """
+            check_timeouts:
+              default: 10000
+              system.docker: 3000
+            """;
+        
+        Path configFile = tempDir.resolve(".devdoctor.yml");
+        Files.writeString(configFile, yaml);
+        
+        ConfigLoader loader = new ConfigLoader();
+        DevDoctorConfig config = loader.loadFromExplicitPath(configFile);
+        
+        assertEquals(Map.of("default", 10000L, "system.docker", 3000L), config.checkTimeouts());
+    }
+
+    @Test
+    void testCheckTimeoutsMustBeMapping() throws IOException {
+        String yaml = """
+            check_timeouts:
+              - 3000
+            """;
+        
+        Path configFile = tempDir.resolve(".devdoctor.yml");
+        Files.writeString(configFile, yaml);
+        
+        ConfigLoader loader = new ConfigLoader();
+        ConfigException exception = assertThrows(ConfigException.class, () -> {
+            loader.loadFromExplicitPath(configFile);
+        });
+        
+        assertTrue(exception.getMessage().contains("must be a mapping"));
+    }
+
+    @Test
+    void testCheckTimeoutsMustBePositive() throws IOException {
+        String yaml = """
+            check_timeouts:
+              system.docker: 0
+            """;
+        
+        Path configFile = tempDir.resolve(".devdoctor.yml");
+        Files.writeString(configFile, yaml);
+        
+        ConfigLoader loader = new ConfigLoader();
+        ConfigException exception = assertThrows(ConfigException.class, () -> {
+            loader.loadFromExplicitPath(configFile);
+        });
+        
+        assertTrue(exception.getMessage().contains("must be positive"));
+    }
+
+    @Test
+    void testCheckCacheTtlAllowsZero() throws IOException {
+        String yaml = """
+            check_cache_ttl:
+              default: 600000
+              system.docker: 0
+            """;
+        
+        Path configFile = tempDir.resolve(".devdoctor.yml");
+        Files.writeString(configFile, yaml);
+        
+        ConfigLoader loader = new ConfigLoader();
+        DevDoctorConfig config = loader.loadFromExplicitPath(configFile);
+        
+        assertEquals(Map.of("default", 600000L, "system.docker", 0L), config.checkCacheTtl());
+        assertEquals(Map.of(), config.checkTimeouts());
+    }
+
+    @Test
+    void testCommandTimeoutsAndAdaptiveTimeoutsAreParsed() throws IOException {
+        String yaml = """
+            command_timeouts:
+              default: 8000
+              npm ci: 120000
+            adaptive_timeouts: true
+            """;
+        
+        Path configFile = tempDir.resolve(".devdoctor.yml");
+        Files.writeString(configFile, yaml);
+        
+        ConfigLoader loader = new ConfigLoader();
+        DevDoctorConfig config = loader.loadFromExplicitPath(configFile);
+        
+        assertEquals(Map.of("default", 8000L, "npm ci", 120000L), config.commandTimeouts());
+        assertTrue(config.adaptiveTimeouts());
+    }
+
+    @Test
+    void testAdaptiveTimeoutsDefaultsToFalse() throws IOException {
+        Path configFile = tempDir.resolve(".devdoctor.yml");
+        Files.writeString(configFile, "ports:\n  - 8080\n");
+        
+        ConfigLoader loader = new ConfigLoader();
+        DevDoctorConfig config = loader.loadFromExplicitPath(configFile);
+        
+        assertFalse(config.adaptiveTimeouts());
+        assertTrue(config.commandTimeouts().isEmpty());
+    }
+
+    @Test
+    void testAdaptiveTimeoutsMustBeBoolean() throws IOException {
+        String yaml = """
+            adaptive_timeouts: sometimes
+            """;
+        
+        Path configFile = tempDir.resolve(".devdoctor.yml");
+        Files.writeString(configFile, yaml);
+        
+        ConfigLoader loader = new ConfigLoader();
+        ConfigException exception = assertThrows(ConfigException.class, () -> {
+            loader.loadFromExplicitPath(configFile);
+        });
+        
+        assertTrue(exception.getMessage().contains("must be true or false"));
+    }
+
     @Test
     void testDefaultConfigPath() {
         ConfigLoader loader = new ConfigLoader();
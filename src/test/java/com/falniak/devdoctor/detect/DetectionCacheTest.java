@@ -0,0 +1,146 @@
+package com.falniak.devdoctor.detect;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectionCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ProjectWalker walker = new ProjectWalker(new ProjectDetector(), 10, 2);
+
+    @Test
+    void testUnchangedDirectoriesAreNotListedAgain() throws Exception {
+        createProject("services/api", "pom.xml");
+        createProject("services/web", "package.json");
+        Files.createDirectories(tempDir.resolve("docs"));
+        ageDirectories();
+
+        DetectionCache first = load();
+        List<DetectionResult> expected = walker.walk(tempDir, first);
+        first.save();
+        assertEquals(5, first.misses());
+        assertTrue(Files.isRegularFile(tempDir.resolve(DetectionCache.RELATIVE_PATH)));
+
+        DetectionCache second = load();
+        List<DetectionResult> cached = walker.walk(tempDir, second);
+
+        assertEquals(roots(expected), roots(cached));
+        assertEquals(expected.get(1).markersFound(), cached.get(1).markersFound());
+        assertEquals(expected.get(1).types(), cached.get(1).types());
+        // The root is listed again because the cache directory was created in it; everything below is reused
+        assertEquals(4, second.hits());
+        assertEquals(1, second.misses());
+    }
+
+    @Test
+    void testChangedDirectoriesAreListedAgain() throws Exception {
+        createProject("services/api", "pom.xml");
+        for (int i = 0; i < 2; i++) {
+            // The second walk records the root including the cache directory created by the first
+            ageDirectories();
+            DetectionCache warmUp = load();
+            walker.walk(tempDir, warmUp);
+            warmUp.save();
+        }
+
+        createProject("services/worker", "go.mod");
+        Files.delete(tempDir.resolve("services/api/pom.xml"));
+        DetectionCache second = load();
+        List<DetectionResult> results = walker.walk(tempDir, second);
+
+        assertEquals(List.of(tempDir.resolve("services/worker")), roots(results));
+        assertEquals(1, second.hits(), "Only the unchanged root is reused");
+    }
+
+    @Test
+    void testSameEntryNamesRevalidateWithoutRecomputing() throws Exception {
+        createProject("app", "package.json");
+        ageDirectories();
+        DetectionCache first = load();
+        walker.walk(tempDir, first);
+        first.save();
+
+        // Replacing a file by renaming over it changes the directory time but not its names
+        Path replacement = Files.writeString(tempDir.resolve("app/package.json.tmp"), "{}");
+        Files.move(replacement, tempDir.resolve("app/package.json"),
+            java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        DetectionCache second = load();
+        List<DetectionResult> results = walker.walk(tempDir, second);
+
+        assertEquals(List.of(tempDir.resolve("app")), roots(results));
+        assertEquals(1, second.revalidated());
+    }
+
+    @Test
+    void testFileReplacedByDirectoryIsWalkedInto() throws Exception {
+        createProject("app", "package.json");
+        Files.writeString(tempDir.resolve("app/tools"), "#!/bin/sh\n");
+        ageDirectories();
+        DetectionCache first = load();
+        walker.walk(tempDir, first);
+        first.save();
+
+        // Same entry names as before, but one of them is now a directory holding a sub-project
+        Files.delete(tempDir.resolve("app/tools"));
+        createProject("app/tools", "go.mod");
+        DetectionCache second = load();
+        List<DetectionResult> results = walker.walk(tempDir, second);
+
+        assertEquals(List.of(tempDir.resolve("app"), tempDir.resolve("app/tools")), roots(results));
+    }
+
+    @Test
+    void testCorruptOrForeignCacheIsIgnored() throws Exception {
+        createProject("app", "Cargo.toml");
+        Path file = Files.createDirectories(tempDir.resolve(DetectionCache.RELATIVE_PATH).getParent())
+            .resolve("detect.bin");
+        Files.write(file, new byte[] {1, 2, 3});
+
+        assertEquals(List.of(tempDir.resolve("app")), roots(walker.walk(tempDir, load())));
+
+        DetectionCache first = load();
+        walker.walk(tempDir, first);
+        first.save();
+        DetectionCache otherRules = DetectionCache.load(tempDir, new MarkerRegistry(List.of(
+            MarkerRule.exact("Cargo.toml", ProjectType.RUST_CARGO))));
+        walker.walk(tempDir, otherRules);
+        assertEquals(0, otherRules.hits() + otherRules.revalidated());
+    }
+
+    private DetectionCache load() {
+        return DetectionCache.load(tempDir, MarkerRegistry.defaultRegistry());
+    }
+
+    private void createProject(String dir, String marker) throws Exception {
+        Files.createFile(Files.createDirectories(tempDir.resolve(dir)).resolve(marker));
+    }
+
+    /**
+     * Moves directory times out of the window in which the cache does not trust them.
+     */
+    private void ageDirectories() throws Exception {
+        FileTime old = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        try (Stream<Path> paths = Files.walk(tempDir)) {
+            for (Path path : paths.filter(Files::isDirectory).collect(Collectors.toList())) {
+                Files.setLastModifiedTime(path, old);
+            }
+        }
+    }
+
+    private static List<Path> roots(List<DetectionResult> results) {
+        return results.stream().map(DetectionResult::root).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,88 @@
+package com.falniak.devdoctor.detect;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IgnoreMatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testBuiltInDenyListMatchesDirectoriesAnywhere() {
+        IgnoreMatcher matcher = IgnoreMatcher.builtIn();
+
+        for (String name : IgnoreMatcher.BUILT_IN_DIRECTORIES) {
+            assertTrue(matcher.isIgnored(tempDir.resolve("a/b").resolve(name), true), name);
+        }
+        assertFalse(matcher.isIgnored(tempDir.resolve("build"), false), "Files named like a denied directory are kept");
+        assertFalse(matcher.isIgnored(tempDir.resolve("src"), true));
+        assertFalse(IgnoreMatcher.none().isIgnored(tempDir.resolve("node_modules"), true));
+    }
+
+    @Test
+    void testGitignoreSyntax() {
+        IgnoreMatcher matcher = IgnoreMatcher.none().withPatterns(tempDir, List.of(
+            "# generated",
+            "",
+            "*.log",
+            "out/",
+            "/dist",
+            "docs/api",
+            "**/cache",
+            "**/gen/out",
+            "tmp-[0-9]",
+            "logs/**"
+        ));
+
+        assertTrue(matcher.isIgnored(tempDir.resolve("x/server.log"), false));
+        assertTrue(matcher.isIgnored(tempDir.resolve("x/out"), true));
+        assertFalse(matcher.isIgnored(tempDir.resolve("x/out"), false), "Trailing slash only matches directories");
+        assertTrue(matcher.isIgnored(tempDir.resolve("dist"), true));
+        assertFalse(matcher.isIgnored(tempDir.resolve("x/dist"), true), "Leading slash anchors to the ignore file");
+        assertTrue(matcher.isIgnored(tempDir.resolve("docs/api"), true));
+        assertFalse(matcher.isIgnored(tempDir.resolve("x/docs/api"), true));
+        assertTrue(matcher.isIgnored(tempDir.resolve("a/b/cache"), true));
+        assertTrue(matcher.isIgnored(tempDir.resolve("gen/out"), true));
+        assertTrue(matcher.isIgnored(tempDir.resolve("x/gen/out"), true), "Leading **/ matches at any depth");
+        assertFalse(matcher.isIgnored(tempDir.resolve("x/gen"), true));
+        assertTrue(matcher.isIgnored(tempDir.resolve("tmp-3"), true));
+        assertFalse(matcher.isIgnored(tempDir.resolve("tmp-x"), true));
+        assertTrue(matcher.isIgnored(tempDir.resolve("logs/2026/01"), true));
+        assertFalse(matcher.isIgnored(tempDir.resolve("logs"), true));
+    }
+
+    @Test
+    void testLastMatchWinsAndDeeperFilesOverride() {
+        IgnoreMatcher matcher = IgnoreMatcher.builtIn()
+            .withPatterns(tempDir, List.of("generated*", "!generated-keep", "!build/"));
+
+        assertTrue(matcher.isIgnored(tempDir.resolve("generated-src"), true));
+        assertFalse(matcher.isIgnored(tempDir.resolve("generated-keep"), true));
+        assertFalse(matcher.isIgnored(tempDir.resolve("build"), true), "Negation re-includes a built-in directory");
+        assertTrue(matcher.isIgnored(tempDir.resolve("target"), true));
+
+        IgnoreMatcher nested = matcher.withPatterns(tempDir.resolve("sub"), List.of("!generated-src"));
+        assertFalse(nested.isIgnored(tempDir.resolve("sub/generated-src"), true));
+    }
+
+    @Test
+    void testForDirectoryReadsBothIgnoreFiles() throws Exception {
+        Files.writeString(tempDir.resolve(".gitignore"), "from-git/\n");
+        Files.writeString(tempDir.resolve(".devdoctorignore"), "from-devdoctor\n");
+
+        IgnoreMatcher matcher = IgnoreMatcher.builtIn().forDirectory(tempDir);
+
+        assertTrue(matcher.isIgnored(tempDir.resolve("from-git"), true));
+        assertTrue(matcher.isIgnored(tempDir.resolve("from-devdoctor"), true));
+        assertTrue(matcher.isIgnored(tempDir.resolve("vendor"), true));
+        Path empty = Files.createDirectories(tempDir.resolve("empty"));
+        assertSame(IgnoreMatcher.builtIn(), IgnoreMatcher.builtIn().forDirectory(empty));
+    }
+}
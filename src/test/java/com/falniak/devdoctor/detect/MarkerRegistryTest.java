@@ -0,0 +1,74 @@
+package com.falniak.devdoctor.detect;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarkerRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMatchesExactNamesExtensionsAndGlobs() {
+        MarkerRule gradleKts = MarkerRule.extension(".gradle.kts", ProjectType.JAVA_GRADLE);
+        MarkerRule requirements = MarkerRule.glob("requirements-*.txt", ProjectType.PYTHON_REQUIREMENTS);
+        MarkerRegistry registry = new MarkerRegistry(List.of(
+            MarkerRule.exact("pom.xml", ProjectType.JAVA_MAVEN),
+            gradleKts,
+            requirements
+        ));
+
+        assertEquals(List.of(MarkerRule.exact("pom.xml", ProjectType.JAVA_MAVEN)), registry.match("pom.xml"));
+        assertEquals(List.of(gradleKts), registry.match("settings.gradle.kts"));
+        assertEquals(List.of(requirements), registry.match("requirements-dev.txt"));
+        assertTrue(registry.match("README.md").isEmpty());
+        assertTrue(registry.match("pom.xml.bak").isEmpty());
+    }
+
+    @Test
+    void testBuiltInRulesCoverEveryMarker() {
+        MarkerRegistry registry = MarkerRegistry.builtIn();
+
+        assertEquals(ProjectType.DOTNET_SOLUTION, registry.match("App.sln").get(0).type());
+        assertEquals(ProjectType.GO_MODULES, registry.match("go.mod").get(0).type());
+        assertTrue(registry.match("go.sum").isEmpty());
+    }
+
+    @Test
+    void testRejectsInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> MarkerRule.extension("csproj", ProjectType.DOTNET_CSHARP_PROJECT));
+        assertThrows(IllegalArgumentException.class, () -> MarkerRule.exact("sub/pom.xml", ProjectType.JAVA_MAVEN));
+        assertThrows(IllegalArgumentException.class, () -> MarkerRule.exact("pom.xml", null));
+    }
+
+    @Test
+    void testDetectorUsesCustomRules() throws Exception {
+        Files.createFile(tempDir.resolve("Makefile"));
+        Files.createFile(tempDir.resolve("pom.xml"));
+        ProjectDetector detector = new ProjectDetector(new MarkerRegistry(List.of(
+            MarkerRule.exact("Makefile", ProjectType.GO_MODULES)
+        )));
+
+        DetectionResult result = detector.detect(tempDir);
+
+        assertEquals(Set.of(ProjectType.GO_MODULES), result.types());
+        assertEquals(List.of("Makefile"), result.markersFound());
+    }
+
+    @Test
+    void testDefaultRegistryIncludesServiceLoaderProviders() throws Exception {
+        Files.createFile(tempDir.resolve(TestMarkerRuleProvider.MARKER));
+
+        DetectionResult result = new ProjectDetector().detect(tempDir);
+
+        assertEquals(Set.of(ProjectType.RUST_CARGO), result.types());
+        assertTrue(MarkerRegistry.defaultRegistry().rules().containsAll(MarkerRegistry.BUILT_IN_RULES));
+    }
+}
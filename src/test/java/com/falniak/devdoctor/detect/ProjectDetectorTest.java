@@ -5,6 +5,7 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -328,6 +329,36 @@ class ProjectDetectorTest {
         assertTrue(result.markersFound().contains("Solution.sln"));
     }
 
+    @Test
+    void testMarkersAreReportedInStableOrder() throws Exception {
+        Files.createFile(tempDir.resolve("b.csproj"));
+        Files.createFile(tempDir.resolve("compose.yaml"));
+        Files.createFile(tempDir.resolve("a.csproj"));
+        Files.createFile(tempDir.resolve("docker-compose.yml"));
+        Files.createFile(tempDir.resolve("pom.xml"));
+        Files.createFile(tempDir.resolve("README.md"));
+
+        ProjectDetector detector = new ProjectDetector();
+        DetectionResult result = detector.detect(tempDir);
+
+        assertEquals(
+            List.of("pom.xml", "docker-compose.yml", "compose.yaml", "a.csproj", "b.csproj"),
+            result.markersFound()
+        );
+    }
+
+    @Test
+    void testDirectoriesNamedLikeMarkersAreIgnored() throws Exception {
+        Files.createDirectory(tempDir.resolve("pom.xml"));
+        Files.createDirectory(tempDir.resolve("tools.sln"));
+
+        ProjectDetector detector = new ProjectDetector();
+        DetectionResult result = detector.detect(tempDir);
+
+        assertTrue(result.types().isEmpty());
+        assertTrue(result.markersFound().isEmpty());
+    }
+
     // Multi-type detection tests
     @Test
     void testDetectPythonAndDockerCompose() throws Exception {
@@ -0,0 +1,97 @@
+package com.falniak.devdoctor.detect;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectWalkerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFindsNestedProjectsInDeterministicOrder() throws Exception {
+        Files.createFile(tempDir.resolve("pom.xml"));
+        for (String service : List.of("zeta", "alpha", "mid")) {
+            Path dir = Files.createDirectories(tempDir.resolve("services").resolve(service));
+            Files.createFile(dir.resolve("package.json"));
+        }
+        Path nested = Files.createDirectories(tempDir.resolve("services/alpha/tools/gen"));
+        Files.createFile(nested.resolve("go.mod"));
+        Files.createDirectories(tempDir.resolve("docs/empty"));
+
+        List<DetectionResult> results = new ProjectWalker(new ProjectDetector(), 10, 4).walk(tempDir);
+
+        assertEquals(List.of(
+            tempDir,
+            tempDir.resolve("services/alpha"),
+            tempDir.resolve("services/alpha/tools/gen"),
+            tempDir.resolve("services/mid"),
+            tempDir.resolve("services/zeta")
+        ), roots(results));
+        assertEquals(Set.of(ProjectType.GO_MODULES), results.get(2).types());
+        assertEquals(List.of("package.json"), results.get(1).markersFound());
+    }
+
+    @Test
+    void testRespectsMaxDepth() throws Exception {
+        Path shallow = Files.createDirectories(tempDir.resolve("a"));
+        Files.createFile(shallow.resolve("pom.xml"));
+        Path deep = Files.createDirectories(tempDir.resolve("a/b/c"));
+        Files.createFile(deep.resolve("pom.xml"));
+
+        assertEquals(List.of(shallow), roots(new ProjectWalker(new ProjectDetector(), 2, 2).walk(tempDir)));
+        assertEquals(List.of(), roots(new ProjectWalker(new ProjectDetector(), 0, 2).walk(tempDir)));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void testSymlinkLoopsTerminate() throws Exception {
+        Path root = tempDir.toRealPath();
+        Path project = Files.createDirectories(root.resolve("project"));
+        Files.createFile(project.resolve("Cargo.toml"));
+        Files.createSymbolicLink(project.resolve("loop"), root);
+        Path other = Files.createDirectories(root.resolve("other"));
+        Files.createFile(other.resolve("go.mod"));
+        Files.createSymbolicLink(root.resolve("link-to-other"), other);
+
+        List<DetectionResult> results = new ProjectWalker(new ProjectDetector(), 50, 4).walk(root);
+
+        // A link to a sibling reaches a project found anyway; a link to an ancestor is not followed
+        assertEquals(List.of(other, project), roots(results));
+    }
+
+    @Test
+    void testPrunesDeniedAndIgnoredDirectories() throws Exception {
+        Files.createFile(tempDir.resolve("package.json"));
+        Files.writeString(tempDir.resolve(".gitignore"), "generated/\n");
+        Files.writeString(tempDir.resolve(".devdoctorignore"), "!vendor/\n");
+        for (String dir : List.of("node_modules/left-pad", "generated/client", "vendor/lib", "app")) {
+            Files.createFile(Files.createDirectories(tempDir.resolve(dir)).resolve("package.json"));
+        }
+        Path nested = Files.createDirectories(tempDir.resolve("app/sub"));
+        Files.writeString(tempDir.resolve("app/.gitignore"), "sub\n");
+        Files.createFile(nested.resolve("go.mod"));
+
+        List<DetectionResult> results = new ProjectWalker(new ProjectDetector(), 10, 2).walk(tempDir);
+
+        assertEquals(List.of(tempDir, tempDir.resolve("app"), tempDir.resolve("vendor/lib")), roots(results));
+        // Without the deny list, ignore files found while walking still apply
+        assertEquals(List.of(tempDir, tempDir.resolve("app"), tempDir.resolve("node_modules/left-pad"),
+                tempDir.resolve("vendor/lib")),
+            roots(new ProjectWalker(new ProjectDetector(), IgnoreMatcher.none(), 10, 2).walk(tempDir)));
+    }
+
+    private static List<Path> roots(List<DetectionResult> results) {
+        return results.stream().map(DetectionResult::root).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,16 @@
+package com.falniak.devdoctor.detect;
+
+import java.util.List;
+
+/**
+ * Provider registered in the test classpath's service file, to exercise ServiceLoader discovery.
+ */
+public class TestMarkerRuleProvider implements MarkerRuleProvider {
+
+    static final String MARKER = "devdoctor-test.marker";
+
+    @Override
+    public List<MarkerRule> rules() {
+        return List.of(MarkerRule.exact(MARKER, ProjectType.RUST_CARGO));
+    }
+}